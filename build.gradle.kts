@@ -7,6 +7,7 @@ plugins {
     application
     idea
     id("org.jetbrains.kotlin.jvm") version kotlinVersion
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 repositories {
@@ -80,6 +81,11 @@ tasks.withType<KotlinCompile>().all {
     kotlinOptions.jvmTarget = "11"
 }
 
+jmh {
+    // Reports the allocation rate of every benchmark.
+    profilers.add("gc")
+}
+
 tasks.named<Test>("test") {
     useJUnitPlatform()
 }
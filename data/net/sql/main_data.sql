@@ -22,6 +22,12 @@ CREATE TABLE IF NOT EXISTS `main_data` (
   `bot` bit(1) NOT NULL,
   `rights` varchar(50) NOT NULL,
   `json_data` text NOT NULL,
+  `skills_json` text DEFAULT NULL,
+  `inventory_json` text DEFAULT NULL,
+  `bank_json` text DEFAULT NULL,
+  `equipment_json` text DEFAULT NULL,
+  `attributes_json` text DEFAULT NULL,
+  `appearance_json` text DEFAULT NULL,
   PRIMARY KEY (`id`),
   UNIQUE KEY `username` (`username`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
@@ -0,0 +1,9 @@
+-- Adds the columns that store each section of player data separately, for databases created before they existed.
+-- Existing records are converted the next time they're saved with all of their data.
+ALTER TABLE `main_data`
+  ADD COLUMN `skills_json` text DEFAULT NULL AFTER `json_data`,
+  ADD COLUMN `inventory_json` text DEFAULT NULL AFTER `skills_json`,
+  ADD COLUMN `bank_json` text DEFAULT NULL AFTER `inventory_json`,
+  ADD COLUMN `equipment_json` text DEFAULT NULL AFTER `bank_json`,
+  ADD COLUMN `attributes_json` text DEFAULT NULL AFTER `equipment_json`,
+  ADD COLUMN `appearance_json` text DEFAULT NULL AFTER `attributes_json`;
@@ -0,0 +1,75 @@
+package io.luna.game.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures walking across tiles and using them as hash keys, the way walking queues and pathfinding do. Run with
+ * {@code ./gradlew jmh}, the {@code gc} profiler reports the allocation rate.
+ *
+ * @author lare96
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PositionBenchmark {
+
+    /**
+     * The size of the walked area, in tiles.
+     */
+    private static final int SIZE = 64;
+
+    /**
+     * The tiles of the walked area.
+     */
+    private Map<Position, Integer> tiles;
+
+    /**
+     * Creates the tiles of the walked area.
+     */
+    @Setup
+    public void setup() {
+        tiles = new HashMap<>();
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < SIZE; y++) {
+                tiles.put(new Position(3200 + x, 3200 + y), x + y);
+            }
+        }
+    }
+
+    /**
+     * Walks across the area one step at a time, looking up every tile.
+     */
+    @Benchmark
+    public void walk(Blackhole blackhole) {
+        Position position = new Position(3200, 3200);
+        for (int step = 1; step < SIZE; step++) {
+            position = position.translate(1, 1);
+            blackhole.consume(tiles.get(position));
+        }
+    }
+
+    /**
+     * Hashes a tile.
+     */
+    @Benchmark
+    public int hash() {
+        return Position.of(3222, 3218, 0).hashCode();
+    }
+}
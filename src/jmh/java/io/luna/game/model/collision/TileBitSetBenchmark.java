@@ -0,0 +1,221 @@
+package io.luna.game.model.collision;
+
+import com.google.common.collect.HashMultimap;
+import io.luna.game.model.Position;
+import io.luna.game.model.chunk.Chunk;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link TileBitSet} against the {@link HashMultimap} of blocked tiles and {@link HashSet} of bridged tiles
+ * that {@link CollisionManager} used before it. The workload is 1,500 synthetic regions with 10% of tiles blocked and
+ * 1% bridged. Run with {@code ./gradlew jmh}.
+ *
+ * @author lare96
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class TileBitSetBenchmark {
+
+    /**
+     * The amount of regions along the {@code x} axis.
+     */
+    private static final int REGIONS_X = 50;
+
+    /**
+     * The amount of regions along the {@code y} axis.
+     */
+    private static final int REGIONS_Y = 30;
+
+    /**
+     * The region coordinates of the first region.
+     */
+    private static final int BASE_REGION = 40;
+
+    /**
+     * The amount of bridge lookups made by {@link #probeOld(Blackhole)} and {@link #probeNew(Blackhole)}.
+     */
+    private static final int PROBES = 1_300_000;
+
+    /**
+     * The packed coordinates of the blocked tiles.
+     */
+    private int[] blockedTiles;
+
+    /**
+     * The packed coordinates of the bridged tiles.
+     */
+    private int[] bridgedTiles;
+
+    /**
+     * The packed coordinates of the probed tiles.
+     */
+    private int[] probedTiles;
+
+    /**
+     * Every chunk containing blocked tiles.
+     */
+    private List<Chunk> chunks;
+
+    /**
+     * The blocked tiles, stored the old way.
+     */
+    private HashMultimap<Chunk, Position> oldBlocked;
+
+    /**
+     * The bridged tiles, stored the old way.
+     */
+    private Set<Position> oldBridges;
+
+    /**
+     * The blocked tiles.
+     */
+    private TileBitSet newBlocked;
+
+    /**
+     * The bridged tiles.
+     */
+    private TileBitSet newBridges;
+
+    /**
+     * Generates the tiles, and stores them both ways.
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(17);
+        int baseX = BASE_REGION * 64;
+        int baseY = BASE_REGION * 64;
+        int width = REGIONS_X * 64;
+        int height = REGIONS_Y * 64;
+        List<Integer> blocked = new ArrayList<>();
+        List<Integer> bridged = new ArrayList<>();
+        Set<Chunk> blockedChunks = new LinkedHashSet<>();
+        for (int z = 0; z < 4; z++) {
+            for (int x = baseX; x < baseX + width; x++) {
+                for (int y = baseY; y < baseY + height; y++) {
+                    if (random.nextInt(100) < 10) {
+                        blocked.add(Position.pack(x, y, z));
+                        blockedChunks.add(Position.of(x, y, z).getChunk());
+                    }
+                    if (random.nextInt(100) < 1) {
+                        bridged.add(Position.pack(x, y, z));
+                    }
+                }
+            }
+        }
+        blockedTiles = blocked.stream().mapToInt(Integer::intValue).toArray();
+        bridgedTiles = bridged.stream().mapToInt(Integer::intValue).toArray();
+        chunks = new ArrayList<>(blockedChunks);
+        probedTiles = new int[PROBES];
+        for (int index = 0; index < PROBES; index++) {
+            probedTiles[index] = Position.pack(baseX + random.nextInt(width), baseY + random.nextInt(height),
+                    random.nextInt(4));
+        }
+        loadOld();
+        loadNew();
+    }
+
+    /**
+     * Loads every tile the old way.
+     */
+    @Benchmark
+    public Set<Position> loadOld() {
+        oldBlocked = HashMultimap.create();
+        oldBridges = new HashSet<>();
+        for (int packed : blockedTiles) {
+            Position position = Position.of(packed);
+            oldBlocked.put(position.getChunk(), position);
+        }
+        for (int packed : bridgedTiles) {
+            oldBridges.add(Position.of(packed));
+        }
+        return oldBridges;
+    }
+
+    /**
+     * Loads every tile into bitsets.
+     */
+    @Benchmark
+    public TileBitSet loadNew() {
+        newBlocked = new TileBitSet();
+        newBridges = new TileBitSet();
+        for (int packed : blockedTiles) {
+            Position position = Position.of(packed);
+            newBlocked.set(position.getX(), position.getY(), position.getZ());
+        }
+        for (int packed : bridgedTiles) {
+            Position position = Position.of(packed);
+            newBridges.set(position.getX(), position.getY(), position.getZ());
+        }
+        return newBridges;
+    }
+
+    /**
+     * Looks up whether random tiles are bridged, the old way.
+     */
+    @Benchmark
+    public void probeOld(Blackhole blackhole) {
+        for (int packed : probedTiles) {
+            Position position = Position.of(packed);
+            blackhole.consume(oldBridges.contains(new Position(position.getX(), position.getY(), 1)));
+        }
+    }
+
+    /**
+     * Looks up whether random tiles are bridged.
+     */
+    @Benchmark
+    public void probeNew(Blackhole blackhole) {
+        for (int packed : probedTiles) {
+            Position position = Position.of(packed);
+            blackhole.consume(newBridges.get(position.getX(), position.getY(), 1));
+        }
+    }
+
+    /**
+     * Walks the blocked tiles of every chunk and adjusts them for bridges, the old way.
+     */
+    @Benchmark
+    public void buildOld(Blackhole blackhole) {
+        for (Chunk chunk : chunks) {
+            for (Position position : oldBlocked.get(chunk)) {
+                int z = position.getZ();
+                if (oldBridges.contains(new Position(position.getX(), position.getY(), 1))) {
+                    z--;
+                }
+                blackhole.consume(z);
+            }
+        }
+    }
+
+    /**
+     * Walks the blocked tiles of every chunk and adjusts them for bridges.
+     */
+    @Benchmark
+    public void buildNew(Blackhole blackhole) {
+        for (Chunk chunk : chunks) {
+            newBlocked.forEach(chunk, (x, y, z) -> blackhole.consume(newBridges.get(x, y, 1) ? z - 1 : z));
+        }
+    }
+}
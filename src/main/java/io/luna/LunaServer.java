@@ -17,15 +17,23 @@ import io.luna.game.cache.codec.WidgetDefinitionDecoder;
 import io.luna.game.model.World;
 import io.luna.net.LunaChannelFilter;
 import io.luna.net.LunaChannelInitializer;
+import io.luna.net.NetworkSettings;
+import io.luna.net.codec.ByteMessage;
 import io.luna.net.msg.GameMessageRepository;
 import io.luna.util.ExecutorUtils;
 import io.luna.util.parser.impl.EquipmentDefinitionFileParser;
 import io.luna.util.parser.impl.MessageRepositoryFileParser;
 import io.luna.util.parser.impl.NpcCombatDefinitionFileParser;
 import io.netty.bootstrap.ServerBootstrap;
-import io.netty.channel.EventLoopGroup;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
 import io.netty.util.ResourceLeakDetector;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -121,17 +129,47 @@ public final class LunaServer {
     }
 
     /**
-     * Initializes the network server using Netty.
+     * Initializes the network server using Netty. The native epoll transport is used when it's enabled and
+     * available, otherwise NIO is used.
      */
     private void initNetwork() {
         ResourceLeakDetector.setLevel(Luna.settings().game().resourceLeakDetection());
 
+        NetworkSettings settings = Luna.settings().network();
+        PooledByteBufAllocator allocator = settings.createAllocator();
+        ByteMessage.setAllocator(allocator);
+
         ServerBootstrap bootstrap = new ServerBootstrap();
-        EventLoopGroup loopGroup = new NioEventLoopGroup();
-        bootstrap.group(loopGroup);
-        bootstrap.channel(NioServerSocketChannel.class);
+        boolean epoll = settings.nativeTransport() && Epoll.isAvailable();
+        if (epoll) {
+            bootstrap.group(new EpollEventLoopGroup(settings.bossThreads(), new DefaultThreadFactory("NetworkBoss")),
+                    new EpollEventLoopGroup(settings.workerThreads(), new DefaultThreadFactory("NetworkWorker")));
+            bootstrap.channel(EpollServerSocketChannel.class);
+        } else {
+            bootstrap.group(new NioEventLoopGroup(settings.bossThreads(), new DefaultThreadFactory("NetworkBoss")),
+                    new NioEventLoopGroup(settings.workerThreads(), new DefaultThreadFactory("NetworkWorker")));
+            bootstrap.channel(NioServerSocketChannel.class);
+            if (settings.nativeTransport()) {
+                logger.warn("Native transport unavailable ({}), using NIO instead.",
+                        Epoll.unavailabilityCause().getMessage());
+            }
+        }
+        bootstrap.option(ChannelOption.ALLOCATOR, allocator);
+        bootstrap.childOption(ChannelOption.ALLOCATOR, allocator);
+        bootstrap.childOption(ChannelOption.TCP_NODELAY, settings.tcpNoDelay());
+        if (settings.sendBufferSize() > 0) {
+            bootstrap.childOption(ChannelOption.SO_SNDBUF, settings.sendBufferSize());
+        }
+        if (settings.receiveBufferSize() > 0) {
+            bootstrap.childOption(ChannelOption.SO_RCVBUF, settings.receiveBufferSize());
+        }
+        if (settings.writeBufferHighWaterMark() > 0) {
+            bootstrap.childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(
+                    settings.writeBufferLowWaterMark(), settings.writeBufferHighWaterMark()));
+        }
         bootstrap.childHandler(new LunaChannelInitializer(context, channelFilter, messageRepository));
         bootstrap.bind(Luna.settings().game().port()).syncUninterruptibly();
+        logger.info("Network is using the {} transport.", epoll ? "epoll" : "NIO");
     }
 
     /**
@@ -167,7 +205,11 @@ public final class LunaServer {
         logger.info("Waiting for {} Java launch task(s) to complete...", box(count));
         pool.shutdown();
         awaitTerminationUninterruptibly(pool);
-        context.getCache().waitForDecoders();
+
+        Cache cache = context.getCache();
+        cache.waitForDecoders();
+        cache.getDecoderTimings().forEach((decoder, nanos) ->
+                logger.info("{} finished in {}ms.", decoder, box(TimeUnit.NANOSECONDS.toMillis(nanos))));
     }
 
     /**
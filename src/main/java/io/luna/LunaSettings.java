@@ -1,6 +1,7 @@
 package io.luna;
 
 import io.luna.game.GameSettings;
+import io.luna.net.NetworkSettings;
 import io.luna.util.SqlConnectionPool.DatabaseSettings;
 import io.luna.util.logging.LoggingSettings;
 
@@ -12,6 +13,7 @@ import io.luna.util.logging.LoggingSettings;
 public final class LunaSettings {
 
     private final GameSettings game;
+    private final NetworkSettings network;
     private final DatabaseSettings database;
     private final LoggingSettings logging;
 
@@ -22,6 +24,13 @@ public final class LunaSettings {
         return game;
     }
 
+    /**
+     * The network settings.
+     */
+    public NetworkSettings network() {
+        return network;
+    }
+
     /**
      * The database settings.
      */
@@ -37,8 +46,10 @@ public final class LunaSettings {
     }
 
     // Never called
-    private LunaSettings(GameSettings game, DatabaseSettings database, LoggingSettings logging) {
+    private LunaSettings(GameSettings game, NetworkSettings network, DatabaseSettings database,
+                         LoggingSettings logging) {
         this.game = game;
+        this.network = network;
         this.database = database;
         this.logging = logging;
     }
@@ -52,21 +52,21 @@ abstract class AuthenticationService<T> extends AbstractIdleService {
     }
 
     /**
-     * Iterates the set of pending requests and finalizes them.
+     * Iterates the set of pending requests and finalizes up to {@link #requestsPerTick()} of them.
      */
     public final void finishRequests() {
         if (state() == State.RUNNING) {
+            int limit = requestsPerTick();
+            int finished = 0;
             var iterator = pending.entrySet().iterator();
-            for (int loop = 0; loop < REQUESTS_THRESHOLD; loop++) {
-                if (!iterator.hasNext()) {
-                    break;
-                }
+            while (finished < limit && iterator.hasNext()) {
                 var next = iterator.next();
                 String username = next.getKey();
                 T request = next.getValue();
                 if (canFinishRequest(username, request)) {
                     finishRequest(username, request);
                     iterator.remove();
+                    finished++;
                 }
             }
         }
@@ -95,6 +95,13 @@ abstract class AuthenticationService<T> extends AbstractIdleService {
         }
     }
 
+    /**
+     * @return The maximum amount of requests to finalize per tick.
+     */
+    int requestsPerTick() {
+        return REQUESTS_THRESHOLD;
+    }
+
     /**
      * Determines if the request can be added to {@link #pending}.
      *
@@ -11,6 +11,7 @@ import io.luna.game.event.impl.ServerStateChangedEvent.ServerShutdownEvent;
 import io.luna.game.model.World;
 import io.luna.game.model.mob.Player;
 import io.luna.game.plugin.PluginBootstrap;
+import io.luna.game.TickProfiler.Phase;
 import io.luna.game.task.Task;
 import io.luna.net.msg.out.SystemUpdateMessageWriter;
 import io.luna.util.ExecutorUtils;
@@ -112,6 +113,11 @@ public final class GameService extends AbstractScheduledService {
         }
     }
 
+    /**
+     * The amount of time between ticks, in milliseconds.
+     */
+    public static final long TICK_INTERVAL = 600;
+
     /**
      * The asynchronous logger.
      */
@@ -173,7 +179,7 @@ public final class GameService extends AbstractScheduledService {
 
     @Override
     protected Scheduler scheduler() {
-        return Scheduler.newFixedRateSchedule(600, 600, TimeUnit.MILLISECONDS);
+        return Scheduler.newFixedRateSchedule(TICK_INTERVAL, TICK_INTERVAL, TimeUnit.MILLISECONDS);
     }
 
     @Override
@@ -194,14 +200,20 @@ public final class GameService extends AbstractScheduledService {
      * Runs the entire game loop including synchronization tasks.
      */
     private void process() {
+        TickProfiler profiler = world.getProfiler();
         try {
+            profiler.startTick();
+
             // Do stuff from other threads.
             runSynchronizationTasks();
+            profiler.mark(Phase.SYNC_TASKS);
 
             // Run the main game loop.
             world.process();
         } catch (Exception e) {
             logger.catching(e);
+        } finally {
+            profiler.endTick();
         }
     }
 
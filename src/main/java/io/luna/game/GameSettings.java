@@ -67,6 +67,13 @@ public final class GameSettings {
     private final double experienceMultiplier;
     private final String serializer;
     private final PasswordStrength passwordStrength;
+    private final boolean parallelNpcProcessing;
+    private final int pathfindingBudget;
+    private final int persistenceBatchSize;
+    private final int loginQueueCapacity;
+    private final int loginAdmissionsPerTick;
+    private final int loginHashThreads;
+    private final boolean taskProfiling;
 
     /**
      * The port that the server will be bound on.
@@ -115,6 +122,58 @@ public final class GameSettings {
         return passwordStrength;
     }
 
+    /**
+     * If NPC walking queues should be processed in parallel, partitioned by region. Chunk moves, collision updates,
+     * and action queues are still applied on the game thread afterwards.
+     */
+    public boolean parallelNpcProcessing() {
+        return parallelNpcProcessing;
+    }
+
+    /**
+     * The maximum amount of pathfinding requests handed to pathfinding workers every tick. Requests over the budget
+     * are carried over to the next tick.
+     */
+    public int pathfindingBudget() {
+        return pathfindingBudget;
+    }
+
+    /**
+     * The maximum amount of queued player saves written to the serializer at once.
+     */
+    public int persistenceBatchSize() {
+        return persistenceBatchSize;
+    }
+
+    /**
+     * The maximum amount of login requests waiting to be serviced. Clients that log in while the queue is full are
+     * told to retry after the estimated time it will take for the queue to drain.
+     */
+    public int loginQueueCapacity() {
+        return loginQueueCapacity;
+    }
+
+    /**
+     * The maximum amount of players added to the world every tick.
+     */
+    public int loginAdmissionsPerTick() {
+        return loginAdmissionsPerTick;
+    }
+
+    /**
+     * The amount of threads dedicated to verifying passwords during login.
+     */
+    public int loginHashThreads() {
+        return loginHashThreads;
+    }
+
+    /**
+     * If the time spent on every task should be recorded, by task and by the plugin that scheduled it.
+     */
+    public boolean taskProfiling() {
+        return taskProfiling;
+    }
+
     /**
      * Determines if luna is running in Beta mode.
      */
@@ -154,7 +213,10 @@ public final class GameSettings {
      * To prevent public instantiation.
      */
     private GameSettings(LunaRuntime runtimeMode, int port, int connectionLimit, Position startingPosition,
-                         double experienceMultiplier, String serializer, PasswordStrength passwordStrength) {
+                         double experienceMultiplier, String serializer, PasswordStrength passwordStrength,
+                         boolean parallelNpcProcessing, int pathfindingBudget,
+                         int persistenceBatchSize, int loginQueueCapacity, int loginAdmissionsPerTick,
+                         int loginHashThreads, boolean taskProfiling) {
         // Will never be called.
         this.runtimeMode = runtimeMode;
         this.port = port;
@@ -163,5 +225,12 @@ public final class GameSettings {
         this.experienceMultiplier = experienceMultiplier;
         this.serializer = serializer;
         this.passwordStrength = passwordStrength;
+        this.parallelNpcProcessing = parallelNpcProcessing;
+        this.pathfindingBudget = pathfindingBudget;
+        this.persistenceBatchSize = persistenceBatchSize;
+        this.loginQueueCapacity = loginQueueCapacity;
+        this.loginAdmissionsPerTick = loginAdmissionsPerTick;
+        this.loginHashThreads = loginHashThreads;
+        this.taskProfiling = taskProfiling;
     }
 }
\ No newline at end of file
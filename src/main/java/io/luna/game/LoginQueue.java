@@ -0,0 +1,68 @@
+package io.luna.game;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A queue of login requests that is fair between IP addresses. Requests from the same address are polled in the order
+ * they were added, but addresses take turns, so a burst of requests from one address can't delay everyone else.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @param <T> The request type.
+ * @author lare96
+ */
+final class LoginQueue<T> {
+
+    /**
+     * The pending requests of each address, in the order the addresses will be polled.
+     */
+    private final Map<String, ArrayDeque<T>> queues = new LinkedHashMap<>();
+
+    /**
+     * The amount of pending requests.
+     */
+    private int size;
+
+    /**
+     * Adds a request to the back of {@code address}'s queue.
+     *
+     * @param address The IP address the request is from.
+     * @param request The request.
+     */
+    synchronized void add(String address, T request) {
+        queues.computeIfAbsent(address, key -> new ArrayDeque<>()).add(request);
+        size++;
+    }
+
+    /**
+     * Removes the next request. The address it was from is moved behind every other address.
+     *
+     * @return The next request, {@code null} if there are none.
+     */
+    synchronized T poll() {
+        Iterator<Map.Entry<String, ArrayDeque<T>>> iterator = queues.entrySet().iterator();
+        if (!iterator.hasNext()) {
+            return null;
+        }
+        Map.Entry<String, ArrayDeque<T>> next = iterator.next();
+        String address = next.getKey();
+        ArrayDeque<T> requests = next.getValue();
+        T request = requests.poll();
+        iterator.remove();
+        if (!requests.isEmpty()) {
+            queues.put(address, requests);
+        }
+        size--;
+        return request;
+    }
+
+    /**
+     * @return The amount of pending requests.
+     */
+    synchronized int size() {
+        return size;
+    }
+}
@@ -1,7 +1,7 @@
 package io.luna.game;
 
 import com.google.common.base.Stopwatch;
-import com.google.common.base.Supplier;
+import io.luna.Luna;
 import io.luna.game.LoginService.LoginRequest;
 import io.luna.game.model.EntityState;
 import io.luna.game.model.World;
@@ -10,18 +10,32 @@ import io.luna.game.persistence.PlayerData;
 import io.luna.net.client.LoginClient;
 import io.luna.net.msg.login.LoginRequestMessage;
 import io.luna.net.msg.login.LoginResponse;
+import io.luna.util.ExecutorUtils;
+import io.luna.util.LatencyHistogram;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.google.common.util.concurrent.Uninterruptibles.awaitTerminationUninterruptibly;
 import static org.apache.logging.log4j.util.Unbox.box;
 
 /**
  * A {@link AuthenticationService} implementation that handles login requests.
+ * <p>
+ * Requests wait in a {@link LoginQueue} that is fair between IP addresses, and only a few are loaded at once so a
+ * burst of logins can't starve other work. Data is loaded by the regular workers, and passwords are verified by a
+ * separate pool since hashing is CPU bound. Clients that log in while too many requests are waiting are told how long
+ * to wait before retrying, and a limited amount of players are added to the world every tick.
  *
  * @author lare96
  */
@@ -57,6 +71,11 @@ public final class LoginService extends AuthenticationService<LoginRequest> {
          */
         private volatile PlayerData loadedData;
 
+        /**
+         * The time this request was queued, in nanoseconds.
+         */
+        private long queuedAt;
+
         /**
          * Creates a new {@link LoginRequest}.
          *
@@ -71,11 +90,81 @@ public final class LoginService extends AuthenticationService<LoginRequest> {
         }
     }
 
+    /**
+     * The duration of a tick, in nanoseconds.
+     */
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(600);
+
     /**
      * A map containing the results of all load requests.
      */
     private final Map<String, CompletableFuture<Boolean>> loadMap = new ConcurrentHashMap<>();
 
+    /**
+     * The requests waiting to be loaded.
+     */
+    private final LoginQueue<LoginRequest> queue = new LoginQueue<>();
+
+    /**
+     * The workers that will verify passwords.
+     */
+    private final ExecutorService hashWorkers;
+
+    /**
+     * The amount of requests being loaded.
+     */
+    private final AtomicInteger loading = new AtomicInteger();
+
+    /**
+     * The maximum amount of requests being loaded at once.
+     */
+    private final int maxLoading;
+
+    /**
+     * The maximum amount of pending requests.
+     */
+    private final int capacity;
+
+    /**
+     * The maximum amount of players added to the world every tick.
+     */
+    private final int admissionsPerTick;
+
+    /**
+     * The time requests spend queued before being loaded.
+     */
+    private final LatencyHistogram queueTime = new LatencyHistogram();
+
+    /**
+     * The time taken to load data.
+     */
+    private final LatencyHistogram loadTime = new LatencyHistogram();
+
+    /**
+     * The time taken to verify passwords.
+     */
+    private final LatencyHistogram hashTime = new LatencyHistogram();
+
+    /**
+     * The amount of requests queued.
+     */
+    private final AtomicLong queued = new AtomicLong();
+
+    /**
+     * The amount of requests turned away because too many requests were pending.
+     */
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * The amount of requests dropped because the client disconnected while queued.
+     */
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * The amount of players added to the world.
+     */
+    private final AtomicLong admitted = new AtomicLong();
+
     /**
      * Creates a new {@link LoginService}.
      *
@@ -83,6 +172,12 @@ public final class LoginService extends AuthenticationService<LoginRequest> {
      */
     public LoginService(World world) {
         super(world);
+        var settings = Luna.settings().game();
+        int hashThreads = settings.loginHashThreads();
+        hashWorkers = ExecutorUtils.threadPool(serviceName() + "HashWorker", hashThreads);
+        maxLoading = Runtime.getRuntime().availableProcessors() + hashThreads;
+        capacity = settings.loginQueueCapacity();
+        admissionsPerTick = settings.loginAdmissionsPerTick();
     }
 
     @Override
@@ -98,9 +193,19 @@ public final class LoginService extends AuthenticationService<LoginRequest> {
             request.client.sendLoginResponse(request.player, LoginResponse.ACCOUNT_ONLINE);
             return false;
         }
-        logger.trace("Sending {}'s login request to a worker...", username);
-        Supplier<Boolean> loadTask = startWorker(username, request);
-        loadMap.putIfAbsent(username, CompletableFuture.supplyAsync(loadTask, workers));
+        int waiting = pending.size();
+        if (waiting >= capacity) {
+            // Too many requests waiting, tell the client to retry once the queue has had time to drain.
+            rejected.incrementAndGet();
+            request.client.sendLoginDelay(estimateDelay(waiting));
+            return false;
+        }
+        logger.trace("Queueing {}'s login request...", username);
+        request.queuedAt = System.nanoTime();
+        loadMap.putIfAbsent(username, new CompletableFuture<>());
+        queue.add(request.client.getIpAddress(), request);
+        queued.incrementAndGet();
+        dispatch();
         return true;
     }
 
@@ -123,47 +228,149 @@ public final class LoginService extends AuthenticationService<LoginRequest> {
         if (client.sendFinalLoginResponse(player, request.loadedData, request.message)) {
             world.getPlayers().add(player);
             player.setState(EntityState.ACTIVE);
+            admitted.incrementAndGet();
             logger.info("{} has logged in.", username);
         }
     }
 
+    @Override
+    int requestsPerTick() {
+        return admissionsPerTick;
+    }
+
     @Override
     protected void shutDown() {
         logger.trace("A shutdown of the login service has been requested.");
         workers.shutdownNow();
+        hashWorkers.shutdownNow();
         awaitTerminationUninterruptibly(workers);
+        awaitTerminationUninterruptibly(hashWorkers);
         logger.fatal("The login service has been shutdown.");
     }
 
     /**
-     * Starts a worker that will handle a load request and returns the future result of the task.
+     * Builds a summary of this service's metrics, one line per metric.
      *
-     * @param username The username of the player being loaded.
-     * @param request The request to handle.
-     * @return The result of the load ({@code true} if the login response was normal).
-     */
-    private Supplier<Boolean> startWorker(String username, LoginRequest request) {
-        return () -> {
-            var client = request.client;
-            try {
-                var player = request.player;
-                var timer = Stopwatch.createStarted();
-                var loadedData = world.getSerializerManager().getSerializer().loadPlayer(world, username);
-                var response = client.getLoginResponse(loadedData, player.getPassword());
-                if (response == LoginResponse.NORMAL) {
-                    request.loadedData = loadedData;
-                    logger.debug("Finished loading {}'s data (took {}ms).", username, box(timer.elapsed().toMillis()));
-                    return true;
-                } else {
-                    // Load wasn't successful, disconnect with login response.
-                    client.sendLoginResponse(player, response);
-                    return false;
+     * @return The summary lines.
+     */
+    public List<String> summary() {
+        List<String> lines = new ArrayList<>(5);
+        lines.add(String.format("queued=%d, rejected=%d, dropped=%d, admitted=%d", queued.get(), rejected.get(),
+                dropped.get(), admitted.get()));
+        lines.add(String.format("pending=%d, waiting=%d, loading=%d", pending.size(), queue.size(), loading.get()));
+        lines.add("queue_time: " + queueTime);
+        lines.add("load_time: " + loadTime);
+        lines.add("hash_time: " + hashTime);
+        return lines;
+    }
+
+    /**
+     * Clears all metrics.
+     */
+    public void reset() {
+        queueTime.reset();
+        loadTime.reset();
+        hashTime.reset();
+        queued.set(0);
+        rejected.set(0);
+        dropped.set(0);
+        admitted.set(0);
+    }
+
+    /**
+     * Estimates how long it will take for {@code waiting} requests to be finalized.
+     *
+     * @param waiting The amount of pending requests.
+     * @return The estimate, in seconds.
+     */
+    private int estimateDelay(int waiting) {
+        long ticks = (waiting + admissionsPerTick - 1) / admissionsPerTick;
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(ticks * TICK_NANOS + TimeUnit.SECONDS.toNanos(1) - 1);
+        return (int) Math.max(1, Math.min(255, seconds));
+    }
+
+    /**
+     * Starts loading queued requests, until the queue is empty or the maximum amount of requests are being loaded.
+     */
+    private void dispatch() {
+        for (;;) {
+            int current = loading.get();
+            if (current >= maxLoading) {
+                return;
+            }
+            if (!loading.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            LoginRequest request = queue.poll();
+            if (request == null) {
+                loading.decrementAndGet();
+                if (queue.size() == 0) {
+                    // Checked after releasing our slot, so requests added in the meantime aren't stranded.
+                    return;
                 }
-            } catch (Exception e) {
-                logger.error("Issue servicing {}'s login request!", username, e);
+                continue;
+            }
+            queueTime.record(System.nanoTime() - request.queuedAt);
+            if (!request.client.isConnected()) {
+                // Client gave up while queued.
+                dropped.incrementAndGet();
+                loadMap.get(request.player.getUsername()).complete(false);
+                loading.decrementAndGet();
+                continue;
+            }
+            startWorker(request);
+        }
+    }
+
+    /**
+     * Loads a request's data on a worker, then verifies the password on a hash worker. The result of the request
+     * ({@code true} if the login response was normal) is completed once both are done.
+     *
+     * @param request The request to handle.
+     */
+    private void startWorker(LoginRequest request) {
+        var player = request.player;
+        var client = request.client;
+        var username = player.getUsername();
+        var result = loadMap.get(username);
+        var timer = Stopwatch.createStarted();
+        CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            var loadedData = world.getSerializerManager().getSerializer().loadPlayer(world, username);
+            loadTime.record(System.nanoTime() - start);
+            return loadedData;
+        }, workers).thenApplyAsync(loadedData -> {
+            long start = System.nanoTime();
+            var response = client.getLoginResponse(loadedData, player.getPassword());
+            hashTime.record(System.nanoTime() - start);
+            if (response == LoginResponse.NORMAL) {
+                request.loadedData = loadedData;
+                logger.debug("Finished loading {}'s data (took {}ms).", username, box(timer.elapsed().toMillis()));
+                return true;
+            } else {
+                // Load wasn't successful, disconnect with login response.
+                client.sendLoginResponse(player, response);
+                return false;
+            }
+        }, hashWorkers).whenComplete((loaded, failure) -> {
+            if (failure != null) {
+                Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+                logger.error("Issue servicing {}'s login request!", username, cause);
                 client.disconnect();
             }
-            return false;
-        };
+            finishWorker(result, failure == null && loaded);
+        });
+    }
+
+    /**
+     * Completes the result of a request, then starts loading the next queued request.
+     *
+     * @param result The result of the request.
+     * @param loaded If the login response was normal.
+     */
+    private void finishWorker(CompletableFuture<Boolean> result, boolean loaded) {
+        result.complete(loaded);
+        loading.decrementAndGet();
+        dispatch();
     }
-}
\ No newline at end of file
+}
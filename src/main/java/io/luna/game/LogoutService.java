@@ -125,6 +125,8 @@ public final class LogoutService extends AuthenticationService<LogoutRequest> {
         request.player.getClient().releasePendingWrites();
         world.getPlayers().remove(request.player);
         if(saveData != null) {
+            // Queued saves hold older data, and must not be written over the final save.
+            world.getPersistenceService().discard(username);
             saves.put(username, request);
             startWorker(username, request, saveData);
         } else  {
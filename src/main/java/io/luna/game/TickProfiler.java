@@ -0,0 +1,233 @@
+package io.luna.game;
+
+import io.luna.util.LatencyHistogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A model that times every phase of the game loop with nanosecond precision. Each phase is recorded into its own
+ * {@link LatencyHistogram}, and ticks that take longer than {@link GameService#TICK_INTERVAL} are logged as overruns
+ * along with a breakdown of where the time went.
+ * <p>
+ * All functions except {@link #dump(List)} must be called from the game thread.
+ *
+ * @author lare96
+ */
+public final class TickProfiler {
+
+    /**
+     * An enum representing every timed phase of a tick, in the order they run.
+     */
+    public enum Phase {
+        SYNC_TASKS,
+        LOGIN,
+        LOGOUT,
+        TASKS,
+        PRE_SYNCHRONIZE,
+        SYNCHRONIZE,
+        POST_SYNCHRONIZE,
+
+        /**
+         * The entire tick, from the first phase to the last.
+         */
+        TOTAL,
+
+        /**
+         * How late a tick started, compared to when the fixed-rate schedule wanted it to start.
+         */
+        SCHEDULE_LAG;
+
+        /**
+         * An immutable copy of {@link #values()}.
+         */
+        private static final Phase[] ALL = values();
+    }
+
+    /**
+     * The asynchronous logger.
+     */
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * The directory that profiling dumps will be written to.
+     */
+    private static final Path DUMP_DIR = Paths.get("data", "logs");
+
+    /**
+     * The formatter for profiling dump file names.
+     */
+    private static final DateTimeFormatter DUMP_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+
+    /**
+     * The tick interval, in nanoseconds.
+     */
+    private static final long INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(GameService.TICK_INTERVAL);
+
+    /**
+     * The histograms, indexed by {@link Phase#ordinal()}.
+     */
+    private final LatencyHistogram[] histograms = new LatencyHistogram[Phase.ALL.length];
+
+    /**
+     * The phase timings of the current tick, indexed by {@link Phase#ordinal()}.
+     */
+    private final long[] currentTimings = new long[Phase.ALL.length];
+
+    /**
+     * The time the current tick started.
+     */
+    private long tickStart;
+
+    /**
+     * The time the last phase ended.
+     */
+    private long phaseStart;
+
+    /**
+     * The time the next tick is expected to start, according to the fixed-rate schedule.
+     */
+    private long expectedStart = -1;
+
+    /**
+     * The amount of ticks that have overrun the tick interval.
+     */
+    private long overruns;
+
+    /**
+     * Creates a new {@link TickProfiler}.
+     */
+    public TickProfiler() {
+        for (int index = 0; index < histograms.length; index++) {
+            histograms[index] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Marks the start of a new tick.
+     */
+    public void startTick() {
+        long now = System.nanoTime();
+        if (expectedStart == -1) {
+            expectedStart = now;
+        }
+        currentTimings[Phase.SCHEDULE_LAG.ordinal()] = now - expectedStart;
+        histograms[Phase.SCHEDULE_LAG.ordinal()].record(now - expectedStart);
+
+        // Missed ticks are run back-to-back by the fixed-rate schedule, so lateness accumulates until it's caught up.
+        expectedStart = Math.max(expectedStart + INTERVAL_NANOS, now);
+        tickStart = now;
+        phaseStart = now;
+    }
+
+    /**
+     * Marks the end of {@code phase}, which is assumed to have started when the previous phase ended.
+     *
+     * @param phase The phase that just completed.
+     */
+    public void mark(Phase phase) {
+        long now = System.nanoTime();
+        long elapsed = now - phaseStart;
+        currentTimings[phase.ordinal()] = elapsed;
+        histograms[phase.ordinal()].record(elapsed);
+        phaseStart = now;
+    }
+
+    /**
+     * Marks the end of the current tick, and logs a warning if it ran longer than the tick interval.
+     */
+    public void endTick() {
+        long total = System.nanoTime() - tickStart;
+        currentTimings[Phase.TOTAL.ordinal()] = total;
+        histograms[Phase.TOTAL.ordinal()].record(total);
+        if (total > INTERVAL_NANOS) {
+            overruns++;
+            logger.warn("Tick overran by {} [{}].", LatencyHistogram.formatMillis(total - INTERVAL_NANOS),
+                    describeCurrentTick());
+        }
+    }
+
+    /**
+     * Builds a summary of every phase histogram, one line per phase.
+     *
+     * @return The summary lines.
+     */
+    public List<String> summary() {
+        List<String> lines = new ArrayList<>(Phase.ALL.length + 1);
+        lines.add(String.format("ticks=%d, overruns=%d", histograms[Phase.TOTAL.ordinal()].getCount(), overruns));
+        for (Phase phase : Phase.ALL) {
+            lines.add(phase.name().toLowerCase() + ": " + histograms[phase.ordinal()]);
+        }
+        return lines;
+    }
+
+    /**
+     * Writes {@code summary} to a new timestamped file in {@code ./data/logs/}. This is a blocking operation that
+     * should be run on a pooled thread, using a summary retrieved from {@link #summary()} on the game thread.
+     *
+     * @param summary The summary lines to write.
+     * @return The file that was written to.
+     * @throws IOException If any I/O errors occur.
+     */
+    public Path dump(List<String> summary) throws IOException {
+        Files.createDirectories(DUMP_DIR);
+        Path path = DUMP_DIR.resolve("tick_profile_" + LocalDateTime.now().format(DUMP_NAME_FORMAT) + ".txt");
+        Files.write(path, summary);
+        logger.info("Tick profile written to {}.", path);
+        return path;
+    }
+
+    /**
+     * Clears all recorded timings.
+     */
+    public void reset() {
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+        overruns = 0;
+    }
+
+    /**
+     * Retrieves the histogram for {@code phase}.
+     *
+     * @param phase The phase.
+     * @return The histogram.
+     */
+    public LatencyHistogram getHistogram(Phase phase) {
+        return histograms[phase.ordinal()];
+    }
+
+    /**
+     * @return The amount of ticks that have overrun the tick interval.
+     */
+    public long getOverruns() {
+        return overruns;
+    }
+
+    /**
+     * Describes how long every phase of the current tick took.
+     */
+    private String describeCurrentTick() {
+        StringBuilder sb = new StringBuilder();
+        for (Phase phase : Phase.ALL) {
+            if (phase == Phase.TOTAL) {
+                continue;
+            }
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(phase.name().toLowerCase()).append('=')
+                    .append(LatencyHistogram.formatMillis(currentTimings[phase.ordinal()]));
+        }
+        return sb.toString();
+    }
+}
@@ -1,24 +1,30 @@
 package io.luna.game.cache;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
 
 
 import com.google.common.collect.ImmutableMap;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
 import io.netty.buffer.Unpooled;
 import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
 
 /**
- * Represents an archive within the cache.
+ * Represents an archive within the cache. Archives are immutable once decoded, and can be read from any thread.
  *
  * @author Graham Edgecombe
  * @author lare96
  */
 public final class Archive {
 
+    /**
+     * The header stripped from compressed files.
+     */
+    private static final byte[] BZIP2_HEADER = {'B', 'Z', 'h', '1'};
+
     /**
      * Decodes the data from {@code buf} into an {@link Archive}.
      *
@@ -31,9 +37,7 @@ public final class Archive {
         int uncompressed = CacheUtils.readMedium(buf);
         int compressed = CacheUtils.readMedium(buf);
         if (uncompressed != compressed) {
-            ByteBuf data = buf.readBytes(compressed);
-            ByteBuf decompressed = unpack(data);
-            buf = Unpooled.wrappedBuffer(decompressed);
+            buf = unpack(buf.readSlice(compressed), uncompressed);
             packed = false;
         }
         int size = buf.readUnsignedShort();
@@ -50,35 +54,28 @@ public final class Archive {
     }
 
     /**
-     * Unpacks data using BZIP2.
+     * Unpacks data using BZIP2. The data is read in place, without being copied first.
      *
      * @param data The compressed bytes.
+     * @param uncompressedSize The size of the uncompressed bytes.
      * @return The uncompressed bytes.
      * @throws IOException if an I/O error occurs.
      */
-    private static ByteBuf unpack(ByteBuf data) throws IOException {
-        try {
-            byte[] newData = new byte[data.readableBytes() + 4];
-            data.readerIndex(0);
-            data.readBytes(newData, 4, data.readableBytes());
-            newData[0] = 'B';
-            newData[1] = 'Z';
-            newData[2] = 'h';
-            newData[3] = '1';
-            try (InputStream in = new BZip2CompressorInputStream(new ByteArrayInputStream(newData));
-                 ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-                while (true) {
-                    byte[] buf = new byte[512];
-                    int read = in.read(buf, 0, buf.length);
-                    if (read == -1) {
-                        break;
-                    }
-                    out.write(buf, 0, read);
+    private static ByteBuf unpack(ByteBuf data, int uncompressedSize) throws IOException {
+        // The header is stripped from compressed files, so it needs to be added back.
+        InputStream header = new ByteArrayInputStream(BZIP2_HEADER);
+        InputStream compressed = new SequenceInputStream(header, new ByteBufInputStream(data.slice()));
+        try (InputStream in = new BZip2CompressorInputStream(compressed)) {
+            byte[] uncompressed = new byte[uncompressedSize];
+            int offset = 0;
+            while (offset < uncompressedSize) {
+                int read = in.read(uncompressed, offset, uncompressedSize - offset);
+                if (read == -1) {
+                    throw new IOException("Unexpected end of compressed data.");
                 }
-                return Unpooled.copiedBuffer(out.toByteArray());
+                offset += read;
             }
-        } finally {
-            data.release();
+            return Unpooled.wrappedBuffer(uncompressed);
         }
     }
 
@@ -121,14 +118,11 @@ public final class Archive {
         ArchiveFile file = files.get(CacheUtils.hash(name));
         if (file == null) {
             return Unpooled.EMPTY_BUFFER;
+        } else if (!packed) {
+            // Archives are shared, so the data is sliced instead of read.
+            return data.retainedSlice(file.getOffset(), file.getCompressedSize());
         } else {
-            data.readerIndex(file.getOffset());
-            ByteBuf fileBytes = data.readBytes(file.getCompressedSize());
-            if (!packed) {
-                return fileBytes;
-            } else {
-                return unpack(fileBytes);
-            }
+            return unpack(data.slice(file.getOffset(), file.getCompressedSize()), file.getUncompressedSize());
         }
     }
-}
\ No newline at end of file
+}
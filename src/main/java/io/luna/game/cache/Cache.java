@@ -1,5 +1,8 @@
 package io.luna.game.cache;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import io.luna.LunaContext;
 import io.luna.game.cache.map.MapIndexTable;
 import io.luna.util.ExecutorUtils;
@@ -10,12 +13,20 @@ import java.io.Closeable;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
 import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32C;
 
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.util.concurrent.Uninterruptibles.awaitTerminationUninterruptibly;
@@ -59,19 +70,42 @@ public final class Cache implements Closeable {
     private static final String EXCEPTION_MESSAGE = "This cache resource was never opened! See [Cache#open()]";
 
     /**
-     * The executor that will run the decoders. Will be shutdown once the task completes.
+     * The maximum amount of decoded archives kept in memory.
      */
-    private final ExecutorService decoderService = ExecutorUtils.threadPool("CacheDecoderThread", 1);
+    private static final int ARCHIVE_CACHE_SIZE = 8;
 
     /**
-     * The data random access file.
+     * The executor that will run the decoders concurrently. Will be shutdown once the task completes.
      */
-    private volatile RandomAccessFile dataFile;
+    private final ExecutorService decoderService = ExecutorUtils.threadPool("CacheDecoderThread");
 
     /**
-     * The index random access files.
+     * The time each decoder took to finish, in nanoseconds. Ordered by completion.
      */
-    private volatile RandomAccessFile[] indexFiles;
+    private final Map<String, Long> decoderTimings = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    /**
+     * The recently decoded archives, keyed by cache and file id. Archives are immutable, so they can be shared by
+     * every reader.
+     */
+    private final LoadingCache<Long, Archive> archives = CacheBuilder.newBuilder()
+            .maximumSize(ARCHIVE_CACHE_SIZE)
+            .build(new CacheLoader<>() {
+                @Override
+                public Archive load(Long key) throws Exception {
+                    return Archive.decode(getFile((int) (key >>> 32), key.intValue()));
+                }
+            });
+
+    /**
+     * The memory-mapped data file.
+     */
+    private volatile ByteBuf dataFile;
+
+    /**
+     * The memory-mapped index files.
+     */
+    private volatile ByteBuf[] indexFiles;
 
     /**
      * The map index table.
@@ -98,10 +132,24 @@ public final class Cache implements Closeable {
         if (count == 0) {
             throw new FileNotFoundException("No index files present.");
         }
-        indexFiles = new RandomAccessFile[count];
-        dataFile = new RandomAccessFile(CACHE_DIR.resolve("main_file_cache.dat").toFile(), "r");
-        for (int i = 0; i < indexFiles.length; i++) {
-            indexFiles[i] = new RandomAccessFile(CACHE_DIR.resolve("main_file_cache.idx" + i).toFile(), "r");
+        ByteBuf[] newIndexFiles = new ByteBuf[count];
+        for (int i = 0; i < newIndexFiles.length; i++) {
+            newIndexFiles[i] = map(CACHE_DIR.resolve("main_file_cache.idx" + i));
+        }
+        dataFile = map(CACHE_DIR.resolve("main_file_cache.dat"));
+        indexFiles = newIndexFiles;
+    }
+
+    /**
+     * Maps an entire file into memory. The mapping stays valid after the file is closed.
+     *
+     * @param path The file.
+     * @return A buffer over the mapping.
+     * @throws IOException If the file can't be mapped.
+     */
+    private static ByteBuf map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return Unpooled.wrappedBuffer(channel.map(MapMode.READ_ONLY, 0, channel.size()));
         }
     }
 
@@ -127,7 +175,45 @@ public final class Cache implements Closeable {
     }
 
     /**
-     * Gets a file from the cache.
+     * Records the time a decoder took to finish.
+     *
+     * @param decoder The name of the decoder.
+     * @param nanos The time taken, in nanoseconds.
+     */
+    void recordTiming(String decoder, long nanos) {
+        decoderTimings.put(decoder, nanos);
+    }
+
+    /**
+     * Returns the time each decoder took to finish, in nanoseconds. Ordered by completion.
+     *
+     * @return A copy of the timings.
+     */
+    public Map<String, Long> getDecoderTimings() {
+        synchronized (decoderTimings) {
+            return new LinkedHashMap<>(decoderTimings);
+        }
+    }
+
+    /**
+     * Computes a hash of the data file and every index file, used to detect when this cache has changed.
+     *
+     * @return The hash.
+     */
+    public long computeHash() {
+        checkState(dataFile != null && indexFiles != null, EXCEPTION_MESSAGE);
+        CRC32C checksum = new CRC32C();
+        long size = dataFile.capacity();
+        checksum.update(dataFile.nioBuffer());
+        for (ByteBuf indexFile : indexFiles) {
+            size += indexFile.capacity();
+            checksum.update(indexFile.nioBuffer());
+        }
+        return size << 32 | checksum.getValue();
+    }
+
+    /**
+     * Gets a file from the cache. The returned buffer is a view of the mapped data file, and isn't copied.
      *
      * @param cache The cache id.
      * @param file The file id.
@@ -140,82 +226,103 @@ public final class Cache implements Closeable {
             throw new IOException("Cache does not exist.");
         }
 
-        RandomAccessFile indexFile = indexFiles[cache];
+        ByteBuf indexFile = indexFiles[cache];
+        ByteBuf dataFile = this.dataFile;
         cache += 1;
 
-        if (file < 0 || file >= (indexFile.length() * INDEX_SIZE)) {
+        if (file < 0 || file >= indexFile.capacity() / INDEX_SIZE) {
             throw new IOException("File does not exist.");
         }
 
-        ByteBuf index = Unpooled.copiedBuffer(indexFile.getChannel().map(MapMode.READ_ONLY, (long) INDEX_SIZE * file, INDEX_SIZE));
-        int fileSize = CacheUtils.readMedium(index);
-        int fileBlock = CacheUtils.readMedium(index);
+        int indexOffset = file * INDEX_SIZE;
+        int fileSize = indexFile.getUnsignedMedium(indexOffset);
+        int fileBlock = indexFile.getUnsignedMedium(indexOffset + 3);
 
         int remainingBytes = fileSize;
         int currentBlock = fileBlock;
 
-        ByteBuf fileBuffer = Unpooled.buffer(fileSize);
+        // Blocks are sliced straight out of the data file, and only joined if the file spans more than one.
+        List<ByteBuf> blocks = new ArrayList<>(fileSize / DATA_BLOCK_SIZE + 1);
         int cycles = 0;
+        try {
+            while (remainingBytes > 0) {
+                long blockOffset = (long) currentBlock * DATA_SIZE;
+                int bytesThisCycle = remainingBytes;
+                if (bytesThisCycle > DATA_BLOCK_SIZE) {
+                    bytesThisCycle = DATA_BLOCK_SIZE;
+                }
+                if (blockOffset + DATA_HEADER_SIZE + bytesThisCycle > dataFile.capacity()) {
+                    throw new IOException("Block does not exist.");
+                }
 
-        while (remainingBytes > 0) {
-
-            int size = DATA_SIZE;
-            int rem = (int) (dataFile.length() - currentBlock * DATA_SIZE);
-            if (rem < DATA_SIZE) {
-                size = rem;
-            }
-
-            ByteBuf block = Unpooled.copiedBuffer(dataFile.getChannel().map(MapMode.READ_ONLY, (long) currentBlock * DATA_SIZE, size));
-            int nextFileId = block.readUnsignedShort();
-            int currentPartId = block.readUnsignedShort();
-            int nextBlockId = CacheUtils.readMedium(block);
-            int nextCacheId = block.readUnsignedByte();
+                int offset = (int) blockOffset;
+                int nextFileId = dataFile.getUnsignedShort(offset);
+                int currentPartId = dataFile.getUnsignedShort(offset + 2);
+                int nextBlockId = dataFile.getUnsignedMedium(offset + 4);
+                int nextCacheId = dataFile.getUnsignedByte(offset + 7);
 
+                blocks.add(dataFile.retainedSlice(offset + DATA_HEADER_SIZE, bytesThisCycle));
+                remainingBytes -= bytesThisCycle;
 
-            int bytesThisCycle = remainingBytes;
-            if (bytesThisCycle > DATA_BLOCK_SIZE) {
-                bytesThisCycle = DATA_BLOCK_SIZE;
-            }
+                if (cycles != currentPartId) {
+                    throw new IOException("Cycle does not match part id.");
+                }
 
-            ByteBuf temp = block.readBytes(bytesThisCycle);
-            try {
-                fileBuffer.writeBytes(temp, 0, bytesThisCycle);
-            } finally {
-                temp.release();
-            }
-            remainingBytes -= bytesThisCycle;
+                if (remainingBytes > 0) {
+                    if (nextCacheId != cache) {
+                        throw new IOException("Unexpected next cache id.");
+                    }
+                    if (nextFileId != file) {
+                        throw new IOException("Unexpected next file id.");
+                    }
+                }
 
-            if (cycles != currentPartId) {
-                throw new IOException("Cycle does not match part id.");
+                cycles++;
+                currentBlock = nextBlockId;
             }
+        } catch (IOException e) {
+            blocks.forEach(ByteBuf::release);
+            throw e;
+        }
+        switch (blocks.size()) {
+            case 0:
+                return Unpooled.EMPTY_BUFFER;
+            case 1:
+                return blocks.get(0);
+            default:
+                return Unpooled.wrappedBuffer(blocks.size(), blocks.toArray(new ByteBuf[0]));
+        }
+    }
 
-            if (remainingBytes > 0) {
-                if (nextCacheId != cache) {
-                    throw new IOException("Unexpected next cache id.");
-                }
-                if (nextFileId != file) {
-                    throw new IOException("Unexpected next file id.");
-                }
+    /**
+     * Gets a decoded archive from the cache. Recently used archives are kept decoded, and shared between every
+     * caller.
+     *
+     * @param cache The cache id.
+     * @param file The file id.
+     * @return The archive.
+     * @throws IOException if an I/O error occurs.
+     */
+    public Archive getArchive(int cache, int file) throws IOException {
+        checkState(dataFile != null && indexFiles != null, EXCEPTION_MESSAGE);
+        try {
+            return archives.get((long) cache << 32 | file);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
             }
-
-            cycles++;
-            currentBlock = nextBlockId;
+            throw new IOException(e.getCause());
         }
-        return fileBuffer;
     }
 
     @Override
     public void close() {
-        try {
-            checkState(dataFile != null && indexFiles != null, EXCEPTION_MESSAGE);
-            decoderService.shutdown();
-            dataFile.close();
-            for (RandomAccessFile indexFile : indexFiles) {
-                indexFile.close();
-            }
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        checkState(dataFile != null && indexFiles != null, EXCEPTION_MESSAGE);
+        decoderService.shutdown();
+        archives.invalidateAll();
+        // The mappings are released once they're no longer reachable.
+        dataFile = null;
+        indexFiles = null;
     }
 
     /**
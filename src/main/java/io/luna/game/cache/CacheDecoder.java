@@ -42,7 +42,7 @@ public abstract class CacheDecoder<T> {
 
     /**
      * Converts {@link #decode(Cache, Builder)} and {@link #handle(LunaContext, Cache, ImmutableList)} into a sequential task
-     * within a {@link Runnable}.
+     * within a {@link Runnable}. The time the task takes is recorded by {@code cache}.
      *
      * @param cache The cache to decode from.
      * @return The task, wrapped in a {@link Runnable}.
@@ -50,10 +50,12 @@ public abstract class CacheDecoder<T> {
     public Runnable toTask(LunaContext ctx, Cache cache) {
         return () -> {
             try {
+                long start = System.nanoTime();
                 ImmutableList.Builder<T> decodedObjectsBuilder = ImmutableList.builder();
                 decode(cache, decodedObjectsBuilder);
                 ImmutableList<T> decodedObjectsList = decodedObjectsBuilder.build();
                 handle(ctx, cache, decodedObjectsList);
+                cache.recordTiming(getClass().getSimpleName(), System.nanoTime() - start);
             } catch (Exception e) {
                 logger.error("A cache decoder failed to finish!", e);
             }
@@ -3,9 +3,9 @@ package io.luna.game.cache;
 import io.luna.game.model.Position;
 import io.luna.game.model.Region;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
 import io.netty.buffer.Unpooled;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -77,13 +77,10 @@ public final class CacheUtils {
      * @throws IOException if an I/O error occurs.
      */
     public static ByteBuf unzip(ByteBuf fileBuf) throws IOException {
-        byte[] data = new byte[fileBuf.readableBytes()];
-        fileBuf.readBytes(data);
-
-        try (InputStream is = new GZIPInputStream(new ByteArrayInputStream(data));
-             ByteArrayOutputStream os = new ByteArrayOutputStream()) {
+        try (InputStream is = new GZIPInputStream(new ByteBufInputStream(fileBuf));
+             ByteArrayOutputStream os = new ByteArrayOutputStream(fileBuf.readableBytes() * 4)) {
+            byte[] buf = new byte[4096];
             while (true) {
-                byte[] buf = new byte[1024];
                 int read = is.read(buf, 0, buf.length);
                 if (read == -1) {
                     break;
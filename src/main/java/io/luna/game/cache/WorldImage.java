@@ -0,0 +1,262 @@
+package io.luna.game.cache;
+
+import io.luna.game.cache.map.MapObject;
+import io.luna.game.model.Position;
+import io.luna.game.model.World;
+import io.luna.game.model.chunk.Chunk;
+import io.luna.game.model.chunk.ChunkManager;
+import io.luna.game.model.chunk.ChunkRepository;
+import io.luna.game.model.collision.CollisionManager;
+import io.luna.game.model.collision.CollisionMatrix;
+import io.luna.game.model.collision.TileBitSet;
+import io.luna.game.model.object.ObjectDirection;
+import io.luna.game.model.object.ObjectType;
+import io.luna.game.model.object.StaticObjectStore;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * A prebaked image of the static world, holding every static object, the blocked and bridged tiles, and the
+ * finished static {@link CollisionMatrix} of every chunk. The image is written after the world is built from a
+ * freshly decoded {@link Cache}, and memory-mapped on later startups so objects and collision can be restored without
+ * decoding or building anything.
+ * <p>
+ * Images are keyed by {@link Cache#computeHash()}, and are rebuilt whenever the cache or the image layout changes.
+ * Other map tile data isn't part of the image, it's decoded from the cache when first requested instead.
+ *
+ * @author lare96
+ */
+public final class WorldImage {
+
+    /**
+     * The path to the world image.
+     */
+    public static final Path PATH = Paths.get("data", "game", "world_image.bin");
+
+    /**
+     * The asynchronous logger.
+     */
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * The value every world image starts with.
+     */
+    private static final int MAGIC = 0x4C57494D;
+
+    /**
+     * The layout version. Must be changed whenever the layout, or how static objects or collision are built, changes.
+     */
+    private static final int VERSION = 2;
+
+    /**
+     * The size of the header, in bytes.
+     */
+    private static final int HEADER_SIZE = 32;
+
+    /**
+     * The size of an object entry, in bytes.
+     */
+    private static final int OBJECT_SIZE = 8;
+
+    /**
+     * The size of a collision matrix entry, in bytes.
+     */
+    private static final int MATRIX_SIZE = 5 + Chunk.SIZE * Chunk.SIZE * Short.BYTES;
+
+    /**
+     * The size of a region entry of a {@link TileBitSet}, in bytes.
+     */
+    private static final int REGION_SIZE = 2 + TileBitSet.REGION_WORDS * Long.BYTES;
+
+    /**
+     * The mapped image, positioned after the header.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The amount of objects.
+     */
+    private final int objectCount;
+
+    /**
+     * The amount of collision matrices.
+     */
+    private final int matrixCount;
+
+    /**
+     * The amount of regions with blocked tiles.
+     */
+    private final int blockedCount;
+
+    /**
+     * The amount of regions with bridged tiles.
+     */
+    private final int bridgeCount;
+
+    /**
+     * Creates a new {@link WorldImage}.
+     *
+     * @param buffer The mapped image, positioned after the header.
+     * @param objectCount The amount of objects.
+     * @param matrixCount The amount of collision matrices.
+     * @param blockedCount The amount of regions with blocked tiles.
+     * @param bridgeCount The amount of regions with bridged tiles.
+     */
+    private WorldImage(ByteBuffer buffer, int objectCount, int matrixCount, int blockedCount, int bridgeCount) {
+        this.buffer = buffer;
+        this.objectCount = objectCount;
+        this.matrixCount = matrixCount;
+        this.blockedCount = blockedCount;
+        this.bridgeCount = bridgeCount;
+    }
+
+    /**
+     * Memory-maps the world image, if one exists that was built from a cache with {@code cacheHash}.
+     *
+     * @param cacheHash The hash of the cache.
+     * @return The image, or {@code null} if there's no usable image.
+     */
+    public static WorldImage open(long cacheHash) {
+        if (!Files.exists(PATH)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(PATH, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, size);
+            if (size < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                logger.info("World image layout has changed, it will be rebuilt.");
+                return null;
+            }
+            if (buffer.getLong() != cacheHash) {
+                logger.info("Cache has changed, the world image will be rebuilt.");
+                return null;
+            }
+            int objectCount = buffer.getInt();
+            int matrixCount = buffer.getInt();
+            int blockedCount = buffer.getInt();
+            int bridgeCount = buffer.getInt();
+            if (size != HEADER_SIZE + (long) objectCount * OBJECT_SIZE + (long) matrixCount * MATRIX_SIZE +
+                    (long) (blockedCount + bridgeCount) * REGION_SIZE) {
+                logger.warn("World image is incomplete, it will be rebuilt.");
+                return null;
+            }
+            return new WorldImage(buffer, objectCount, matrixCount, blockedCount, bridgeCount);
+        } catch (IOException e) {
+            logger.warn("World image could not be read, it will be rebuilt.", e);
+            return null;
+        }
+    }
+
+    /**
+     * Restores every static object, the blocked and bridged tiles, and the static collision of every chunk. Must be
+     * called on the game thread, before any other entity is registered.
+     *
+     * @param world The world.
+     */
+    public void load(World world) {
+        StaticObjectStore objects = world.getObjects().getStaticObjects();
+        for (int index = 0; index < objectCount; index++) {
+            int id = buffer.getShort() & 0xffff;
+            int x = buffer.getShort() & 0xffff;
+            int y = buffer.getShort() & 0xffff;
+            int z = buffer.get();
+            int data = buffer.get() & 0xff;
+            objects.add(id, new Position(x, y, z), ObjectType.ALL.get(data >> 2), ObjectDirection.ALL.get(data & 3));
+        }
+        objects.trim();
+
+        ChunkManager chunks = world.getChunks();
+        for (int index = 0; index < matrixCount; index++) {
+            Chunk chunk = new Chunk(buffer.getShort(), buffer.getShort());
+            int plane = buffer.get();
+            chunks.load(chunk).getMatrices()[plane].read(buffer);
+        }
+
+        CollisionManager collisionManager = world.getCollisionManager();
+        collisionManager.getBlocked().read(buffer, blockedCount);
+        collisionManager.getBridges().read(buffer, bridgeCount);
+        collisionManager.markStaticBuilt();
+        logger.info("Loaded {} static objects and {} collision matrices from the world image.", box(objectCount),
+                box(matrixCount));
+    }
+
+    /**
+     * Writes a new world image. Must be called on the game thread, once static collision has been built and before
+     * any other entity is registered.
+     *
+     * @param world The world.
+     * @param cacheHash The hash of the cache the world was built from.
+     * @param mapObjects The static objects.
+     * @throws IOException If the image can't be written.
+     */
+    public static void write(World world, long cacheHash, List<MapObject> mapObjects) throws IOException {
+        CollisionManager collisionManager = world.getCollisionManager();
+        List<ChunkRepository> repositories = new ArrayList<>();
+        int matrixCount = 0;
+        for (ChunkRepository repository : world.getChunks().getAll()) {
+            int nonEmpty = 0;
+            for (CollisionMatrix matrix : repository.getMatrices()) {
+                if (!matrix.isEmpty()) {
+                    nonEmpty++;
+                }
+            }
+            if (nonEmpty > 0) {
+                repositories.add(repository);
+                matrixCount += nonEmpty;
+            }
+        }
+
+        // Written to a temporary file first, so an interrupted write can't leave a broken image behind.
+        Path temporary = PATH.resolveSibling(PATH.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(cacheHash);
+            out.writeInt(mapObjects.size());
+            out.writeInt(matrixCount);
+            out.writeInt(collisionManager.getBlocked().getRegionCount());
+            out.writeInt(collisionManager.getBridges().getRegionCount());
+            for (MapObject object : mapObjects) {
+                Position position = object.getPosition();
+                out.writeShort(object.getObjectId());
+                out.writeShort(position.getX());
+                out.writeShort(position.getY());
+                out.writeByte(position.getZ());
+                out.writeByte(object.getType().getId() << 2 | object.getRotation().getId());
+            }
+            for (ChunkRepository repository : repositories) {
+                Chunk chunk = repository.getChunk();
+                CollisionMatrix[] matrices = repository.getMatrices();
+                for (int plane = 0; plane < matrices.length; plane++) {
+                    if (!matrices[plane].isEmpty()) {
+                        out.writeShort(chunk.getX());
+                        out.writeShort(chunk.getY());
+                        out.writeByte(plane);
+                        matrices[plane].write(out);
+                    }
+                }
+            }
+            collisionManager.getBlocked().write(out);
+            collisionManager.getBridges().write(out);
+        }
+        Files.move(temporary, PATH, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.info("Wrote world image with {} static objects and {} collision matrices.", box(mapObjects.size()),
+                box(matrixCount));
+    }
+}
@@ -109,7 +109,7 @@ public final class ItemDefinitionDecoder extends CacheDecoder<ItemDefinition> {
     @Override
     public void decode(Cache cache, Builder<ItemDefinition> decodedObjects) throws Exception {
         childRepository.load();
-        Archive archive = Archive.decode(cache.getFile(0, 2));
+        Archive archive = cache.getArchive(0, 2);
         ByteBuf datBuf = archive.getFileData("obj.dat");
         ByteBuf idxBuf = archive.getFileData("obj.idx");
 
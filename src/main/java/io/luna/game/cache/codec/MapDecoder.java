@@ -1,6 +1,5 @@
 package io.luna.game.cache.codec;
 
-import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableList.Builder;
 import com.google.common.collect.ImmutableMap;
@@ -9,6 +8,7 @@ import io.luna.game.cache.Archive;
 import io.luna.game.cache.Cache;
 import io.luna.game.cache.CacheDecoder;
 import io.luna.game.cache.CacheUtils;
+import io.luna.game.cache.WorldImage;
 import io.luna.game.cache.map.MapIndex;
 import io.luna.game.cache.map.MapIndexTable;
 import io.luna.game.cache.map.MapObject;
@@ -21,15 +21,24 @@ import io.luna.game.model.Region;
 import io.luna.game.model.World;
 import io.luna.game.model.object.ObjectDirection;
 import io.luna.game.model.object.ObjectType;
+import io.luna.game.model.object.StaticObjectStore;
 import io.netty.buffer.ByteBuf;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.Consumer;
 
 import static io.luna.game.cache.CacheUtils.MAP_PLANES;
 import static io.luna.game.cache.CacheUtils.MAP_SIZE;
 
 /**
- * A {@link CacheDecoder} implementation that loads map indexes, objects, and tiles from the cache.
+ * A {@link CacheDecoder} implementation that loads map indexes, objects, and tiles from the cache. When a
+ * {@link WorldImage} matching the cache exists, objects and collision are restored from it instead.
  *
  * @author lare96
  */
@@ -204,7 +213,7 @@ public final class MapDecoder extends CacheDecoder<MapIndex> {
 
     @Override
     public void decode(Cache cache, Builder<MapIndex> decodedObjects) throws Exception {
-        Archive versionListArchive = Archive.decode(cache.getFile(0, 5));
+        Archive versionListArchive = cache.getArchive(0, 5);
         ByteBuf buf = versionListArchive.getFileData("map_index");
         try {
             int indices = buf.readableBytes() / 7;
@@ -226,8 +235,43 @@ public final class MapDecoder extends CacheDecoder<MapIndex> {
         decodedObjects.forEach(it -> tableBuilder.put(it.getRegion(), it));
         ImmutableMap<Region, MapIndex> table = tableBuilder.build();
 
-        ImmutableList<MapObject> mapObjects = decodeMapObjects(cache, table.values());
-        ImmutableMap<MapIndex, MapTileGrid> mapTiles = decodeMapTiles(cache, table.values());
+        long cacheHash = cache.computeHash();
+        WorldImage image = WorldImage.open(cacheHash);
+        if (image != null) {
+            // Objects and collision are restored from the image, so map data is only decoded if it's requested.
+            cache.setMapIndexTable(new MapIndexTable(table,
+                    new MapObjectSet(() -> decodeAllMapObjects(cache, table.values())),
+                    new MapTileGridSet(table.values(), index -> decodeMapTilesUnchecked(cache, index))));
+            ctx.getGame().sync(() -> image.load(ctx.getWorld()));
+            return;
+        }
+
+        ImmutableList<MapObject> mapObjects;
+        ImmutableMap<MapIndex, MapTileGrid> mapTiles;
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            // Every region is decoded by its own task, and the results are merged in order once they're done.
+            List<ForkJoinTask<List<MapObject>>> objectTasks = new ArrayList<>(table.size());
+            List<ForkJoinTask<MapTileGrid>> tileTasks = new ArrayList<>(table.size());
+            for (MapIndex index : table.values()) {
+                objectTasks.add(pool.submit(() -> decodeMapObjects(cache, index)));
+                tileTasks.add(pool.submit(() -> decodeMapTiles(cache, index)));
+            }
+
+            ImmutableList.Builder<MapObject> objectsBuilder = ImmutableList.builder();
+            for (ForkJoinTask<List<MapObject>> task : objectTasks) {
+                objectsBuilder.addAll(join(task));
+            }
+            ImmutableMap.Builder<MapIndex, MapTileGrid> tilesBuilder = ImmutableMap.builder();
+            int tileIndex = 0;
+            for (MapIndex index : table.values()) {
+                tilesBuilder.put(index, join(tileTasks.get(tileIndex++)));
+            }
+            mapObjects = objectsBuilder.build();
+            mapTiles = tilesBuilder.build();
+        } finally {
+            pool.shutdown();
+        }
 
         MapIndexTable indexTable = new MapIndexTable(table,
                 new MapObjectSet(mapObjects),
@@ -236,101 +280,153 @@ public final class MapDecoder extends CacheDecoder<MapIndex> {
 
         ctx.getGame().sync(() -> {
             World world = ctx.getWorld();
-            for (MapObject object : indexTable.getObjectSet().getObjects()) {
-                world.getObjects().register(object.toGameObject(ctx));
+            StaticObjectStore staticObjects = world.getObjects().getStaticObjects();
+            for (MapObject object : mapObjects) {
+                staticObjects.add(object.getObjectId(), object.getPosition(), object.getType(), object.getRotation());
+            }
+            staticObjects.trim();
+
+            // Static collision is built before anything else is registered, so it can be saved on its own.
+            world.getCollisionManager().loadTiles(indexTable.getTileSet());
+            world.getCollisionManager().buildStatic();
+            try {
+                WorldImage.write(world, cacheHash, mapObjects);
+            } catch (IOException e) {
+                logger.warn("World image could not be written.", e);
             }
         });
     }
 
     /**
-     * Decodes the {@link MapObject} types using the provided cache and map indices.
+     * Decodes the {@link MapObject} types within every region, one region at a time.
      *
      * @param cache The cache resource.
-     * @param indices The map indices.
-     * @return The collection of map objects.
-     * @throws Exception If any errors occur.
+     * @param indices The map indexes of every region.
+     * @return The map objects.
      */
-    private ImmutableList<MapObject> decodeMapObjects(Cache cache, ImmutableCollection<MapIndex> indices) throws Exception {
-        ImmutableList.Builder<MapObject> mapObjects = ImmutableList.builder();
+    private ImmutableList<MapObject> decodeAllMapObjects(Cache cache, Collection<MapIndex> indices) {
+        ImmutableList.Builder<MapObject> objectsBuilder = ImmutableList.builder();
         for (MapIndex index : indices) {
-            int objectFileId = index.getObjectFileId();
-            Position basePosition = index.getRegion().getAbsPosition();
-            ByteBuf data = CacheUtils.unzip(cache.getFile(4, objectFileId));
             try {
-                int id = -1;
-                int idOffset;
+                objectsBuilder.addAll(decodeMapObjects(cache, index));
+            } catch (Exception e) {
+                throw new IllegalStateException("Could not decode objects for map index " + index.getRegion(), e);
+            }
+        }
+        return objectsBuilder.build();
+    }
+
+    /**
+     * Forwards to {@link #decodeMapTiles(Cache, MapIndex)}, wrapping any errors in an unchecked exception.
+     */
+    private MapTileGrid decodeMapTilesUnchecked(Cache cache, MapIndex index) {
+        try {
+            return decodeMapTiles(cache, index);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not decode tiles for map index " + index.getRegion(), e);
+        }
+    }
+
+    /**
+     * Waits for a region decoding task to finish.
+     *
+     * @param task The task.
+     * @param <T> The result type.
+     * @return The result.
+     * @throws Exception If the task failed.
+     */
+    private static <T> T join(ForkJoinTask<T> task) throws Exception {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+
+    /**
+     * Decodes the {@link MapObject} types within a single region.
+     *
+     * @param cache The cache resource.
+     * @param index The map index of the region.
+     * @return The map objects.
+     * @throws Exception If any errors occur.
+     */
+    private List<MapObject> decodeMapObjects(Cache cache, MapIndex index) throws Exception {
+        List<MapObject> mapObjects = new ArrayList<>();
+        int objectFileId = index.getObjectFileId();
+        Position basePosition = index.getRegion().getAbsPosition();
+        ByteBuf data = CacheUtils.unzip(cache.getFile(4, objectFileId));
+        try {
+            int id = -1;
+            int idOffset;
+            while (true) {
+                idOffset = CacheUtils.readSmart(data);
+                if (idOffset == 0) {
+                    break;
+                }
+                id += idOffset;
+
+                int objectPositionData = 0;
+                int objectDataOffset;
                 while (true) {
-                    idOffset = CacheUtils.readSmart(data);
-                    if (idOffset == 0) {
+                    objectDataOffset = CacheUtils.readSmart(data);
+                    if (objectDataOffset == 0) {
                         break;
                     }
-                    id += idOffset;
-
-                    int objectPositionData = 0;
-                    int objectDataOffset;
-                    while (true) {
-                        objectDataOffset = CacheUtils.readSmart(data);
-                        if (objectDataOffset == 0) {
-                            break;
-                        }
-                        objectPositionData += objectDataOffset - 1;
+                    objectPositionData += objectDataOffset - 1;
 
-                        int offsetX = objectPositionData >> 6 & 0x3f;
-                        int offsetY = objectPositionData & 0x3f;
-                        int plane = objectPositionData >> 12 & 0x3;
-                        int otherData = data.readUnsignedByte();
+                    int offsetX = objectPositionData >> 6 & 0x3f;
+                    int offsetY = objectPositionData & 0x3f;
+                    int plane = objectPositionData >> 12 & 0x3;
+                    int otherData = data.readUnsignedByte();
 
-                        // TODO Figure out why plane value is 1 for gnome stronghold log? Cheapfix for now.
-                        if((id == 2294 || id == 2295 || id == 2311 || id == 2297) && plane == 1) {
-                            plane = 0;
-                        }
-                        ObjectType type = ObjectType.ALL.get(otherData >> 2);
-                        ObjectDirection rotation = ObjectDirection.ALL.get(otherData & 3);
-                        Position position = basePosition.translate(offsetX, offsetY).setZ(plane);
-                        mapObjects.add(new MapObject(id, position, type, rotation));
+                    // TODO Figure out why plane value is 1 for gnome stronghold log? Cheapfix for now.
+                    if((id == 2294 || id == 2295 || id == 2311 || id == 2297) && plane == 1) {
+                        plane = 0;
                     }
+                    ObjectType type = ObjectType.ALL.get(otherData >> 2);
+                    ObjectDirection rotation = ObjectDirection.ALL.get(otherData & 3);
+                    Position position = basePosition.translate(offsetX, offsetY).setZ(plane);
+                    mapObjects.add(new MapObject(id, position, type, rotation));
                 }
-            } finally {
-                data.release();
             }
+        } finally {
+            data.release();
         }
-        return mapObjects.build();
+        return mapObjects;
     }
 
     /**
-     * Decodes the {@link MapTile} types using the provided cache and map indices.
+     * Decodes the {@link MapTile} types within a single region.
      *
      * @param cache The cache resource.
-     * @param indices The map indices.
-     * @return The tile map.
+     * @param index The map index of the region.
+     * @return The tile grid.
      * @throws Exception If any errors occur.
      */
-    private ImmutableMap<MapIndex, MapTileGrid> decodeMapTiles(Cache cache, ImmutableCollection<MapIndex> indices) throws Exception {
-        ImmutableMap.Builder<MapIndex, MapTileGrid> tileMap = ImmutableMap.builder();
-        for (MapIndex index : indices) {
-            MapTile[][][] tiles = new MapTile[MAP_PLANES][MAP_SIZE][MAP_SIZE];
-            ByteBuf data = CacheUtils.unzip(cache.getFile(4, index.getTileFileId()));
-            try {
-                for (int z = 0; z < MAP_PLANES; z++) {
-                    for (int x = 0; x < MAP_SIZE; x++) {
-                        for (int y = 0; y < MAP_SIZE; y++) {
-                            MapTileDecoder decoder = new MapTileDecoder(x, y, z, data, tiles);
-
-                            int opcode = data.readUnsignedByte();
+    private MapTileGrid decodeMapTiles(Cache cache, MapIndex index) throws Exception {
+        MapTile[][][] tiles = new MapTile[MAP_PLANES][MAP_SIZE][MAP_SIZE];
+        ByteBuf data = CacheUtils.unzip(cache.getFile(4, index.getTileFileId()));
+        try {
+            for (int z = 0; z < MAP_PLANES; z++) {
+                for (int x = 0; x < MAP_SIZE; x++) {
+                    for (int y = 0; y < MAP_SIZE; y++) {
+                        MapTileDecoder decoder = new MapTileDecoder(x, y, z, data, tiles);
+
+                        int opcode = data.readUnsignedByte();
+                        decoder.accept(opcode);
+                        while (opcode >= 2) {
+                            opcode = data.readUnsignedByte();
                             decoder.accept(opcode);
-                            while (opcode >= 2) {
-                                opcode = data.readUnsignedByte();
-                                decoder.accept(opcode);
-                            }
-                            tiles[z][x][y] = decoder.toMapTile();
                         }
+                        tiles[z][x][y] = decoder.toMapTile();
                     }
                 }
-                tileMap.put(index, new MapTileGrid(index.getRegion(), tiles));
-            } finally {
-                data.release();
             }
+            return new MapTileGrid(index.getRegion(), tiles);
+        } finally {
+            data.release();
         }
-        return tileMap.build();
     }
-}
\ No newline at end of file
+}
@@ -22,7 +22,7 @@ public final class NpcDefinitionDecoder extends CacheDecoder<NpcDefinition> {
 
     @Override
     public void decode(Cache cache, Builder<NpcDefinition> decodedObjects) throws Exception {
-        Archive config = Archive.decode(cache.getFile(0, 2));
+        Archive config = cache.getArchive(0, 2);
         ByteBuf dataBuf = config.getFileData("npc.dat");
         ByteBuf idxBuf = config.getFileData("npc.idx");
 
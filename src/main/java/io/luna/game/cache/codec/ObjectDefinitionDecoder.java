@@ -23,7 +23,7 @@ public final class ObjectDefinitionDecoder extends CacheDecoder<GameObjectDefini
 
     @Override
     public void decode(Cache cache, Builder<GameObjectDefinition> decodedObjects) throws Exception {
-        Archive archive = Archive.decode(cache.getFile(0, 2));
+        Archive archive = cache.getArchive(0, 2);
         ByteBuf datBuf = archive.getFileData("loc.dat");
         ByteBuf idxBuf = archive.getFileData("loc.idx");
 
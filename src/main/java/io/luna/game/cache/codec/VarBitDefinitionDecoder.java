@@ -18,7 +18,7 @@ public final class VarBitDefinitionDecoder extends CacheDecoder<VarBitDefinition
 
     @Override
     public void decode(Cache cache, Builder<VarBitDefinition> decodedObjects) throws Exception {
-        Archive config = Archive.decode(cache.getFile(0, 2));
+        Archive config = cache.getArchive(0, 2);
         ByteBuf dataBuf = config.getFileData("varbit.dat");
 
         try {
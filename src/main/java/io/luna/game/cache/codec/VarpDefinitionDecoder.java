@@ -18,7 +18,7 @@ public class VarpDefinitionDecoder extends CacheDecoder<VarpDefinition> {
 
     @Override
     public void decode(Cache cache, Builder<VarpDefinition> decodedObjects) throws Exception {
-        Archive config = Archive.decode(cache.getFile(0, 2));
+        Archive config = cache.getArchive(0, 2);
         ByteBuf dataBuf = config.getFileData("varp.dat");
 
         try {
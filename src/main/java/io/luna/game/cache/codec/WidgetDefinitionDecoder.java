@@ -21,7 +21,7 @@ public final class WidgetDefinitionDecoder extends CacheDecoder<WidgetDefinition
 
     @Override
     public void decode(Cache cache, Builder<WidgetDefinition> decodedObjects) throws Exception {
-        Archive archive = Archive.decode(cache.getFile(0, 3));
+        Archive archive = cache.getArchive(0, 3);
         ByteBuf dataBuf = archive.getFileData("data");
 
         try {
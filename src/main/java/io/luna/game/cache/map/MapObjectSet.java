@@ -1,12 +1,15 @@
 package io.luna.game.cache.map;
 
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Iterator;
 
 /**
- * Represents a collection of all decoded {@link MapObject} types from the cache.
+ * Represents a collection of all decoded {@link MapObject} types from the cache. Objects are either all decoded up
+ * front, or decoded the first time they're requested.
  *
  * @author lare96
  */
@@ -15,7 +18,7 @@ public final class MapObjectSet implements Iterable<MapObject> {
     /**
      * The {@link ImmutableList} of objects.
      */
-    private final ImmutableList<MapObject> objects;
+    private final Supplier<ImmutableList<MapObject>> objects;
 
     /**
      * Creates a new {@link MapObjectSet}.
@@ -23,20 +26,29 @@ public final class MapObjectSet implements Iterable<MapObject> {
      * @param objects The {@link ImmutableList} of objects.
      */
     public MapObjectSet(ImmutableList<MapObject> objects) {
-        this.objects = objects;
+        this.objects = Suppliers.ofInstance(objects);
+    }
+
+    /**
+     * Creates a new {@link MapObjectSet} that decodes objects when they're first requested.
+     *
+     * @param loader The function that decodes the objects.
+     */
+    public MapObjectSet(Supplier<ImmutableList<MapObject>> loader) {
+        objects = Suppliers.memoize(loader);
     }
 
     @NotNull
     @Override
     public Iterator<MapObject> iterator() {
-        return objects.iterator();
+        return objects.get().iterator();
     }
 
     /**
      * @return The {@link ImmutableList} of objects.
      */
     public ImmutableList<MapObject> getObjects() {
-        return objects;
+        return objects.get();
     }
 
 
@@ -1,15 +1,21 @@
 package io.luna.game.cache.map;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Maps;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * A collection of all the {@link MapTileGrid} types that make up the entire rs2 map, linked to their respective
- * {@link MapIndex} types.
+ * {@link MapIndex} types. Grids are either all decoded up front, or decoded the first time they're requested.
  *
  * @author lare96
  */
@@ -18,7 +24,17 @@ public class MapTileGridSet implements Iterable<Map.Entry<MapIndex, MapTileGrid>
     /**
      * The map of grids.
      */
-    private final ImmutableMap<MapIndex, MapTileGrid> gridMap;
+    private final Map<MapIndex, MapTileGrid> gridMap;
+
+    /**
+     * The map indexes that have a grid.
+     */
+    private final ImmutableSet<MapIndex> indices;
+
+    /**
+     * The function that decodes grids, or {@code null} if every grid was decoded up front.
+     */
+    private final Function<MapIndex, MapTileGrid> loader;
 
     /**
      * Creates a new {@link MapTileGridSet}.
@@ -27,6 +43,20 @@ public class MapTileGridSet implements Iterable<Map.Entry<MapIndex, MapTileGrid>
      */
     public MapTileGridSet(ImmutableMap<MapIndex, MapTileGrid> gridMap) {
         this.gridMap = gridMap;
+        indices = gridMap.keySet();
+        loader = null;
+    }
+
+    /**
+     * Creates a new {@link MapTileGridSet} that decodes grids as they're requested.
+     *
+     * @param indices The map indexes that have a grid.
+     * @param loader The function that decodes grids.
+     */
+    public MapTileGridSet(Collection<MapIndex> indices, Function<MapIndex, MapTileGrid> loader) {
+        this.indices = ImmutableSet.copyOf(indices);
+        this.loader = loader;
+        gridMap = new ConcurrentHashMap<>();
     }
 
     /**
@@ -36,7 +66,8 @@ public class MapTileGridSet implements Iterable<Map.Entry<MapIndex, MapTileGrid>
      * @return The grid, or throws {@link NoSuchElementException}.
      */
     public MapTileGrid getGrid(MapIndex index) {
-        MapTileGrid grid = gridMap.get(index);
+        MapTileGrid grid = loader != null && indices.contains(index) ?
+                gridMap.computeIfAbsent(index, loader) : gridMap.get(index);
         if (grid == null) {
             throw new NoSuchElementException("No grid found for map index " + index.getRegion());
         }
@@ -46,6 +77,9 @@ public class MapTileGridSet implements Iterable<Map.Entry<MapIndex, MapTileGrid>
     @NotNull
     @Override
     public Iterator<Map.Entry<MapIndex, MapTileGrid>> iterator() {
-        return gridMap.entrySet().iterator();
+        if (loader == null) {
+            return gridMap.entrySet().iterator();
+        }
+        return Iterators.transform(indices.iterator(), index -> Maps.immutableEntry(index, getGrid(index)));
     }
 }
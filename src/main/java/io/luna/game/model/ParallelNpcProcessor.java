@@ -0,0 +1,178 @@
+package io.luna.game.model;
+
+import io.luna.game.model.mob.MobList;
+import io.luna.game.model.mob.Npc;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A model that pre-processes {@link Npc} walking queues in parallel. NPCs are partitioned by region, and every
+ * region is handed to a worker in a {@link ForkJoinPool} that computes the next position of each NPC within it.
+ * <p>
+ * Workers never touch shared state. Effects that cross region boundaries (chunk moves and collision updates) are
+ * deferred to a single-threaded merge step on the game thread, which applies new positions and then processes
+ * action queues in the same order as the serial loop. Action queues always run on the game thread, because
+ * actions are free to run plugin code that interacts with the rest of the world.
+ *
+ * @author lare96
+ */
+final class ParallelNpcProcessor {
+
+    /**
+     * A {@link RecursiveAction} that computes the next positions of all NPCs within a single region.
+     */
+    private final class RegionTask extends RecursiveAction {
+
+        /**
+         * The NPCs in the region.
+         */
+        private final List<Npc> partition;
+
+        /**
+         * Creates a new {@link RegionTask}.
+         *
+         * @param partition The NPCs in the region.
+         */
+        private RegionTask(List<Npc> partition) {
+            this.partition = partition;
+        }
+
+        @Override
+        protected void compute() {
+            for (Npc npc : partition) {
+                int index = npc.getIndex();
+                Position nextPosition = null;
+                Exception failure = null;
+                try {
+                    nextPosition = npc.getWalking().processSteps();
+                } catch (Exception e) {
+                    failure = e;
+                }
+                processed[index] = npc;
+                nextPositions[index] = nextPosition;
+                failures[index] = failure;
+            }
+        }
+    }
+
+    /**
+     * The asynchronous logger.
+     */
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * The pool that regions will be processed in.
+     */
+    private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("NpcProcessingThread-" + thread.getPoolIndex());
+        return thread;
+    }, null, false);
+
+    /**
+     * The NPCs partitioned by region identifier. Lists are reused across ticks.
+     */
+    private final Map<Integer, List<Npc>> partitions = new HashMap<>();
+
+    /**
+     * The tasks submitted this tick.
+     */
+    private final List<RegionTask> tasks = new ArrayList<>();
+
+    /**
+     * The NPCs that were processed by workers, indexed by NPC index. Used to discard results for indexes that were
+     * reused during the merge step.
+     */
+    private final Npc[] processed;
+
+    /**
+     * The computed positions, indexed by NPC index.
+     */
+    private final Position[] nextPositions;
+
+    /**
+     * The exceptions thrown while computing positions, indexed by NPC index.
+     */
+    private final Exception[] failures;
+
+    /**
+     * Creates a new {@link ParallelNpcProcessor}.
+     *
+     * @param capacity The capacity of the NPC list.
+     */
+    ParallelNpcProcessor(int capacity) {
+        processed = new Npc[capacity];
+        nextPositions = new Position[capacity];
+        failures = new Exception[capacity];
+    }
+
+    /**
+     * Pre-processes walking and action queues for all NPCs in {@code npcList}. Must be called from the game thread.
+     *
+     * @param npcList The NPCs to process.
+     */
+    void process(MobList<Npc> npcList) {
+        partition(npcList);
+        if (!tasks.isEmpty()) {
+            // Tasks must be forked from within the pool, otherwise they'll run in the common pool.
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        }
+        merge(npcList);
+    }
+
+    /**
+     * Groups all NPCs by the region they're currently in, and prepares a task for each non-empty region.
+     */
+    private void partition(MobList<Npc> npcList) {
+        for (List<Npc> partition : partitions.values()) {
+            partition.clear();
+        }
+        tasks.clear();
+        for (Npc npc : npcList) {
+            Position position = npc.getPosition();
+            int regionId = (position.getX() / Region.SIZE) * 256 + position.getY() / Region.SIZE;
+            partitions.computeIfAbsent(regionId, key -> new ArrayList<>()).add(npc);
+        }
+        for (List<Npc> partition : partitions.values()) {
+            if (!partition.isEmpty()) {
+                tasks.add(new RegionTask(partition));
+            }
+        }
+    }
+
+    /**
+     * Applies all computed positions and processes action queues on the game thread.
+     */
+    private void merge(MobList<Npc> npcList) {
+        for (Npc npc : npcList) {
+            int index = npc.getIndex();
+            boolean isProcessed = processed[index] == npc;
+            Position nextPosition = isProcessed ? nextPositions[index] : null;
+            Exception failure = isProcessed ? failures[index] : null;
+            processed[index] = null;
+            nextPositions[index] = null;
+            failures[index] = null;
+            try {
+                if (failure != null) {
+                    throw failure;
+                }
+                if (nextPosition != null) {
+                    npc.setPosition(nextPosition);
+                }
+                npc.getActions().process();
+            } catch (Exception e) {
+                npcList.remove(npc);
+                logger.warn("{} could not complete pre-synchronization.", npc, e);
+            }
+        }
+    }
+}
@@ -2,19 +2,25 @@ package io.luna.game.model;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.Range;
+import com.google.gson.annotations.JsonAdapter;
 import io.luna.game.model.chunk.Chunk;
 import io.luna.game.model.mob.WalkingQueue.Step;
 
 import java.util.Comparator;
-import java.util.Objects;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
 /**
  * A {@link Locatable} made up of a single tile on the Runescape map.
+ * <p>
+ * The coordinates are packed into a single {@code int} (see {@link #pack(int, int, int)}), which also serves as the
+ * hash code, so positions are cheap to compare and hash. Frequently used tiles can be shared through
+ * {@link #of(int, int, int)} rather than allocating a new position every time. Every {@code Gson} instance reads and
+ * writes positions as their {@code x}, {@code y}, and {@code z} coordinates, see {@link PositionTypeAdapter}.
  *
  * @author lare96
  */
+@JsonAdapter(PositionTypeAdapter.class)
 public final class Position implements Locatable {
 
     /**
@@ -55,19 +61,25 @@ public final class Position implements Locatable {
     public static final Range<Integer> HEIGHT_LEVELS = Range.closedOpen(0, 4);
 
     /**
-     * The x coordinate.
+     * The largest possible {@code x} or {@code y} coordinate.
      */
-    private final int x;
+    public static final int MAX_COORDINATE = 0x7fff;
 
     /**
-     * The y coordinate.
+     * The mask used to index {@link #CACHE}.
      */
-    private final int y;
+    private static final int CACHE_MASK = (1 << 14) - 1;
 
     /**
-     * The z coordinate.
+     * Recently requested positions, indexed by a hash of their packed coordinates. Entries are replaced freely and
+     * without synchronization, which is safe because positions are immutable.
      */
-    private final int z;
+    private static final Position[] CACHE = new Position[CACHE_MASK + 1];
+
+    /**
+     * The packed coordinates.
+     */
+    private final int packed;
 
     /**
      * Creates a new {@link Position}, where all {@code x, y, and z} are non-negative.
@@ -76,15 +88,16 @@ public final class Position implements Locatable {
      * @param y The y coordinate.
      * @param z The z coordinate.
      * @throws IllegalArgumentException If either x, y, or z are negative.
+     * @throws IllegalArgumentException If x or y are above {@link #MAX_COORDINATE}.
      * @throws IllegalArgumentException If z is not in the range [0-3], inclusively.
      */
     public Position(int x, int y, int z) {
         checkArgument(x >= 0, "x < 0");
         checkArgument(y >= 0, "y < 0");
-        checkArgument(HEIGHT_LEVELS.contains(z), z + " (z >= 0 && z < 4)");
-        this.x = x;
-        this.y = y;
-        this.z = z;
+        checkArgument(x <= MAX_COORDINATE, "x > " + MAX_COORDINATE);
+        checkArgument(y <= MAX_COORDINATE, "y > " + MAX_COORDINATE);
+        checkArgument(z >= 0 && z < 4, z + " (z >= 0 && z < 4)");
+        packed = pack(x, y, z);
     }
 
     /**
@@ -97,6 +110,64 @@ public final class Position implements Locatable {
         this(x, y, 0);
     }
 
+    /**
+     * Returns a position with the given coordinates, sharing a previously returned instance if one is cached.
+     * Positions that are requested often, like the tiles mobs walk over, are usually returned without allocating.
+     *
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @param z The z coordinate.
+     * @return The position.
+     * @throws IllegalArgumentException If the coordinates are invalid.
+     */
+    public static Position of(int x, int y, int z) {
+        if (x < 0 || y < 0 || x > MAX_COORDINATE || y > MAX_COORDINATE || z < 0 || z > 3) {
+            // Let the constructor report the invalid coordinate.
+            return new Position(x, y, z);
+        }
+        return of(pack(x, y, z));
+    }
+
+    /**
+     * Returns a position with the given packed coordinates, sharing a previously returned instance if one is
+     * cached.
+     *
+     * @param packed The packed coordinates, from {@link #pack(int, int, int)}.
+     * @return The position.
+     */
+    public static Position of(int packed) {
+        int index = (packed * 0x9E3779B9) >>> 18 & CACHE_MASK;
+        Position cached = CACHE[index];
+        if (cached != null && cached.packed == packed) {
+            return cached;
+        }
+        Position position = new Position(packed);
+        CACHE[index] = position;
+        return position;
+    }
+
+    /**
+     * Packs coordinates into a single value, with {@code x} in the lowest 15 bits, then {@code y}, then {@code z}.
+     * The coordinates are not validated.
+     *
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @param z The z coordinate.
+     * @return The packed coordinates.
+     */
+    public static int pack(int x, int y, int z) {
+        return x | y << 15 | z << 30;
+    }
+
+    /**
+     * Creates a new {@link Position} from already validated packed coordinates.
+     *
+     * @param packed The packed coordinates.
+     */
+    private Position(int packed) {
+        this.packed = packed;
+    }
+
     @Override
     public boolean contains(Position position) {
         return position.equals(this);
@@ -104,12 +175,12 @@ public final class Position implements Locatable {
 
     @Override
     public String toString() {
-        return MoreObjects.toStringHelper(this).add("x", x).add("y", y).add("z", z).toString();
+        return MoreObjects.toStringHelper(this).add("x", getX()).add("y", getY()).add("z", getZ()).toString();
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(x, y, z);
+        return packed;
     }
 
     @Override
@@ -119,7 +190,7 @@ public final class Position implements Locatable {
         }
         if (obj instanceof Position) {
             Position other = (Position) obj;
-            return x == other.x && y == other.y && z == other.z;
+            return packed == other.packed;
         }
         return false;
     }
@@ -153,11 +224,11 @@ public final class Position implements Locatable {
     public boolean isWithinDistance(Position other, int distance) {
         checkArgument(distance >= 0, "Distance must be non-negative.");
 
-        if (z != other.z) { // check if position is on the same plane.
+        if (getZ() != other.getZ()) { // check if position is on the same plane.
             return false;
         }
-        int deltaX = Math.abs(other.x - x);
-        int deltaY = Math.abs(other.y - y);
+        int deltaX = Math.abs(other.getX() - getX());
+        int deltaY = Math.abs(other.getY() - getY());
         return deltaX <= distance && deltaY <= distance;
     }
 
@@ -186,8 +257,8 @@ public final class Position implements Locatable {
      * @return The longest distance between this and {@code other}.
      */
     public int computeLongestDistance(Position other) {
-        int deltaX = Math.abs(other.x - x);
-        int deltaY = Math.abs(other.y - y);
+        int deltaX = Math.abs(other.getX() - getX());
+        int deltaY = Math.abs(other.getY() - getY());
         return Math.max(deltaX, deltaY);
     }
 
@@ -203,7 +274,7 @@ public final class Position implements Locatable {
         if (amountX == 0 && amountY == 0 && amountZ == 0) {
             return this;
         }
-        return new Position(x + amountX, y + amountY, z + amountZ);
+        return of(getX() + amountX, getY() + amountY, getZ() + amountZ);
     }
 
     /**
@@ -238,21 +309,21 @@ public final class Position implements Locatable {
      * @return
      */
     public Position setZ(int newZ) {
-        return new Position(x, y, newZ);
+        return of(getX(), getY(), newZ);
     }
 
     /**
      * Gets the central x coordinate of this position's chunk.
      */
     public int getChunkX() {
-        return x / 8;
+        return getX() / 8;
     }
 
     /**
      * Gets the central y coordinate of this position's chunk.
      */
     public int getChunkY() {
-        return y / 8;
+        return getY() / 8;
     }
 
     /**
@@ -261,7 +332,7 @@ public final class Position implements Locatable {
      * @return The bottom-left chunk x.
      */
     public int getBottomLeftChunkX() {
-        return x / 8 - 6;
+        return getX() / 8 - 6;
     }
 
     /**
@@ -270,7 +341,7 @@ public final class Position implements Locatable {
      * @return The bottom-left chunk y.
      */
     public int getBottomLeftChunkY() {
-        return y / 8 - 6;
+        return getY() / 8 - 6;
     }
 
     /**
@@ -279,7 +350,7 @@ public final class Position implements Locatable {
      * @param base The base chunk.
      */
     public int getLocalX(Position base) {
-        return x - base.getBottomLeftChunkX() * 8;
+        return getX() - base.getBottomLeftChunkX() * 8;
     }
 
     /**
@@ -288,7 +359,7 @@ public final class Position implements Locatable {
      * @param base The base chunk.
      */
     public int getLocalY(Position base) {
-        return y - base.getBottomLeftChunkY() * 8;
+        return getY() - base.getBottomLeftChunkY() * 8;
     }
 
     /**
@@ -313,20 +384,27 @@ public final class Position implements Locatable {
      * @return The x coordinate.
      */
     public int getX() {
-        return x;
+        return packed & MAX_COORDINATE;
     }
 
     /**
      * @return The y coordinate.
      */
     public int getY() {
-        return y;
+        return packed >>> 15 & MAX_COORDINATE;
     }
 
     /**
      * @return The z coordinate.
      */
     public int getZ() {
-        return z;
+        return packed >>> 30;
+    }
+
+    /**
+     * @return The packed coordinates.
+     */
+    public int getPacked() {
+        return packed;
     }
 }
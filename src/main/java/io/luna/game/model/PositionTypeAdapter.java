@@ -0,0 +1,52 @@
+package io.luna.game.model;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * A {@link TypeAdapter} that reads and writes {@link Position}s as their {@code x}, {@code y}, and {@code z}
+ * coordinates, rather than their packed form. Missing coordinates default to {@code 0}, and unknown members are
+ * skipped.
+ *
+ * @author lare96
+ */
+final class PositionTypeAdapter extends TypeAdapter<Position> {
+
+    @Override
+    public void write(JsonWriter out, Position value) throws IOException {
+        out.beginObject();
+        out.name("x").value(value.getX());
+        out.name("y").value(value.getY());
+        out.name("z").value(value.getZ());
+        out.endObject();
+    }
+
+    @Override
+    public Position read(JsonReader in) throws IOException {
+        int x = 0;
+        int y = 0;
+        int z = 0;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "x":
+                    x = in.nextInt();
+                    break;
+                case "y":
+                    y = in.nextInt();
+                    break;
+                case "z":
+                    z = in.nextInt();
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return Position.of(x, y, z);
+    }
+}
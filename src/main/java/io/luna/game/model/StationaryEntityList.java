@@ -113,7 +113,7 @@ public abstract class StationaryEntityList<E extends StationaryEntity> implement
      * @param position The position to check.
      * @return {@code true} if occupied.
      */
-    public final boolean isOccupied(Position position) {
+    public boolean isOccupied(Position position) {
         for(Entity entity : world.getChunks().load(position).getAll(type)) {
             if(entity.getPosition().equals(position)) {
                 return true;
@@ -128,7 +128,7 @@ public abstract class StationaryEntityList<E extends StationaryEntity> implement
      * @param position The position to unregister entities on.
      * @return The set of entities.
      */
-    public final Stream<E> findAll(Position position) {
+    public Stream<E> findAll(Position position) {
         var chunkManager = world.getChunks();
         Stream<E> insideChunk = chunkManager.load(position.getChunk()).stream(type);
         return insideChunk.filter(entity -> entity.position.equals(position));
@@ -1,9 +1,12 @@
 package io.luna.game.model;
 
+import io.luna.Luna;
 import io.luna.LunaContext;
 import io.luna.game.GameService;
 import io.luna.game.LoginService;
 import io.luna.game.LogoutService;
+import io.luna.game.TickProfiler;
+import io.luna.game.TickProfiler.Phase;
 import io.luna.game.model.chunk.ChunkManager;
 import io.luna.game.model.collision.CollisionManager;
 import io.luna.game.model.item.GroundItemList;
@@ -14,6 +17,7 @@ import io.luna.game.model.mob.Player;
 import io.luna.game.model.mob.bot.BotManager;
 import io.luna.game.model.mob.bot.BotRepository;
 import io.luna.game.model.object.GameObjectList;
+import io.luna.game.model.path.PathfindingService;
 import io.luna.game.persistence.GameSerializerManager;
 import io.luna.game.persistence.PersistenceService;
 import io.luna.game.task.Task;
@@ -135,7 +139,7 @@ public final class World {
     /**
      * The task manager.
      */
-    private final TaskManager tasks = new TaskManager();
+    private final TaskManager tasks;
 
     /**
      * The shop manager.
@@ -162,6 +166,16 @@ public final class World {
      */
     private final ExecutorService updatePool;
 
+    /**
+     * The parallel NPC processor, or {@code null} if NPCs are processed on the game thread.
+     */
+    private final ParallelNpcProcessor parallelNpcProcessor;
+
+    /**
+     * The tick profiler.
+     */
+    private final TickProfiler profiler = new TickProfiler();
+
     /**
      * The current tick.
      */
@@ -177,6 +191,11 @@ public final class World {
      */
     private final CollisionManager collisionManager;
 
+    /**
+     * The pathfinding service.
+     */
+    private final PathfindingService pathfindingService;
+
     /**
      * The connection pool.
      */
@@ -191,7 +210,9 @@ public final class World {
         this.context = context;
 
         playerMap = new ConcurrentHashMap<>();
+        tasks = new TaskManager(Luna.settings().game().taskProfiling());
         collisionManager = new CollisionManager(this);
+        pathfindingService = new PathfindingService(Luna.settings().game().pathfindingBudget());
         botRepository = new BotRepository(this);
         persistenceService = new PersistenceService(this);
 
@@ -208,6 +229,10 @@ public final class World {
 
         // Initialize synchronization thread pool.
         updatePool = ExecutorUtils.threadPool("WorldSynchronizationThread");
+
+        // Initialize parallel NPC processing, if enabled.
+        parallelNpcProcessor = Luna.settings().game().parallelNpcProcessing() ?
+                new ParallelNpcProcessor(npcList.capacity()) : null;
     }
 
     /**
@@ -250,20 +275,28 @@ public final class World {
     public void process() {
         // Add pending players that have just logged in.
         loginService.finishRequests();
+        profiler.mark(Phase.LOGIN);
 
         // Remove pending players that have just logged out.
         logoutService.finishRequests();
+        profiler.mark(Phase.LOGOUT);
 
         // Process all tasks.
         tasks.runTaskIteration();
+        profiler.mark(Phase.TASKS);
 
         // Handle world synchronization.
         preSynchronize();
+        profiler.mark(Phase.PRE_SYNCHRONIZE);
         synchronize();
+        profiler.mark(Phase.SYNCHRONIZE);
         postSynchronize();
 
         chunks.resetUpdatedChunks();
         botManager.getInjectorManager().clearEvents();
+        collisionManager.publishSnapshots();
+        pathfindingService.dispatch();
+        profiler.mark(Phase.POST_SYNCHRONIZE);
 
         // Increment tick counter.
         currentTick.incrementAndGet();
@@ -283,14 +316,21 @@ public final class World {
             player.getClient().handleDecodedMessages();
         }
 
+        // Next, deliver paths that were requested last tick.
+        pathfindingService.deliver();
+
         // Then, pre-process NPC walking and action queues.
-        for (Npc npc : npcList) {
-            try {
-                npc.getWalking().process();
-                npc.getActions().process();
-            } catch (Exception e) {
-                npcList.remove(npc);
-                logger.warn("{} could not complete pre-synchronization.", npc, e);
+        if (parallelNpcProcessor != null) {
+            parallelNpcProcessor.process(npcList);
+        } else {
+            for (Npc npc : npcList) {
+                try {
+                    npc.getWalking().process();
+                    npc.getActions().process();
+                } catch (Exception e) {
+                    npcList.remove(npc);
+                    logger.warn("{} could not complete pre-synchronization.", npc, e);
+                }
             }
         }
 
@@ -350,7 +390,6 @@ public final class World {
         for (Player player : playerList) {
             try {
                 player.resetFlags();
-                player.setCachedBlock(null);
             } catch (Exception e) {
                 player.logout();
                 logger.warn("{} could not complete post-synchronization.", player, e);
@@ -471,6 +510,13 @@ public final class World {
         return shops;
     }
 
+    /**
+     * @return The tick profiler.
+     */
+    public TickProfiler getProfiler() {
+        return profiler;
+    }
+
     /**
      * @return The current tick.
      */
@@ -492,6 +538,13 @@ public final class World {
         return collisionManager;
     }
 
+    /**
+     * @return The pathfinding service.
+     */
+    public PathfindingService getPathfindingService() {
+        return pathfindingService;
+    }
+
     /**
      * @return The serializer manager.
      */
@@ -79,4 +79,18 @@ public final class CircularArea extends Area {
         }
         return set.build();
     }
+
+    /**
+     * @return The center position of this circular area.
+     */
+    public Position getCenter() {
+        return center;
+    }
+
+    /**
+     * @return The radius of this circular area.
+     */
+    public int getRadius() {
+        return radius;
+    }
 }
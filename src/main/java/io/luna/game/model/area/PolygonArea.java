@@ -200,4 +200,32 @@ public class PolygonArea extends Area {
     private boolean inBounds(int x, int y) {
         return x >= this.southWestX && y >= this.southWestY && x < northEastX && y < northEastY;
     }
+
+    /**
+     * @return The bounding box south-west x coordinate.
+     */
+    public int getSouthWestX() {
+        return southWestX;
+    }
+
+    /**
+     * @return The bounding box south-west y coordinate.
+     */
+    public int getSouthWestY() {
+        return southWestY;
+    }
+
+    /**
+     * @return The bounding box north-east x coordinate.
+     */
+    public int getNorthEastX() {
+        return northEastX;
+    }
+
+    /**
+     * @return The bounding box north-east y coordinate.
+     */
+    public int getNorthEastY() {
+        return northEastY;
+    }
 }
@@ -109,4 +109,32 @@ public class SimpleBoxArea extends Area {
         // Areas are inclusive to base coordinates, so we add 1.
         return (northEastX - southWestX) + 1;
     }
-}
\ No newline at end of file
+
+    /**
+     * @return The south-west x coordinate.
+     */
+    public int getSouthWestX() {
+        return southWestX;
+    }
+
+    /**
+     * @return The south-west y coordinate.
+     */
+    public int getSouthWestY() {
+        return southWestY;
+    }
+
+    /**
+     * @return The north-east x coordinate.
+     */
+    public int getNorthEastX() {
+        return northEastX;
+    }
+
+    /**
+     * @return The north-east y coordinate.
+     */
+    public int getNorthEastY() {
+        return northEastY;
+    }
+}
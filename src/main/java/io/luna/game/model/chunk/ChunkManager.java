@@ -3,15 +3,19 @@ package io.luna.game.model.chunk;
 import io.luna.game.model.Entity;
 import io.luna.game.model.EntityType;
 import io.luna.game.model.Position;
+import io.luna.game.model.Region;
 import io.luna.game.model.StationaryEntity;
 import io.luna.game.model.World;
 import io.luna.game.model.mob.Mob;
+import io.luna.game.model.mob.MobList;
 import io.luna.game.model.mob.Npc;
 import io.luna.game.model.mob.Player;
+import io.luna.game.model.object.GameObject;
 import io.luna.net.msg.out.ClearChunkMessageWriter;
 import io.luna.net.msg.out.GroupedEntityMessageWriter;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -39,6 +43,24 @@ import static com.google.common.base.Preconditions.checkArgument;
 public final class ChunkManager implements Iterable<ChunkRepository> {
 // todo rewrite, some confusion between this and gameobjectlist etc. where should we put functions to find world entites?
     // todo ^^ needs some standardization and organization
+
+    /**
+     * A visitor over the mobs found by {@link #forEachMob(Position, Class, int, MobVisitor)}.
+     *
+     * @param <T> The mob type.
+     */
+    @FunctionalInterface
+    public interface MobVisitor<T extends Mob> {
+
+        /**
+         * Visits a single mob.
+         *
+         * @param mob The mob.
+         * @return {@code false} to stop visiting mobs.
+         */
+        boolean visit(T mob);
+    }
+
     /**
      * Determines the local player count at which prioritized updating will start.
      */
@@ -49,11 +71,32 @@ public final class ChunkManager implements Iterable<ChunkRepository> {
      */
     public static final int VIEWABLE_RADIUS = 4;
 
+    /**
+     * The amount of regions on the map.
+     */
+    private static final int REGION_COUNT = 256 * 256;
+
+    /**
+     * The amount of chunks along one side of a region.
+     */
+    private static final int REGION_CHUNKS = Region.SIZE / Chunk.SIZE;
+
+    /**
+     * The offset between {@link Chunk} coordinates and absolute chunk coordinates.
+     */
+    private static final int CHUNK_OFFSET = 6;
+
     /**
      * A map of loaded chunks.
      */
     private final Map<Chunk, ChunkRepository> repositories = new ConcurrentHashMap<>(29_278);
 
+    /**
+     * A flat grid of loaded chunks, indexed by region identifier and then by chunk slot within the region. Used for
+     * fast, allocation-free lookups. Slots that haven't been published yet fall back to {@link #repositories}.
+     */
+    private final ChunkRepository[][] grid = new ChunkRepository[REGION_COUNT][];
+
     /**
      * A queue of chunks that updates were sent to.
      */
@@ -90,7 +133,34 @@ public final class ChunkManager implements Iterable<ChunkRepository> {
      * @return The existing or newly loaded chunk.
      */
     public ChunkRepository load(Chunk chunk) {
-        return repositories.computeIfAbsent(chunk, key -> new ChunkRepository(world, key));
+        return repositories.computeIfAbsent(chunk, key -> {
+            ChunkRepository repository = new ChunkRepository(world, key);
+            publish(repository);
+            return repository;
+        });
+    }
+
+    /**
+     * Loads a {@link ChunkRepository} based on the argued chunk coordinates. Uses the chunk grid when possible, so
+     * no {@link Chunk} needs to be created for chunks that have already been loaded.
+     *
+     * @param chunkX The chunk {@code x} coordinate.
+     * @param chunkY The chunk {@code y} coordinate.
+     * @return The existing or newly loaded chunk.
+     */
+    public ChunkRepository load(int chunkX, int chunkY) {
+        int absX = chunkX + CHUNK_OFFSET;
+        int absY = chunkY + CHUNK_OFFSET;
+        if (absX >= 0 && absY >= 0 && absX < 256 * REGION_CHUNKS && absY < 256 * REGION_CHUNKS) {
+            ChunkRepository[] slots = grid[regionId(absX, absY)];
+            if (slots != null) {
+                ChunkRepository repository = slots[slot(absX, absY)];
+                if (repository != null) {
+                    return repository;
+                }
+            }
+        }
+        return load(new Chunk(chunkX, chunkY));
     }
 
     /**
@@ -104,14 +174,16 @@ public final class ChunkManager implements Iterable<ChunkRepository> {
     }
 
     /**
-     * Returns a set of all nearby {@link Mob} types matching {@code type} that need to be updated for {@code player}.
+     * Visits all nearby {@link Mob} types matching {@code type} that need to be updated for {@code player}. Once
+     * {@code player} has more than {@link #UNSORTED_THRESHOLD} local mobs, they will be visited in order of
+     * importance according to {@link ChunkMobComparator}.
      *
      * @param player The player.
      * @param type The mob type.
+     * @param visitor The visitor.
      * @param <T> The mob type.
-     * @return The set of mobs that need to be updated.
      */
-    public <T extends Mob> Set<T> findUpdateMobs(Player player, Class<T> type) {
+    public <T extends Mob> void forEachUpdateMob(Player player, Class<T> type, MobVisitor<T> visitor) {
         int count;
         if (type == Player.class) {
             count = player.getUpdatePlayers().size();
@@ -120,10 +192,62 @@ public final class ChunkManager implements Iterable<ChunkRepository> {
         } else {
             throw new IllegalStateException("Invalid mob type.");
         }
-        return find(player.getPosition(), type,
-                () -> count > UNSORTED_THRESHOLD ? new TreeSet<>(new ChunkMobComparator(player)) : new HashSet<>(),
-                entity -> entity.isViewableFrom(player),
-                Position.VIEWING_DISTANCE);
+        if (count > UNSORTED_THRESHOLD) {
+            Set<T> sorted = new TreeSet<>(new ChunkMobComparator(player));
+            forEachMob(player.getPosition(), type, Position.VIEWING_DISTANCE, mob -> {
+                if (mob.isViewableFrom(player)) {
+                    sorted.add(mob);
+                }
+                return true;
+            });
+            for (T mob : sorted) {
+                if (!visitor.visit(mob)) {
+                    break;
+                }
+            }
+        } else {
+            forEachMob(player.getPosition(), type, Position.VIEWING_DISTANCE,
+                    mob -> !mob.isViewableFrom(player) || visitor.visit(mob));
+        }
+    }
+
+    /**
+     * Visits all {@code type} mobs in the chunks within {@code distance} to {@code base}. Mobs are resolved from
+     * the primitive index buckets of each chunk, so this function does not allocate. Filtering by exact distance
+     * is left to {@code visitor}.
+     *
+     * @param base The base position to find mobs around.
+     * @param type The type of mob to search for.
+     * @param distance The distance to check for.
+     * @param visitor The visitor.
+     * @param <T> The type of mob to find.
+     */
+    public <T extends Mob> void forEachMob(Position base, Class<T> type, int distance, MobVisitor<T> visitor) {
+        checkArgument(distance > 0, "[distance] cannot be below 1.");
+        EntityType entityType = EntityType.CLASS_TO_TYPE.get(type);
+        MobList<? extends Mob> mobs;
+        if (entityType == EntityType.PLAYER) {
+            mobs = world.getPlayers();
+        } else if (entityType == EntityType.NPC) {
+            mobs = world.getNpcs();
+        } else {
+            throw new IllegalArgumentException("Invalid mob type.");
+        }
+
+        int radius = Math.floorDiv(distance, Chunk.SIZE) + 2;
+        int baseX = base.getBottomLeftChunkX();
+        int baseY = base.getBottomLeftChunkY();
+        for (int x = -radius; x < radius; x++) {
+            for (int y = -radius; y < radius; y++) {
+                IndexBucket bucket = load(baseX + x, baseY + y).getMobIndexes(entityType);
+                for (int index = 0; index < bucket.size(); index++) {
+                    T mob = type.cast(mobs.get(bucket.get(index)));
+                    if (mob != null && !visitor.visit(mob)) {
+                        return;
+                    }
+                }
+            }
+        }
     }
 
     /**
@@ -146,12 +270,12 @@ public final class ChunkManager implements Iterable<ChunkRepository> {
      * @return The set of chunks.
      */
     public Set<ChunkRepository> findViewableChunks(Position base) {
-        Chunk chunk = base.getChunk();
-        Set<ChunkRepository> viewable = new HashSet<>(16);
+        int baseX = base.getBottomLeftChunkX();
+        int baseY = base.getBottomLeftChunkY();
+        Set<ChunkRepository> viewable = new HashSet<>(64);
         for (int x = -VIEWABLE_RADIUS; x < VIEWABLE_RADIUS; x++) {
             for (int y = -VIEWABLE_RADIUS; y < VIEWABLE_RADIUS; y++) {
-                ChunkRepository repository = load(chunk.translate(x, y));
-                viewable.add(repository);
+                viewable.add(load(baseX + x, baseY + y));
             }
         }
         return viewable;
@@ -180,27 +304,27 @@ public final class ChunkManager implements Iterable<ChunkRepository> {
 
         // Send out grouped entity updates for old chunks that still remain in view.
         for (ChunkRepository chunk : viewableOldChunks) {
-            List<ChunkUpdatableMessage> updates = chunk.getUpdates(player);
-            if (!updates.isEmpty()) {
+            ChunkUpdateGroup updates = chunk.getUpdateGroup();
+            List<ChunkUpdatableMessage> localUpdates = updates.getLocalMessages(player);
+            if (updates.hasGlobal() || !localUpdates.isEmpty()) {
                 updated.add(chunk);
-                player.queue(new GroupedEntityMessageWriter(player.getLastRegion(), chunk, updates));
+                player.queue(new GroupedEntityMessageWriter(player.getLastRegion(), chunk,
+                        List.of(updates.getEncodedGlobal()), localUpdates));
             }
         }
 
         // Send out grouped entity updates for new chunks in view.
         for (ChunkRepository chunk : newChunks) {
-            List<ChunkUpdatableMessage> updates = chunk.getUpdates(player);
             // Chunk was cleared, so resend static updates like displaying registered objects and items.
-            for (ChunkUpdatableRequest request : chunk.getPersistentUpdates()) {
-                ChunkUpdatableView view = request.getUpdatable().computeCurrentView();
-                if (view.isViewableFor(player)) {
-                    updates.add(request.getMessage());
-                }
-            }
-            if (!updates.isEmpty()) {
+            ChunkUpdateGroup updates = chunk.getUpdateGroup();
+            ChunkUpdateGroup persistentUpdates = chunk.getPersistentUpdateGroup();
+            List<ChunkUpdatableMessage> localUpdates = new ArrayList<>(updates.getLocalMessages(player));
+            localUpdates.addAll(persistentUpdates.getLocalMessages(player));
+            if (updates.hasGlobal() || persistentUpdates.hasGlobal() || !localUpdates.isEmpty()) {
                 updated.add(chunk);
                 player.queue(new ClearChunkMessageWriter(player.getLastRegion(), chunk));
-                player.queue(new GroupedEntityMessageWriter(player.getLastRegion(), chunk, updates));
+                player.queue(new GroupedEntityMessageWriter(player.getLastRegion(), chunk,
+                        List.of(updates.getEncodedGlobal(), persistentUpdates.getEncodedGlobal()), localUpdates));
             }
         }
     }
@@ -235,16 +359,22 @@ public final class ChunkManager implements Iterable<ChunkRepository> {
         int radius = Math.floorDiv(distance, Chunk.SIZE) + 2;
         Set<T> found = setFunc.get();
         EntityType entityType = EntityType.CLASS_TO_TYPE.get(type);
-        Chunk chunk = base.getChunk();
+        int baseX = base.getBottomLeftChunkX();
+        int baseY = base.getBottomLeftChunkY();
         for (int x = -radius; x < radius; x++) {
             for (int y = -radius; y < radius; y++) {
-                ChunkRepository repository = load(chunk.translate(x, y));
+                ChunkRepository repository = load(baseX + x, baseY + y);
                 Set<T> entities = repository.getAll(entityType);
                 for (T entity : entities) {
                     if (cond.test(entity)) {
                         found.add(entity);
                     }
                 }
+                if (entityType == EntityType.OBJECT) {
+                    // Objects loaded from the cache are only registered with their chunk once touched.
+                    world.getObjects().getStaticObjects().find(repository.getChunk(),
+                            object -> cond.test(type.cast(object)), object -> found.add(type.cast(object)));
+                }
             }
         }
         return found;
@@ -268,9 +398,53 @@ public final class ChunkManager implements Iterable<ChunkRepository> {
                 return entity;
             }
         }
+        if (type == GameObject.class) {
+            // Objects loaded from the cache are only registered with their chunk once touched.
+            List<T> matched = new ArrayList<>(1);
+            world.getObjects().getStaticObjects().find(repository.getChunk(),
+                    object -> cond.test(type.cast(object)), object -> matched.add(type.cast(object)));
+            return matched.isEmpty() ? null : matched.get(0);
+        }
         return null;
     }
 
+    /**
+     * Publishes a newly loaded repository to the chunk grid.
+     *
+     * @param repository The repository.
+     */
+    private void publish(ChunkRepository repository) {
+        Chunk chunk = repository.getChunk();
+        int absX = chunk.getX() + CHUNK_OFFSET;
+        int absY = chunk.getY() + CHUNK_OFFSET;
+        if (absX < 0 || absY < 0 || absX >= 256 * REGION_CHUNKS || absY >= 256 * REGION_CHUNKS) {
+            return;
+        }
+        synchronized (grid) {
+            int regionId = regionId(absX, absY);
+            ChunkRepository[] slots = grid[regionId];
+            if (slots == null) {
+                slots = new ChunkRepository[REGION_CHUNKS * REGION_CHUNKS];
+                grid[regionId] = slots;
+            }
+            slots[slot(absX, absY)] = repository;
+        }
+    }
+
+    /**
+     * Computes the region identifier of absolute chunk coordinates.
+     */
+    private static int regionId(int absX, int absY) {
+        return (absX / REGION_CHUNKS) * 256 + absY / REGION_CHUNKS;
+    }
+
+    /**
+     * Computes the slot of absolute chunk coordinates within their region.
+     */
+    private static int slot(int absX, int absY) {
+        return (absX % REGION_CHUNKS) * REGION_CHUNKS + absY % REGION_CHUNKS;
+    }
+
     /**
      * @return All chunks being managed by this repository.
      */
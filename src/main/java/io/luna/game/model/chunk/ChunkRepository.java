@@ -9,13 +9,13 @@ import io.luna.game.model.Position;
 import io.luna.game.model.StationaryEntity;
 import io.luna.game.model.World;
 import io.luna.game.model.collision.CollisionMatrix;
+import io.luna.game.model.collision.CollisionSnapshot;
 import io.luna.game.model.collision.CollisionUpdate;
 import io.luna.game.model.collision.CollisionUpdateType;
-import io.luna.game.model.mob.Player;
+import io.luna.game.model.mob.Mob;
 import io.luna.game.model.object.GameObject;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumMap;
@@ -53,6 +53,16 @@ public final class ChunkRepository implements Iterable<Entity> {
      */
     private final Map<EntityType, Set<Entity>> entities;
 
+    /**
+     * The list indexes of players within this chunk.
+     */
+    private final IndexBucket playerIndexes = new IndexBucket();
+
+    /**
+     * The list indexes of NPCs within this chunk.
+     */
+    private final IndexBucket npcIndexes = new IndexBucket();
+
     /**
      * A map of persistent updates to {@link StationaryEntity} types within this chunk. The only update type stored
      * here is the one that displays the entity.
@@ -65,6 +75,17 @@ public final class ChunkRepository implements Iterable<Entity> {
      */
     private final List<ChunkUpdatableRequest> temporaryUpdates = new ArrayList<>();
 
+    /**
+     * The temporary updates, split by view and encoded on first use. {@code null} if not encoded yet.
+     */
+    private ChunkUpdateGroup temporaryGroup;
+
+    /**
+     * The persistent updates, split by view and encoded on first use. {@code null} if not encoded yet, or if the
+     * persistent updates have changed since.
+     */
+    private ChunkUpdateGroup persistentGroup;
+
     /**
      * The {@link CollisionMatrix} for this chunk.
      */
@@ -72,9 +93,14 @@ public final class ChunkRepository implements Iterable<Entity> {
             SIZE, SIZE);
 
     /**
-     * The thread-safe snapshot of {@link #matrices}.
+     * The thread-safe snapshot of {@link #matrices}, published at most once per tick.
+     */
+    private volatile CollisionSnapshot snapshot = CollisionSnapshot.empty(matrices.length);
+
+    /**
+     * A bit mask of the planes in {@link #matrices} that changed since {@link #snapshot} was published.
      */
-    private volatile CollisionMatrix[] snapshot;
+    private int changedPlanes;
 
     /**
      * Creates a new {@link ChunkRepository}.
@@ -122,10 +148,26 @@ public final class ChunkRepository implements Iterable<Entity> {
      * @return {@code true} if traversable.
      */
     public boolean traversable(Position next, EntityType type, Direction direction, boolean safe) {
-        CollisionMatrix matrix = safe ? snapshot[next.getZ()] : matrices[next.getZ()];
-        int x = next.getX(), y = next.getY();
+        return traversable(next.getX(), next.getY(), next.getZ(), type, direction, safe);
+    }
 
-        return !matrix.untraversable(x % SIZE, y % SIZE, type, direction);
+    /**
+     * Determines if the tile on {@code x, y, z} is traversable for entity with {@code type}, when coming from
+     * {@code direction}.
+     *
+     * @param x The {@code x} coordinate.
+     * @param y The {@code y} coordinate.
+     * @param z The {@code z} coordinate.
+     * @param type The entity type.
+     * @param direction The direction.
+     * @param safe If the collision snapshot should be used.
+     * @return {@code true} if traversable.
+     */
+    public boolean traversable(int x, int y, int z, EntityType type, Direction direction, boolean safe) {
+        if (safe) {
+            return !snapshot.untraversable(x % SIZE, y % SIZE, z, type, direction);
+        }
+        return !matrices[z].untraversable(x % SIZE, y % SIZE, type, direction);
     }
 
     /**
@@ -150,14 +192,33 @@ public final class ChunkRepository implements Iterable<Entity> {
         } else if(entity.getType() == EntityType.NPC) {
             builder.tile(entity.getPosition(), false, Direction.NESW);
         }
-        world.getCollisionManager().apply(builder.build(), false);
+        world.getCollisionManager().apply(builder.build());
     }
 
     /**
-     * Creates a thread-safe copy of the backing {@link #matrices}.
+     * Records that {@code plane} within {@link #matrices} has changed, so it's copied into the next snapshot.
+     *
+     * @param plane The plane.
+     * @return {@code true} if this is the first change since the last snapshot.
+     */
+    public boolean collisionChanged(int plane) {
+        boolean first = changedPlanes == 0;
+        changedPlanes |= 1 << plane;
+        return first;
+    }
+
+    /**
+     * Publishes a new thread-safe snapshot of the backing {@link #matrices}, copying only the planes that changed.
+     *
+     * @param epoch The epoch of the new snapshot.
+     * @param full If every plane should be copied, regardless of what changed.
      */
-    public void snapshotCollisionMap() {
-        snapshot = Arrays.copyOf(matrices, matrices.length);
+    public void snapshotCollisionMap(long epoch, boolean full) {
+        int planes = full ? (1 << matrices.length) - 1 : changedPlanes;
+        if (planes != 0) {
+            snapshot = snapshot.next(epoch, matrices, planes);
+            changedPlanes = 0;
+        }
     }
 
     /**
@@ -168,6 +229,13 @@ public final class ChunkRepository implements Iterable<Entity> {
     public void add(Entity entity) {
         Set<Entity> entitySet = entities.get(entity.getType());
         checkState(entitySet.add(entity), entity + " could not be added to chunk.");
+        if (entity instanceof Mob) {
+            IndexBucket bucket = getMobIndexes(entity.getType());
+            int index = ((Mob) entity).getIndex();
+            if (bucket != null && index != -1) {
+                bucket.add(index);
+            }
+        }
     }
 
     /**
@@ -178,6 +246,12 @@ public final class ChunkRepository implements Iterable<Entity> {
     public void remove(Entity entity) {
         Set<Entity> entitySet = entities.get(entity.getType());
         checkState(entitySet.remove(entity), entity + " could not be removed from chunk.");
+        if (entity instanceof Mob) {
+            IndexBucket bucket = getMobIndexes(entity.getType());
+            if (bucket != null) {
+                bucket.remove(((Mob) entity).getIndex());
+            }
+        }
     }
 
     /**
@@ -185,6 +259,8 @@ public final class ChunkRepository implements Iterable<Entity> {
      */
     public void clear() {
         entities.clear();
+        playerIndexes.clear();
+        npcIndexes.clear();
     }
 
     /**
@@ -194,6 +270,7 @@ public final class ChunkRepository implements Iterable<Entity> {
      */
     public void queueUpdate(ChunkUpdatableRequest update) {
         temporaryUpdates.add(update);
+        temporaryGroup = releaseGroup(temporaryGroup);
     }
 
     /**
@@ -202,13 +279,16 @@ public final class ChunkRepository implements Iterable<Entity> {
      * @param entity The entity to remove the update for.
      */
     public void removeUpdate(StationaryEntity entity) {
-        persistentUpdates.remove(entity);
+        if (persistentUpdates.remove(entity) != null) {
+            persistentGroup = releaseGroup(persistentGroup);
+        }
     }
 
     /**
      * Clears all temporary updates in this repository, and caches persistent updates.
      */
     public void resetUpdates() {
+        temporaryGroup = releaseGroup(temporaryGroup);
         var it = temporaryUpdates.iterator();
         while (it.hasNext()) {
             var request = it.next();
@@ -227,6 +307,7 @@ public final class ChunkRepository implements Iterable<Entity> {
                     whenever a chunk is cleared of entities.
                  */
                 persistentUpdates.put(entity, request);
+                persistentGroup = releaseGroup(persistentGroup);
             }
             if (request.getUpdatable() instanceof LocalEntity) {
                 // End life-cycle for local entities.
@@ -238,20 +319,42 @@ public final class ChunkRepository implements Iterable<Entity> {
     }
 
     /**
-     * Retrieves all pending updates applicable to {@code player}.
+     * Retrieves all pending updates, split by view. Encoded once, and shared by every viewer until the updates are
+     * reset.
      *
-     * @param player The player to get updates for.
-     * @return The list of pending updates.
-     */
-    public List<ChunkUpdatableMessage> getUpdates(Player player) {
-        List<ChunkUpdatableMessage> messages = new ArrayList<>();
-        for (ChunkUpdatableRequest request : temporaryUpdates) {
-            ChunkUpdatableView view = request.getUpdatable().computeCurrentView();
-            if (view.isViewableFor(player)) {
-                messages.add(request.getMessage());
-            }
+     * @return The pending updates.
+     */
+    public ChunkUpdateGroup getUpdateGroup() {
+        if (temporaryGroup == null) {
+            temporaryGroup = ChunkUpdateGroup.create(temporaryUpdates);
+        }
+        return temporaryGroup;
+    }
+
+    /**
+     * Retrieves all persistent updates, split by view. Encoded once, and shared by every viewer until the persistent
+     * updates change.
+     *
+     * @return The persistent updates.
+     */
+    public ChunkUpdateGroup getPersistentUpdateGroup() {
+        if (persistentGroup == null) {
+            persistentGroup = ChunkUpdateGroup.create(persistentUpdates.values());
+        }
+        return persistentGroup;
+    }
+
+    /**
+     * Releases {@code group} if it isn't {@code null}.
+     *
+     * @param group The group.
+     * @return {@code null}, for assigning.
+     */
+    private static ChunkUpdateGroup releaseGroup(ChunkUpdateGroup group) {
+        if (group != null) {
+            group.release();
         }
-        return messages;
+        return null;
     }
 
     /**
@@ -277,6 +380,23 @@ public final class ChunkRepository implements Iterable<Entity> {
         return (Stream<E>) getAll(type).stream();
     }
 
+    /**
+     * Returns the bucket of mob list indexes for {@code type}.
+     *
+     * @param type The mob type.
+     * @return The bucket, or {@code null} if {@code type} is not a mob type.
+     */
+    IndexBucket getMobIndexes(EntityType type) {
+        switch (type) {
+            case PLAYER:
+                return playerIndexes;
+            case NPC:
+                return npcIndexes;
+            default:
+                return null;
+        }
+    }
+
     /**
      * @return The world instance.
      */
@@ -305,6 +425,13 @@ public final class ChunkRepository implements Iterable<Entity> {
         return matrices;
     }
 
+    /**
+     * @return The thread-safe snapshot of the {@link CollisionMatrix}es for this chunk.
+     */
+    public CollisionSnapshot getCollisionSnapshot() {
+        return snapshot;
+    }
+
     /**
      * @return An unmodifiable collection of all persistent updates.
      */
@@ -0,0 +1,103 @@
+package io.luna.game.model.chunk;
+
+import io.luna.game.model.mob.Player;
+import io.luna.net.codec.ByteMessage;
+import io.luna.net.msg.out.GroupedEntityMessageWriter;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A group of updates for a single chunk, split into the updates every player can see and the updates only some
+ * players can see. Updates every player can see are encoded once, and the encoded bytes are shared by every viewer of
+ * the chunk. The rest are filtered and encoded for each viewer.
+ *
+ * @author lare96
+ */
+public final class ChunkUpdateGroup {
+
+    /**
+     * Creates a group from {@code requests}, encoding every request with a global view.
+     *
+     * @param requests The requests.
+     * @return The group.
+     */
+    static ChunkUpdateGroup create(Iterable<ChunkUpdatableRequest> requests) {
+        ByteBuf global = null;
+        List<ChunkUpdatableRequest> local = new ArrayList<>();
+        for (ChunkUpdatableRequest request : requests) {
+            if (request.getUpdatable().computeCurrentView().isGlobal()) {
+                if (global == null) {
+                    global = ByteMessage.pooledBuffer();
+                }
+                GroupedEntityMessageWriter.encode(request.getMessage(), global);
+            } else {
+                local.add(request);
+            }
+        }
+        return new ChunkUpdateGroup(global == null ? Unpooled.EMPTY_BUFFER : global, local);
+    }
+
+    /**
+     * The encoded updates every player can see.
+     */
+    private final ByteBuf encodedGlobal;
+
+    /**
+     * The requests only some players can see.
+     */
+    private final List<ChunkUpdatableRequest> local;
+
+    /**
+     * Creates a new {@link ChunkUpdateGroup}.
+     *
+     * @param encodedGlobal The encoded updates every player can see.
+     * @param local The requests only some players can see.
+     */
+    private ChunkUpdateGroup(ByteBuf encodedGlobal, List<ChunkUpdatableRequest> local) {
+        this.encodedGlobal = encodedGlobal;
+        this.local = local;
+    }
+
+    /**
+     * Retrieves the updates only some players can see that are applicable to {@code player}.
+     *
+     * @param player The player.
+     * @return The update messages.
+     */
+    public List<ChunkUpdatableMessage> getLocalMessages(Player player) {
+        if (local.isEmpty()) {
+            return List.of();
+        }
+        List<ChunkUpdatableMessage> messages = new ArrayList<>(local.size());
+        for (ChunkUpdatableRequest request : local) {
+            if (request.getUpdatable().computeCurrentView().isViewableFor(player)) {
+                messages.add(request.getMessage());
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Releases the encoded updates. This group must not be used afterwards.
+     */
+    void release() {
+        encodedGlobal.release();
+    }
+
+    /**
+     * @return The encoded updates every player can see. Must not be modified.
+     */
+    public ByteBuf getEncodedGlobal() {
+        return encodedGlobal;
+    }
+
+    /**
+     * @return {@code true} if there are updates every player can see.
+     */
+    public boolean hasGlobal() {
+        return encodedGlobal.isReadable();
+    }
+}
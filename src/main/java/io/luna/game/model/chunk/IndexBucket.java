@@ -0,0 +1,74 @@
+package io.luna.game.model.chunk;
+
+import java.util.Arrays;
+
+/**
+ * A small, growable bucket of {@code int} identifiers. Used by {@link ChunkRepository} to track the list indexes of
+ * the mobs within it, so they can be found without iterators or boxing. Not thread-safe.
+ *
+ * @author lare96
+ */
+final class IndexBucket {
+
+    /**
+     * The identifiers.
+     */
+    private int[] values = new int[4];
+
+    /**
+     * The amount of identifiers.
+     */
+    private int size;
+
+    /**
+     * Adds an identifier to this bucket.
+     *
+     * @param value The identifier to add.
+     */
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Removes an identifier from this bucket. The last identifier will be moved into its place.
+     *
+     * @param value The identifier to remove.
+     * @return {@code true} if the identifier was removed.
+     */
+    boolean remove(int value) {
+        for (int index = 0; index < size; index++) {
+            if (values[index] == value) {
+                values[index] = values[--size];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retrieves the identifier at {@code index}.
+     *
+     * @param index The index.
+     * @return The identifier.
+     */
+    int get(int index) {
+        return values[index];
+    }
+
+    /**
+     * @return The amount of identifiers.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Removes all identifiers.
+     */
+    void clear() {
+        size = 0;
+    }
+}
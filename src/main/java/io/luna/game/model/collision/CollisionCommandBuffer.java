@@ -0,0 +1,118 @@
+package io.luna.game.model.collision;
+
+import io.luna.game.model.chunk.ChunkManager;
+import io.luna.game.model.chunk.ChunkRepository;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * A buffer of pending collision flag changes, recorded as packed primitive operations and applied to the
+ * {@link CollisionMatrix}es in a single pass. Operations are applied grouped by chunk, so each chunk is only looked up
+ * once per pass. Within a chunk, operations are applied in the order they were recorded, so changes to the same tile
+ * are never reordered.
+ * <p>
+ * Must only be used on the game thread.
+ *
+ * @author lare96
+ */
+final class CollisionCommandBuffer {
+
+    /**
+     * The initial capacity.
+     */
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * The largest capacity kept after a pass.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 65536;
+
+    /**
+     * The sort keys of each operation, the packed chunk in the upper half and the operation's index in the lower half.
+     */
+    private long[] keys = new long[DEFAULT_CAPACITY];
+
+    /**
+     * The packed operations.
+     */
+    private int[] operations = new int[DEFAULT_CAPACITY];
+
+    /**
+     * The amount of pending operations.
+     */
+    private int size;
+
+    /**
+     * Records a change to the flags of a single tile.
+     *
+     * @param x The absolute {@code x} coordinate.
+     * @param y The absolute {@code y} coordinate.
+     * @param z The plane.
+     * @param removing If the flags are being removed rather than added.
+     * @param mask The flags.
+     */
+    void add(int x, int y, int z, boolean removing, int mask) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            operations = Arrays.copyOf(operations, size * 2);
+        }
+        long chunk = (x >> 3) << 12 | (y >> 3);
+        keys[size] = chunk << 32 | size;
+        operations[size] = (x & 7) | (y & 7) << 3 | z << 6 | (removing ? 1 << 8 : 0) | (mask & 0xffff) << 9;
+        size++;
+    }
+
+    /**
+     * Applies every pending operation, and empties this buffer.
+     *
+     * @param chunks The chunk manager.
+     * @param changed The set that every chunk with changed flags is added to.
+     */
+    void flush(ChunkManager chunks, Set<ChunkRepository> changed) {
+        if (size == 0) {
+            return;
+        }
+        Arrays.sort(keys, 0, size);
+
+        ChunkRepository repository = null;
+        long lastChunk = -1;
+        for (int index = 0; index < size; index++) {
+            long key = keys[index];
+            long chunk = key >>> 32;
+            if (chunk != lastChunk) {
+                repository = chunks.load((int) (chunk >> 12) - 6, (int) (chunk & 0xfff) - 6);
+                lastChunk = chunk;
+            }
+
+            int operation = operations[(int) key];
+            int localX = operation & 7;
+            int localY = operation >> 3 & 7;
+            int z = operation >> 6 & 3;
+            int mask = operation >>> 9;
+            CollisionMatrix matrix = repository.getMatrices()[z];
+            if ((operation & 1 << 8) != 0) {
+                matrix.removeFlags(localX, localY, mask);
+            } else {
+                matrix.addFlags(localX, localY, mask);
+            }
+            if (repository.collisionChanged(z)) {
+                changed.add(repository);
+            }
+        }
+
+        size = 0;
+        if (keys.length > MAX_RETAINED_CAPACITY) {
+            // Don't hold on to the memory used while building the collision map.
+            keys = new long[DEFAULT_CAPACITY];
+            operations = new int[DEFAULT_CAPACITY];
+        }
+    }
+
+    /**
+     * @return {@code true} if there are no pending operations.
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -1,20 +1,22 @@
 package io.luna.game.model.collision;
 
-import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
-import io.luna.game.GameService;
+import io.luna.game.cache.map.MapIndex;
+import io.luna.game.cache.map.MapTile;
+import io.luna.game.cache.map.MapTileGrid;
+import io.luna.game.cache.map.MapTileGridSet;
 import io.luna.game.model.Direction;
 import io.luna.game.model.Entity;
 import io.luna.game.model.EntityType;
 import io.luna.game.model.Position;
 import io.luna.game.model.World;
-import io.luna.game.model.chunk.Chunk;
 import io.luna.game.model.chunk.ChunkManager;
 import io.luna.game.model.chunk.ChunkRepository;
 import io.luna.game.model.collision.CollisionUpdate.DirectionFlag;
 import io.luna.game.model.item.GroundItem;
 import io.luna.game.model.mob.Mob;
 import io.luna.game.model.mob.Player;
+import io.luna.game.model.mob.WalkingQueue.Step;
 import io.luna.game.model.object.GameObject;
 
 import java.util.Collection;
@@ -25,6 +27,8 @@ import java.util.Set;
 import java.util.function.BiFunction;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static io.luna.game.cache.CacheUtils.MAP_PLANES;
+import static io.luna.game.cache.CacheUtils.MAP_SIZE;
 
 /**
  * Manages applying {@link CollisionUpdate}s to the appropriate {@link CollisionMatrix}, and keeping
@@ -33,20 +37,45 @@ import static com.google.common.base.Preconditions.checkArgument;
 public final class CollisionManager {
 
     /**
-     * A {@code HashMultimap} of region coordinates mapped to positions where the tile is completely blocked.
+     * The flags applied to a completely blocked tile.
      */
-    private final HashMultimap<Chunk, Position> blocked = HashMultimap.create();
+    private static final int BLOCKED_MASK = computeBlockedMask();
 
     /**
-     * A {@code HashSet} of positions where the tile is part of a bridged structure.
+     * The tiles that are completely blocked.
      */
-    private final Set<Position> bridges = new HashSet<>();
+    private final TileBitSet blocked = new TileBitSet();
+
+    /**
+     * The tiles that are part of a bridged structure.
+     */
+    private final TileBitSet bridges = new TileBitSet();
     private final World world;
     /**
      * The {@link ChunkManager} used to lookup {@link CollisionMatrix} objects.
      */
     private final ChunkManager chunks;
 
+    /**
+     * If collision for blocked tiles and static objects has been applied.
+     */
+    private boolean staticBuilt;
+
+    /**
+     * The chunks with collision changes that haven't been published in a snapshot yet.
+     */
+    private final Set<ChunkRepository> changed = new HashSet<>();
+
+    /**
+     * The epoch of the most recently published snapshots.
+     */
+    private volatile long epoch;
+
+    /**
+     * The collision changes that haven't been applied yet.
+     */
+    private final CollisionCommandBuffer commands = new CollisionCommandBuffer();
+
     /**
      * Creates the {@code CollisionManager}.
      *
@@ -57,13 +86,60 @@ public final class CollisionManager {
         chunks = world.getChunks();
     }
 
+    /**
+     * Computes the flags applied to a completely blocked tile.
+     */
+    private static int computeBlockedMask() {
+        int mask = 0;
+        for (Direction direction : Direction.NESW) {
+            mask |= CollisionFlag.MOBS.get(direction.getId()).asShort();
+        }
+        return mask & 0xffff;
+    }
+
+    /**
+     * Records the blocked and bridged tiles of every decoded {@link MapTileGrid}. Must be called before static
+     * collision is built.
+     *
+     * @param tiles The decoded tiles.
+     */
+    public void loadTiles(MapTileGridSet tiles) {
+        for (Map.Entry<MapIndex, MapTileGrid> entry : tiles) {
+            MapTileGrid grid = entry.getValue();
+            Position base = grid.getRegion().getAbsPosition();
+            for (int z = 0; z < MAP_PLANES; z++) {
+                for (int x = 0; x < MAP_SIZE; x++) {
+                    for (int y = 0; y < MAP_SIZE; y++) {
+                        MapTile tile = grid.getTile(x, y, z);
+                        if (tile == null) {
+                            continue;
+                        }
+                        if (tile.isBlocked()) {
+                            int absX = base.getX() + x;
+                            int absY = base.getY() + y;
+                            blocked.set(absX, absY, z);
+
+                            // The chunk must exist for its collision map to be built.
+                            chunks.load((absX >> 3) - 6, (absY >> 3) - 6);
+                        }
+                        if (tile.isBridge()) {
+                            bridges.set(base.getX() + x, base.getY() + y, z);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * Applies the initial {@link CollisionUpdate} to the {@link CollisionMatrix}es for all objects and tiles loaded
-     * from the cache.
+     * from the cache. Static collision is only applied if it isn't already present in the matrices, or if they're
+     * being rebuilt.
      *
      * @param rebuilding A flag indicating whether or not {@link CollisionMatrix}es are being rebuilt.
      */
     public void build(boolean rebuilding) {
+        flush();
         if (rebuilding) {
             for (ChunkRepository repository : chunks.getAll()) {
                 for (CollisionMatrix matrix : repository.getMatrices()) {
@@ -72,72 +148,112 @@ public final class CollisionManager {
             }
         }
 
+        boolean buildingStatic = rebuilding || !staticBuilt;
         for (ChunkRepository repository : chunks.getAll()) {
-            CollisionUpdate.Builder builder = new CollisionUpdate.Builder();
-            builder.type(CollisionUpdateType.ADDING);
-
-            Set<Position> blockedPositions = blocked.get(repository.getChunk());
-            for (Position position : blockedPositions) {
-                int x = position.getX(), y = position.getY();
-                int height = position.getZ();
-
-                if (bridges.contains(new Position(x, y, 1))) {
-                    height--;
-                }
-
-                if (height >= 0) {
-                    builder.tile(new Position(x, y, height), false, Direction.NESW);
-                }
+            if (buildingStatic) {
+                buildStatic(repository);
             }
 
-            apply(builder.build(), true);
-
             CollisionUpdate.Builder objects = new CollisionUpdate.Builder();
             objects.type(CollisionUpdateType.ADDING);
 
             repository.getAll(EntityType.OBJECT)
                     .forEach(entity -> objects.object((GameObject) entity));
 
-            apply(objects.build(), true);
+            apply(objects.build());
+            flush();
+        }
+        staticBuilt = true;
+
+        long nextEpoch = epoch + 1;
+        for (ChunkRepository repository : chunks.getAll()) {
+            repository.snapshotCollisionMap(nextEpoch, true);
+        }
+        changed.clear();
+        epoch = nextEpoch;
+    }
+
+    /**
+     * Publishes new snapshots for every chunk with collision changes since the last call. Called once per tick, so
+     * readers on other threads see every change made during a tick at once.
+     */
+    public void publishSnapshots() {
+        flush();
+        if (changed.isEmpty()) {
+            return;
+        }
+        long nextEpoch = epoch + 1;
+        for (ChunkRepository repository : changed) {
+            repository.snapshotCollisionMap(nextEpoch, false);
         }
+        changed.clear();
+        epoch = nextEpoch;
+    }
 
+    /**
+     * Applies collision for blocked tiles and untouched static objects only, before any other entity is registered.
+     * The resulting {@link CollisionMatrix}es can be saved to and restored from a world image.
+     */
+    public void buildStatic() {
         for (ChunkRepository repository : chunks.getAll()) {
-            repository.snapshotCollisionMap();
+            buildStatic(repository);
+            flush();
         }
+        staticBuilt = true;
     }
 
     /**
-     * Apply a {@link CollisionUpdate} to the game world.
+     * Marks static collision as already present within the {@link CollisionMatrix}es, because it was restored from a
+     * world image. {@link #build(boolean)} will then skip it.
+     */
+    public void markStaticBuilt() {
+        staticBuilt = true;
+    }
+
+    /**
+     * Applies collision for blocked tiles and untouched static objects within {@code repository}.
      *
-     * @param update The update to apply.
+     * @param repository The chunk repository.
      */
-    public void apply(CollisionUpdate update, boolean building) {
-        ChunkRepository prev = null;
+    private void buildStatic(ChunkRepository repository) {
+        blocked.forEach(repository.getChunk(), (x, y, z) -> {
+            int height = bridges.get(x, y, 1) ? z - 1 : z;
+            if (height >= 0) {
+                commands.add(x, y, height, false, BLOCKED_MASK);
+            }
+        });
 
-        CollisionUpdateType type = update.getType();
-        Map<Position, Collection<DirectionFlag>> map = update.getFlags().asMap();
-        Set<ChunkRepository> snapshot = new HashSet<>();
-        for (Map.Entry<Position, Collection<DirectionFlag>> entry : map.entrySet()) {
-            Position position = entry.getKey();
-            Chunk chunk = position.getChunk();
+        CollisionUpdate.Builder builder = new CollisionUpdate.Builder();
+        builder.type(CollisionUpdateType.ADDING);
+        world.getObjects().getStaticObjects().forEachUntouched(repository.getChunk(), builder::object);
+
+        apply(builder.build());
+    }
 
+    /**
+     * Apply a {@link CollisionUpdate} to the game world. The update is recorded in the command buffer, and applied to
+     * the {@link CollisionMatrix}es along with every other pending update the next time they're read on the game
+     * thread, or when {@link #publishSnapshots()} is called. Snapshot readers see the changes once
+     * {@link #publishSnapshots()} is called.
+     *
+     * @param update The update to apply.
+     */
+    public void apply(CollisionUpdate update) {
+        boolean removing = update.getType() == CollisionUpdateType.REMOVING;
+        ImmutableList<CollisionFlag> mobs = CollisionFlag.MOBS;
+        ImmutableList<CollisionFlag> projectiles = CollisionFlag.PROJECTILES;
+        for (Map.Entry<Position, Collection<DirectionFlag>> entry : update.getFlags().asMap().entrySet()) {
+            Position position = entry.getKey();
+            int x = position.getX();
+            int y = position.getY();
             int height = position.getZ();
-            if (bridges.contains(new Position(position.getX(), position.getY(), 1))) {
+            if (bridges.get(x, y, 1)) {
                 if (--height < 0) {
                     continue;
                 }
             }
 
-            if (prev == null || !prev.getChunk().equals(chunk)) {
-                prev = chunks.load(position);
-            }
-
-            int localX = position.getX() % Chunk.SIZE;
-            int localY = position.getY() % Chunk.SIZE;
-
-            CollisionMatrix matrix = prev.getMatrices()[height];
-            ImmutableList<CollisionFlag> mobs = CollisionFlag.MOBS;
-            ImmutableList<CollisionFlag> projectiles = CollisionFlag.PROJECTILES;
+            int mask = 0;
             for (DirectionFlag flag : entry.getValue()) {
                 Direction direction = flag.getDirection();
                 if (direction == Direction.NONE) {
@@ -146,22 +262,29 @@ public final class CollisionManager {
 
                 int orientation = direction.getId();
                 if (flag.isImpenetrable()) {
-                    flag(type, matrix, localX, localY, projectiles.get(orientation));
+                    mask |= projectiles.get(orientation).asShort();
                 }
-
-                flag(type, matrix, localX, localY, mobs.get(orientation));
+                mask |= mobs.get(orientation).asShort();
+            }
+            if (mask != 0) {
+                commands.add(x, y, height, removing, mask);
             }
-            snapshot.add(prev);
         }
+    }
 
+    /**
+     * Applies every pending {@link CollisionUpdate} to the {@link CollisionMatrix}es. Called before the matrices are
+     * read on the game thread.
+     */
+    public void flush() {
+        commands.flush(chunks, changed);
+    }
 
-        GameService game = world.getContext().getGame();
-        if (!building) {
-            // Server is completely online, perform snapshots.
-            for (ChunkRepository repository : snapshot) {
-                repository.snapshotCollisionMap();
-            }
-        }
+    /**
+     * @return The epoch of the most recently published snapshots.
+     */
+    public long getEpoch() {
+        return epoch;
     }
 
     /**
@@ -259,30 +382,13 @@ public final class CollisionManager {
         return true;
     }
 
-    /**
-     * Apply a {@link CollisionUpdate} flag to a {@link CollisionMatrix}.
-     *
-     * @param type The type of update to apply.
-     * @param matrix The matrix the update is being applied to.
-     * @param localX The local X position of the tile the flag represents.
-     * @param localY The local Y position of the tile the flag represents.
-     * @param flag The {@link CollisionFlag} to update.
-     */
-    private void flag(CollisionUpdateType type, CollisionMatrix matrix, int localX, int localY, CollisionFlag flag) {
-        if (type == CollisionUpdateType.ADDING) {
-            matrix.flag(localX, localY, flag);
-        } else {
-            matrix.clear(localX, localY, flag);
-        }
-    }
-
     /**
      * Marks a tile as completely untraversable from all directions.
      *
      * @param position The {@link Position} of the tile.
      */
     public void block(Position position) {
-        blocked.put(position.getChunk(), position);
+        blocked.set(position.getX(), position.getY(), position.getZ());
     }
 
     /**
@@ -291,7 +397,21 @@ public final class CollisionManager {
      * @param position The {@link Position} of the tile.
      */
     public void markBridged(Position position) {
-        bridges.add(position);
+        bridges.set(position.getX(), position.getY(), position.getZ());
+    }
+
+    /**
+     * @return The tiles that are completely blocked.
+     */
+    public TileBitSet getBlocked() {
+        return blocked;
+    }
+
+    /**
+     * @return The tiles that are part of a bridged structure.
+     */
+    public TileBitSet getBridges() {
+        return bridges;
     }
 
     /**
@@ -304,23 +424,37 @@ public final class CollisionManager {
      * @return {@code true} if next tile is traversable, {@code false} otherwise.
      */
     public boolean traversable(Position position, EntityType type, Direction direction, boolean safe) {
-        Position next = position.translate(1, direction);
-        ChunkRepository repository = chunks.load(next);
+        return traversable(position.getX(), position.getY(), position.getZ(), type, direction, safe);
+    }
 
-        if (!repository.traversable(next, type, direction, safe)) {
+    /**
+     * Checks if the given {@link EntityType} can traverse to the next tile from {@code x, y, z} in the given
+     * {@code direction}. Unlike {@link #traversable(Position, EntityType, Direction, boolean)}, this function does
+     * not allocate, which makes it suitable for pathfinding.
+     *
+     * @param x The current {@code x} coordinate of the entity.
+     * @param y The current {@code y} coordinate of the entity.
+     * @param z The current {@code z} coordinate of the entity.
+     * @param type The type of the entity.
+     * @param direction The direction the entity is travelling.
+     * @param safe If the collision snapshot should be used.
+     * @return {@code true} if next tile is traversable, {@code false} otherwise.
+     */
+    public boolean traversable(int x, int y, int z, EntityType type, Direction direction, boolean safe) {
+        if (!safe) {
+            flush();
+        }
+        Step translation = direction.getTranslation();
+        if (!traversableTile(x + translation.getX(), y + translation.getY(), z, type, direction, safe)) {
             return false;
         }
 
         if (direction.isDiagonal()) {
-            for (Direction component : Direction.diagonalComponents(direction)) {
-                next = position.translate(1, component);
-
-                Chunk nextChunk = next.getChunk();
-                if (!repository.getChunk().equals(nextChunk)) {
-                    repository = chunks.load(nextChunk);
-                }
-
-                if (!repository.traversable(next, type, component, safe)) {
+            ImmutableList<Direction> components = Direction.diagonalComponents(direction);
+            for (int index = 0; index < components.size(); index++) {
+                Direction component = components.get(index);
+                translation = component.getTranslation();
+                if (!traversableTile(x + translation.getX(), y + translation.getY(), z, type, component, safe)) {
                     return false;
                 }
             }
@@ -329,6 +463,14 @@ public final class CollisionManager {
         return true;
     }
 
+    /**
+     * Determines if the tile on {@code x, y, z} can be entered from {@code direction}.
+     */
+    private boolean traversableTile(int x, int y, int z, EntityType type, Direction direction, boolean safe) {
+        ChunkRepository repository = chunks.load((x >> 3) - 6, (y >> 3) - 6);
+        return repository.traversable(x, y, z, type, direction, safe);
+    }
+
     // traversable with safe mode always off
     public boolean traversable(Position position, EntityType type, Direction direction) {
         return traversable(position, type, direction, false);
@@ -349,6 +491,7 @@ public final class CollisionManager {
             // Can't interact if the entity isn't visible.
             return false;
         }
+        flush();
         Position end = target.getPosition();
         CollisionMatrix matrices = target.getChunkRepository().getMatrices()[start.getZ()];
         if (distance > 1) {
@@ -13,6 +13,9 @@ import io.luna.game.model.object.GameObject;
 import io.luna.game.model.object.ObjectDirection;
 import io.luna.game.model.object.ObjectType;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.OptionalInt;
 
@@ -163,6 +166,28 @@ public final class CollisionMatrix {
         matrix[indexOf(x, y)] |= flag.asShort();
     }
 
+    /**
+     * Adds every flag within {@code mask} for the specified coordinate pair.
+     *
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @param mask The flags, as a bit mask.
+     */
+    void addFlags(int x, int y, int mask) {
+        matrix[indexOf(x, y)] |= mask;
+    }
+
+    /**
+     * Clears every flag within {@code mask} for the specified coordinate pair.
+     *
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @param mask The flags, as a bit mask.
+     */
+    void removeFlags(int x, int y, int mask) {
+        matrix[indexOf(x, y)] &= ~mask;
+    }
+
     /**
      * Returns whether or not the specified {@link CollisionFlag} is set for the specified coordinate pair.
      *
@@ -238,6 +263,49 @@ public final class CollisionMatrix {
         System.arraycopy(other.matrix, 0, matrix, 0, matrix.length);
     }
 
+    /**
+     * @return A copy of this collision matrix.
+     */
+    public CollisionMatrix copy() {
+        CollisionMatrix copy = new CollisionMatrix(width, length);
+        copy.replace(this);
+        return copy;
+    }
+
+    /**
+     * Replaces the data in this collision matrix with {@code width * length} values read from {@code buffer}.
+     *
+     * @param buffer The buffer to read from.
+     */
+    public void read(ByteBuffer buffer) {
+        buffer.asShortBuffer().get(matrix);
+        buffer.position(buffer.position() + matrix.length * Short.BYTES);
+    }
+
+    /**
+     * Writes the data in this collision matrix to {@code out}.
+     *
+     * @param out The output to write to.
+     * @throws IOException If the data can't be written.
+     */
+    public void write(DataOutput out) throws IOException {
+        for (short value : matrix) {
+            out.writeShort(value);
+        }
+    }
+
+    /**
+     * @return {@code true} if no cell in this matrix has any flags set.
+     */
+    public boolean isEmpty() {
+        for (short value : matrix) {
+            if (value != ALL_ALLOWED) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this).add("width", width).add("length", length)
@@ -0,0 +1,112 @@
+package io.luna.game.model.collision;
+
+import io.luna.game.model.Direction;
+import io.luna.game.model.EntityType;
+import io.luna.game.model.chunk.Chunk;
+
+import java.util.Arrays;
+
+/**
+ * An immutable copy of the {@link CollisionMatrix}es of a single chunk, published by the game thread at most once per
+ * tick. Other threads can read it without locking, and always see every plane as it was at the end of the tick it
+ * was published in.
+ * <p>
+ * Snapshots are copy-on-write. A new snapshot only copies the planes that changed since the previous one, and shares
+ * every other plane with it.
+ *
+ * @author lare96
+ */
+public final class CollisionSnapshot {
+
+    /**
+     * The plane shared by every snapshot for planes without any flags. Never modified.
+     */
+    private static final CollisionMatrix EMPTY_PLANE = new CollisionMatrix(Chunk.SIZE, Chunk.SIZE);
+
+    /**
+     * Creates a snapshot where no plane has any flags.
+     *
+     * @param planes The amount of planes.
+     * @return The snapshot.
+     */
+    public static CollisionSnapshot empty(int planes) {
+        CollisionMatrix[] matrices = new CollisionMatrix[planes];
+        Arrays.fill(matrices, EMPTY_PLANE);
+        return new CollisionSnapshot(0, matrices);
+    }
+
+    /**
+     * The epoch this snapshot was published in.
+     */
+    private final long epoch;
+
+    /**
+     * The copied planes. Never modified.
+     */
+    private final CollisionMatrix[] planes;
+
+    /**
+     * Creates a new {@link CollisionSnapshot}.
+     *
+     * @param epoch The epoch this snapshot was published in.
+     * @param planes The copied planes.
+     */
+    private CollisionSnapshot(long epoch, CollisionMatrix[] planes) {
+        this.epoch = epoch;
+        this.planes = planes;
+    }
+
+    /**
+     * Creates the snapshot following this one. Planes flagged in {@code changedPlanes} are copied from
+     * {@code matrices}, and the rest are shared with this snapshot.
+     *
+     * @param epoch The epoch the new snapshot is published in.
+     * @param matrices The live matrices.
+     * @param changedPlanes A bit mask of the planes that changed.
+     * @return The new snapshot.
+     */
+    public CollisionSnapshot next(long epoch, CollisionMatrix[] matrices, int changedPlanes) {
+        CollisionMatrix[] newPlanes = planes.clone();
+        for (int plane = 0; plane < newPlanes.length; plane++) {
+            if ((changedPlanes & 1 << plane) != 0) {
+                CollisionMatrix matrix = matrices[plane];
+                newPlanes[plane] = matrix.isEmpty() ? EMPTY_PLANE : matrix.copy();
+            }
+        }
+        return new CollisionSnapshot(epoch, newPlanes);
+    }
+
+    /**
+     * Determines if the tile on {@code x, y, z} can't be traversed by entity with {@code type}, when coming from
+     * {@code direction}.
+     *
+     * @param x The local {@code x} coordinate.
+     * @param y The local {@code y} coordinate.
+     * @param z The plane.
+     * @param type The entity type.
+     * @param direction The direction.
+     * @return {@code true} if the tile can't be traversed.
+     */
+    public boolean untraversable(int x, int y, int z, EntityType type, Direction direction) {
+        return planes[z].untraversable(x, y, type, direction);
+    }
+
+    /**
+     * Gets the flags of the tile on {@code x, y, z}.
+     *
+     * @param x The local {@code x} coordinate.
+     * @param y The local {@code y} coordinate.
+     * @param z The plane.
+     * @return The flags.
+     */
+    public int get(int x, int y, int z) {
+        return planes[z].get(x, y);
+    }
+
+    /**
+     * @return The epoch this snapshot was published in.
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+}
@@ -9,6 +9,7 @@ import io.luna.game.model.Direction;
 import io.luna.game.model.Position;
 import io.luna.game.model.def.GameObjectDefinition;
 import io.luna.game.model.object.GameObject;
+import io.luna.game.model.object.ObjectDirection;
 import io.luna.game.model.object.ObjectType;
 
 import java.util.Objects;
@@ -210,9 +211,32 @@ public final class CollisionUpdate {
          * @param object The object to update collision flags for.
          */
         public void object(GameObject object) {
-            GameObjectDefinition definition = object.getDefinition();
-            Position position = object.getPosition();
-            int type = object.getObjectType().getId();
+            object(object.getDefinition(), object.getPosition(), object.getObjectType(), object.getDirection());
+        }
+
+        /**
+         * Flag a collision update for an object that hasn't been created as a {@link GameObject}.
+         *
+         * @param id The identifier of the object.
+         * @param position The position of the object.
+         * @param objectType The type of the object.
+         * @param direction The direction of the object.
+         */
+        public void object(int id, Position position, ObjectType objectType, ObjectDirection direction) {
+            object(GameObjectDefinition.ALL.get(id).orElse(null), position, objectType, direction);
+        }
+
+        /**
+         * Flag a collision update for an object.
+         *
+         * @param definition The definition of the object.
+         * @param position The position of the object.
+         * @param objectType The type of the object.
+         * @param direction The direction of the object.
+         */
+        private void object(GameObjectDefinition definition, Position position, ObjectType objectType,
+                            ObjectDirection direction) {
+            int type = objectType.getId();
 
             if (!unwalkable(definition, type)) {
                 return;
@@ -220,7 +244,7 @@ public final class CollisionUpdate {
 
             int x = position.getX(), y = position.getY(), height = position.getZ();
             boolean impenetrable = definition.isImpenetrable();
-            int orientation = object.getDirection().getId();
+            int orientation = direction.getId();
 
             if (type == ObjectType.GROUND_DECORATION.getId()) {
                 if (definition.isInteractive() && definition.isSolid()) {
@@ -0,0 +1,167 @@
+package io.luna.game.model.collision;
+
+import io.luna.game.model.Region;
+import io.luna.game.model.chunk.Chunk;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A set of tiles, stored as one bitset per region. Queries are a couple of array reads and never allocate, and
+ * regions without any tiles in the set take no memory.
+ * <p>
+ * Each region uses one {@code long} per column of each plane, so the tiles of a chunk are 8 consecutive bytes within
+ * 8 consecutive words.
+ *
+ * @author lare96
+ */
+public final class TileBitSet {
+
+    /**
+     * A visitor for tiles within the set.
+     */
+    @FunctionalInterface
+    public interface TileVisitor {
+
+        /**
+         * Visits a tile.
+         *
+         * @param x The {@code x} coordinate.
+         * @param y The {@code y} coordinate.
+         * @param z The {@code z} coordinate.
+         */
+        void visit(int x, int y, int z);
+    }
+
+    /**
+     * The amount of planes.
+     */
+    private static final int PLANES = 4;
+
+    /**
+     * The amount of words in the bitset of a region.
+     */
+    public static final int REGION_WORDS = PLANES * Region.SIZE;
+
+    /**
+     * The bitsets, by region identifier. {@code null} for regions without any tiles in the set.
+     */
+    private final long[][] regions = new long[1 << 16][];
+
+    /**
+     * The amount of regions with tiles in the set.
+     */
+    private int regionCount;
+
+    /**
+     * Adds a tile to the set.
+     *
+     * @param x The {@code x} coordinate.
+     * @param y The {@code y} coordinate.
+     * @param z The {@code z} coordinate.
+     */
+    public void set(int x, int y, int z) {
+        int regionId = (x >> 6) << 8 | (y >> 6);
+        long[] words = regions[regionId];
+        if (words == null) {
+            words = new long[REGION_WORDS];
+            regions[regionId] = words;
+            regionCount++;
+        }
+        words[z << 6 | (x & 63)] |= 1L << (y & 63);
+    }
+
+    /**
+     * Determines if a tile is in the set.
+     *
+     * @param x The {@code x} coordinate.
+     * @param y The {@code y} coordinate.
+     * @param z The {@code z} coordinate.
+     * @return {@code true} if the tile is in the set.
+     */
+    public boolean get(int x, int y, int z) {
+        long[] words = regions[(x >> 6) << 8 | (y >> 6)];
+        return words != null && (words[z << 6 | (x & 63)] & 1L << (y & 63)) != 0;
+    }
+
+    /**
+     * Visits every tile within {@code chunk} that's in the set.
+     *
+     * @param chunk The chunk.
+     * @param visitor The visitor.
+     */
+    public void forEach(Chunk chunk, TileVisitor visitor) {
+        int baseX = chunk.getAbsX();
+        int baseY = chunk.getAbsY();
+        long[] words = regions[(baseX >> 6) << 8 | (baseY >> 6)];
+        if (words == null) {
+            return;
+        }
+        int shift = baseY & 63;
+        for (int z = 0; z < PLANES; z++) {
+            for (int offsetX = 0; offsetX < Chunk.SIZE; offsetX++) {
+                int x = baseX + offsetX;
+                long column = words[z << 6 | (x & 63)] >>> shift & 0xff;
+                while (column != 0) {
+                    int offsetY = Long.numberOfTrailingZeros(column);
+                    visitor.visit(x, baseY + offsetY, z);
+                    column &= column - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes every region with tiles in the set to {@code out}, as its identifier followed by its bitset.
+     *
+     * @param out The output to write to.
+     * @throws IOException If the data can't be written.
+     */
+    public void write(DataOutput out) throws IOException {
+        for (int regionId = 0; regionId < regions.length; regionId++) {
+            long[] words = regions[regionId];
+            if (words != null) {
+                out.writeShort(regionId);
+                for (long word : words) {
+                    out.writeLong(word);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads regions written by {@link #write(DataOutput)} into the set.
+     *
+     * @param buffer The buffer to read from.
+     * @param count The amount of regions to read.
+     */
+    public void read(ByteBuffer buffer, int count) {
+        for (int index = 0; index < count; index++) {
+            int regionId = buffer.getShort() & 0xffff;
+            long[] words = regions[regionId];
+            if (words == null) {
+                words = new long[REGION_WORDS];
+                regions[regionId] = words;
+                regionCount++;
+            }
+            for (int word = 0; word < REGION_WORDS; word++) {
+                words[word] |= buffer.getLong();
+            }
+        }
+    }
+
+    /**
+     * @return The amount of regions with tiles in the set.
+     */
+    public int getRegionCount() {
+        return regionCount;
+    }
+
+    /**
+     * @return {@code true} if there are no tiles in the set.
+     */
+    public boolean isEmpty() {
+        return regionCount == 0;
+    }
+}
@@ -3,6 +3,7 @@ package io.luna.game.model.item;
 import com.google.common.base.MoreObjects;
 import io.luna.LunaContext;
 import io.luna.game.model.Entity;
+import io.luna.game.model.EntityState;
 import io.luna.game.model.EntityType;
 import io.luna.game.model.Position;
 import io.luna.game.model.StationaryEntity;
@@ -13,9 +14,9 @@ import io.luna.game.model.def.ItemDefinition;
 import io.luna.net.msg.out.AddGroundItemMessageWriter;
 import io.luna.net.msg.out.RemoveGroundItemMessageWriter;
 import io.luna.net.msg.out.UpdateGroundItemMessageWriter;
+import io.luna.util.TimingWheel;
 
 import java.util.Objects;
-import java.util.OptionalInt;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
@@ -38,9 +39,24 @@ public class GroundItem extends StationaryEntity {
     private int amount;
 
     /**
-     * The current amount of expiration ticks.
+     * If this item expires.
      */
-    private OptionalInt expireTicks = OptionalInt.of(0);
+    private boolean expiring = true;
+
+    /**
+     * The amount of expiration ticks while this item isn't registered.
+     */
+    int initialExpireTicks;
+
+    /**
+     * The {@link GroundItemList} tick this item's expiration ticks are counted from, while it's registered.
+     */
+    long expireStart;
+
+    /**
+     * This item's scheduled expiration, or {@code null} if it isn't scheduled.
+     */
+    TimingWheel.Entry<GroundItem> expiration;
 
     /**
      * Creates a new {@link GroundItem}.
@@ -146,23 +162,17 @@ public class GroundItem extends StationaryEntity {
      * @param expire The value.
      */
     public final void setExpire(boolean expire) {
-        if (expire && expireTicks.isEmpty()) {
-            expireTicks = OptionalInt.of(0);
-        } else if (!expire && expireTicks.isPresent()) {
-            expireTicks = OptionalInt.empty();
+        if (expire == expiring) {
+            return;
+        }
+        expiring = expire;
+        if (getState() != EntityState.ACTIVE) {
+            initialExpireTicks = 0;
+        } else if (expire) {
+            world.getItems().scheduleExpiration(this, 0);
+        } else {
+            world.getItems().cancelExpiration(this);
         }
-    }
-
-    /**
-     * Add an expiration tick for this item. Will throw {@link IllegalStateException} if this item
-     * does not expire.
-     *
-     * @return The new expiration minutes.
-     */
-    public final int addExpireTick() {
-        int newValue = getExpireTicks() + 1;
-        setExpireTicks(newValue);
-        return newValue;
     }
 
     /**
@@ -171,7 +181,11 @@ public class GroundItem extends StationaryEntity {
      */
     public final void setExpireTicks(int ticks) {
         checkState(isExpiring(), "This item does not expire.");
-        expireTicks = OptionalInt.of(ticks);
+        if (getState() == EntityState.ACTIVE) {
+            world.getItems().scheduleExpiration(this, ticks);
+        } else {
+            initialExpireTicks = ticks;
+        }
     }
 
     /**
@@ -179,7 +193,11 @@ public class GroundItem extends StationaryEntity {
      * does not expire.
      */
     public final int getExpireTicks() {
-        return expireTicks.orElseThrow(() -> new IllegalStateException("This item does not expire."));
+        checkState(isExpiring(), "This item does not expire.");
+        if (getState() == EntityState.ACTIVE) {
+            return (int) (world.getItems().getExpirationTick() - expireStart);
+        }
+        return initialExpireTicks;
     }
 
     /**
@@ -188,7 +206,7 @@ public class GroundItem extends StationaryEntity {
      * @return {@code true} if this item expires.
      */
     public final boolean isExpiring() {
-        return expireTicks.isPresent();
+        return expiring;
     }
 
     /**
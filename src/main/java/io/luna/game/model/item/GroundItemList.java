@@ -8,13 +8,12 @@ import io.luna.game.model.Position;
 import io.luna.game.model.World;
 import io.luna.game.model.chunk.ChunkUpdatableView;
 import io.luna.game.task.Task;
+import io.luna.util.TimingWheel;
 
-import java.util.ArrayDeque;
-import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.List;
+import java.util.LinkedHashSet;
 import java.util.Optional;
-import java.util.Queue;
+import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.stream.Stream;
@@ -33,21 +32,6 @@ public final class GroundItemList extends StationaryEntityList<GroundItem> {
      */
     private final class ExpirationTask extends Task {
 
-        /**
-         * The amount of ticks it takes for a tradeable item to become global.
-         */
-        private static final int TRADEABLE_LOCAL_TICKS = 100;
-
-        /**
-         * The amount of ticks it takes for an untradeable item to expire.
-         */
-        private static final int UNTRADEABLE_LOCAL_TICKS = 300;
-
-        /**
-         * The amount of ticks it takes for a global item to expire.
-         */
-        private static final int GLOBAL_TICKS = 300;
-
         /**
          * Creates a new {@link ExpirationTask}.
          */
@@ -55,16 +39,6 @@ public final class GroundItemList extends StationaryEntityList<GroundItem> {
             super(false, 1);
         }
 
-        /**
-         * A queue of items awaiting registration.
-         */
-        private final Queue<GroundItem> registerQueue = new ArrayDeque<>();
-
-        /**
-         * A queue of items awaiting unregistration.
-         */
-        private final Queue<GroundItem> expiredQueue = new ArrayDeque<>();
-
         @Override
         protected boolean onSchedule() {
             checkState(!expiring, "The expiration task has already been started.");
@@ -74,70 +48,49 @@ public final class GroundItemList extends StationaryEntityList<GroundItem> {
 
         @Override
         protected void execute() {
-            processItems();
-            removeExpiredItems();
-            addGlobalItems();
+            expirations.advance(this::expire);
         }
 
         /**
-         * Process expiration timers for all perishable items.
+         * Handles an item whose expiration ticks have run out.
+         *
+         * @param item The item.
          */
-        private void processItems() {
-            for (var item : world.getItems()) {
-                if (!item.isExpiring()) {
-                    continue;
-                }
-                boolean isTradeable = item.def().isTradeable();
-                int expireTicks = item.addExpireTick();
-                if (item.isLocal()) {
-                    if (isTradeable && expireTicks >= TRADEABLE_LOCAL_TICKS) {
-                        // Item is tradeable and only visible to one player, make it global.
-                        GroundItem globalItem = new GroundItem(item.getContext(), item.getId(), item.getAmount(),
-                                item.getPosition(), ChunkUpdatableView.globalView());
-                        expiredQueue.add(item);
-                        registerQueue.add(globalItem);
-                    } else if (!isTradeable && expireTicks >= UNTRADEABLE_LOCAL_TICKS) {
-                        // Item is untradeable and only visible to one player, unregister it.
-                        expiredQueue.add(item);
-                    }
-                } else if (item.isGlobal() && expireTicks >= GLOBAL_TICKS) {
-                    // Item is visible to everyone, unregister it.
-                    expiredQueue.add(item);
-                }
+        private void expire(GroundItem item) {
+            // Removed directly, unregistering could remove an identical item on the same tile instead.
+            removeFromSet(item);
+            if (item.isLocal() && item.def().isTradeable()) {
+                // Item is tradeable and only visible to one player, make it global.
+                register(new GroundItem(item.getContext(), item.getId(), item.getAmount(), item.getPosition(),
+                        ChunkUpdatableView.globalView()));
             }
         }
+    }
 
-        /**
-         * Unregisters any expired items from the world.
-         */
-        private void removeExpiredItems() {
-            for (; ; ) {
-                var nextItem = expiredQueue.poll();
-                if (nextItem == null) {
-                    break;
-                }
-                world.getItems().unregister(nextItem);
-            }
-        }
+    /**
+     * The amount of ticks it takes for a tradeable item to become global.
+     */
+    private static final int TRADEABLE_LOCAL_TICKS = 100;
 
-        /**
-         * Registers previously expired tradeable local items as global.
-         */
-        private void addGlobalItems() {
-            for (; ; ) {
-                var nextItem = registerQueue.poll();
-                if (nextItem == null) {
-                    break;
-                }
-                world.getItems().register(nextItem);
-            }
-        }
-    }
+    /**
+     * The amount of ticks it takes for an untradeable item to expire.
+     */
+    private static final int UNTRADEABLE_LOCAL_TICKS = 300;
+
+    /**
+     * The amount of ticks it takes for a global item to expire.
+     */
+    private static final int GLOBAL_TICKS = 300;
 
     /**
      * The ground items.
      */
-    private final List<GroundItem> items = new ArrayList<>(128);
+    private final Set<GroundItem> items = new LinkedHashSet<>(128);
+
+    /**
+     * The expiring items, by the tick they're due to become global or be removed.
+     */
+    private final TimingWheel<GroundItem> expirations = new TimingWheel<>();
 
     /**
      * If the expiration task was started.
@@ -197,6 +150,50 @@ public final class GroundItemList extends StationaryEntityList<GroundItem> {
         world.schedule(new ExpirationTask());
     }
 
+    /**
+     * Schedules the expiration of a registered item, replacing any previously scheduled expiration.
+     *
+     * @param item The item.
+     * @param elapsed The amount of expiration ticks that have already passed.
+     */
+    void scheduleExpiration(GroundItem item, int elapsed) {
+        cancelExpiration(item);
+        int ticks;
+        if (item.isGlobal()) {
+            ticks = GLOBAL_TICKS;
+        } else if (item.def().isTradeable()) {
+            ticks = TRADEABLE_LOCAL_TICKS;
+        } else {
+            ticks = UNTRADEABLE_LOCAL_TICKS;
+        }
+        item.expireStart = expirations.getTick() - elapsed;
+        item.expiration = expirations.schedule(item, item.expireStart + ticks);
+    }
+
+    /**
+     * Cancels the scheduled expiration of a registered item, if there is one. The expiration ticks that have passed
+     * are kept on the item.
+     *
+     * @param item The item.
+     */
+    void cancelExpiration(GroundItem item) {
+        if (item.expiration != null) {
+            expirations.cancel(item.expiration);
+            item.expiration = null;
+            item.initialExpireTicks = (int) (expirations.getTick() - item.expireStart);
+        }
+    }
+
+    /**
+     * Returns the tick that registered items count their expiration ticks against. Only advances while the
+     * expiration task is running.
+     *
+     * @return The expiration tick.
+     */
+    long getExpirationTick() {
+        return expirations.getTick();
+    }
+
     /**
      * Adds a stackable ground item.
      *
@@ -318,6 +315,9 @@ public final class GroundItemList extends StationaryEntityList<GroundItem> {
     private boolean addToSet(GroundItem item) {
         items.add(item);
         item.setState(EntityState.ACTIVE);
+        if (item.isExpiring()) {
+            scheduleExpiration(item, item.initialExpireTicks);
+        }
         item.show();
         return true;
     }
@@ -330,6 +330,7 @@ public final class GroundItemList extends StationaryEntityList<GroundItem> {
      */
     private boolean removeFromSet(GroundItem item) {
         if (items.remove(item)) {
+            cancelExpiration(item);
             item.hide();
             item.setState(EntityState.INACTIVE);
             return true;
@@ -122,6 +122,11 @@ public class ItemContainer implements Iterable<Item> {
      */
     private int size;
 
+    /**
+     * The amount of times the contents of this container have changed.
+     */
+    private int modifications;
+
     /**
      * The primary refresh widget.
      */
@@ -966,6 +971,7 @@ public class ItemContainer implements Iterable<Item> {
             items[item.getIndex()] = item.toItem();
             size++;
         }
+        modifications++;
         fireInitEvent();
     }
 
@@ -1012,6 +1018,9 @@ public class ItemContainer implements Iterable<Item> {
 
         Item oldItem = get(index);
         items[index] = item;
+        if (!Objects.equals(oldItem, item)) {
+            modifications++;
+        }
 
         fireUpdateEvent(index, oldItem, item);
     }
@@ -1197,6 +1206,14 @@ public class ItemContainer implements Iterable<Item> {
         return secondaryRefreshId;
     }
 
+    /**
+     * @return The amount of times the contents of this container have changed. Can be compared against an earlier
+     * value to cheaply determine if this container has been modified since.
+     */
+    public final int getModifications() {
+        return modifications;
+    }
+
     /**
      * @return {@code true} if events are being fired.
      */
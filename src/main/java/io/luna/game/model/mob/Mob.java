@@ -10,6 +10,7 @@ import io.luna.game.model.Position;
 import io.luna.game.model.mob.block.Animation;
 import io.luna.game.model.mob.block.Graphic;
 import io.luna.game.model.mob.block.Hit;
+import io.luna.game.model.mob.block.UpdateBlockCache;
 import io.luna.game.model.mob.block.UpdateFlagSet;
 import io.luna.game.model.mob.block.UpdateFlagSet.UpdateFlag;
 import io.luna.game.task.Task;
@@ -35,6 +36,11 @@ public abstract class Mob extends Entity {
      */
     protected final UpdateFlagSet flags = new UpdateFlagSet();
 
+    /**
+     * The update block cache.
+     */
+    private final UpdateBlockCache blockCache = new UpdateBlockCache();
+
     /**
      * The skill set.
      */
@@ -491,6 +497,7 @@ public abstract class Mob extends Entity {
         primaryHit = Optional.empty();
         secondaryHit = Optional.empty();
         flags.clear();
+        blockCache.clear();
         if (defaultDirection != null) {
             flags.flag(UpdateFlag.FACE_POSITION);
         }
@@ -551,6 +558,13 @@ public abstract class Mob extends Entity {
         return flags;
     }
 
+    /**
+     * @return The update block cache.
+     */
+    public final UpdateBlockCache getBlockCache() {
+        return blockCache;
+    }
+
     /**
      * @return The current walking direction.
      */
@@ -39,10 +39,10 @@ import io.luna.game.model.mob.varp.Varbit;
 import io.luna.game.model.mob.varp.Varp;
 import io.luna.game.persistence.PersistenceService;
 import io.luna.game.persistence.PlayerData;
+import io.luna.game.persistence.SectionTracker;
 import io.luna.game.task.TaskState;
 import io.luna.net.LunaChannelFilter;
 import io.luna.net.client.GameClient;
-import io.luna.net.codec.ByteMessage;
 import io.luna.net.msg.GameMessageWriter;
 import io.luna.net.msg.out.AssignmentMessageWriter;
 import io.luna.net.msg.out.GameChatboxMessageWriter;
@@ -175,6 +175,11 @@ public class Player extends Mob {
      */
     private final PlayerAppearance appearance = new PlayerAppearance();
 
+    /**
+     * Tracks which sections of save data have changed since the last save.
+     */
+    private final SectionTracker sectionTracker = new SectionTracker(this);
+
     /**
      * The credentials.
      */
@@ -225,11 +230,6 @@ public class Player extends Mob {
      */
     private Spellbook spellbook = Spellbook.REGULAR;
 
-    /**
-     * The cached update block.
-     */
-    private ByteMessage cachedBlock;
-
     /**
      * The rights.
      */
@@ -490,6 +490,17 @@ public class Player extends Mob {
         return new PlayerData(getUsername()).save(this);
     }
 
+    /**
+     * Prepares save data that only includes the sections changed since the last save.
+     */
+    public PlayerData createIncrementalSaveData() {
+        if (isBot()) {
+            // Bot data isn't tracked, always save everything.
+            return createSaveData();
+        }
+        return new PlayerData(getUsername()).save(this, sectionTracker.collectChanged());
+    }
+
     /**
      * Loads the argued save data into this player.
      */
@@ -497,6 +508,9 @@ public class Player extends Mob {
         if (data != null) {
             // Load saved data.
             data.load(this);
+            if (data.isSectionedRecord()) {
+                sectionTracker.markSaved();
+            }
         } else {
             // New player!
             setPosition(Luna.settings().game().startingPosition());
@@ -1099,39 +1113,6 @@ public class Player extends Mob {
         return varpManager.getValue(PersistentVarp.RUNNING) == 1;
     }
 
-    /**
-     * @return The cached update block.
-     */
-    public ByteMessage getCachedBlock() {
-        return cachedBlock;
-    }
-
-    /**
-     * @return {@code true} if the player has a cached block.
-     */
-    public boolean hasCachedBlock() {
-        return cachedBlock != null;
-    }
-
-    /**
-     * Sets the cached update block.
-     *
-     * @param newMsg The value to set to.
-     */
-    public void setCachedBlock(ByteMessage newMsg) {
-        // We have a cached block, release a reference to it.
-        if (cachedBlock != null) {
-            cachedBlock.release();
-        }
-
-        // Retain a reference to the new cached block.
-        if (newMsg != null) {
-            newMsg.retain();
-        }
-
-        cachedBlock = newMsg;
-    }
-
     /**
      * @return The last known region.
      */
@@ -1370,6 +1351,13 @@ public class Player extends Mob {
         this.databaseId = databaseId;
     }
 
+    /**
+     * @return Tracks which sections of save data have changed since the last save.
+     */
+    public SectionTracker getSectionTracker() {
+        return sectionTracker;
+    }
+
     /**
      * @return The controller manager.
      */
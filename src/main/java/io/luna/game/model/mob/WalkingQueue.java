@@ -8,9 +8,9 @@ import io.luna.game.model.Locatable;
 import io.luna.game.model.Position;
 import io.luna.game.model.Region;
 import io.luna.game.model.collision.CollisionManager;
-import io.luna.game.model.path.AStarPathfindingAlgorithm;
-import io.luna.game.model.path.EuclideanHeuristic;
+import io.luna.game.model.path.GridAStarPathfindingAlgorithm;
 import io.luna.game.model.path.PathfindingAlgorithm;
+import io.luna.game.model.path.PathfindingService;
 import io.luna.game.model.path.SimplePathfindingAlgorithm;
 import io.luna.util.RandomUtils;
 import org.apache.logging.log4j.LogManager;
@@ -21,6 +21,7 @@ import java.util.Deque;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A model representing an implementation of the walking queue.
@@ -110,6 +111,12 @@ public final class WalkingQueue {
         }
     }
 
+    /**
+     * The largest distance, in tiles, that paths are found over on the calling thread rather than by the
+     * {@link PathfindingService}. Searches this short are cheap, and callers expect to move in the same tick.
+     */
+    private static final int SYNCHRONOUS_DISTANCE = 8;
+
     /**
      * A deque of current steps.
      */
@@ -141,6 +148,11 @@ public final class WalkingQueue {
      */
     private boolean runningPath;
 
+    /**
+     * The path currently being found by the {@link PathfindingService}, if any.
+     */
+    private CompletableFuture<Deque<Step>> pendingPath;
+
     private final Direction[] shuffledDirections = RandomUtils.shuffle(Direction.NESW.toArray(Direction[]::new));
 
     /**
@@ -152,7 +164,7 @@ public final class WalkingQueue {
         this.mob = mob;
         collisionManager = mob.getWorld().getCollisionManager();
         if (mob instanceof Player) {
-            this.pathfinding = new AStarPathfindingAlgorithm(collisionManager, new EuclideanHeuristic());
+            this.pathfinding = new GridAStarPathfindingAlgorithm(collisionManager);
         } else {
             this.pathfinding = new SimplePathfindingAlgorithm(collisionManager);
         }
@@ -178,10 +190,24 @@ public final class WalkingQueue {
      * taking steps.
      */
     public void process() {
+        Position newPosition = processSteps();
+        if (newPosition != null) {
+            mob.setPosition(newPosition);
+        }
+    }
+
+    /**
+     * Determines your next walking and running directions, and computes your new position after taking steps without
+     * actually moving the mob. This only modifies state owned by the mob, so for NPCs it can be safely called from
+     * any thread as long as the result is applied with {@link Entity#setPosition(Position)} on the game thread.
+     *
+     * @return The new position, or {@code null} if the mob cannot move.
+     */
+    public Position processSteps() {
         // TODO clean up function, traversable checks don't work
         // TODO retest traversable checks, figure out a better way for runningPath to work thats less clunky
         if (mob instanceof Npc && mob.asNpc().isStationary()) {
-            return;
+            return null;
         }
         Step currentStep = new Step(mob.getPosition());
 
@@ -229,19 +255,26 @@ public final class WalkingQueue {
         mob.setWalkingDirection(walkingDirection);
         mob.setRunningDirection(runningDirection);
 
-        Position newPosition = new Position(currentStep.getX(), currentStep.getY(), mob.getPosition().getZ());
-        mob.setPosition(newPosition);
+        return Position.of(currentStep.getX(), currentStep.getY(), mob.getPosition().getZ());
     }
 
     /**
-     * Uses one of the pathfinder implementations in order to build a path to walk to the {@code destination}. For
-     * destinations exceeding {@link Region#SIZE}, {@link #lazyWalk(Position)} will be used instead. <strong>Still must be
-     * called from the game thread to ensure thread safety.</strong>
+     * Uses one of the pathfinder implementations in order to build a path to walk to the {@code destination}. Paths
+     * within {@link #SYNCHRONOUS_DISTANCE} are found right away and walked in this tick's walking step, like single
+     * tile steps, following, and interaction corrections. Longer paths are found asynchronously by the
+     * {@link PathfindingService} and walked starting next tick. Either way, any path still being found is replaced.
+     * <strong>Still must be called from the game thread to ensure thread safety.</strong>
      *
      * @param destination The destination position.
      */
     public void walk(Position destination) {
-        addPath(findPath(destination, false));
+        cancelPendingPath();
+        if (mob.getPosition().isWithinDistance(destination, SYNCHRONOUS_DISTANCE)) {
+            addPath(findPath(destination, false));
+            return;
+        }
+        pendingPath = mob.getWorld().getPathfindingService().submit(mob, destination);
+        pendingPath.thenAccept(this::addPath);
     }
 
     /**
@@ -362,10 +395,21 @@ public final class WalkingQueue {
      * Clears the current and previous steps.
      */
     public void clear() {
+        cancelPendingPath();
         current.clear();
         previous.clear();
     }
 
+    /**
+     * Cancels the path currently being found by the {@link PathfindingService}, if any.
+     */
+    private void cancelPendingPath() {
+        if (pendingPath != null) {
+            pendingPath.cancel(false);
+            pendingPath = null;
+        }
+    }
+
     /**
      * Adds an initial step to this walking queue.
      *
@@ -473,8 +517,27 @@ public final class WalkingQueue {
     }
 
 
+    /**
+     * Finds a path from the mob's current position to {@code target}, stopping at the first untraversable step.
+     *
+     * @param target The target.
+     * @param safe If the collision snapshot should be used.
+     * @return The path.
+     */
     public Deque<Step> findPath(Locatable target, boolean safe) {
-        Position start = mob.getPosition();
+        return findPath(mob.getPosition(), target, safe);
+    }
+
+    /**
+     * Finds a path from {@code start} to {@code target}, stopping at the first untraversable step. Does not read any
+     * mob state, so it can be called from any thread when {@code safe} is {@code true}.
+     *
+     * @param start The starting position.
+     * @param target The target.
+     * @param safe If the collision snapshot should be used.
+     * @return The path.
+     */
+    public Deque<Step> findPath(Position start, Locatable target, boolean safe) {
         Deque<Position> positionPath = pathfinding.find(start, target.location());
         Deque<Step> stepPath = new ArrayDeque<>(positionPath.size());
         Position last = start;
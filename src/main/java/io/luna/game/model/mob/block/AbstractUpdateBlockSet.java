@@ -7,9 +7,6 @@ import io.luna.game.model.mob.block.UpdateFlagSet.UpdateFlag;
 import io.luna.net.codec.ByteMessage;
 import io.luna.net.codec.ByteOrder;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import static io.luna.game.model.mob.block.UpdateFlagSet.UpdateFlag.APPEARANCE;
 import static io.luna.game.model.mob.block.UpdateFlagSet.UpdateFlag.CHAT;
 import static io.luna.game.model.mob.block.UpdateState.ADD_LOCAL;
@@ -35,15 +32,6 @@ public abstract class AbstractUpdateBlockSet<E extends Mob> {
         updateBlocks = computeBlocks();
     }
 
-    /**
-     * Adds the encoded block set to the main updating buffer.
-     *
-     * @param mob The mob.
-     * @param msg The main updating buffer.
-     * @param state The updating state.
-     */
-    public abstract void addBlockSet(E mob, ByteMessage msg, UpdateState state);
-
     /**
      * Encodes a single update block.
      *
@@ -66,32 +54,14 @@ public abstract class AbstractUpdateBlockSet<E extends Mob> {
      * @param state The update state.
      */
     final void encodeBlockSet(E mob, ByteMessage blockMsg, UpdateState state) {
-        List<UpdateBlock> encodeBlocks = new ArrayList<>(updateBlocks.size());
         int mask = 0;
         for (UpdateBlock block : updateBlocks) {
-            UpdateFlag updateFlag = block.getFlag();
-            if (mob.getType() == EntityType.PLAYER) {
-                // We are adding local players, so we need to force the appearance block.
-                if (state == ADD_LOCAL && updateFlag == APPEARANCE) {
-                    mask |= block.getMask(mob);
-                    encodeBlocks.add(block);
-                    continue;
-                }
-
-                // We are updating ourselves, ignore our own chat block.
-                if (state == UPDATE_SELF && updateFlag == CHAT) {
-                    continue;
-                }
-            }
-
-            // Add the update block to the cache, if its flagged.
-            if (mob.getFlags().get(updateFlag)) {
+            if (isEncoding(mob, block, state)) {
                 mask |= block.getMask(mob);
-                encodeBlocks.add(block);
             }
         }
 
-        if (!encodeBlocks.isEmpty()) {
+        if (mask != 0) {
             // Encode the update mask.
             if (mask >= 0x100 && mob.getType() == EntityType.PLAYER) {
                 mask |= 0x20;
@@ -101,22 +71,54 @@ public abstract class AbstractUpdateBlockSet<E extends Mob> {
             }
 
             // And finally, encode the update blocks!
-            for (UpdateBlock block : encodeBlocks) {
-                encodeBlock(mob, block, blockMsg);
+            for (UpdateBlock block : updateBlocks) {
+                if (isEncoding(mob, block, state)) {
+                    encodeBlock(mob, block, blockMsg);
+                }
             }
         }
     }
 
     /**
-     * Encodes this enitre block set.
+     * Determines if {@code block} needs to be encoded for {@code mob}.
+     *
+     * @param mob The mob.
+     * @param block The update block.
+     * @param state The update state.
+     * @return {@code true} if the block should be encoded.
+     */
+    private boolean isEncoding(E mob, UpdateBlock block, UpdateState state) {
+        UpdateFlag updateFlag = block.getFlag();
+        if (mob.getType() == EntityType.PLAYER) {
+            // We are adding local players, so we need to force the appearance block.
+            if (state == ADD_LOCAL && updateFlag == APPEARANCE) {
+                return true;
+            }
+
+            // We are updating ourselves, ignore our own chat block.
+            if (state == UPDATE_SELF && updateFlag == CHAT) {
+                return false;
+            }
+        }
+        return mob.getFlags().get(updateFlag);
+    }
+
+    /**
+     * Encodes this enitre block set. Blocks for local mobs are encoded once per tick through the mob's
+     * {@link UpdateBlockCache} and then copied into {@code msg}.
      *
      * @param mob The mob.
      * @param msg The main updating buffer.
      * @param state The update state.
      */
     public void encode(E mob, ByteMessage msg, UpdateState state) {
-        if (!mob.getFlags().isEmpty() || state == ADD_LOCAL) {
-            addBlockSet(mob, msg, state);
+        if (mob.getFlags().isEmpty() && state != ADD_LOCAL) {
+            return;
+        }
+        if (state == UPDATE_SELF) {
+            encodeBlockSet(mob, msg, state);
+        } else {
+            msg.putBytes(mob.getBlockCache().get(state, blockMsg -> encodeBlockSet(mob, blockMsg, state)));
         }
     }
 }
@@ -12,11 +12,6 @@ import io.luna.net.codec.ByteMessage;
  */
 public class NpcUpdateBlockSet extends AbstractUpdateBlockSet<Npc> {
 
-    @Override
-    public void addBlockSet(Npc npc, ByteMessage msg, UpdateState state) {
-        encodeBlockSet(npc, msg, state);
-    }
-
     @Override
     public void encodeBlock(Npc npc, UpdateBlock block, ByteMessage blockMsg) {
         block.encodeForNpc(npc, blockMsg);
@@ -0,0 +1,65 @@
+package io.luna.game.model.mob.block;
+
+import io.luna.game.model.mob.Mob;
+import io.luna.net.codec.ByteMessage;
+import io.netty.buffer.ByteBuf;
+
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A model that holds the encoded update blocks of a single {@link Mob} for the current tick. Update blocks for
+ * {@link UpdateState#UPDATE_LOCAL} and {@link UpdateState#ADD_LOCAL} do not depend on the viewer, so they are encoded
+ * once by whichever synchronization thread gets to them first and then copied into every other viewer's buffer.
+ * <p>
+ * Cached buffers are pooled and retained until {@link #clear()} is called during post-synchronization.
+ *
+ * @author lare96
+ */
+public final class UpdateBlockCache {
+
+    /**
+     * The cached buffers, indexed by {@link UpdateState#ordinal()}.
+     */
+    private final ByteBuf[] cache = new ByteBuf[UpdateState.values().length];
+
+    /**
+     * Retrieves the cached update blocks for {@code state}, encoding them with {@code encoder} if they haven't been
+     * encoded yet this tick. The returned buffer is shared and must only be read using absolute indexes.
+     *
+     * @param state The update state.
+     * @param encoder The function that will encode the update blocks, if needed.
+     * @return The cached update blocks.
+     */
+    public synchronized ByteBuf get(UpdateState state, Consumer<ByteMessage> encoder) {
+        checkArgument(state != UpdateState.UPDATE_SELF, "UPDATE_SELF blocks cannot be cached.");
+
+        int index = state.ordinal();
+        ByteBuf cached = cache[index];
+        if (cached == null) {
+            ByteMessage blockMsg = ByteMessage.raw();
+            try {
+                encoder.accept(blockMsg);
+                cached = blockMsg.getBuffer().retainedSlice();
+                cache[index] = cached;
+            } finally {
+                blockMsg.release();
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Releases all cached update blocks, so they will be encoded again next tick.
+     */
+    public synchronized void clear() {
+        for (int index = 0; index < cache.length; index++) {
+            ByteBuf cached = cache[index];
+            if (cached != null) {
+                cached.release();
+                cache[index] = null;
+            }
+        }
+    }
+}
@@ -187,7 +187,7 @@ public final class Bot extends Player {
         botClient = new BotClient(this, context.getServer().getMessageRepository());
         manager = world.getBotManager();
         scriptStack = new BotScriptStack(this, manager.getScriptManager());
-        movementStack = new BotMovementStack(this, manager.getMovementManager());
+        movementStack = new BotMovementStack(this);
         setClient(botClient);
     }
 
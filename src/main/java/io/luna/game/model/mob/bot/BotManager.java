@@ -3,8 +3,6 @@ package io.luna.game.model.mob.bot;
 import api.bot.BotScript;
 import io.luna.game.model.mob.bot.injection.BotContextInjector;
 import io.luna.game.model.mob.bot.injection.BotContextInjectorManager;
-import io.luna.game.model.mob.bot.movement.BotMovementManager;
-import io.luna.game.model.mob.bot.movement.BotMovementStack;
 import io.luna.game.model.mob.bot.script.BotScriptManager;
 
 /**
@@ -22,11 +20,6 @@ public final class BotManager {
      */
     private final BotScriptManager scriptManager = new BotScriptManager();
 
-    /**
-     * Manages the {@link BotMovementStack} for bots.
-     */
-    private final BotMovementManager movementManager = new BotMovementManager();
-
     /**
      * Manages the {@link BotContextInjector} listeners for bots.
      */
@@ -45,13 +38,6 @@ public final class BotManager {
         return scriptManager;
     }
 
-    /**
-     * @return The movement manager.
-     */
-    public BotMovementManager getMovementManager() {
-        return movementManager;
-    }
-
     /**
      * @return Manages the {@link BotContextInjector} listeners for bots.
      */
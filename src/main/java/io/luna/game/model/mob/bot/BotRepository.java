@@ -2,6 +2,7 @@ package io.luna.game.model.mob.bot;
 
 import com.google.common.collect.Sets;
 import io.luna.game.model.World;
+import io.luna.game.persistence.BinaryGameSerializer;
 import io.luna.game.persistence.GameSerializer;
 import io.luna.game.persistence.JsonGameSerializer;
 import io.luna.game.persistence.SqlGameSerializer;
@@ -74,14 +75,16 @@ public final class BotRepository {
     /**
      * Loads all persistent bot usernames from the configured {@link GameSerializer}.
      * <p>
-     * Depending on whether the serializer is JSON-based or SQL-based, this method will delegate to either
-     * {@link #loadJsonNames()} or {@link #loadSqlNames()}.
+     * Depending on whether the serializer is file-based or SQL-based, this method will delegate to either
+     * {@link #loadFileNames(String)} or {@link #loadSqlNames()}.
      */
     public void loadNames() {
         try {
             GameSerializer serializer = world.getSerializerManager().getSerializer();
             if (serializer instanceof JsonGameSerializer) {
-                loadJsonNames();
+                loadFileNames(".json");
+            } else if (serializer instanceof BinaryGameSerializer) {
+                loadFileNames(BinaryGameSerializer.EXTENSION);
             } else if (serializer instanceof SqlGameSerializer) {
                 loadSqlNames();
             }
@@ -91,18 +94,19 @@ public final class BotRepository {
     }
 
     /**
-     * Loads all bot usernames from the JSON save directory defined by {@link JsonGameSerializer#BOT_DIR}.
+     * Loads all bot usernames from the save directory defined by {@link JsonGameSerializer#BOT_DIR}.
      * <p>
-     * Each filename in the directory corresponds to a saved bot, and the {@code .json} extension is stripped to
-     * extract the username.
+     * Each filename with {@code extension} in the directory corresponds to a saved bot, and the extension is
+     * stripped to extract the username.
      *
+     * @param extension The extension of saved files.
      * @throws IOException If an I/O error occurs while reading the directory.
      */
-    private void loadJsonNames() throws IOException {
+    private void loadFileNames(String extension) throws IOException {
         try (DirectoryStream<Path> stream = Files.newDirectoryStream(JsonGameSerializer.BOT_DIR)) {
             for (Path path : stream) {
-                if (path.toString().endsWith(".json")) {
-                    String username = path.getFileName().toString().replace(".json", "");
+                if (path.toString().endsWith(extension)) {
+                    String username = path.getFileName().toString().replace(extension, "");
                     savedNames.add(username);
                 }
             }
@@ -1,12 +1,14 @@
 package io.luna.game.model.mob.bot.movement;
 
-import io.luna.game.GameService;
 import io.luna.game.model.Locatable;
 import io.luna.game.model.mob.WalkingQueue;
+import io.luna.game.model.mob.WalkingQueue.Step;
+import io.luna.game.model.path.PathfindingService;
 import io.luna.game.model.mob.bot.Bot;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Deque;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 
@@ -19,9 +21,9 @@ import java.util.concurrent.CompletableFuture;
  * </p>
  *
  * <p>
- * Pathfinding is performed asynchronously on the thread pool managed by {@link BotMovementManager#getPool()}, while
- * movement application occurs on the game logic thread provided by {@link GameService#getGameExecutor()}.
- * This separation ensures pathfinding does not block the main tick loop.
+ * Pathfinding is performed asynchronously by the world's {@link PathfindingService}, which delivers finished paths
+ * on the game logic thread during the next tick. This separation ensures pathfinding does not block the main tick
+ * loop.
  * </p>
  *
  * @author lare96
@@ -47,6 +49,11 @@ public final class BotMovementStack {
          */
         private final CompletableFuture<Void> result;
 
+        /**
+         * The future path being found by the {@link PathfindingService}.
+         */
+        private final CompletableFuture<Deque<Step>> path;
+
         /**
          * The destination being targeted by this movement.
          */
@@ -56,10 +63,13 @@ public final class BotMovementStack {
          * Creates a new movement request.
          *
          * @param result The future representing this request.
+         * @param path The future path being found.
          * @param target The destination target.
          */
-        private BotMovementRequest(CompletableFuture<Void> result, Locatable target) {
+        private BotMovementRequest(CompletableFuture<Void> result, CompletableFuture<Deque<Step>> path,
+                                   Locatable target) {
             this.result = result;
+            this.path = path;
             this.target = target;
         }
     }
@@ -69,11 +79,6 @@ public final class BotMovementStack {
      */
     private final Bot bot;
 
-    /**
-     * The movement manager that schedules async pathfinding operations.
-     */
-    private final BotMovementManager manager;
-
     /**
      * The currently active movement request, or {@code null} if idle.
      */
@@ -83,11 +88,9 @@ public final class BotMovementStack {
      * Creates a new {@link BotMovementStack}.
      *
      * @param bot The bot.
-     * @param manager The movement manager coordinating async pathfinding.
      */
-    public BotMovementStack(Bot bot, BotMovementManager manager) {
+    public BotMovementStack(Bot bot) {
         this.bot = bot;
-        this.manager = manager;
     }
 
     /**
@@ -95,7 +98,7 @@ public final class BotMovementStack {
      * is cancelled and cleared before the new one begins.
      *
      * <p>
-     * Pathfinding is executed asynchronously using the movement manager's pool, and once complete, the resulting
+     * Pathfinding is executed asynchronously by the {@link PathfindingService}, and once complete, the resulting
      * path is applied on the game thread.
      * </p>
      *
@@ -111,24 +114,24 @@ public final class BotMovementStack {
                 return request.result;
             }
             // Cancel existing request before we start a new one.
+            request.path.cancel(false);
             request.result.cancel(false);
             walking.clear();
             bot.log("Cancelling existing movement " + request.target + ".");
         }
         // Generate async path and apply it when ready.
+        CompletableFuture<Deque<Step>> path = bot.getWorld().getPathfindingService().submit(bot, target);
         request = new BotMovementRequest(
-                CompletableFuture.supplyAsync(() -> walking.findPath(target, true), manager.getPool()).
-                        thenAcceptAsync(path -> {
-                            walking.addPath(path);
-                            bot.log("Path generated, now walking" + target + ".");
-                        }, bot.getService().getGameExecutor()).
-                        exceptionally(ex -> {
-                            if (!(ex instanceof CancellationException)) {
-                                logger.error("Pathfinding for bot {} and {} failed!", bot.getUsername(), target, ex);
-                            }
-                            return null;
-                        }),
-                target);
+                path.thenAccept(steps -> {
+                    walking.addPath(steps);
+                    bot.log("Path generated, now walking" + target + ".");
+                }).exceptionally(ex -> {
+                    if (!(ex instanceof CancellationException) && !(ex.getCause() instanceof CancellationException)) {
+                        logger.error("Pathfinding for bot {} and {} failed!", bot.getUsername(), target, ex);
+                    }
+                    return null;
+                }),
+                path, target);
         bot.log("Generating new movement path " + target + ".");
         return request.result;
     }
@@ -7,6 +7,7 @@ import io.luna.game.model.Position;
 import io.luna.game.model.mob.Player;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.BitSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -29,6 +30,22 @@ public final class ControllerManager implements Iterable<PlayerController> {
      */
     private final Map<ControllerKey<?>, PlayerController> registered = new LinkedHashMap<>();
 
+    /**
+     * The {@link PlayerLocationController}s the player is inside of, indexed by
+     * {@link ControllerKey#getLocationKeys()}.
+     */
+    private final BitSet locations = new BitSet();
+
+    /**
+     * The {@link PlayerLocationController}s the player's next position is inside of.
+     */
+    private final BitSet nextLocations = new BitSet();
+
+    /**
+     * The {@link PlayerLocationController}s that need to be checked for the next position.
+     */
+    private final BitSet changedLocations = new BitSet();
+
     /**
      * Creates a new {@link ControllerManager}.
      *
@@ -103,19 +120,27 @@ public final class ControllerManager implements Iterable<PlayerController> {
      * @return {@code true} if the player can move, {@code false} otherwise.
      */
     public boolean checkMovement(Position newPos) {
-        for (ControllerKey<? extends PlayerLocationController> key : ControllerKey.getLocationKeys()) {
+        LocationControllerIndex index = LocationControllerIndex.get();
+        index.collect(newPos, nextLocations);
+
+        // Only the controllers being entered or exited need to be checked, in the order they were created.
+        changedLocations.clear();
+        changedLocations.or(locations);
+        changedLocations.xor(nextLocations);
+        for (int next = changedLocations.nextSetBit(0); next >= 0; next = changedLocations.nextSetBit(next + 1)) {
+            ControllerKey<? extends PlayerLocationController> key = index.getKey(next);
             PlayerLocationController controller = key.getController();
-            boolean inside = controller.inside(newPos);
-            boolean alreadyRegistered = contains(key);
-            if (!alreadyRegistered && inside) {
+            if (nextLocations.get(next)) {
                 if (controller.canEnter(player, newPos)) {
                     registered.put(key, controller);
+                    locations.set(next);
                 } else {
                     return false;
                 }
-            } else if (alreadyRegistered && !inside) {
+            } else {
                 if (controller.canExit(player, newPos)) {
                     registered.remove(key);
+                    locations.clear(next);
                 } else {
 
                     return false;
@@ -0,0 +1,269 @@
+package io.luna.game.model.mob.controller;
+
+import io.luna.game.model.Locatable;
+import io.luna.game.model.Position;
+import io.luna.game.model.Region;
+import io.luna.game.model.area.CircularArea;
+import io.luna.game.model.area.PolygonArea;
+import io.luna.game.model.area.SimpleBoxArea;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A spatial index of the areas tracked by {@link PlayerLocationController}s, used to find the controllers a position
+ * is inside of without testing every one of their areas.
+ * <p>
+ * Every chunk touched by a tracked area holds a 64-bit tile mask per controller. Boxes, polygons, and regions are
+ * rasterized into exact masks ahead of time. Other areas and single positions only mark the tiles they could cover,
+ * and are confirmed with {@link PlayerLocationController#inside(Position)}. Controllers tracking any other kind of
+ * {@link Locatable} aren't indexed, and are always tested directly.
+ * <p>
+ * The index is built when first needed, and rebuilt whenever a new {@link ControllerKey} is created. It's immutable
+ * once built.
+ *
+ * @author lare96
+ */
+final class LocationControllerIndex {
+
+    /**
+     * The tile masks of the controllers within a chunk.
+     */
+    private static final class Cell {
+
+        /**
+         * The indexes of the controllers, in ascending order.
+         */
+        private int[] keys = new int[0];
+
+        /**
+         * The tiles that are inside of each controller.
+         */
+        private long[] masks = new long[0];
+
+        /**
+         * The tiles that could be inside of each controller, and need to be confirmed.
+         */
+        private long[] verifyMasks = new long[0];
+
+        /**
+         * Adds tiles to a controller's masks. Controllers must be added in ascending order.
+         */
+        private void add(int key, long mask, long verifyMask) {
+            int last = keys.length - 1;
+            if (last < 0 || keys[last] != key) {
+                last++;
+                keys = Arrays.copyOf(keys, last + 1);
+                masks = Arrays.copyOf(masks, last + 1);
+                verifyMasks = Arrays.copyOf(verifyMasks, last + 1);
+                keys[last] = key;
+            }
+            masks[last] |= mask;
+            verifyMasks[last] |= verifyMask;
+        }
+    }
+
+    /**
+     * The amount of bits used for each coordinate of a region index, enough for {@link Position#MAX_COORDINATE}.
+     */
+    private static final int REGION_BITS = 9;
+
+    /**
+     * The amount of chunks within a region.
+     */
+    private static final int REGION_CHUNKS = 64;
+
+    /**
+     * The current index.
+     */
+    private static volatile LocationControllerIndex current;
+
+    /**
+     * Returns an index of every {@link PlayerLocationController}, rebuilding it if new keys were created.
+     *
+     * @return The index.
+     */
+    static LocationControllerIndex get() {
+        List<ControllerKey<? extends PlayerLocationController>> keys = ControllerKey.getLocationKeys();
+        LocationControllerIndex index = current;
+        if (index == null || index.keys.size() != keys.size()) {
+            index = new LocationControllerIndex(List.copyOf(keys));
+            current = index;
+        }
+        return index;
+    }
+
+    /**
+     * The indexed keys.
+     */
+    private final List<ControllerKey<? extends PlayerLocationController>> keys;
+
+    /**
+     * The cells of every chunk, grouped by region.
+     */
+    private final Cell[][] regions = new Cell[1 << REGION_BITS * 2][];
+
+    /**
+     * The indexes of controllers that couldn't be indexed.
+     */
+    private final int[] unindexed;
+
+    /**
+     * Creates a new {@link LocationControllerIndex}.
+     *
+     * @param keys The keys to index.
+     */
+    private LocationControllerIndex(List<ControllerKey<? extends PlayerLocationController>> keys) {
+        this.keys = keys;
+        List<Integer> unindexedKeys = new ArrayList<>();
+        Map<Integer, Cell> cells = new HashMap<>();
+        for (int key = 0; key < keys.size(); key++) {
+            PlayerLocationController controller = keys.get(key).getController();
+            if (!controller.getLocations().stream().allMatch(LocationControllerIndex::isIndexable)) {
+                unindexedKeys.add(key);
+                continue;
+            }
+            for (Locatable locatable : controller.getLocations()) {
+                rasterize(key, locatable, cells);
+            }
+        }
+        for (Map.Entry<Integer, Cell> entry : cells.entrySet()) {
+            int chunkX = entry.getKey() >>> 16;
+            int chunkY = entry.getKey() & 0xffff;
+            int region = (chunkX >> 3) << REGION_BITS | chunkY >> 3;
+            if (regions[region] == null) {
+                regions[region] = new Cell[REGION_CHUNKS];
+            }
+            regions[region][(chunkX & 7) << 3 | chunkY & 7] = entry.getValue();
+        }
+        unindexed = unindexedKeys.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Sets the bits of every controller {@code position} is inside of.
+     *
+     * @param position The position.
+     * @param inside The bits, indexed by {@link ControllerKey#getLocationKeys()}. Cleared before being set.
+     */
+    void collect(Position position, BitSet inside) {
+        inside.clear();
+        int x = position.getX();
+        int y = position.getY();
+        Cell[] cells = regions[(x >> 6) << REGION_BITS | y >> 6];
+        Cell cell = cells == null ? null : cells[(x >> 3 & 7) << 3 | y >> 3 & 7];
+        if (cell != null) {
+            long bit = 1L << ((x & 7) << 3 | y & 7);
+            for (int index = 0; index < cell.keys.length; index++) {
+                int key = cell.keys[index];
+                if ((cell.masks[index] & bit) != 0 ||
+                        (cell.verifyMasks[index] & bit) != 0 && getController(key).inside(position)) {
+                    inside.set(key);
+                }
+            }
+        }
+        for (int key : unindexed) {
+            if (getController(key).inside(position)) {
+                inside.set(key);
+            }
+        }
+    }
+
+    /**
+     * Retrieves the key at {@code index}.
+     *
+     * @param index The index.
+     * @return The key.
+     */
+    ControllerKey<? extends PlayerLocationController> getKey(int index) {
+        return keys.get(index);
+    }
+
+    /**
+     * Retrieves the controller at {@code index}.
+     */
+    private PlayerLocationController getController(int index) {
+        return keys.get(index).getController();
+    }
+
+    /**
+     * Determines if the tiles {@code locatable} covers can be found ahead of time.
+     */
+    private static boolean isIndexable(Locatable locatable) {
+        return locatable instanceof SimpleBoxArea || locatable instanceof PolygonArea ||
+                locatable instanceof CircularArea || locatable instanceof Region || locatable instanceof Position;
+    }
+
+    /**
+     * Adds the tiles covered by {@code locatable} to the cells of {@code key}.
+     */
+    private static void rasterize(int key, Locatable locatable, Map<Integer, Cell> cells) {
+        if (locatable instanceof SimpleBoxArea) {
+            SimpleBoxArea box = (SimpleBoxArea) locatable;
+            addBox(key, box.getSouthWestX(), box.getSouthWestY(), box.getNorthEastX(), box.getNorthEastY(), false,
+                    cells);
+        } else if (locatable instanceof Region) {
+            Region region = (Region) locatable;
+            int baseX = region.getX() * Region.SIZE;
+            int baseY = region.getY() * Region.SIZE;
+            addBox(key, baseX, baseY, baseX + Region.SIZE - 1, baseY + Region.SIZE - 1, false, cells);
+        } else if (locatable instanceof CircularArea) {
+            // Circles are plane dependent, so only their bounds are indexed.
+            CircularArea circle = (CircularArea) locatable;
+            Position center = circle.getCenter();
+            int radius = circle.getRadius();
+            addBox(key, center.getX() - radius, center.getY() - radius, center.getX() + radius,
+                    center.getY() + radius, true, cells);
+        } else if (locatable instanceof Position) {
+            Position position = (Position) locatable;
+            addBox(key, position.getX(), position.getY(), position.getX(), position.getY(), true, cells);
+        } else if (locatable instanceof PolygonArea) {
+            PolygonArea polygon = (PolygonArea) locatable;
+            int minX = Math.max(polygon.getSouthWestX(), 0);
+            int minY = Math.max(polygon.getSouthWestY(), 0);
+            int maxX = Math.min(polygon.getNorthEastX(), Position.MAX_COORDINATE);
+            int maxY = Math.min(polygon.getNorthEastY(), Position.MAX_COORDINATE);
+            for (int x = minX; x <= maxX; x++) {
+                for (int y = minY; y <= maxY; y++) {
+                    if (polygon.contains(new Position(x, y))) {
+                        getCell(x >> 3, y >> 3, cells).add(key, 1L << ((x & 7) << 3 | y & 7), 0);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a box of tiles to the cells of {@code key}, one chunk at a time.
+     */
+    private static void addBox(int key, int minX, int minY, int maxX, int maxY, boolean verify,
+                               Map<Integer, Cell> cells) {
+        minX = Math.max(minX, 0);
+        minY = Math.max(minY, 0);
+        maxX = Math.min(maxX, Position.MAX_COORDINATE);
+        maxY = Math.min(maxY, Position.MAX_COORDINATE);
+        for (int chunkX = minX >> 3; chunkX <= maxX >> 3; chunkX++) {
+            for (int chunkY = minY >> 3; chunkY <= maxY >> 3; chunkY++) {
+                long mask = 0;
+                for (int localX = Math.max(minX - (chunkX << 3), 0); localX <= Math.min(maxX - (chunkX << 3), 7);
+                     localX++) {
+                    for (int localY = Math.max(minY - (chunkY << 3), 0);
+                         localY <= Math.min(maxY - (chunkY << 3), 7); localY++) {
+                        mask |= 1L << (localX << 3 | localY);
+                    }
+                }
+                getCell(chunkX, chunkY, cells).add(key, verify ? 0 : mask, verify ? mask : 0);
+            }
+        }
+    }
+
+    /**
+     * Retrieves the cell of a chunk, creating it if needed.
+     */
+    private static Cell getCell(int chunkX, int chunkY, Map<Integer, Cell> cells) {
+        return cells.computeIfAbsent(chunkX << 16 | chunkY, k -> new Cell());
+    }
+}
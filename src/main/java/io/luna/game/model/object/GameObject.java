@@ -2,9 +2,11 @@ package io.luna.game.model.object;
 
 import com.google.common.base.MoreObjects;
 import io.luna.LunaContext;
+import io.luna.game.model.EntityState;
 import io.luna.game.model.EntityType;
 import io.luna.game.model.Position;
 import io.luna.game.model.StationaryEntity;
+import io.luna.game.model.chunk.ChunkRepository;
 import io.luna.game.model.chunk.ChunkUpdatableMessage;
 import io.luna.game.model.chunk.ChunkUpdatableRequest;
 import io.luna.game.model.chunk.ChunkUpdatableView;
@@ -167,6 +169,17 @@ public class GameObject extends StationaryEntity {
         }
     }
 
+    /**
+     * Marks this object as an active, detached view of an object in the {@link StaticObjectStore}. The view isn't
+     * registered with {@code repository}, so changes to it won't affect the stored object.
+     *
+     * @param repository The repository of the chunk the object is in.
+     */
+    void detach(ChunkRepository repository) {
+        state = EntityState.ACTIVE;
+        chunkRepository = repository;
+    }
+
     /**
      * Determines if this object will replace {@code object} on the map and vice-versa.
      *
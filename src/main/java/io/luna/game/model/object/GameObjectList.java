@@ -6,6 +6,7 @@ import io.luna.game.cache.Cache;
 import io.luna.game.model.StationaryEntityList;
 import io.luna.game.model.EntityState;
 import io.luna.game.model.EntityType;
+import io.luna.game.model.Position;
 import io.luna.game.model.World;
 
 import java.util.HashSet;
@@ -14,6 +15,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.stream.Stream;
 
 /**
  * A {@link StationaryEntityList} that tracks all {@link GameObject} types existing natively and spawned by the server.
@@ -28,9 +30,9 @@ public final class GameObjectList extends StationaryEntityList<GameObject> {
     private final Set<GameObject> dynamicObjects = new HashSet<>(128);
 
     /**
-     * A set of objects existing natively on the map. Decoded from the {@link Cache} resource.
+     * The objects existing natively on the map. Decoded from the {@link Cache} resource.
      */
-    private final Set<GameObject> staticObjects = new HashSet<>(1_376_518);
+    private final StaticObjectStore staticObjects;
 
     /**
      * Creates a new {@link StationaryEntityList}.
@@ -39,6 +41,7 @@ public final class GameObjectList extends StationaryEntityList<GameObject> {
      */
     public GameObjectList(World world) {
         super(world, EntityType.OBJECT);
+        staticObjects = new StaticObjectStore(world);
     }
 
     @Override
@@ -94,6 +97,23 @@ public final class GameObjectList extends StationaryEntityList<GameObject> {
         return removeFromSet(existingObject);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Objects loaded from the cache on {@code position} are promoted to {@link GameObject}s, if they haven't been
+     * already.
+     */
+    @Override
+    public Stream<GameObject> findAll(Position position) {
+        staticObjects.promote(position);
+        return super.findAll(position);
+    }
+
+    @Override
+    public boolean isOccupied(Position position) {
+        return super.isOccupied(position) || staticObjects.contains(position);
+    }
+
     @Override
     public int size() {
         return dynamicObjects.size() + staticObjects.size();
@@ -128,9 +148,17 @@ public final class GameObjectList extends StationaryEntityList<GameObject> {
     }
 
     /**
-     * Returns an iterator over all cache loaded objects.
+     * Returns an iterator over all cache loaded objects. Objects that haven't been touched are returned as detached
+     * views, use {@link #findAll(Position)} to retrieve the registered object.
      */
     public UnmodifiableIterator<GameObject> staticIterator() {
         return Iterators.unmodifiableIterator(staticObjects.iterator());
     }
+
+    /**
+     * @return The objects existing natively on the map.
+     */
+    public StaticObjectStore getStaticObjects() {
+        return staticObjects;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,397 @@
+package io.luna.game.model.object;
+
+import com.google.common.collect.AbstractIterator;
+import io.luna.game.cache.Cache;
+import io.luna.game.model.EntityState;
+import io.luna.game.model.Position;
+import io.luna.game.model.World;
+import io.luna.game.model.chunk.Chunk;
+import io.luna.game.model.chunk.ChunkRepository;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A compact store for the {@link GameObject}s existing natively on the map, decoded from the {@link Cache}. Objects
+ * are kept as parallel primitive arrays (identifier, packed position, type, and direction) grouped by chunk, rather
+ * than as entities.
+ * <p>
+ * A {@link GameObject} is only created for a stored object once it's touched, through
+ * {@link #promote(Position)}. Promoted objects are registered with their chunk like any other object and are
+ * returned by every later lookup. Iterating over the store creates detached views of untouched objects, which are not
+ * kept.
+ * <p>
+ * Must only be used on the game thread.
+ *
+ * @author lare96
+ */
+public final class StaticObjectStore {
+
+    /**
+     * A visitor for objects that haven't been promoted.
+     */
+    @FunctionalInterface
+    public interface ObjectVisitor {
+
+        /**
+         * Visits an object.
+         *
+         * @param id The identifier.
+         * @param position The position.
+         * @param type The type.
+         * @param direction The direction.
+         */
+        void visit(int id, Position position, ObjectType type, ObjectDirection direction);
+    }
+
+    /**
+     * The objects within a single chunk.
+     */
+    private static final class Block {
+
+        /**
+         * The identifiers, or {@code -1} for removed objects.
+         */
+        private int[] ids = new int[8];
+
+        /**
+         * The packed positions.
+         */
+        private int[] positions = new int[8];
+
+        /**
+         * The type ordinals.
+         */
+        private byte[] types = new byte[8];
+
+        /**
+         * The direction ordinals.
+         */
+        private byte[] directions = new byte[8];
+
+        /**
+         * The promoted objects, or {@code null} if none have been promoted.
+         */
+        private GameObject[] promoted;
+
+        /**
+         * The amount of used slots, including removed objects.
+         */
+        private int size;
+
+        /**
+         * Adds an object to this block.
+         *
+         * @return The slot of the object.
+         */
+        private int add(int id, int position, ObjectType type, ObjectDirection direction) {
+            if (size == ids.length) {
+                int newLength = size * 2;
+                ids = Arrays.copyOf(ids, newLength);
+                positions = Arrays.copyOf(positions, newLength);
+                types = Arrays.copyOf(types, newLength);
+                directions = Arrays.copyOf(directions, newLength);
+                if (promoted != null) {
+                    promoted = Arrays.copyOf(promoted, newLength);
+                }
+            }
+            ids[size] = id;
+            positions[size] = position;
+            types[size] = (byte) type.ordinal();
+            directions[size] = (byte) direction.ordinal();
+            return size++;
+        }
+
+        /**
+         * Trims the backing arrays to the amount of used slots.
+         */
+        private void trim() {
+            if (size < ids.length) {
+                ids = Arrays.copyOf(ids, size);
+                positions = Arrays.copyOf(positions, size);
+                types = Arrays.copyOf(types, size);
+                directions = Arrays.copyOf(directions, size);
+                if (promoted != null) {
+                    promoted = Arrays.copyOf(promoted, size);
+                }
+            }
+        }
+
+        /**
+         * Returns the promoted object in {@code slot}.
+         */
+        private GameObject getPromoted(int slot) {
+            return promoted == null ? null : promoted[slot];
+        }
+
+        /**
+         * Sets the promoted object in {@code slot}.
+         */
+        private void setPromoted(int slot, GameObject object) {
+            if (promoted == null) {
+                promoted = new GameObject[ids.length];
+            }
+            promoted[slot] = object;
+        }
+    }
+
+    /**
+     * The object types, by ordinal.
+     */
+    private static final ObjectType[] TYPES = ObjectType.values();
+
+    /**
+     * The object directions, by ordinal.
+     */
+    private static final ObjectDirection[] DIRECTIONS = ObjectDirection.values();
+
+    /**
+     * The world.
+     */
+    private final World world;
+
+    /**
+     * The blocks of objects, by chunk.
+     */
+    private final Map<Chunk, Block> blocks = new HashMap<>();
+
+    /**
+     * The amount of objects.
+     */
+    private int size;
+
+    /**
+     * Creates a new {@link StaticObjectStore}.
+     *
+     * @param world The world.
+     */
+    StaticObjectStore(World world) {
+        this.world = world;
+    }
+
+    /**
+     * Adds an object loaded from the cache. The object is not shown, and its collision is applied when the collision
+     * map is built.
+     *
+     * @param id The identifier.
+     * @param position The position.
+     * @param type The type.
+     * @param direction The direction.
+     */
+    public void add(int id, Position position, ObjectType type, ObjectDirection direction) {
+        getOrCreateBlock(position.getChunk()).add(id, position.getPacked(), type,
+                direction);
+        size++;
+    }
+
+    /**
+     * Adds an already created static object. The object is promoted from the start.
+     *
+     * @param object The object.
+     * @return {@code true} if the object was added.
+     */
+    boolean add(GameObject object) {
+        Position position = object.getPosition();
+        Block block = getOrCreateBlock(position.getChunk());
+        int slot = block.add(object.getId(), position.getPacked(),
+                object.getObjectType(), object.getDirection());
+        block.setPromoted(slot, object);
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes a promoted object.
+     *
+     * @param object The object.
+     * @return {@code true} if the object was removed.
+     */
+    boolean remove(GameObject object) {
+        Block block = blocks.get(object.getPosition().getChunk());
+        if (block != null && block.promoted != null) {
+            for (int slot = 0; slot < block.size; slot++) {
+                if (block.promoted[slot] == object) {
+                    block.ids[slot] = -1;
+                    block.promoted[slot] = null;
+                    size--;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Promotes every untouched object on {@code position}, creating and registering a {@link GameObject} for each.
+     *
+     * @param position The position.
+     */
+    void promote(Position position) {
+        Block block = blocks.get(position.getChunk());
+        if (block == null) {
+            return;
+        }
+        int packed = position.getPacked();
+        for (int slot = 0; slot < block.size; slot++) {
+            if (block.positions[slot] == packed && block.ids[slot] != -1 && block.getPromoted(slot) == null) {
+                promote(block, slot, position);
+            }
+        }
+    }
+
+    /**
+     * Tests every untouched object within {@code chunk} against {@code cond}, and promotes the ones that match.
+     *
+     * @param chunk The chunk.
+     * @param cond The condition, tested on detached views.
+     * @param found Receives each promoted object.
+     */
+    public void find(Chunk chunk, Predicate<GameObject> cond, Consumer<GameObject> found) {
+        Block block = blocks.get(chunk);
+        if (block == null) {
+            return;
+        }
+        ChunkRepository repository = world.getChunks().load(chunk);
+        for (int slot = 0; slot < block.size; slot++) {
+            if (block.ids[slot] != -1 && block.getPromoted(slot) == null) {
+                GameObject view = createView(block, slot, repository);
+                if (cond.test(view)) {
+                    found.accept(promote(block, slot, view.getPosition()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Determines if there is at least one object on {@code position}, without promoting it.
+     *
+     * @param position The position.
+     * @return {@code true} if there is an object on the position.
+     */
+    boolean contains(Position position) {
+        Block block = blocks.get(position.getChunk());
+        if (block == null) {
+            return false;
+        }
+        int packed = position.getPacked();
+        for (int slot = 0; slot < block.size; slot++) {
+            if (block.positions[slot] == packed && block.ids[slot] != -1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Visits every untouched object within {@code chunk}. Promoted objects are registered with the chunk, and
+     * should be retrieved from it instead.
+     *
+     * @param chunk The chunk.
+     * @param visitor The visitor.
+     */
+    public void forEachUntouched(Chunk chunk, ObjectVisitor visitor) {
+        Block block = blocks.get(chunk);
+        if (block == null) {
+            return;
+        }
+        for (int slot = 0; slot < block.size; slot++) {
+            if (block.ids[slot] != -1 && block.getPromoted(slot) == null) {
+                visitor.visit(block.ids[slot], Position.of(block.positions[slot]), TYPES[block.types[slot]],
+                        DIRECTIONS[block.directions[slot]]);
+            }
+        }
+    }
+
+    /**
+     * Trims every block to the amount of objects within it. Called once all objects have been loaded.
+     */
+    public void trim() {
+        blocks.values().forEach(Block::trim);
+    }
+
+    /**
+     * Returns an iterator over every object. Promoted objects are returned as they are, and untouched objects as
+     * detached views that are created as needed and not kept.
+     *
+     * @return The iterator.
+     */
+    Iterator<GameObject> iterator() {
+        Iterator<Map.Entry<Chunk, Block>> blockIterator = blocks.entrySet().iterator();
+        return new AbstractIterator<>() {
+            private ChunkRepository repository;
+            private Block block;
+            private int slot;
+
+            @Override
+            protected GameObject computeNext() {
+                for (;;) {
+                    if (block == null || slot >= block.size) {
+                        if (!blockIterator.hasNext()) {
+                            return endOfData();
+                        }
+                        Map.Entry<Chunk, Block> next = blockIterator.next();
+                        repository = world.getChunks().load(next.getKey());
+                        block = next.getValue();
+                        slot = 0;
+                    }
+                    int current = slot++;
+                    if (block.ids[current] == -1) {
+                        continue;
+                    }
+                    GameObject object = block.getPromoted(current);
+                    return object != null ? object : createView(block, current, repository);
+                }
+            }
+        };
+    }
+
+    /**
+     * @return The amount of objects.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Creates and registers a {@link GameObject} for the object in {@code slot}.
+     *
+     * @return The object.
+     */
+    private GameObject promote(Block block, int slot, Position position) {
+        GameObject object = GameObject.createStatic(world.getContext(), block.ids[slot], position,
+                TYPES[block.types[slot]], DIRECTIONS[block.directions[slot]]);
+        block.setPromoted(slot, object);
+        object.setState(EntityState.ACTIVE);
+        return object;
+    }
+
+    /**
+     * Creates a detached view of the object in {@code slot}.
+     *
+     * @return The view.
+     */
+    private GameObject createView(Block block, int slot, ChunkRepository repository) {
+        GameObject object = GameObject.createStatic(world.getContext(), block.ids[slot],
+                Position.of(block.positions[slot]), TYPES[block.types[slot]], DIRECTIONS[block.directions[slot]]);
+        object.detach(repository);
+        return object;
+    }
+
+    /**
+     * Retrieves the block for {@code chunk}, creating it and loading the chunk if needed.
+     */
+    private Block getOrCreateBlock(Chunk chunk) {
+        Block block = blocks.get(chunk);
+        if (block == null) {
+            // The chunk must exist for its collision map to be built.
+            world.getChunks().load(chunk);
+            block = new Block();
+            blocks.put(chunk, block);
+        }
+        return block;
+    }
+}
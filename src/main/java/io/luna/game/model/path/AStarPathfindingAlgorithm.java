@@ -1,14 +1,15 @@
 package io.luna.game.model.path;
 
 import io.luna.game.model.Direction;
+import io.luna.game.model.EntityType;
 import io.luna.game.model.Position;
 import io.luna.game.model.collision.CollisionManager;
+import io.netty.util.collection.IntObjectHashMap;
+import io.netty.util.collection.IntObjectMap;
 
 import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Set;
@@ -46,10 +47,10 @@ public final class AStarPathfindingAlgorithm extends PathfindingAlgorithm {
 
 	@Override
 	public Deque<Position> find(Position origin, Position target) {
-		Map<Position, Node> nodes = new HashMap<>();
+		IntObjectMap<Node> nodes = new IntObjectHashMap<>();
 		Node start = new Node(origin), end = new Node(target);
-		nodes.put(origin, start);
-		nodes.put(target, end);
+		nodes.put(origin.getPacked(), start);
+		nodes.put(target.getPacked(), end);
 
 		Set<Node> open = new HashSet<>();
 		Queue<Node> sorted = new PriorityQueue<>();
@@ -67,17 +68,22 @@ public final class AStarPathfindingAlgorithm extends PathfindingAlgorithm {
 			open.remove(active);
 			active.close();
 
-			int x = position.getX(), y = position.getY();
+			int x = position.getX(), y = position.getY(), z = position.getZ();
 			for (int nextX = x - 1; nextX <= x + 1; nextX++) {
 				for (int nextY = y - 1; nextY <= y + 1; nextY++) {
 					if (nextX == x && nextY == y) {
 						continue;
 					}
 
-					Position adjacent = new Position(nextX, nextY, position.getZ());
-					Direction direction = Direction.between(adjacent, position);
-					if (traversable(adjacent, direction)) {
-						Node node = nodes.computeIfAbsent(adjacent, Node::new);
+					// Nodes are keyed by packed coordinates, so positions are only created for new nodes.
+					Direction direction = Direction.between(nextX, nextY, x, y);
+					if (collisionManager.traversable(nextX, nextY, z, EntityType.NPC, direction, true)) {
+						int packed = Position.pack(nextX, nextY, z);
+						Node node = nodes.get(packed);
+						if (node == null) {
+							node = new Node(Position.of(nextX, nextY, z));
+							nodes.put(packed, node);
+						}
 						compare(active, node, open, sorted, heuristic);
 					}
 				}
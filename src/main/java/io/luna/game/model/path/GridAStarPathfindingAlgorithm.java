@@ -0,0 +1,169 @@
+package io.luna.game.model.path;
+
+import io.luna.game.model.Direction;
+import io.luna.game.model.EntityType;
+import io.luna.game.model.Position;
+import io.luna.game.model.collision.CollisionManager;
+import io.luna.game.model.mob.WalkingQueue.Step;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A {@link PathfindingAlgorithm} that utilises the A* algorithm over a fixed {@code 104x104} grid centered on the
+ * origin, which is the same area the client is able to see.
+ * <p>
+ * Unlike {@link AStarPathfindingAlgorithm}, searches do not allocate. Every tile is addressed by an {@code int} cell,
+ * costs and parents live in flat arrays, and the open set is a primitive binary heap. All of this is held in a
+ * {@link SearchArena} that is reused by every search on the same thread. Searches also give up after expanding
+ * a bounded amount of tiles, so unreachable targets can't stall the game thread. The only allocations are for the
+ * returned path itself.
+ *
+ * @author lare96
+ */
+public final class GridAStarPathfindingAlgorithm extends PathfindingAlgorithm {
+
+    /**
+     * The default maximum amount of tiles expanded per search.
+     */
+    public static final int DEFAULT_MAX_EXPANSIONS = 4096;
+
+    /**
+     * The search arena of each thread.
+     */
+    private static final ThreadLocal<SearchArena> ARENA = ThreadLocal.withInitial(SearchArena::new);
+
+    /**
+     * The directions tiles are expanded in.
+     */
+    private static final Direction[] DIRECTIONS = {
+            Direction.NORTH_WEST, Direction.NORTH, Direction.NORTH_EAST, Direction.WEST,
+            Direction.EAST, Direction.SOUTH_WEST, Direction.SOUTH, Direction.SOUTH_EAST
+    };
+
+    /**
+     * The offset of the origin within the local grid.
+     */
+    private static final int ORIGIN_OFFSET = SearchArena.SIZE / 2;
+
+    /**
+     * The maximum amount of tiles expanded per search.
+     */
+    private final int maxExpansions;
+
+    /**
+     * Creates the grid A* pathfinding algorithm.
+     *
+     * @param collisionManager The {@link CollisionManager} used to check if there is a collision
+     * between two {@link Position}s in a path.
+     * @param maxExpansions The maximum amount of tiles expanded per search.
+     */
+    public GridAStarPathfindingAlgorithm(CollisionManager collisionManager, int maxExpansions) {
+        super(collisionManager);
+        checkArgument(maxExpansions > 0, "maxExpansions must be above 0.");
+        this.maxExpansions = maxExpansions;
+    }
+
+    /**
+     * Creates the grid A* pathfinding algorithm with {@link #DEFAULT_MAX_EXPANSIONS}.
+     *
+     * @param collisionManager The {@link CollisionManager} used to check if there is a collision
+     * between two {@link Position}s in a path.
+     */
+    public GridAStarPathfindingAlgorithm(CollisionManager collisionManager) {
+        this(collisionManager, DEFAULT_MAX_EXPANSIONS);
+    }
+
+    @Override
+    public Deque<Position> find(Position origin, Position target) {
+        int z = origin.getZ();
+        int baseX = origin.getX() - ORIGIN_OFFSET;
+        int baseY = origin.getY() - ORIGIN_OFFSET;
+        int targetX = target.getX() - baseX;
+        int targetY = target.getY() - baseY;
+        if (target.getZ() != z || !inBounds(targetX, targetY)) {
+            return new ArrayDeque<>(0);
+        }
+
+        SearchArena arena = ARENA.get();
+        arena.reset();
+
+        int start = cell(ORIGIN_OFFSET, ORIGIN_OFFSET);
+        int goal = cell(targetX, targetY);
+        arena.open(start, 0, -1, priority(0, ORIGIN_OFFSET, ORIGIN_OFFSET, targetX, targetY));
+
+        boolean found = false;
+        int expansions = 0;
+        while (!arena.isEmpty()) {
+            int active = arena.poll();
+            if (active == goal) {
+                found = true;
+                break;
+            }
+            if (++expansions > maxExpansions) {
+                break;
+            }
+
+            int x = active / SearchArena.SIZE;
+            int y = active % SearchArena.SIZE;
+            int cost = arena.getCost(active) + 1;
+            for (Direction direction : DIRECTIONS) {
+                Step translation = direction.getTranslation();
+                int nextX = x + translation.getX();
+                int nextY = y + translation.getY();
+                if (!inBounds(nextX, nextY)) {
+                    continue;
+                }
+
+                int next = cell(nextX, nextY);
+                if (arena.isClosed(next) || (arena.isOpened(next) && arena.getCost(next) <= cost)) {
+                    continue;
+                }
+                if (collisionManager.traversable(baseX + x, baseY + y, z, EntityType.NPC, direction, true)) {
+                    arena.open(next, cost, active, priority(cost, nextX, nextY, targetX, targetY));
+                }
+            }
+        }
+
+        if (!found || goal == start) {
+            return new ArrayDeque<>(0);
+        }
+        Deque<Position> shortest = new ArrayDeque<>(arena.getCost(goal));
+        for (int active = goal; active != start; active = arena.getParent(active)) {
+            shortest.addFirst(Position.of(baseX + active / SearchArena.SIZE, baseY + active % SearchArena.SIZE, z));
+        }
+        return shortest;
+    }
+
+    /**
+     * @return The maximum amount of tiles expanded per search.
+     */
+    public int getMaxExpansions() {
+        return maxExpansions;
+    }
+
+    /**
+     * Computes the priority of a cell. Cells are ordered by estimated total cost, with ties going to the cell closest
+     * to the target. Every step costs {@code 1}, so the Chebyshev distance is used as the estimate.
+     */
+    private static int priority(int cost, int x, int y, int targetX, int targetY) {
+        int estimate = Math.max(Math.abs(targetX - x), Math.abs(targetY - y));
+        return ((cost + estimate) << 8) | estimate;
+    }
+
+    /**
+     * Computes the cell of local coordinates.
+     */
+    private static int cell(int x, int y) {
+        return x * SearchArena.SIZE + y;
+    }
+
+    /**
+     * Determines if local coordinates are within the grid.
+     */
+    private static boolean inBounds(int x, int y) {
+        return x >= 0 && y >= 0 && x < SearchArena.SIZE && y < SearchArena.SIZE;
+    }
+}
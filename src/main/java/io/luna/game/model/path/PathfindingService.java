@@ -0,0 +1,404 @@
+package io.luna.game.model.path;
+
+import io.luna.game.model.EntityState;
+import io.luna.game.model.EntityType;
+import io.luna.game.model.Locatable;
+import io.luna.game.model.Position;
+import io.luna.game.model.mob.Mob;
+import io.luna.game.model.mob.WalkingQueue;
+import io.luna.game.model.mob.WalkingQueue.Step;
+import io.luna.util.ExecutorUtils;
+import io.luna.util.LatencyHistogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A service that finds paths for all {@link Mob} types off the game thread. Requests are accepted throughout a tick,
+ * handed to a pool of workers by {@link #dispatch()} at the end of the tick, and the results are delivered by
+ * {@link #deliver()} at a fixed point during pre-synchronization of the next tick. Workers only read the thread-safe
+ * collision snapshots of each chunk.
+ * <p>
+ * Requests for the same mob type, origin, and target that are submitted before being dispatched are coalesced into a
+ * single search. At most {@code budget} searches are dispatched per tick, the rest are carried over to the next tick.
+ * <p>
+ * All functions must be called from the game thread. Result futures are completed on the game thread, so non-async
+ * dependent actions will also run on it.
+ *
+ * @author lare96
+ */
+public final class PathfindingService {
+
+    /**
+     * An identifier for a unique search.
+     */
+    private static final class PathKey {
+
+        /**
+         * The mob type.
+         */
+        private final EntityType type;
+
+        /**
+         * The origin.
+         */
+        private final Position origin;
+
+        /**
+         * The target.
+         */
+        private final Position target;
+
+        /**
+         * Creates a new {@link PathKey}.
+         *
+         * @param type The mob type.
+         * @param origin The origin.
+         * @param target The target.
+         */
+        private PathKey(EntityType type, Position origin, Position target) {
+            this.type = type;
+            this.origin = origin;
+            this.target = target;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o instanceof PathKey) {
+                PathKey other = (PathKey) o;
+                return type == other.type && origin.equals(other.origin) && target.equals(other.target);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = type.hashCode();
+            result = 31 * result + origin.hashCode();
+            return 31 * result + target.hashCode();
+        }
+    }
+
+    /**
+     * A single search, along with every mob waiting on its result.
+     */
+    private final class PathRequest {
+
+        /**
+         * The search identifier.
+         */
+        private final PathKey key;
+
+        /**
+         * The walking queue of the first mob to request this search, used to find the path.
+         */
+        private final WalkingQueue walking;
+
+        /**
+         * The mobs waiting on the result.
+         */
+        private final List<PathWaiter> waiters = new ArrayList<>(1);
+
+        /**
+         * The result of the search, once dispatched.
+         */
+        private CompletableFuture<Deque<Step>> solution;
+
+        /**
+         * Creates a new {@link PathRequest}.
+         *
+         * @param key The search identifier.
+         * @param walking The walking queue used to find the path.
+         */
+        private PathRequest(PathKey key, WalkingQueue walking) {
+            this.key = key;
+            this.walking = walking;
+        }
+
+        /**
+         * Finds the path. Runs on a worker thread.
+         */
+        private Deque<Step> solve() {
+            long start = System.nanoTime();
+            try {
+                return walking.findPath(key.origin, key.target, true);
+            } finally {
+                solveTime.record(System.nanoTime() - start);
+            }
+        }
+
+        /**
+         * @return {@code true} if every waiting mob has cancelled their request.
+         */
+        private boolean isCancelled() {
+            for (PathWaiter waiter : waiters) {
+                if (!waiter.result.isDone()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A single mob waiting on a search.
+     */
+    private static final class PathWaiter {
+
+        /**
+         * The mob.
+         */
+        private final Mob mob;
+
+        /**
+         * The result future handed to the mob.
+         */
+        private final CompletableFuture<Deque<Step>> result = new CompletableFuture<>();
+
+        /**
+         * When the request was submitted.
+         */
+        private final long requestedAt = System.nanoTime();
+
+        /**
+         * Creates a new {@link PathWaiter}.
+         *
+         * @param mob The mob.
+         */
+        private PathWaiter(Mob mob) {
+            this.mob = mob;
+        }
+    }
+
+    /**
+     * The asynchronous logger.
+     */
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * The pathfinding workers.
+     */
+    private final ExecutorService workers = ExecutorUtils.threadPool("PathfindingThread");
+
+    /**
+     * The requests that haven't been dispatched yet, in submission order.
+     */
+    private final Map<PathKey, PathRequest> pending = new LinkedHashMap<>();
+
+    /**
+     * The requests currently being solved by workers.
+     */
+    private final List<PathRequest> inFlight = new ArrayList<>();
+
+    /**
+     * The time between a request being submitted and its result being delivered.
+     */
+    private final LatencyHistogram queueLatency = new LatencyHistogram();
+
+    /**
+     * The time workers spend on each search.
+     */
+    private final LatencyHistogram solveTime = new LatencyHistogram();
+
+    /**
+     * The maximum amount of searches dispatched per tick.
+     */
+    private final int budget;
+
+    /**
+     * The amount of submitted requests.
+     */
+    private long submitted;
+
+    /**
+     * The amount of requests that were coalesced into an existing search.
+     */
+    private long coalesced;
+
+    /**
+     * The amount of requests that were cancelled before delivery.
+     */
+    private long cancelled;
+
+    /**
+     * The amount of searches that were carried over to a later tick because of the budget, counted once each.
+     */
+    private long deferred;
+
+    /**
+     * The amount of searches that failed with an exception.
+     */
+    private long failed;
+
+    /**
+     * The amount of pending requests that were already counted as deferred. They're always at the front of
+     * {@link #pending}, as it's in submission order.
+     */
+    private int carriedOver;
+
+    /**
+     * Creates a new {@link PathfindingService}.
+     *
+     * @param budget The maximum amount of searches dispatched per tick.
+     */
+    public PathfindingService(int budget) {
+        checkArgument(budget > 0, "budget must be above 0.");
+        this.budget = budget;
+    }
+
+    /**
+     * Requests a path for {@code mob} from its current position to {@code target}. The result will be delivered
+     * during pre-synchronization of the next tick at the earliest. Cancelling the returned future withdraws the
+     * request.
+     *
+     * @param mob The mob.
+     * @param target The target.
+     * @return The future path, completed on the game thread.
+     */
+    public CompletableFuture<Deque<Step>> submit(Mob mob, Locatable target) {
+        PathKey key = new PathKey(mob.getType(), mob.getPosition(), target.location());
+        PathRequest request = pending.get(key);
+        if (request == null) {
+            request = new PathRequest(key, mob.getWalking());
+            pending.put(key, request);
+        } else {
+            coalesced++;
+        }
+        PathWaiter waiter = new PathWaiter(mob);
+        request.waiters.add(waiter);
+        submitted++;
+        return waiter.result;
+    }
+
+    /**
+     * Hands up to {@code budget} pending searches to the workers. Called at the end of every tick.
+     */
+    public void dispatch() {
+        int dispatched = 0;
+        int removed = 0;
+        Iterator<PathRequest> iterator = pending.values().iterator();
+        while (iterator.hasNext() && dispatched < budget) {
+            PathRequest request = iterator.next();
+            iterator.remove();
+            removed++;
+            if (request.isCancelled()) {
+                cancelled += request.waiters.size();
+                continue;
+            }
+            request.solution = CompletableFuture.supplyAsync(request::solve, workers);
+            inFlight.add(request);
+            dispatched++;
+        }
+
+        // Only count requests carried over for the first time.
+        carriedOver = Math.max(carriedOver - removed, 0);
+        deferred += pending.size() - carriedOver;
+        carriedOver = pending.size();
+    }
+
+    /**
+     * Delivers the results of all completed searches to the mobs waiting on them. Searches that are still being
+     * solved will be delivered on a later tick. Called during pre-synchronization.
+     */
+    public void deliver() {
+        long now = System.nanoTime();
+        Iterator<PathRequest> iterator = inFlight.iterator();
+        while (iterator.hasNext()) {
+            PathRequest request = iterator.next();
+            if (!request.solution.isDone()) {
+                continue;
+            }
+            iterator.remove();
+
+            Deque<Step> path = null;
+            Throwable failure = null;
+            try {
+                path = request.solution.join();
+            } catch (CompletionException e) {
+                failure = e.getCause();
+                failed++;
+                logger.warn("Pathfinding from {} to {} failed.", request.key.origin, request.key.target, failure);
+            }
+
+            boolean shared = request.waiters.size() > 1;
+            for (PathWaiter waiter : request.waiters) {
+                if (waiter.result.isDone() || waiter.mob.getState() != EntityState.ACTIVE) {
+                    waiter.result.cancel(false);
+                    cancelled++;
+                    continue;
+                }
+                queueLatency.record(now - waiter.requestedAt);
+                if (failure != null) {
+                    waiter.result.completeExceptionally(failure);
+                } else {
+                    // Paths are consumed by the walking queue, so every mob needs their own copy.
+                    waiter.result.complete(shared ? new ArrayDeque<>(path) : path);
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds a summary of this service's metrics, one line per metric.
+     *
+     * @return The summary lines.
+     */
+    public List<String> summary() {
+        List<String> lines = new ArrayList<>(4);
+        lines.add(String.format("submitted=%d, coalesced=%d, cancelled=%d, deferred=%d, failed=%d", submitted,
+                coalesced, cancelled, deferred, failed));
+        lines.add(String.format("pending=%d, in_flight=%d, budget=%d", pending.size(), inFlight.size(), budget));
+        lines.add("queue_latency: " + queueLatency);
+        lines.add("solve_time: " + solveTime);
+        return lines;
+    }
+
+    /**
+     * Clears all metrics.
+     */
+    public void reset() {
+        queueLatency.reset();
+        solveTime.reset();
+        submitted = 0;
+        coalesced = 0;
+        cancelled = 0;
+        deferred = 0;
+        failed = 0;
+    }
+
+    /**
+     * @return The amount of searches that were carried over to a later tick because of the budget.
+     */
+    public long getDeferred() {
+        return deferred;
+    }
+
+    /**
+     * @return The time between a request being submitted and its result being delivered.
+     */
+    public LatencyHistogram getQueueLatency() {
+        return queueLatency;
+    }
+
+    /**
+     * @return The time workers spend on each search.
+     */
+    public LatencyHistogram getSolveTime() {
+        return solveTime;
+    }
+}
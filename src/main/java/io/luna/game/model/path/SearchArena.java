@@ -0,0 +1,215 @@
+package io.luna.game.model.path;
+
+import java.util.Arrays;
+
+/**
+ * A reusable block of memory for a single {@link GridAStarPathfindingAlgorithm} search. Every cell of the local grid
+ * is identified by an {@code int}, and all per-cell state is kept in flat primitive arrays. The open set is an indexed
+ * binary min-heap over cell identifiers, so costs can be decreased in place.
+ * <p>
+ * State is invalidated by bumping a generation counter rather than clearing the arrays, so starting a new search is
+ * constant-time. Arenas are not thread-safe, and are meant to be confined to one thread.
+ *
+ * @author lare96
+ */
+final class SearchArena {
+
+    /**
+     * The length of one side of the local grid.
+     */
+    static final int SIZE = 104;
+
+    /**
+     * The amount of cells in the local grid.
+     */
+    static final int CELLS = SIZE * SIZE;
+
+    /**
+     * The cost of reaching each cell from the origin.
+     */
+    private final int[] costs = new int[CELLS];
+
+    /**
+     * The cell each cell was reached from.
+     */
+    private final int[] parents = new int[CELLS];
+
+    /**
+     * The generation each cell was last opened in.
+     */
+    private final int[] opened = new int[CELLS];
+
+    /**
+     * The generation each cell was last closed in.
+     */
+    private final int[] closed = new int[CELLS];
+
+    /**
+     * The open cells, ordered as a binary min-heap by {@link #priorities}.
+     */
+    private final int[] heap = new int[CELLS];
+
+    /**
+     * The priority of each open cell.
+     */
+    private final int[] priorities = new int[CELLS];
+
+    /**
+     * The position of each open cell within {@link #heap}.
+     */
+    private final int[] heapSlots = new int[CELLS];
+
+    /**
+     * The amount of cells in {@link #heap}.
+     */
+    private int heapSize;
+
+    /**
+     * The current generation.
+     */
+    private int generation;
+
+    /**
+     * Prepares this arena for a new search.
+     */
+    void reset() {
+        heapSize = 0;
+        if (++generation == 0) {
+            Arrays.fill(opened, 0);
+            Arrays.fill(closed, 0);
+            generation = 1;
+        }
+    }
+
+    /**
+     * Opens {@code cell}, or lowers its cost if it's already open.
+     *
+     * @param cell The cell.
+     * @param cost The cost of reaching the cell.
+     * @param parent The cell it was reached from, or {@code -1} for the origin.
+     * @param priority The priority of the cell. Lower priorities are polled first.
+     */
+    void open(int cell, int cost, int parent, int priority) {
+        costs[cell] = cost;
+        parents[cell] = parent;
+        priorities[cell] = priority;
+        if (opened[cell] != generation) {
+            opened[cell] = generation;
+            heap[heapSize] = cell;
+            heapSlots[cell] = heapSize;
+            siftUp(heapSize++);
+        } else {
+            siftUp(heapSlots[cell]);
+        }
+    }
+
+    /**
+     * Removes and returns the open cell with the lowest priority, and closes it.
+     *
+     * @return The cell.
+     */
+    int poll() {
+        int cell = heap[0];
+        int last = heap[--heapSize];
+        if (heapSize > 0) {
+            heap[0] = last;
+            heapSlots[last] = 0;
+            siftDown(0);
+        }
+        closed[cell] = generation;
+        return cell;
+    }
+
+    /**
+     * @return {@code true} if there are no open cells.
+     */
+    boolean isEmpty() {
+        return heapSize == 0;
+    }
+
+    /**
+     * Determines if {@code cell} has been opened during this search.
+     *
+     * @param cell The cell.
+     * @return {@code true} if the cell was opened.
+     */
+    boolean isOpened(int cell) {
+        return opened[cell] == generation;
+    }
+
+    /**
+     * Determines if {@code cell} has been closed during this search.
+     *
+     * @param cell The cell.
+     * @return {@code true} if the cell was closed.
+     */
+    boolean isClosed(int cell) {
+        return closed[cell] == generation;
+    }
+
+    /**
+     * Retrieves the cost of reaching {@code cell}.
+     *
+     * @param cell The cell.
+     * @return The cost.
+     */
+    int getCost(int cell) {
+        return costs[cell];
+    }
+
+    /**
+     * Retrieves the cell that {@code cell} was reached from.
+     *
+     * @param cell The cell.
+     * @return The parent cell, or {@code -1} for the origin.
+     */
+    int getParent(int cell) {
+        return parents[cell];
+    }
+
+    /**
+     * Moves the cell at {@code slot} up the heap until its parent has a lower priority.
+     */
+    private void siftUp(int slot) {
+        int cell = heap[slot];
+        int priority = priorities[cell];
+        while (slot > 0) {
+            int parentSlot = (slot - 1) >>> 1;
+            int parent = heap[parentSlot];
+            if (priorities[parent] <= priority) {
+                break;
+            }
+            heap[slot] = parent;
+            heapSlots[parent] = slot;
+            slot = parentSlot;
+        }
+        heap[slot] = cell;
+        heapSlots[cell] = slot;
+    }
+
+    /**
+     * Moves the cell at {@code slot} down the heap until both of its children have a higher priority.
+     */
+    private void siftDown(int slot) {
+        int cell = heap[slot];
+        int priority = priorities[cell];
+        int half = heapSize >>> 1;
+        while (slot < half) {
+            int childSlot = (slot << 1) + 1;
+            int child = heap[childSlot];
+            int rightSlot = childSlot + 1;
+            if (rightSlot < heapSize && priorities[heap[rightSlot]] < priorities[child]) {
+                childSlot = rightSlot;
+                child = heap[childSlot];
+            }
+            if (priority <= priorities[child]) {
+                break;
+            }
+            heap[slot] = child;
+            heapSlots[child] = slot;
+            slot = childSlot;
+        }
+        heap[slot] = cell;
+        heapSlots[cell] = slot;
+    }
+}
@@ -0,0 +1,101 @@
+package io.luna.game.persistence;
+
+import io.luna.game.model.World;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * A {@link GameSerializer} implementation that stores persistent player data in local binary files, using the
+ * versioned layout of {@link BinaryPlayerDataCodec}. Files are kept alongside those of {@link JsonGameSerializer},
+ * and existing {@code JSON} files can be converted with {@link BinaryMigrationTool}.
+ * <p>
+ * Records are always written whole. Partial data is merged with the existing record before being written, and every
+ * write goes through a temporary file so a failed write can't corrupt the existing record.
+ *
+ * @author lare96
+ */
+public final class BinaryGameSerializer extends GameSerializer {
+
+    /**
+     * The extension of binary player files.
+     */
+    public static final String EXTENSION = ".bin";
+
+    @Override
+    public PlayerData loadPlayer(World world, String username) {
+        return load(getParentDir(world, username), username);
+    }
+
+    @Override
+    public void savePlayer(World world, String username, PlayerData data) {
+        save(getParentDir(world, username), username, data);
+    }
+
+    @Override
+    public boolean deletePlayer(World world, String username) {
+        try {
+            return Files.deleteIfExists(getParentDir(world, username).resolve(username + EXTENSION));
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Loads a player's data from {@code parentDir}.
+     *
+     * @param parentDir The directory of saved files.
+     * @param username The username of the player.
+     * @return The loaded data, {@code null} if no data was found for the player.
+     */
+    PlayerData load(Path parentDir, String username) {
+        Path file = parentDir.resolve(username + EXTENSION);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            PlayerData data = BinaryPlayerDataCodec.decode(username, Files.readAllBytes(file));
+            data.setSectionedRecord(true);
+            return data;
+        } catch (Exception e) {
+            throw new RuntimeException(username + "'s data could not be loaded.", e);
+        }
+    }
+
+    /**
+     * Saves a player's data to {@code parentDir}.
+     *
+     * @param parentDir The directory of saved files.
+     * @param username The username of the player.
+     * @param data The data to save.
+     */
+    void save(Path parentDir, String username, PlayerData data) {
+        try {
+            if (data.isPartial()) {
+                PlayerData existing = load(parentDir, username);
+                checkState(existing != null, "Partial data can't be saved without an existing record.");
+                data.merge(existing);
+            }
+            Files.createDirectories(parentDir);
+            Path temporary = parentDir.resolve(username + ".tmp");
+            Files.write(temporary, BinaryPlayerDataCodec.encode(data));
+            Files.move(temporary, parentDir.resolve(username + EXTENSION), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            throw new RuntimeException(username + "'s data could not be saved.", e);
+        }
+    }
+
+    /**
+     * Returns a direct path to the folder of persistent data.
+     *
+     * @param username The username of the player.
+     * @return The direct path.
+     */
+    private Path getParentDir(World world, String username) {
+        return world.getBots().exists(username) ? JsonGameSerializer.BOT_DIR : JsonGameSerializer.PLAYER_DIR;
+    }
+}
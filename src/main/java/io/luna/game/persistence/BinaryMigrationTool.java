@@ -0,0 +1,195 @@
+package io.luna.game.persistence;
+
+import io.luna.util.LatencyHistogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * A command-line tool that converts saved {@code JSON} player files into the binary layout used by
+ * {@link BinaryGameSerializer}, and can benchmark both layouts using the converted records.
+ * <p>
+ * Usage: {@code BinaryMigrationTool [--overwrite] [--benchmark <iterations>]}. Existing binary files are kept unless
+ * {@code --overwrite} is used. The benchmark saves and loads every record with both serializers in a temporary
+ * directory, and reports the latencies and bytes on disk of each. The server should not be running while records are
+ * converted.
+ *
+ * @author lare96
+ */
+public final class BinaryMigrationTool {
+
+    /**
+     * The asynchronous logger.
+     */
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * Runs the tool.
+     *
+     * @param args The command-line arguments.
+     * @throws Exception If any errors occur.
+     */
+    public static void main(String[] args) throws Exception {
+        boolean overwrite = false;
+        int iterations = 0;
+        for (int index = 0; index < args.length; index++) {
+            if (args[index].equals("--overwrite")) {
+                overwrite = true;
+            } else if (args[index].equals("--benchmark") && index + 1 < args.length) {
+                iterations = Integer.parseInt(args[++index]);
+            } else {
+                throw new IllegalArgumentException("Unknown argument " + args[index] + ".");
+            }
+        }
+
+        // Records must be read with the same JSON settings as the server, which are applied by the attribute API.
+        Class.forName("api.attr.Attr");
+
+        JsonGameSerializer json = new JsonGameSerializer();
+        BinaryGameSerializer binary = new BinaryGameSerializer();
+        List<Map.Entry<String, PlayerData>> records = new ArrayList<>();
+        migrate(json, binary, JsonGameSerializer.PLAYER_DIR, false, overwrite, records);
+        migrate(json, binary, JsonGameSerializer.BOT_DIR, true, overwrite, records);
+        if (iterations > 0 && !records.isEmpty()) {
+            benchmark(json, binary, records, iterations);
+        }
+    }
+
+    /**
+     * Converts every {@code JSON} file within {@code dir} to a binary file.
+     *
+     * @param json The JSON serializer.
+     * @param binary The binary serializer.
+     * @param dir The directory of saved files.
+     * @param bot If the directory holds bots.
+     * @param overwrite If existing binary files should be replaced.
+     * @param records The list to add every loaded record to.
+     * @throws IOException If the directory can't be read.
+     */
+    private static void migrate(JsonGameSerializer json, BinaryGameSerializer binary, Path dir, boolean bot,
+                                boolean overwrite, List<Map.Entry<String, PlayerData>> records) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        int converted = 0;
+        int skipped = 0;
+        int failed = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.json")) {
+            for (Path path : stream) {
+                String username = path.getFileName().toString().replace(".json", "");
+                try {
+                    PlayerData data = json.load(dir, username, bot);
+                    records.add(new SimpleImmutableEntry<>(username, data));
+                    if (!overwrite && Files.exists(dir.resolve(username + BinaryGameSerializer.EXTENSION))) {
+                        skipped++;
+                        continue;
+                    }
+                    binary.save(dir, username, data);
+                    converted++;
+                } catch (Exception e) {
+                    logger.error("Could not convert {}'s data.", username, e);
+                    failed++;
+                }
+            }
+        }
+        logger.info("Converted {} records in {} ({} skipped, {} failed).", box(converted), dir, box(skipped),
+                box(failed));
+    }
+
+    /**
+     * Saves and loads every record with both serializers, and reports the latencies and bytes on disk of each.
+     *
+     * @param json The JSON serializer.
+     * @param binary The binary serializer.
+     * @param records The records.
+     * @param iterations The amount of times every record is saved and loaded.
+     * @throws IOException If the temporary directory can't be used.
+     */
+    private static void benchmark(JsonGameSerializer json, BinaryGameSerializer binary,
+                                  List<Map.Entry<String, PlayerData>> records, int iterations) throws IOException {
+        Path dir = Files.createTempDirectory("luna-benchmark");
+        try {
+            Path jsonDir = Files.createDirectories(dir.resolve("json"));
+            Path binaryDir = Files.createDirectories(dir.resolve("binary"));
+            LatencyHistogram jsonSave = new LatencyHistogram();
+            LatencyHistogram jsonLoad = new LatencyHistogram();
+            LatencyHistogram binarySave = new LatencyHistogram();
+            LatencyHistogram binaryLoad = new LatencyHistogram();
+
+            // The first pass isn't recorded, so both serializers are measured after warming up.
+            for (int iteration = 0; iteration <= iterations; iteration++) {
+                boolean recording = iteration > 0;
+                for (Map.Entry<String, PlayerData> record : records) {
+                    String username = record.getKey();
+                    PlayerData data = record.getValue();
+                    boolean bot = data instanceof BotData;
+
+                    long start = System.nanoTime();
+                    json.save(jsonDir, username, data);
+                    long saved = System.nanoTime();
+                    json.load(jsonDir, username, bot);
+                    long loaded = System.nanoTime();
+                    if (recording) {
+                        jsonSave.record(saved - start);
+                        jsonLoad.record(loaded - saved);
+                    }
+
+                    start = System.nanoTime();
+                    binary.save(binaryDir, username, data);
+                    saved = System.nanoTime();
+                    binary.load(binaryDir, username);
+                    loaded = System.nanoTime();
+                    if (recording) {
+                        binarySave.record(saved - start);
+                        binaryLoad.record(loaded - saved);
+                    }
+                }
+            }
+
+            long jsonBytes = sizeOf(jsonDir);
+            long binaryBytes = sizeOf(binaryDir);
+            logger.info("Benchmarked {} records over {} iterations.", box(records.size()), box(iterations));
+            logger.info("JSON save: {}", jsonSave);
+            logger.info("JSON load: {}", jsonLoad);
+            logger.info("Binary save: {}", binarySave);
+            logger.info("Binary load: {}", binaryLoad);
+            logger.info("Bytes on disk: JSON {}, binary {} ({}% of JSON).", box(jsonBytes), box(binaryBytes),
+                    box(jsonBytes == 0 ? 0 : binaryBytes * 100 / jsonBytes));
+        } finally {
+            try (Stream<Path> paths = Files.walk(dir)) {
+                for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the combined size of every file within {@code dir}.
+     *
+     * @param dir The directory.
+     * @return The size, in bytes.
+     * @throws IOException If the directory can't be read.
+     */
+    private static long sizeOf(Path dir) throws IOException {
+        long size = 0;
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) paths.filter(Files::isRegularFile)::iterator) {
+                size += Files.size(path);
+            }
+        }
+        return size;
+    }
+}
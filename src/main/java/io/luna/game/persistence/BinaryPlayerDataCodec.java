@@ -0,0 +1,582 @@
+package io.luna.game.persistence;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+import io.luna.game.model.Position;
+import io.luna.game.model.item.IndexedItem;
+import io.luna.game.model.mob.MusicTab;
+import io.luna.game.model.mob.PlayerPrivacy;
+import io.luna.game.model.mob.PlayerRights;
+import io.luna.game.model.mob.Skill;
+import io.luna.game.model.mob.SkillSet;
+import io.luna.game.model.mob.Spellbook;
+import io.luna.game.model.mob.attr.Attribute;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Encodes and decodes {@link PlayerData} using the compact binary layout of {@link BinaryGameSerializer}.
+ * <p>
+ * Every record starts with {@link #MAGIC} and the version of the layout it was written with, so records written with
+ * older layouts can still be decoded after it changes. Integers are written as variable-length quantities, so item
+ * identifiers and amounts usually take one to three bytes. Skills are written as level and experience pairs, and
+ * attributes as tagged values. Small structures without a fixed shape (the music tab, privacy options, potions, and
+ * bot scripts) are embedded as {@code JSON}.
+ *
+ * @author lare96
+ */
+final class BinaryPlayerDataCodec {
+
+    /**
+     * The value every record starts with.
+     */
+    static final int MAGIC = 0x4C554E41;
+
+    /**
+     * The current layout version.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The record type of players.
+     */
+    private static final int TYPE_PLAYER = 0;
+
+    /**
+     * The record type of bots.
+     */
+    private static final int TYPE_BOT = 1;
+
+    /**
+     * The tag of {@code null} attribute values.
+     */
+    private static final int TAG_NULL = 0;
+
+    /**
+     * The tag of integral attribute values.
+     */
+    private static final int TAG_LONG = 1;
+
+    /**
+     * The tag of floating point attribute values.
+     */
+    private static final int TAG_DOUBLE = 2;
+
+    /**
+     * The tag of boolean attribute values.
+     */
+    private static final int TAG_BOOLEAN = 3;
+
+    /**
+     * The tag of string attribute values.
+     */
+    private static final int TAG_STRING = 4;
+
+    /**
+     * The tag of all other attribute values, which are embedded as {@code JSON}.
+     */
+    private static final int TAG_JSON = 5;
+
+    /**
+     * The type of {@link BotData#scripts}.
+     */
+    private static final Type SCRIPTS_TYPE;
+
+    static {
+        try {
+            SCRIPTS_TYPE = BotData.class.getField("scripts").getGenericType();
+        } catch (NoSuchFieldException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Encodes {@code data} with the current layout.
+     *
+     * @param data The data to encode. Must not be partial.
+     * @return The encoded record.
+     * @throws IOException If any errors occur.
+     */
+    static byte[] encode(PlayerData data) throws IOException {
+        checkArgument(!data.isPartial(), "Partial data must be merged before being encoded.");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        DataOutputStream out = new DataOutputStream(bytes);
+        boolean bot = data instanceof BotData;
+
+        out.writeInt(MAGIC);
+        writeVarInt(out, VERSION);
+        out.writeByte(bot ? TYPE_BOT : TYPE_PLAYER);
+        writeSignedVarLong(out, data.databaseId);
+        writeString(out, data.password);
+        if (writePresent(out, data.position)) {
+            writeVarInt(out, data.position.getX());
+            writeVarInt(out, data.position.getY());
+            writeVarInt(out, data.position.getZ());
+        }
+        writeEnum(out, data.rights);
+        writeString(out, data.lastIp);
+        writeInstant(out, data.logoutTime);
+        writeInts(out, data.appearance);
+        writeJson(out, data.musicTab, MusicTab.class);
+        writeItems(out, data.inventory);
+        writeItems(out, data.bank);
+        writeItems(out, data.equipment);
+        writeSkills(out, data.skills);
+        writeLongs(out, data.friends);
+        writeLongs(out, data.ignores);
+        writeInstant(out, data.unbanInstant);
+        writeInstant(out, data.unmuteInstant);
+        out.writeDouble(data.runEnergy);
+        out.writeDouble(data.weight);
+        writeEnum(out, data.spellbook);
+        if (writePresent(out, data.timePlayed)) {
+            writeSignedVarLong(out, data.timePlayed.getSeconds());
+            writeVarInt(out, data.timePlayed.getNano());
+        }
+        writeInstant(out, data.createdAt);
+        writeJson(out, data.privacyOptions, PlayerPrivacy.class);
+        writeVarps(out, data.varps);
+        writeAttributes(out, data.attributes);
+        writeJson(out, data.potions, JsonArray.class);
+        if (bot) {
+            writeJson(out, ((BotData) data).scripts, SCRIPTS_TYPE);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a record written with any layout version.
+     *
+     * @param username The username of the player the record belongs to.
+     * @param record The encoded record.
+     * @return The decoded data.
+     * @throws IOException If the record is malformed, or any other errors occur.
+     */
+    static PlayerData decode(String username, byte[] record) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a binary player record.");
+        }
+        int version = readVarInt(in);
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported record version " + version + ".");
+        }
+
+        boolean bot = in.readUnsignedByte() == TYPE_BOT;
+        PlayerData data = bot ? new BotData(username) : new PlayerData(username);
+        data.databaseId = (int) readSignedVarLong(in);
+        data.password = readString(in);
+        if (in.readBoolean()) {
+            data.position = new Position(readVarInt(in), readVarInt(in), readVarInt(in));
+        }
+        data.rights = readEnum(in, PlayerRights.class);
+        data.lastIp = readString(in);
+        data.logoutTime = readInstant(in);
+        data.appearance = readInts(in);
+        data.musicTab = readJson(in, MusicTab.class);
+        data.inventory = readItems(in);
+        data.bank = readItems(in);
+        data.equipment = readItems(in);
+        data.skills = readSkills(in);
+        data.friends = readLongs(in);
+        data.ignores = readLongs(in);
+        data.unbanInstant = readInstant(in);
+        data.unmuteInstant = readInstant(in);
+        data.runEnergy = in.readDouble();
+        data.weight = in.readDouble();
+        data.spellbook = readEnum(in, Spellbook.class);
+        if (in.readBoolean()) {
+            data.timePlayed = Duration.ofSeconds(readSignedVarLong(in), readVarInt(in));
+        }
+        data.createdAt = readInstant(in);
+        data.privacyOptions = readJson(in, PlayerPrivacy.class);
+        data.varps = readVarps(in);
+        data.attributes = readAttributes(in);
+        data.potions = readJson(in, JsonArray.class);
+        if (bot) {
+            ((BotData) data).scripts = readJson(in, SCRIPTS_TYPE);
+        }
+        return data;
+    }
+
+    /**
+     * Writes a flag describing if {@code value} is present.
+     *
+     * @return {@code true} if the value is present, and should be written next.
+     */
+    private static boolean writePresent(DataOutputStream out, Object value) throws IOException {
+        out.writeBoolean(value != null);
+        return value != null;
+    }
+
+    /**
+     * Writes an unsigned variable-length integer, seven bits at a time.
+     */
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Reads an unsigned variable-length integer.
+     */
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int next = in.readUnsignedByte();
+            value |= (next & 0x7F) << shift;
+            if ((next & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer.");
+    }
+
+    /**
+     * Writes a signed variable-length long, zig-zag encoded so small negative values stay small.
+     */
+    private static void writeSignedVarLong(DataOutputStream out, long value) throws IOException {
+        long encoded = (value << 1) ^ (value >> 63);
+        while ((encoded & ~0x7FL) != 0) {
+            out.writeByte((int) ((encoded & 0x7F) | 0x80));
+            encoded >>>= 7;
+        }
+        out.writeByte((int) encoded);
+    }
+
+    /**
+     * Reads a signed variable-length long.
+     */
+    private static long readSignedVarLong(DataInputStream in) throws IOException {
+        long encoded = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int next = in.readUnsignedByte();
+            encoded |= (long) (next & 0x7F) << shift;
+            if ((next & 0x80) == 0) {
+                return (encoded >>> 1) ^ -(encoded & 1);
+            }
+        }
+        throw new IOException("Malformed variable-length long.");
+    }
+
+    /**
+     * Writes a nullable {@code UTF-8} string, prefixed with its length plus one.
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length + 1);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a nullable {@code UTF-8} string.
+     */
+    private static String readString(DataInputStream in) throws IOException {
+        int length = readVarInt(in) - 1;
+        if (length == -1) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a nullable enum constant by name, so constants can be reordered safely.
+     */
+    private static void writeEnum(DataOutputStream out, Enum<?> value) throws IOException {
+        writeString(out, value == null ? null : value.name());
+    }
+
+    /**
+     * Reads a nullable enum constant.
+     */
+    private static <E extends Enum<E>> E readEnum(DataInputStream in, Class<E> type) throws IOException {
+        String name = readString(in);
+        return name == null ? null : Enum.valueOf(type, name);
+    }
+
+    /**
+     * Writes a nullable instant.
+     */
+    private static void writeInstant(DataOutputStream out, Instant value) throws IOException {
+        if (writePresent(out, value)) {
+            writeSignedVarLong(out, value.getEpochSecond());
+            writeVarInt(out, value.getNano());
+        }
+    }
+
+    /**
+     * Reads a nullable instant.
+     */
+    private static Instant readInstant(DataInputStream in) throws IOException {
+        return in.readBoolean() ? Instant.ofEpochSecond(readSignedVarLong(in), readVarInt(in)) : null;
+    }
+
+    /**
+     * Writes a nullable value as embedded {@code JSON}.
+     */
+    private static void writeJson(DataOutputStream out, Object value, Type type) throws IOException {
+        writeString(out, value == null ? null : Attribute.getGsonInstance().toJson(value, type));
+    }
+
+    /**
+     * Reads a nullable value from embedded {@code JSON}.
+     */
+    private static <T> T readJson(DataInputStream in, Type type) throws IOException {
+        String json = readString(in);
+        return json == null ? null : Attribute.getGsonInstance().fromJson(json, type);
+    }
+
+    /**
+     * Writes a nullable array of integers, prefixed with its length plus one.
+     */
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        if (values == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        writeVarInt(out, values.length + 1);
+        for (int value : values) {
+            writeSignedVarLong(out, value);
+        }
+    }
+
+    /**
+     * Reads a nullable array of integers.
+     */
+    private static int[] readInts(DataInputStream in) throws IOException {
+        int length = readVarInt(in) - 1;
+        if (length == -1) {
+            return null;
+        }
+        int[] values = new int[length];
+        for (int index = 0; index < length; index++) {
+            values[index] = (int) readSignedVarLong(in);
+        }
+        return values;
+    }
+
+    /**
+     * Writes a nullable list of longs, prefixed with its size plus one.
+     */
+    private static void writeLongs(DataOutputStream out, List<Long> values) throws IOException {
+        if (values == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        writeVarInt(out, values.size() + 1);
+        for (long value : values) {
+            writeSignedVarLong(out, value);
+        }
+    }
+
+    /**
+     * Reads a nullable list of longs.
+     */
+    private static List<Long> readLongs(DataInputStream in) throws IOException {
+        int size = readVarInt(in) - 1;
+        if (size == -1) {
+            return null;
+        }
+        List<Long> values = new ArrayList<>(size);
+        for (int count = 0; count < size; count++) {
+            values.add(readSignedVarLong(in));
+        }
+        return values;
+    }
+
+    /**
+     * Writes a nullable list of items, prefixed with its size plus one.
+     */
+    private static void writeItems(DataOutputStream out, List<IndexedItem> items) throws IOException {
+        if (items == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        writeVarInt(out, items.size() + 1);
+        for (IndexedItem item : items) {
+            writeVarInt(out, item.getIndex());
+            writeVarInt(out, item.getId());
+            writeVarInt(out, item.getAmount());
+        }
+    }
+
+    /**
+     * Reads a nullable list of items.
+     */
+    private static List<IndexedItem> readItems(DataInputStream in) throws IOException {
+        int size = readVarInt(in) - 1;
+        if (size == -1) {
+            return null;
+        }
+        List<IndexedItem> items = new ArrayList<>(size);
+        for (int count = 0; count < size; count++) {
+            items.add(new IndexedItem(readVarInt(in), readVarInt(in), readVarInt(in)));
+        }
+        return items;
+    }
+
+    /**
+     * Writes a nullable array of skills, prefixed with its length plus one.
+     */
+    private static void writeSkills(DataOutputStream out, Skill[] skills) throws IOException {
+        if (skills == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        writeVarInt(out, skills.length + 1);
+        for (Skill skill : skills) {
+            writeVarInt(out, skill.getLevel());
+            out.writeDouble(skill.getExperience());
+        }
+    }
+
+    /**
+     * Reads a nullable array of skills.
+     */
+    private static Skill[] readSkills(DataInputStream in) throws IOException {
+        int length = readVarInt(in) - 1;
+        if (length == -1) {
+            return null;
+        }
+
+        // Skills only need to hold their values until they're loaded, so they're detached from any mob.
+        SkillSet set = new SkillSet(null);
+        set.setFiringEvents(false);
+        set.setRestoring(true);
+        Skill[] skills = new Skill[length];
+        for (int index = 0; index < length; index++) {
+            Skill skill = set.getSkill(index);
+            skill.setLevel(readVarInt(in));
+            skill.setExperience(in.readDouble());
+            skills[index] = skill;
+        }
+        return skills;
+    }
+
+    /**
+     * Writes a nullable map of varp values, prefixed with its size plus one.
+     */
+    private static void writeVarps(DataOutputStream out, Map<String, Integer> varps) throws IOException {
+        if (varps == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        writeVarInt(out, varps.size() + 1);
+        for (Map.Entry<String, Integer> entry : varps.entrySet()) {
+            writeString(out, entry.getKey());
+            writeSignedVarLong(out, entry.getValue());
+        }
+    }
+
+    /**
+     * Reads a nullable map of varp values.
+     */
+    private static Map<String, Integer> readVarps(DataInputStream in) throws IOException {
+        int size = readVarInt(in) - 1;
+        if (size == -1) {
+            return null;
+        }
+        Map<String, Integer> varps = new LinkedHashMap<>(size);
+        for (int count = 0; count < size; count++) {
+            varps.put(readString(in), (int) readSignedVarLong(in));
+        }
+        return varps;
+    }
+
+    /**
+     * Writes a nullable map of persistent attributes, with every value tagged by its type.
+     */
+    private static void writeAttributes(DataOutputStream out, Map<String, Object> attributes) throws IOException {
+        if (attributes == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        writeVarInt(out, attributes.size() + 1);
+        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+            writeString(out, entry.getKey());
+            Object value = entry.getValue();
+            if (value == null) {
+                out.writeByte(TAG_NULL);
+            } else if (value instanceof Integer || value instanceof Long || value instanceof Short ||
+                    value instanceof Byte) {
+                out.writeByte(TAG_LONG);
+                writeSignedVarLong(out, ((Number) value).longValue());
+            } else if (value instanceof Double || value instanceof Float) {
+                out.writeByte(TAG_DOUBLE);
+                out.writeDouble(((Number) value).doubleValue());
+            } else if (value instanceof Boolean) {
+                out.writeByte(TAG_BOOLEAN);
+                out.writeBoolean((Boolean) value);
+            } else if (value instanceof String) {
+                out.writeByte(TAG_STRING);
+                writeString(out, (String) value);
+            } else {
+                out.writeByte(TAG_JSON);
+                writeString(out, Attribute.getGsonInstance().toJson(value));
+            }
+        }
+    }
+
+    /**
+     * Reads a nullable map of persistent attributes. Values that were embedded as {@code JSON} are returned as JSON
+     * elements, which {@link io.luna.game.model.mob.attr.AttributeMap} converts to their real type when loading.
+     */
+    private static Map<String, Object> readAttributes(DataInputStream in) throws IOException {
+        int size = readVarInt(in) - 1;
+        if (size == -1) {
+            return null;
+        }
+        Map<String, Object> attributes = new LinkedHashMap<>(size);
+        for (int count = 0; count < size; count++) {
+            String key = readString(in);
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case TAG_NULL:
+                    attributes.put(key, null);
+                    break;
+                case TAG_LONG:
+                    attributes.put(key, readSignedVarLong(in));
+                    break;
+                case TAG_DOUBLE:
+                    attributes.put(key, in.readDouble());
+                    break;
+                case TAG_BOOLEAN:
+                    attributes.put(key, in.readBoolean());
+                    break;
+                case TAG_STRING:
+                    attributes.put(key, readString(in));
+                    break;
+                case TAG_JSON:
+                    attributes.put(key, JsonParser.parseString(readString(in)));
+                    break;
+                default:
+                    throw new IOException("Unknown attribute tag " + tag + ".");
+            }
+        }
+        return attributes;
+    }
+}
@@ -7,6 +7,7 @@ import io.luna.game.model.mob.bot.Bot;
 import io.luna.game.model.mob.bot.script.BotScriptSnapshot;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * A model acting as a proxy for {@link Bot} save data. It primarily ensures thread safety for interactions between
@@ -35,8 +36,8 @@ public final class BotData extends PlayerData {
     }
 
     @Override
-    public PlayerData save(Player player) {
-        super.save(player);
+    public PlayerData save(Player player, Set<Section> sections) {
+        super.save(player, sections);
         Bot bot = (Bot) player;
         scripts = bot.getScriptStack().save();
         return this;
@@ -3,6 +3,9 @@ package io.luna.game.persistence;
 import io.luna.game.model.World;
 import io.luna.game.model.mob.Player;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * An abstraction model that allows for interfacing between in-memory {@link Player} based models and external
  * data sources such as text files, JSON files, and SQL databases. Functions are usually applied within
@@ -22,7 +25,9 @@ public abstract class GameSerializer {
     public abstract PlayerData loadPlayer(World world, String username);
 
     /**
-     * Saves {@link PlayerData} to an external data source.
+     * Saves {@link PlayerData} to an external data source. If the data is {@link PlayerData#isPartial() partial}, only
+     * the sections it contains should be written, and the rest of the existing record should be kept. Partial data
+     * should be rejected if the existing record can't be updated that way.
      *
      * @param world The world context.
      * @param username The username of the player to save
@@ -30,6 +35,28 @@ public abstract class GameSerializer {
      */
     public abstract void savePlayer(World world, String username, PlayerData data);
 
+    /**
+     * Saves a batch of {@link PlayerData} to an external data source. Failures are isolated to the records that
+     * caused them, so one bad record will not prevent the rest of the batch from being saved.
+     * <p>
+     * The default implementation saves each record with {@link #savePlayer(World, String, PlayerData)}.
+     *
+     * @param world The world context.
+     * @param players The data to save, keyed by username.
+     * @return The exceptions thrown while saving, keyed by username. Empty if every record was saved.
+     */
+    public Map<String, Exception> savePlayers(World world, Map<String, PlayerData> players) {
+        Map<String, Exception> failures = new HashMap<>();
+        for (Map.Entry<String, PlayerData> entry : players.entrySet()) {
+            try {
+                savePlayer(world, entry.getKey(), entry.getValue());
+            } catch (Exception e) {
+                failures.put(entry.getKey(), e);
+            }
+        }
+        return failures;
+    }
+
     /**
      * Deletes a record matching {@code username} from an external data source.
      *
@@ -1,13 +1,35 @@
 package io.luna.game.persistence;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import io.luna.game.model.World;
 import io.luna.game.model.mob.attr.Attribute;
+import io.luna.game.persistence.PlayerData.Section;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * A {@link GameSerializer} implementation that stores persistent player data in local {@code JSON} files.
+ * <p>
+ * Each {@link Section} of a player's data is stored in its own file within a directory named after the player, and
+ * the rest of it in a file named after the player. Partial data only rewrites the sections it contains. Records saved
+ * before sections were introduced hold everything in the main file, and are converted on their next full save.
+ * <p>
+ * Saves never modify the files of the current record. Every save builds a new section directory, tagged with the
+ * next version, and then atomically replaces the main file with one that points to it. A save that fails at any point
+ * leaves the previous record intact, and its unfinished directory is cleared by the next save.
  *
  * @author lare96
  */
@@ -41,48 +63,210 @@ public final class JsonGameSerializer extends GameSerializer {
 
     }
 
+    /**
+     * The key of the section version in the main file.
+     */
+    private static final String VERSION_KEY = "section_version";
+
+    /**
+     * The pool that batches of files are written in.
+     */
+    private final ForkJoinPool writers = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
     @Override
     public PlayerData loadPlayer(World world, String username) {
         Path parentDir = getParentDir(world, username);
+        return load(parentDir, username, parentDir == BOT_DIR);
+    }
+
+    @Override
+    public void savePlayer(World world, String username, PlayerData data) {
+        save(getParentDir(world, username), username, data);
+    }
+
+    @Override
+    public Map<String, Exception> savePlayers(World world, Map<String, PlayerData> players) {
+        // Encoding and writing every file is independent, so the whole batch can be written in parallel.
+        Map<String, Exception> failures = new ConcurrentHashMap<>();
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(players.size());
+        for (Map.Entry<String, PlayerData> entry : players.entrySet()) {
+            tasks.add(writers.submit(() -> {
+                try {
+                    savePlayer(world, entry.getKey(), entry.getValue());
+                } catch (Exception e) {
+                    failures.put(entry.getKey(), e);
+                }
+            }));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+        return failures;
+    }
+
+    @Override
+    public boolean deletePlayer(World world, String username) {
+        try {
+            Path parentDir = getParentDir(world, username);
+            Path mainFile = parentDir.resolve(username + ".json");
+            if (!Files.exists(mainFile)) {
+                return false;
+            }
+            JsonObject record = JsonParser.parseString(Files.readString(mainFile)).getAsJsonObject();
+            deleteSectionDir(getSectionDir(parentDir, username, getSectionVersion(record)));
+            return Files.deleteIfExists(mainFile);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Loads a player's data from {@code parentDir}.
+     *
+     * @param parentDir The directory of saved files.
+     * @param username The username of the player.
+     * @param bot If the player is a bot.
+     * @return The loaded data, {@code null} if no data was found for the player.
+     */
+    PlayerData load(Path parentDir, String username, boolean bot) {
         Path dir = parentDir.resolve(username + ".json");
         if (!Files.exists(dir)) {
             return null;
         }
         try {
-            return Attribute.getGsonInstance().fromJson(Files.readString(dir), parentDir == PLAYER_DIR ?
-                    PlayerData.class : BotData.class);
+            JsonObject record = JsonParser.parseString(Files.readString(dir)).getAsJsonObject();
+            Path sectionDir = getSectionDir(parentDir, username, getSectionVersion(record));
+            record.remove(VERSION_KEY);
+            boolean sectioned = Files.isDirectory(sectionDir);
+            for (Section section : Section.values()) {
+                Path sectionFile = getSectionFile(sectionDir, section);
+                if (sectioned && Files.exists(sectionFile)) {
+                    record.add(section.getKey(), JsonParser.parseString(Files.readString(sectionFile)));
+                } else {
+                    sectioned = false;
+                }
+            }
+            PlayerData data = Attribute.getGsonInstance().fromJson(record, bot ? BotData.class : PlayerData.class);
+            data.setSectionedRecord(sectioned);
+            return data;
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
 
-    @Override
-    public void savePlayer(World world, String username, PlayerData data) {
+    /**
+     * Saves a player's data to {@code parentDir}.
+     *
+     * @param parentDir The directory of saved files.
+     * @param username The username of the player.
+     * @param data The data to save.
+     */
+    void save(Path parentDir, String username, PlayerData data) {
         try {
-            Files.writeString(getDir(world, username), Attribute.getGsonInstance().toJson(data));
+            Path mainFile = parentDir.resolve(username + ".json");
+            int version = 0;
+            if (Files.exists(mainFile)) {
+                version = getSectionVersion(JsonParser.parseString(Files.readString(mainFile)).getAsJsonObject());
+            }
+            Path sectionDir = getSectionDir(parentDir, username, version);
+            if (data.isPartial() && !Files.isDirectory(sectionDir)) {
+                throw new IllegalStateException("Partial data can't be saved to a record without sections.");
+            }
+
+            // Build the next version of the sections, clearing whatever a failed save left behind.
+            Path nextSectionDir = getSectionDir(parentDir, username, version + 1);
+            deleteSectionDir(nextSectionDir);
+            Files.createDirectories(nextSectionDir);
+            Gson gson = Attribute.getGsonInstance();
+            JsonObject record = gson.toJsonTree(data).getAsJsonObject();
+            for (Section section : Section.values()) {
+                JsonElement element = record.remove(section.getKey());
+                Path nextSectionFile = getSectionFile(nextSectionDir, section);
+                if (data.has(section)) {
+                    Files.writeString(nextSectionFile, gson.toJson(element == null ? JsonNull.INSTANCE : element));
+                } else {
+                    Path sectionFile = getSectionFile(sectionDir, section);
+                    if (!Files.exists(sectionFile)) {
+                        throw new IllegalStateException("Partial data can't be saved to a record without sections.");
+                    }
+                    linkSectionFile(nextSectionFile, sectionFile);
+                }
+            }
+
+            // Switch to the new sections by replacing the main file, then remove the old ones.
+            record.addProperty(VERSION_KEY, version + 1);
+            Path temporary = parentDir.resolve(username + ".json.tmp");
+            Files.writeString(temporary, gson.toJson(record));
+            Files.move(temporary, mainFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            deleteSectionDir(sectionDir);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
 
-    @Override
-    public boolean deletePlayer(World world, String username) {
+    /**
+     * Reuses an unchanged section file in the next version of a player's sections. Files are never modified once
+     * written, so they're hard linked when the file system allows it and copied otherwise.
+     *
+     * @param nextSectionFile The section file in the next version.
+     * @param sectionFile The section file in the current version.
+     * @throws IOException If the file can't be linked or copied.
+     */
+    private void linkSectionFile(Path nextSectionFile, Path sectionFile) throws IOException {
         try {
-            return Files.deleteIfExists(getDir(world, username));
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+            Files.createLink(nextSectionFile, sectionFile);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(sectionFile, nextSectionFile, StandardCopyOption.REPLACE_EXISTING);
         }
     }
 
     /**
-     * Returns a direct path to this player's persistent data file.
+     * Deletes a directory of section files, if it exists.
      *
+     * @param sectionDir The directory.
+     * @throws IOException If the directory can't be deleted.
+     */
+    private void deleteSectionDir(Path sectionDir) throws IOException {
+        if (Files.isDirectory(sectionDir)) {
+            for (Section section : Section.values()) {
+                Files.deleteIfExists(getSectionFile(sectionDir, section));
+            }
+            Files.delete(sectionDir);
+        }
+    }
+
+    /**
+     * Returns the version of the sections a main file points to.
+     *
+     * @param record The contents of the main file.
+     * @return The version, {@code 0} for records saved before sections were versioned.
+     */
+    private int getSectionVersion(JsonObject record) {
+        JsonElement version = record.get(VERSION_KEY);
+        return version == null ? 0 : version.getAsInt();
+    }
+
+    /**
+     * Returns a direct path to the directory of a single version of a player's sections.
+     *
+     * @param parentDir The directory of saved files.
      * @param username The username of the player.
+     * @param version The version of the sections.
      * @return The direct path.
      */
-    private Path getDir(World world, String username) {
-        Path parentDir = getParentDir(world, username);
-        return parentDir.resolve(username + ".json");
+    private Path getSectionDir(Path parentDir, String username, int version) {
+        return parentDir.resolve(version == 0 ? username : username + "." + version);
+    }
+
+    /**
+     * Returns a direct path to the file of a single section of a player's persistent data.
+     *
+     * @param sectionDir The directory of the player's sections.
+     * @param section The section.
+     * @return The direct path.
+     */
+    private Path getSectionFile(Path sectionDir, Section section) {
+        return sectionDir.resolve(section.getKey() + ".json");
     }
 
     /**
@@ -2,21 +2,33 @@ package io.luna.game.persistence;
 
 import com.google.common.base.Stopwatch;
 import com.google.common.util.concurrent.AbstractIdleService;
+import io.luna.Luna;
 import io.luna.LunaContext;
 import io.luna.game.LoginService;
 import io.luna.game.LogoutService;
 import io.luna.game.model.World;
 import io.luna.game.model.mob.Player;
 import io.luna.util.ExecutorUtils;
+import io.luna.util.LatencyHistogram;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.util.concurrent.Uninterruptibles.awaitTerminationUninterruptibly;
 import static org.apache.logging.log4j.util.Unbox.box;
 
@@ -27,6 +39,9 @@ import static org.apache.logging.log4j.util.Unbox.box;
  * {@link LogoutService} to keep the main game thread responsive. All I/O operations and heavy data processing
  * are handled in a dedicated single-threaded executor.
  * <p>
+ * Saves are write-behind. They are queued, coalesced by username so only the latest data for each player is
+ * written, and flushed to the {@link GameSerializer} in batches of up to {@code persistence_batch_size} records.
+ * <p>
  * Threading model:
  * <ul>
  *     <li>All database and filesystem work runs on the persistence worker thread.</li>
@@ -40,6 +55,50 @@ import static org.apache.logging.log4j.util.Unbox.box;
  */
 public final class PersistenceService extends AbstractIdleService {
 
+    /**
+     * A queued save for a single player.
+     */
+    private static final class PendingSave {
+
+        /**
+         * The futures waiting on this save.
+         */
+        private final List<CompletableFuture<Void>> waiters = new ArrayList<>(1);
+
+        /**
+         * When this save was first queued.
+         */
+        private final long queuedAt = System.nanoTime();
+
+        /**
+         * The latest data to save.
+         */
+        private PlayerData data;
+
+        /**
+         * Creates a new {@link PendingSave}.
+         *
+         * @param data The data to save.
+         */
+        private PendingSave(PlayerData data) {
+            this.data = data;
+        }
+
+        /**
+         * Completes every waiting future.
+         */
+        private void complete() {
+            waiters.forEach(waiter -> waiter.complete(null));
+        }
+
+        /**
+         * Fails every waiting future with {@code cause}.
+         */
+        private void fail(Throwable cause) {
+            waiters.forEach(waiter -> waiter.completeExceptionally(cause));
+        }
+    }
+
     /**
      * The asynchronous logger.
      */
@@ -60,6 +119,51 @@ public final class PersistenceService extends AbstractIdleService {
      */
     private final ExecutorService worker;
 
+    /**
+     * The queued saves, keyed by username in the order they were first queued. Guarded by its own lock.
+     */
+    private final Map<String, PendingSave> pending = new LinkedHashMap<>();
+
+    /**
+     * If a flush of {@link #pending} has been handed to the worker. Guarded by the lock of {@link #pending}.
+     */
+    private boolean flushScheduled;
+
+    /**
+     * The maximum amount of saves written to the serializer at once.
+     */
+    private final int batchSize;
+
+    /**
+     * The time taken to write each batch.
+     */
+    private final LatencyHistogram flushLatency = new LatencyHistogram();
+
+    /**
+     * The time between a save first being queued and being written.
+     */
+    private final LatencyHistogram saveLatency = new LatencyHistogram();
+
+    /**
+     * The amount of queued saves.
+     */
+    private final AtomicLong queued = new AtomicLong();
+
+    /**
+     * The amount of queued saves that were coalesced into an existing save.
+     */
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * The amount of records written.
+     */
+    private final AtomicLong written = new AtomicLong();
+
+    /**
+     * The amount of records that failed to be written.
+     */
+    private final AtomicLong failed = new AtomicLong();
+
     /**
      * Creates a new {@link PersistenceService}.
      *
@@ -69,6 +173,8 @@ public final class PersistenceService extends AbstractIdleService {
         this.world = world;
         this.context = world.getContext();
         worker = ExecutorUtils.threadPool("PersistenceServiceThread", 1);
+        batchSize = Luna.settings().game().persistenceBatchSize();
+        checkArgument(batchSize > 0, "persistence_batch_size must be above 0.");
     }
 
     @Override
@@ -128,6 +234,7 @@ public final class PersistenceService extends AbstractIdleService {
         logger.trace("Sending data transformation request for {} to a worker...", username);
         return CompletableFuture.runAsync(() -> {
             // Wait for any pending saves to finish.
+            flushPending(username);
             world.getLogoutService().waitForSave(username);
             Optional<Player> playerOptional = world.getPlayer(username);
             if (playerOptional.isPresent()) {
@@ -154,6 +261,7 @@ public final class PersistenceService extends AbstractIdleService {
         }
         logger.trace("Sending load request for {} to a worker...", username);
         return CompletableFuture.supplyAsync(() -> {
+            flushPending(username);
             var timer = Stopwatch.createStarted();
             var data = world.getSerializerManager().getSerializer().loadPlayer(world, username);
             logger.debug("Finished loading {}'s data (took {}ms).", username, box(timer.elapsed().toMillis()));
@@ -162,7 +270,8 @@ public final class PersistenceService extends AbstractIdleService {
     }
 
     /**
-     * Saves the given player’s data asynchronously.
+     * Saves the given player’s data asynchronously. Only the sections of data that changed since the last save
+     * are included.
      * <p>
      * If the player is currently being processed by the {@link LogoutService}, this request will fail to
      * avoid duplicate save operations.
@@ -171,50 +280,65 @@ public final class PersistenceService extends AbstractIdleService {
      * @return A future that completes when the save finishes.
      */
     public CompletableFuture<Void> save(Player player) {
-        return context.getGame().sync(player::createSaveData).
-                thenCompose(data -> save(player.getUsername(), data));
+        return context.getGame().sync(player::createIncrementalSaveData).
+                thenCompose(data -> save(player.getUsername(), data)).
+                whenComplete((result, e) -> {
+                    if (e != null) {
+                        invalidate(player);
+                    }
+                });
     }
 
     /**
-     * Asynchronously saves {@code data} under the key {@code username}. The task will fail if the player is being serviced
-     * by the {@link LogoutService}.
+     * Asynchronously saves {@code data} under the key {@code username}. The save is queued, and will replace any
+     * queued save for the same player that hasn't been written yet. The task will fail if the player is being
+     * serviced by the {@link LogoutService}.
      *
      * @param username The player's username.
      * @param data The data to save.
      * @return A listenable future describing the result of the save.
      */
     public CompletableFuture<Void> save(String username, PlayerData data) {
-        IllegalStateException ex = new IllegalStateException("This player is already being serviced by LogoutService.");
         if (world.getLogoutService().hasRequest(username)) {
             // The LogoutService will handle the saving.
-            return CompletableFuture.failedFuture(ex);
+            return CompletableFuture.failedFuture(logoutException());
         }
-        logger.trace("Sending save request for {} to a worker...", username);
-        return CompletableFuture.runAsync(() -> {
-            if (world.getLogoutService().hasRequest(username)) {
-                throw ex;
+        logger.trace("Queueing save request for {}...", username);
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        synchronized (pending) {
+            PendingSave save = pending.get(username);
+            if (save == null) {
+                save = new PendingSave(data);
+                pending.put(username, save);
+            } else {
+                // Keep the sections only the older save has.
+                data.merge(save.data);
+                save.data = data;
+                coalesced.incrementAndGet();
             }
-            var timer = Stopwatch.createStarted();
-            world.getSerializerManager().getSerializer().savePlayer(world, username, data);
-
-            long ms = timer.elapsed().toMillis();
-            logger.debug("Finished saving {}'s data (took {}ms).", username, box(ms));
-        }, worker);
+            save.waiters.add(result);
+            queued.incrementAndGet();
+            if (!flushScheduled) {
+                flushScheduled = true;
+                worker.execute(this::flushQueue);
+            }
+        }
+        return result;
     }
 
     /**
      * Saves all online players currently in the world.
      * <p>
-     * This is a heavy operation and should only be used occasionally (e.g. world backups, shutdowns).
-     * Running it too frequently can cause performance degradation, since it serializes every online player in one task.
+     * Save data for every player is created in a single pass on the game thread, and then queued and written in
+     * batches. Only the sections of data that changed since each player's last save are included. If called from the game thread, the snapshot is taken immediately.
      *
      * @return A future that completes when the mass save finishes.
      */
     public CompletableFuture<Void> saveAll() {
-        logger.trace("Sending mass save request to a worker...");
-        return CompletableFuture.runAsync(() -> {
-            // Send all requests to a worker.
-            var timer = Stopwatch.createStarted();
+        logger.trace("Sending mass save request...");
+        var timer = Stopwatch.createStarted();
+        return context.getGame().sync(() -> {
+            Map<String, Map.Entry<Player, PlayerData>> snapshot = new LinkedHashMap<>();
             for (Player player : world.getPlayerMap().values()) {
                 String username = player.getUsername();
                 if (world.getLogoutService().hasRequest(username)) {
@@ -222,17 +346,196 @@ public final class PersistenceService extends AbstractIdleService {
                     continue;
                 }
                 try {
-                    PlayerData data = context.getGame().sync(player::createSaveData).join();
-                    world.getSerializerManager().getSerializer().savePlayer(world, username, data);
-                    logger.trace("Saved {}'s data.", username);
+                    PlayerData data = player.createIncrementalSaveData();
+                    if (data != null) {
+                        snapshot.put(username, new SimpleImmutableEntry<>(player, data));
+                    }
                 } catch (Exception e) {
-                    logger.error("Issue saving {}'s data during mass save.", username, e);
+                    logger.error("Issue creating {}'s data during mass save.", username, e);
                 }
             }
-            logger.info("Mass save complete (took {}ms).", box(timer.elapsed().toMillis()));
-        }, worker);
+            return snapshot;
+        }).thenCompose(snapshot -> {
+            List<CompletableFuture<Void>> saves = new ArrayList<>(snapshot.size());
+            snapshot.forEach((username, entry) -> saves.add(save(username, entry.getValue()).exceptionally(e -> {
+                logger.error("Issue saving {}'s data during mass save.", username, e);
+                invalidate(entry.getKey());
+                return null;
+            })));
+            return CompletableFuture.allOf(saves.toArray(CompletableFuture[]::new)).thenRun(() ->
+                    logger.info("Mass save of {} players complete (took {}ms).", box(snapshot.size()),
+                            box(timer.elapsed().toMillis())));
+        });
     }
 
+    /**
+     * Drops the queued save for {@code username}, if there is one. Called when the {@link LogoutService} takes over
+     * saving a player, so older queued data can't overwrite their final save.
+     *
+     * @param username The player's username.
+     */
+    public void discard(String username) {
+        PendingSave save;
+        synchronized (pending) {
+            save = pending.remove(username);
+        }
+        if (save != null) {
+            save.fail(logoutException());
+        }
+    }
+
+    /**
+     * Builds a summary of this service's metrics, one line per metric.
+     *
+     * @return The summary lines.
+     */
+    public List<String> summary() {
+        List<String> lines = new ArrayList<>(4);
+        lines.add(String.format("queued=%d, coalesced=%d, written=%d, failed=%d", queued.get(), coalesced.get(),
+                written.get(), failed.get()));
+        lines.add(String.format("queue_depth=%d, batch_size=%d", getQueueDepth(), batchSize));
+        lines.add("flush_latency: " + flushLatency);
+        lines.add("save_latency: " + saveLatency);
+        return lines;
+    }
+
+    /**
+     * Clears all metrics.
+     */
+    public void reset() {
+        flushLatency.reset();
+        saveLatency.reset();
+        queued.set(0);
+        coalesced.set(0);
+        written.set(0);
+        failed.set(0);
+    }
+
+    /**
+     * @return The amount of saves waiting to be written.
+     */
+    public int getQueueDepth() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * @return The time taken to write each batch.
+     */
+    public LatencyHistogram getFlushLatency() {
+        return flushLatency;
+    }
+
+    /**
+     * @return The time between a save first being queued and being written.
+     */
+    public LatencyHistogram getSaveLatency() {
+        return saveLatency;
+    }
+
+    /**
+     * Writes queued saves in batches until the queue is empty. Runs on the worker.
+     */
+    private void flushQueue() {
+        for (; ; ) {
+            Map<String, PendingSave> batch = new LinkedHashMap<>();
+            synchronized (pending) {
+                Iterator<Map.Entry<String, PendingSave>> iterator = pending.entrySet().iterator();
+                while (iterator.hasNext() && batch.size() < batchSize) {
+                    Map.Entry<String, PendingSave> entry = iterator.next();
+                    batch.put(entry.getKey(), entry.getValue());
+                    iterator.remove();
+                }
+                if (batch.isEmpty()) {
+                    flushScheduled = false;
+                    return;
+                }
+            }
+            flushBatch(batch);
+        }
+    }
+
+    /**
+     * Writes the queued save for {@code username} immediately, if there is one. Runs on the worker, so reads that
+     * follow will see the latest data.
+     *
+     * @param username The player's username.
+     */
+    private void flushPending(String username) {
+        PendingSave save;
+        synchronized (pending) {
+            save = pending.remove(username);
+        }
+        if (save != null) {
+            flushBatch(Map.of(username, save));
+        }
+    }
+
+    /**
+     * Writes a batch of queued saves and notifies everything waiting on them. Runs on the worker.
+     *
+     * @param batch The saves to write.
+     */
+    private void flushBatch(Map<String, PendingSave> batch) {
+        Map<String, PlayerData> records = new LinkedHashMap<>();
+        for (Map.Entry<String, PendingSave> entry : batch.entrySet()) {
+            String username = entry.getKey();
+            if (world.getLogoutService().hasRequest(username)) {
+                entry.getValue().fail(logoutException());
+                continue;
+            }
+            records.put(username, entry.getValue().data);
+        }
+        if (records.isEmpty()) {
+            return;
+        }
+
+        var timer = Stopwatch.createStarted();
+        Map<String, Exception> failures;
+        try {
+            failures = world.getSerializerManager().getSerializer().savePlayers(world, records);
+        } catch (Exception e) {
+            failures = new HashMap<>();
+            for (String username : records.keySet()) {
+                failures.put(username, e);
+            }
+        }
+        long now = System.nanoTime();
+        flushLatency.record(timer.elapsed(TimeUnit.NANOSECONDS));
+
+        for (String username : records.keySet()) {
+            PendingSave save = batch.get(username);
+            saveLatency.record(now - save.queuedAt);
+            Exception failure = failures.get(username);
+            if (failure != null) {
+                failed.incrementAndGet();
+                logger.error("Issue saving {}'s data.", username, failure);
+                save.fail(failure);
+            } else {
+                written.incrementAndGet();
+                save.complete();
+            }
+        }
+        logger.debug("Finished saving a batch of {} players (took {}ms).", box(records.size()),
+                box(timer.elapsed().toMillis()));
+    }
+
+    /**
+     * Forces the next save of {@code player} to include every section, after a save of changed sections failed.
+     *
+     * @param player The player.
+     */
+    private void invalidate(Player player) {
+        context.getGame().sync(() -> player.getSectionTracker().invalidate());
+    }
+
+    /**
+     * Creates the exception used to fail saves for players being serviced by the {@link LogoutService}.
+     */
+    private IllegalStateException logoutException() {
+        return new IllegalStateException("This player is already being serviced by LogoutService.");
+    }
 
     /**
      * Deletes all saved data associated with the given username.
@@ -257,6 +560,7 @@ public final class PersistenceService extends AbstractIdleService {
             if (world.getLogoutService().hasRequest(username)) {
                 world.getLogoutService().waitForSave(username);
             }
+            discard(username);
             Stopwatch timer = Stopwatch.createStarted();
             boolean successful = world.getSerializerManager().getSerializer().deletePlayer(world, username);
             if (successful) {
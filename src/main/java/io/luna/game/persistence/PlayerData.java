@@ -18,8 +18,12 @@ import org.mindrot.jbcrypt.BCrypt;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * A model acting as a proxy for {@link Player} save data. It primarily ensures thread safety for interactions between
@@ -29,6 +33,45 @@ import java.util.Map;
  */
 public class PlayerData {
 
+    /**
+     * The sections of save data that are tracked and saved independently of the rest. Data that only contains some
+     * sections is considered partial, and is merged into the existing record by the {@link GameSerializer}.
+     */
+    public enum Section {
+        SKILLS("skills"),
+        INVENTORY("inventory"),
+        BANK("bank"),
+        EQUIPMENT("equipment"),
+        ATTRIBUTES("attributes"),
+        APPEARANCE("appearance");
+
+        /**
+         * An immutable set of all sections.
+         */
+        public static final Set<Section> ALL = Collections.unmodifiableSet(EnumSet.allOf(Section.class));
+
+        /**
+         * The name of the field holding this section, also used as its key when serialized.
+         */
+        private final String key;
+
+        /**
+         * Creates a new {@link Section}.
+         *
+         * @param key The name of the field holding this section.
+         */
+        Section(String key) {
+            this.key = key;
+        }
+
+        /**
+         * @return The name of the field holding this section, also used as its key when serialized.
+         */
+        public String getKey() {
+            return key;
+        }
+    }
+
     /* This should be avoided this unless necessary and attributes used instead. But if you wish to save player data
        the 'old' way simply declare a field then add it to the 'save' and 'load' functions. */
     public int databaseId;
@@ -62,6 +105,16 @@ public class PlayerData {
      */
     private transient final String username;
 
+    /**
+     * The sections missing from this data, {@code null} if none are missing.
+     */
+    private transient EnumSet<Section> omitted;
+
+    /**
+     * If the record this data was loaded from stores every section separately.
+     */
+    private transient boolean sectionedRecord;
+
     /**
      * Creates a new {@link PlayerData}.
      *
@@ -102,9 +155,16 @@ public class PlayerData {
     }
 
     /**
-     * Saves {@code player}'s data to this model.
+     * Saves all of {@code player}'s data to this model.
      */
     public PlayerData save(Player player) {
+        return save(player, Section.ALL);
+    }
+
+    /**
+     * Saves {@code player}'s data to this model, including only the argued sections.
+     */
+    public PlayerData save(Player player, Set<Section> sections) {
         String hashedPw = player.getHashedPassword();
         String plainTextPw = player.getPassword();
         if (hashedPw == null) {
@@ -126,28 +186,144 @@ public class PlayerData {
         rights = player.getRights();
         lastIp = player.getClient().getIpAddress();
         logoutTime = Instant.now();
-        appearance = player.getAppearance().toArray();
         musicTab = player.getMusicTab().copy();
-        inventory = player.getInventory().toList();
-        bank = player.getBank().toList();
-        equipment = player.getEquipment().toList();
-        skills = player.getSkills().toArray();
         friends = new ArrayList<>(player.getFriends());
         ignores = new ArrayList<>(player.getIgnores());
         unbanInstant = player.getUnbanInstant();
         unmuteInstant = player.getUnmuteInstant();
         runEnergy = player.getRunEnergy();
         weight = player.getWeight();
-        attributes = player.getAttributes().save();
         varps = player.getVarpManager().toMap();
         spellbook = player.getSpellbook();
         timePlayed = player.getTimePlayed();
         createdAt = player.getCreatedAt();
         privacyOptions = player.getPrivacyOptions();
         potions = player.savePotionsToJson();
+
+        omitted = null;
+        for (Section section : Section.values()) {
+            if (sections.contains(section)) {
+                saveSection(player, section);
+            } else {
+                if (omitted == null) {
+                    omitted = EnumSet.noneOf(Section.class);
+                }
+                omitted.add(section);
+            }
+        }
         return this;
     }
 
+    /**
+     * Fills in every section missing from this data with the sections of {@code older}, so that this data can replace
+     * {@code older} without losing any of its changes.
+     *
+     * @param older The older data for the same player.
+     */
+    public void merge(PlayerData older) {
+        if (omitted == null) {
+            return;
+        }
+        Iterator<Section> iterator = omitted.iterator();
+        while (iterator.hasNext()) {
+            Section section = iterator.next();
+            if (older.has(section)) {
+                copySection(older, section);
+                iterator.remove();
+            }
+        }
+        if (omitted.isEmpty()) {
+            omitted = null;
+        }
+    }
+
+    /**
+     * Determines if {@code section} is present in this data.
+     *
+     * @param section The section.
+     * @return {@code true} if the section is present.
+     */
+    public boolean has(Section section) {
+        return omitted == null || !omitted.contains(section);
+    }
+
+    /**
+     * @return {@code true} if any section is missing from this data.
+     */
+    public boolean isPartial() {
+        return omitted != null;
+    }
+
+    /**
+     * @return {@code true} if the record this data was loaded from stores every section separately, so it can be
+     * updated with partial data.
+     */
+    public boolean isSectionedRecord() {
+        return sectionedRecord;
+    }
+
+    /**
+     * Sets if the record this data was loaded from stores every section separately. Called by the
+     * {@link GameSerializer} when loading.
+     *
+     * @param sectionedRecord The new value.
+     */
+    public void setSectionedRecord(boolean sectionedRecord) {
+        this.sectionedRecord = sectionedRecord;
+    }
+
+    /**
+     * Saves a single section of {@code player}'s data to this model.
+     */
+    private void saveSection(Player player, Section section) {
+        switch (section) {
+            case SKILLS:
+                skills = player.getSkills().toArray();
+                break;
+            case INVENTORY:
+                inventory = player.getInventory().toList();
+                break;
+            case BANK:
+                bank = player.getBank().toList();
+                break;
+            case EQUIPMENT:
+                equipment = player.getEquipment().toList();
+                break;
+            case ATTRIBUTES:
+                attributes = player.getAttributes().save();
+                break;
+            case APPEARANCE:
+                appearance = player.getAppearance().toArray();
+                break;
+        }
+    }
+
+    /**
+     * Copies a single section from {@code other} to this model.
+     */
+    private void copySection(PlayerData other, Section section) {
+        switch (section) {
+            case SKILLS:
+                skills = other.skills;
+                break;
+            case INVENTORY:
+                inventory = other.inventory;
+                break;
+            case BANK:
+                bank = other.bank;
+                break;
+            case EQUIPMENT:
+                equipment = other.equipment;
+                break;
+            case ATTRIBUTES:
+                attributes = other.attributes;
+                break;
+            case APPEARANCE:
+                appearance = other.appearance;
+                break;
+        }
+    }
+
     /**
      * @return The username of the player this data belongs to.
      */
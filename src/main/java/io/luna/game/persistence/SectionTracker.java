@@ -0,0 +1,158 @@
+package io.luna.game.persistence;
+
+import io.luna.game.model.mob.Player;
+import io.luna.game.model.mob.Skill;
+import io.luna.game.model.mob.SkillSet;
+import io.luna.game.persistence.PlayerData.Section;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Tracks which {@link Section}s of a {@link Player}'s data have changed since they were last saved, so periodic saves
+ * only need to include the sections that changed.
+ * <p>
+ * Item containers are compared by their modification counts. Skills and appearance values are compared against
+ * copies of the last saved values, and attributes against a hash of the last saved values. This means persistent
+ * attributes holding mutable values without a value-based {@code hashCode} must be set again when modified, or they
+ * will only be saved by the next full save (on logout, for example).
+ * <p>
+ * Must only be used on the game thread.
+ *
+ * @author lare96
+ */
+public final class SectionTracker {
+
+    /**
+     * The player.
+     */
+    private final Player player;
+
+    /**
+     * The experience of each skill when last saved.
+     */
+    private final double[] experience = new double[SkillSet.size()];
+
+    /**
+     * The level of each skill when last saved.
+     */
+    private final int[] levels = new int[SkillSet.size()];
+
+    /**
+     * The appearance values when last saved.
+     */
+    private int[] appearance;
+
+    /**
+     * The hash of the persistent attributes when last saved.
+     */
+    private int attributesHash;
+
+    /**
+     * The inventory modification count when last saved.
+     */
+    private int inventoryModifications;
+
+    /**
+     * The bank modification count when last saved.
+     */
+    private int bankModifications;
+
+    /**
+     * The equipment modification count when last saved.
+     */
+    private int equipmentModifications;
+
+    /**
+     * If the last saved values reflect the stored record.
+     */
+    private boolean valid;
+
+    /**
+     * Creates a new {@link SectionTracker}.
+     *
+     * @param player The player.
+     */
+    public SectionTracker(Player player) {
+        this.player = player;
+    }
+
+    /**
+     * Records every section as saved in its current state. Called after loading from a record that can be updated
+     * with partial data.
+     */
+    public void markSaved() {
+        collect(EnumSet.noneOf(Section.class));
+        valid = true;
+    }
+
+    /**
+     * Forces the next save to include every section. Called when a save fails, so no changes are lost.
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Determines which sections have changed since they were last saved, and records them as saved in their current
+     * state. Every section is included if this tracker has been invalidated or never marked as saved.
+     *
+     * @return The changed sections.
+     */
+    public Set<Section> collectChanged() {
+        if (!valid) {
+            markSaved();
+            return Section.ALL;
+        }
+        EnumSet<Section> changed = EnumSet.noneOf(Section.class);
+        collect(changed);
+        return changed;
+    }
+
+    /**
+     * Adds every changed section to {@code changed}, and records the current state of every section.
+     */
+    private void collect(EnumSet<Section> changed) {
+        int inventory = player.getInventory().getModifications();
+        if (inventory != inventoryModifications) {
+            changed.add(Section.INVENTORY);
+            inventoryModifications = inventory;
+        }
+        int bank = player.getBank().getModifications();
+        if (bank != bankModifications) {
+            changed.add(Section.BANK);
+            bankModifications = bank;
+        }
+        int equipment = player.getEquipment().getModifications();
+        if (equipment != equipmentModifications) {
+            changed.add(Section.EQUIPMENT);
+            equipmentModifications = equipment;
+        }
+
+        boolean skillsChanged = false;
+        for (Skill skill : player.getSkills()) {
+            int id = skill.getId();
+            if (experience[id] != skill.getExperience() || levels[id] != skill.getLevel()) {
+                experience[id] = skill.getExperience();
+                levels[id] = skill.getLevel();
+                skillsChanged = true;
+            }
+        }
+        if (skillsChanged) {
+            changed.add(Section.SKILLS);
+        }
+
+        int[] newAppearance = player.getAppearance().toArray();
+        if (!Arrays.equals(appearance, newAppearance)) {
+            changed.add(Section.APPEARANCE);
+            appearance = newAppearance;
+        }
+
+        int newAttributesHash = player.getAttributes().save().hashCode();
+        if (newAttributesHash != attributesHash) {
+            changed.add(Section.ATTRIBUTES);
+            attributesHash = newAttributesHash;
+        }
+    }
+}
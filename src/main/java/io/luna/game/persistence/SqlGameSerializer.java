@@ -1,13 +1,31 @@
 package io.luna.game.persistence;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import io.luna.game.model.World;
 import io.luna.game.model.mob.Skill;
 import io.luna.game.model.mob.attr.Attribute;
+import io.luna.game.persistence.PlayerData.Section;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.google.common.base.Preconditions.checkState;
 
 /**
  * A {@link GameSerializer} implementation that stores persistent player data in an {@code SQL} database.
@@ -16,6 +34,25 @@ import java.sql.Statement;
  */
 public final class SqlGameSerializer extends GameSerializer {
 
+    /**
+     * The asynchronous logger.
+     */
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * The statement that loads a player from the main table.
+     */
+    private static final String LOAD_PLAYER = "SELECT bot, json_data, " + Arrays.stream(Section.values()).
+            map(SqlGameSerializer::getColumn).collect(Collectors.joining(", ")) + " FROM main_data WHERE username = ?;";
+
+    /**
+     * The statement that updates an existing player in the skills table.
+     */
+    private static final String UPDATE_SKILLS = "UPDATE skills_data SET attack_xp = ?,attack_level = ?,defence_xp = ?,defence_level = ?,strength_xp = ?,strength_level = ?,hitpoints_xp = ?,hitpoints_level = ?," +
+            "ranged_xp = ?,ranged_level = ?,prayer_xp = ?,prayer_level = ?,magic_xp = ?,magic_level = ?,cooking_xp = ?,cooking_level = ?,woodcutting_xp = ?,woodcutting_level = ?,fletching_xp = ?,fletching_level = ?,fishing_xp = ?,fishing_level = ?," +
+            "firemaking_xp = ?,firemaking_level = ?,crafting_xp = ?,crafting_level = ?,smithing_xp = ?,smithing_level = ?,mining_xp = ?,mining_level = ?,herblore_xp = ?,herblore_level = ?,agility_xp = ?,agility_level = ?,thieving_xp = ?,thieving_level = ?," +
+            "slayer_xp = ?,slayer_level = ?,farming_xp = ?,farming_level = ?,runecrafting_xp = ?,runecrafting_level = ?,total_level = ? WHERE id = ?;";
+
     /**
      * Creates a new {@link SqlGameSerializer}.
      */
@@ -26,14 +63,25 @@ public final class SqlGameSerializer extends GameSerializer {
     public PlayerData loadPlayer(World world, String username) {
         PlayerData data = null;
         try (var connection = world.getConnectionPool().take();
-             var loadData = connection.prepareStatement("SELECT bot, json_data FROM main_data WHERE username = ?;")) {
+             var loadData = connection.prepareStatement(LOAD_PLAYER)) {
             loadData.setString(1, username);
 
             try (var results = loadData.executeQuery()) {
                 if (results.next()) {
                     boolean isBot = results.getBoolean("bot");
-                    String jsonData = results.getString("json_data");
-                    data = Attribute.getGsonInstance().fromJson(jsonData, isBot ? BotData.class : PlayerData.class);
+                    JsonObject record = JsonParser.parseString(results.getString("json_data")).getAsJsonObject();
+                    boolean sectioned = true;
+                    for (Section section : Section.values()) {
+                        String sectionData = results.getString(getColumn(section));
+                        if (sectionData != null) {
+                            record.add(section.getKey(), JsonParser.parseString(sectionData));
+                        } else {
+                            // Saved before sections were introduced, everything is within the JSON data.
+                            sectioned = false;
+                        }
+                    }
+                    data = Attribute.getGsonInstance().fromJson(record, isBot ? BotData.class : PlayerData.class);
+                    data.setSectionedRecord(sectioned);
                 }
             }
         } catch (Exception e) {
@@ -48,6 +96,7 @@ public final class SqlGameSerializer extends GameSerializer {
             connection.setAutoCommit(false);
             try {
                 if (data.databaseId == -1) {
+                    checkState(!data.isPartial(), "New players must be saved with all of their data.");
                     saveNewPlayer(connection, username, data);
                 } else {
                     saveExistingPlayer(connection, data);
@@ -60,6 +109,39 @@ public final class SqlGameSerializer extends GameSerializer {
         }
     }
 
+    @Override
+    public Map<String, Exception> savePlayers(World world, Map<String, PlayerData> players) {
+        Map<String, Exception> failures = new HashMap<>();
+        Map<String, PlayerData> existing = new LinkedHashMap<>();
+        for (Map.Entry<String, PlayerData> entry : players.entrySet()) {
+            String username = entry.getKey();
+            PlayerData data = entry.getValue();
+            if (data.databaseId != -1) {
+                existing.put(username, data);
+                continue;
+            }
+            // New players need their generated key before anything else can be written.
+            try {
+                savePlayer(world, username, data);
+            } catch (Exception e) {
+                failures.put(username, e);
+            }
+        }
+        if (existing.isEmpty() || saveExistingPlayers(world, existing.values())) {
+            return failures;
+        }
+
+        // The batch was rolled back, save one at a time to isolate the failing records.
+        for (Map.Entry<String, PlayerData> entry : existing.entrySet()) {
+            try {
+                savePlayer(world, entry.getKey(), entry.getValue());
+            } catch (Exception e) {
+                failures.put(entry.getKey(), e);
+            }
+        }
+        return failures;
+    }
+
     @Override
     public boolean deletePlayer(World world, String username) {
         try (Connection connection = world.getConnectionPool().take();
@@ -115,7 +197,7 @@ public final class SqlGameSerializer extends GameSerializer {
                      "firemaking_xp,firemaking_level,crafting_xp,crafting_level,smithing_xp,smithing_level,mining_xp,mining_level,herblore_xp,herblore_level,agility_xp,agility_level,thieving_xp,thieving_level," +
                      "slayer_xp,slayer_level,farming_xp,farming_level,runecrafting_xp,runecrafting_level,total_level) " +
                      "VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?,?, ?, ?, ?, ?, ?, ?, ?, ?, ?,?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
-             var updateJsonData = connection.prepareStatement("UPDATE main_data SET json_data = ? WHERE id = ?;")) {
+             var updateJsonData = connection.prepareStatement(getUpdatePlayerStatement(data))) {
             // Insert player data to the main table.
             insertPlayer.setString(1, username);
             insertPlayer.setString(2, data.password);
@@ -146,8 +228,7 @@ public final class SqlGameSerializer extends GameSerializer {
 
             // Update json data with database ID.
             data.databaseId = databaseId;
-            updateJsonData.setString(1, Attribute.getGsonInstance().toJson(data));
-            updateJsonData.setInt(2, databaseId);
+            addPlayerParameters(data, updateJsonData);
             if (updateJsonData.executeUpdate() < 1) {
                 connection.rollback();
                 return;
@@ -169,28 +250,23 @@ public final class SqlGameSerializer extends GameSerializer {
      * @throws SQLException If any errors occur.
      */
     private void saveExistingPlayer(Connection connection, PlayerData data) throws SQLException {
-        try (var updatePlayer = connection.prepareStatement("UPDATE main_data SET password = ?, rights = ?, json_data = ? WHERE id = ?;", Statement.RETURN_GENERATED_KEYS);
-             var updateSkills = connection.prepareStatement("UPDATE skills_data SET attack_xp = ?,attack_level = ?,defence_xp = ?,defence_level = ?,strength_xp = ?,strength_level = ?,hitpoints_xp = ?,hitpoints_level = ?," +
-                     "ranged_xp = ?,ranged_level = ?,prayer_xp = ?,prayer_level = ?,magic_xp = ?,magic_level = ?,cooking_xp = ?,cooking_level = ?,woodcutting_xp = ?,woodcutting_level = ?,fletching_xp = ?,fletching_level = ?,fishing_xp = ?,fishing_level = ?," +
-                     "firemaking_xp = ?,firemaking_level = ?,crafting_xp = ?,crafting_level = ?,smithing_xp = ?,smithing_level = ?,mining_xp = ?,mining_level = ?,herblore_xp = ?,herblore_level = ?,agility_xp = ?,agility_level = ?,thieving_xp = ?,thieving_level = ?," +
-                     "slayer_xp = ?,slayer_level = ?,farming_xp = ?,farming_level = ?,runecrafting_xp = ?,runecrafting_level = ?,total_level = ? WHERE id = ?;")) {
+        try (var updatePlayer = connection.prepareStatement(getUpdatePlayerStatement(data));
+             var updateSkills = connection.prepareStatement(UPDATE_SKILLS)) {
 
             // Update player data in the main table.
-            updatePlayer.setString(1, data.password);
-            updatePlayer.setString(2, data.rights.name());
-            updatePlayer.setString(3, Attribute.getGsonInstance().toJson(data));
-            updatePlayer.setInt(4, data.databaseId);
+            addPlayerParameters(data, updatePlayer);
             if (updatePlayer.executeUpdate() < 1) {
                 connection.rollback();
-                return;
+                throw new IllegalStateException("No record to update, or the record can't take partial data.");
             }
 
-            // Update player data in the skills table.
-            int index = addSkillParameters(1, data.skills, updateSkills);
-            updateSkills.setInt(index, data.databaseId);
-            if (updateSkills.executeUpdate() < 1) {
-                connection.rollback();
-                return;
+            // Update player data in the skills table, if they changed.
+            if (data.has(Section.SKILLS)) {
+                addSkillParameters(data, updateSkills);
+                if (updateSkills.executeUpdate() < 1) {
+                    connection.rollback();
+                    return;
+                }
             }
 
             // Commit transaction.
@@ -201,6 +277,124 @@ public final class SqlGameSerializer extends GameSerializer {
         }
     }
 
+    /**
+     * Saves a batch of existing players to the database using JDBC batching, in a single transaction.
+     *
+     * @param world The world context.
+     * @param players The players' data.
+     * @return {@code true} if the transaction was committed, {@code false} if it was rolled back.
+     */
+    private boolean saveExistingPlayers(World world, Collection<PlayerData> players) {
+        try (var connection = world.getConnectionPool().take()) {
+            connection.setAutoCommit(false);
+            try (var updateSkills = connection.prepareStatement(UPDATE_SKILLS)) {
+                // Players with the same changed sections share a statement.
+                Map<String, List<PlayerData>> groups = new LinkedHashMap<>();
+                for (PlayerData data : players) {
+                    groups.computeIfAbsent(getUpdatePlayerStatement(data), key -> new ArrayList<>()).add(data);
+                    if (data.has(Section.SKILLS)) {
+                        addSkillParameters(data, updateSkills);
+                        updateSkills.addBatch();
+                    }
+                }
+                boolean updated = true;
+                for (Map.Entry<String, List<PlayerData>> group : groups.entrySet()) {
+                    try (var updatePlayer = connection.prepareStatement(group.getKey())) {
+                        for (PlayerData data : group.getValue()) {
+                            addPlayerParameters(data, updatePlayer);
+                            updatePlayer.addBatch();
+                        }
+                        updated &= isBatchUpdated(updatePlayer.executeBatch());
+                    }
+                }
+                if (updated && isBatchUpdated(updateSkills.executeBatch())) {
+                    connection.commit();
+                    return true;
+                }
+                connection.rollback();
+                logger.warn("Batch save of {} players matched missing rows, retrying individually.", players.size());
+            } catch (Exception e) {
+                connection.rollback();
+                logger.warn("Batch save of {} players failed, retrying individually.", players.size(), e);
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (Exception e) {
+            logger.warn("Batch save of {} players failed, retrying individually.", players.size(), e);
+        }
+        return false;
+    }
+
+    /**
+     * Determines if every statement within an executed batch updated at least one row.
+     *
+     * @param counts The update counts.
+     * @return {@code true} if every statement updated a row.
+     */
+    private boolean isBatchUpdated(int[] counts) {
+        for (int count : counts) {
+            if (count != Statement.SUCCESS_NO_INFO && count < 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Builds the statement that updates an existing player in the main table. Only the sections within {@code data}
+     * are updated, and the update only matches records that already store the missing sections separately.
+     *
+     * @param data The player's data.
+     * @return The statement.
+     */
+    private String getUpdatePlayerStatement(PlayerData data) {
+        StringBuilder statement = new StringBuilder("UPDATE main_data SET password = ?, rights = ?, ");
+        StringBuilder conditions = new StringBuilder(" WHERE id = ?");
+        for (Section section : Section.values()) {
+            if (data.has(section)) {
+                statement.append(getColumn(section)).append(" = ?, ");
+            } else {
+                conditions.append(" AND ").append(getColumn(section)).append(" IS NOT NULL");
+            }
+        }
+        return statement.append("json_data = ?").append(conditions).append(';').toString();
+    }
+
+    /**
+     * Prepares parameters for the statement built by {@link #getUpdatePlayerStatement(PlayerData)}.
+     *
+     * @param data The player's data.
+     * @param statement The SQL statement instance.
+     * @throws SQLException If any errors occur.
+     */
+    private void addPlayerParameters(PlayerData data, PreparedStatement statement) throws SQLException {
+        Gson gson = Attribute.getGsonInstance();
+        JsonObject record = gson.toJsonTree(data).getAsJsonObject();
+        int index = 1;
+        statement.setString(index++, data.password);
+        statement.setString(index++, data.rights.name());
+        for (Section section : Section.values()) {
+            JsonElement element = record.remove(section.getKey());
+            if (data.has(section)) {
+                statement.setString(index++, gson.toJson(element == null ? JsonNull.INSTANCE : element));
+            }
+        }
+        statement.setString(index++, gson.toJson(record));
+        statement.setInt(index, data.databaseId);
+    }
+
+    /**
+     * Prepares parameters for the statement that updates an existing player in the skills table.
+     *
+     * @param data The player's data.
+     * @param statement The SQL statement instance.
+     * @throws SQLException If any errors occur.
+     */
+    private void addSkillParameters(PlayerData data, PreparedStatement statement) throws SQLException {
+        int index = addSkillParameters(1, data.skills, statement);
+        statement.setInt(index, data.databaseId);
+    }
+
     /**
      * Prepares parameters for the SQL statements that loop through skills.
      *
@@ -221,4 +415,14 @@ public final class SqlGameSerializer extends GameSerializer {
         statement.setInt(index++, totalLevel);
         return index;
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the column in the main table that holds {@code section}.
+     *
+     * @param section The section.
+     * @return The column name.
+     */
+    private static String getColumn(Section section) {
+        return section.getKey() + "_json";
+    }
+}
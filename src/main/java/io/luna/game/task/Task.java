@@ -1,5 +1,7 @@
 package io.luna.game.task;
 
+import io.luna.util.LatencyHistogram;
+import io.luna.util.TimingWheel;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -18,7 +20,7 @@ import static com.google.common.base.Preconditions.checkState;
  * <ul>
  *   <li>Creation - Task is instantiated with a delay and is in the {@link TaskState#IDLE} state</li>
  *   <li>Scheduling - Task is submitted to a {@link TaskManager} and transitions to {@link TaskState#RUNNING}</li>
- *   <li>Execution - Task's {@link #execute()} method is called when its delay counter reaches the specified delay</li>
+ *   <li>Execution - Task's {@link #execute()} method is called every time the specified delay passes</li>
  *   <li>Cancellation - Task can be cancelled at any time, transitioning to {@link TaskState#CANCELLED}</li>
  * </ul>
  *
@@ -53,12 +55,40 @@ public abstract class Task {
     private TaskState state = TaskState.IDLE;
 
     /**
-     * The execution counter. This task is ran when it reaches the delay.
-     * <p>
-     * Incremented each tick while the task is active. When it reaches the delay value,
-     * the task is executed and the counter is reset.
+     * The manager this task was scheduled on, or {@code null} if it hasn't been scheduled.
+     */
+    TaskManager manager;
+
+    /**
+     * The scheduled execution within the manager's timing wheel.
+     */
+    TimingWheel.Entry<Task> entry;
+
+    /**
+     * The order this task was scheduled in, relative to other tasks.
+     */
+    long sequence;
+
+    /**
+     * The tick this task was last executed or scheduled on. It's next executed once the delay has passed since.
+     */
+    long cycleStart;
+
+    /**
+     * If this task overrides {@link #onProcess()}, and must be processed on every tick.
+     */
+    boolean processing;
+
+    /**
+     * The execution times of tasks with the same name as this one, or {@code null} if they aren't recorded.
      */
-    private int delayCounter;
+    LatencyHistogram taskTime;
+
+    /**
+     * The execution times of tasks scheduled by the same plugin as this one, or {@code null} if they aren't
+     * recorded.
+     */
+    LatencyHistogram pluginTime;
 
     /**
      * The amount of times {@link #execute()} has been called since the creation of the task.
@@ -97,30 +127,14 @@ public abstract class Task {
     /**
      * A function representing the unit of work that will be carried out.
      * <p>
-     * This method is called when the task is ready to execute (when the delay counter
-     * reaches the specified delay). Subclasses must implement this method to define
+     * This method is called when the task is ready to execute (every time the specified
+     * delay passes). Subclasses must implement this method to define
      * the task's behavior.
      * <p>
      * Any exceptions thrown by this method will be caught and passed to {@link #onException(Exception)}.
      */
     protected abstract void execute();
 
-    /**
-     * Increments the timer and determines if this task is ready to be ran.
-     * <p>
-     * This method is called by the {@link TaskManager} on each game tick to determine
-     * if the task should be executed.
-     *
-     * @return {@code true} if this task is ready to be ran.
-     */
-    final boolean isReady() {
-        if (++delayCounter >= delay && state == TaskState.RUNNING) {
-            delayCounter = 0;
-            return true;
-        }
-        return false;
-    }
-
     /**
      * Runs this task once. Forwards any errors to {@link #onException(Exception)}.
      * <p>
@@ -147,6 +161,9 @@ public abstract class Task {
             onCancel();
             executionCounter = 0;
             state = TaskState.CANCELLED;
+            if (manager != null) {
+                manager.remove(this);
+            }
         }
     }
 
@@ -204,6 +221,9 @@ public abstract class Task {
     public Task setKey(Object newKey) {
         checkState(key.isEmpty(), "Task already has an attachment.");
         key = Optional.ofNullable(newKey);
+        if (manager != null && newKey != null && state == TaskState.RUNNING) {
+            manager.index(newKey, this);
+        }
         return this;
     }
 
@@ -228,6 +248,9 @@ public abstract class Task {
      */
     public void setDelay(int delay) {
         this.delay = delay;
+        if (manager != null && state == TaskState.RUNNING) {
+            manager.reschedule(this);
+        }
     }
 
     /**
@@ -1,41 +1,116 @@
 package io.luna.game.task;
 
-import java.util.ArrayDeque;
-import java.util.Iterator;
-import java.util.LinkedList;
+import io.luna.util.LatencyHistogram;
+import io.luna.util.TimingWheel;
+
+import java.lang.StackWalker.StackFrame;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Objects;
-import java.util.Queue;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
 
+import static java.util.Objects.requireNonNull;
 
 /**
  * A model containing functions to handle processing of tasks.
  * <p>
  * The TaskManager is responsible for scheduling, executing, and managing the lifecycle of {@link Task} instances.
- * It maintains two collections:
- * <ul>
- *   <li>A list of pending tasks that are waiting to be executed based on their delay</li>
- *   <li>A queue of tasks that are ready to be executed in the current game tick</li>
- * </ul>
+ * Running tasks are kept in a {@link TimingWheel}, keyed by the tick they're next due to execute, so every game tick
+ * (typically 600ms) {@link #runTaskIteration()} only touches the tasks that are due. Tasks that override
+ * {@link Task#onProcess()} are also kept in a separate list, as they need to be processed on every tick.
+ * <p>
+ * Tasks with an attachment key are indexed by it, for {@link #forEach(Object, Consumer)}. When profiling is enabled,
+ * the time spent on every task is recorded both by task and by the plugin that scheduled it.
  * <p>
  * The task system is designed to be run on the game thread and provides a way to schedule delayed
- * or periodic actions without blocking the main game loop. Each game tick (typically 600ms),
- * the {@link #runTaskIteration()} method is called to process all pending tasks.
+ * or periodic actions without blocking the main game loop.
  *
  * @author lare96
  */
 public final class TaskManager {
 
     /**
-     * A list of tasks awaiting execution.
+     * Whether tasks of a class override {@link Task#onProcess()}.
+     */
+    private static final ClassValue<Boolean> PROCESSING = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            for (Class<?> next = type; next != Task.class; next = next.getSuperclass()) {
+                try {
+                    next.getDeclaredMethod("onProcess");
+                    return true;
+                } catch (NoSuchMethodException e) {
+                    // Not declared by this class, check the next one.
+                }
+            }
+            return false;
+        }
+    };
+
+    /**
+     * Walks the stack to find what scheduled a task, only used while profiling.
+     */
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    /**
+     * The running tasks, by the tick they're next due.
+     */
+    private final TimingWheel<Task> wheel = new TimingWheel<>();
+
+    /**
+     * The running tasks that override {@link Task#onProcess()}, in the order they were scheduled.
+     */
+    private final List<Task> processing = new ArrayList<>();
+
+    /**
+     * The running tasks with an attachment key, by key.
+     */
+    private final Map<Object, Set<Task>> keyed = new HashMap<>();
+
+    /**
+     * A list of tasks being processed this tick.
+     */
+    private final List<Task> executing = new ArrayList<>();
+
+    /**
+     * If task execution times are recorded.
+     */
+    private final boolean profiling;
+
+    /**
+     * The execution times of tasks, by task name.
      */
-    private final List<Task> pending = new LinkedList<>();
+    private final Map<String, LatencyHistogram> taskTimes = new HashMap<>();
 
     /**
-     * A queue of tasks ready to be executed.
+     * The execution times of tasks, by the plugin that scheduled them.
      */
-    private final Queue<Task> executing = new ArrayDeque<>();
+    private final Map<String, LatencyHistogram> pluginTimes = new HashMap<>();
+
+    /**
+     * The amount of tasks that have been scheduled, used to process tasks in the order they were scheduled.
+     */
+    private long sequence;
+
+    /**
+     * Creates a new {@link TaskManager}.
+     *
+     * @param profiling If task execution times should be recorded.
+     */
+    public TaskManager(boolean profiling) {
+        this.profiling = profiling;
+    }
+
+    /**
+     * Creates a new {@link TaskManager} that doesn't record execution times.
+     */
+    public TaskManager() {
+        this(false);
+    }
 
     /**
      * Schedules a new task to be ran.
@@ -49,10 +124,24 @@ public final class TaskManager {
                 return;
             }
             task.setState(TaskState.RUNNING);
+            if (profiling) {
+                attachTimes(task);
+            }
             if (task.isInstant()) {
                 task.runTask();
+                if (task.getState() != TaskState.RUNNING) {
+                    return;
+                }
+            }
+            task.manager = this;
+            task.sequence = sequence++;
+            task.cycleStart = wheel.getTick();
+            task.entry = wheel.schedule(task, task.cycleStart + task.getDelay());
+            if (PROCESSING.get(task.getClass())) {
+                task.processing = true;
+                processing.add(task);
             }
-            pending.add(task);
+            task.getKey().ifPresent(key -> index(key, task));
         }
     }
 
@@ -60,52 +149,188 @@ public final class TaskManager {
      * A function that runs an iteration of task processing.
      */
     public void runTaskIteration() {
-
-        // Run through all tasks awaiting execution.
-        Iterator<Task> iterator = pending.iterator();
-        while (iterator.hasNext()) {
-            Task task = iterator.next();
-
-            // Remove task if it was cancelled.
-            if (task.getState() == TaskState.CANCELLED) {
-                iterator.remove();
-                continue;
+        // Collect all tasks that are due, along with the ones processed every tick.
+        wheel.advance(executing::add);
+        if (!processing.isEmpty()) {
+            processing.removeIf(task -> task.getState() != TaskState.RUNNING);
+            for (Task task : processing) {
+                if (task.entry.isScheduled()) {
+                    executing.add(task);
+                }
             }
-
-            /* We pass tasks to a different collection to avoid a ConcurrentModificationException if tasks
-            are scheduled within tasks. */
-            executing.add(task);
+        }
+        if (executing.size() > 1) {
+            executing.sort(Comparator.comparingLong(task -> task.sequence));
         }
 
-        // Poll execution queue and run all tasks.
-        for (; ; ) {
-            Task task = executing.poll();
-            if (task == null) {
-                break;
-            }
-            try {
-                task.onProcess();
-                if (task.isReady()) {
-                    task.runTask();
+        /* Tasks are run from a separate list to avoid a ConcurrentModificationException if tasks are scheduled
+        within tasks. */
+        try {
+            for (Task task : executing) {
+                // Skip tasks cancelled by an earlier task.
+                if (task.getState() == TaskState.RUNNING) {
+                    process(task);
                 }
-            } catch (Exception e) {
-                task.onException(e);
             }
+        } finally {
+            executing.clear();
         }
     }
 
     /**
-     * Applies {@code action} to every task that has {@code key} as an attachment key.
+     * Applies {@code action} to every running task that has {@code key} as an attachment key.
      *
      * @param key The attachment.
      * @param action The action.
      */
     public void forEach(Object key, Consumer<Task> action) {
-        for (Task task : pending) {
-            Object foundKey = task.getKey().orElse(null);
-            if (Objects.equals(foundKey, key)) {
-                action.accept(task);
+        Set<Task> tasks = keyed.get(requireNonNull(key));
+        if (tasks != null) {
+            // Copied, as the action is allowed to cancel tasks.
+            List.copyOf(tasks).forEach(action);
+        }
+    }
+
+    /**
+     * Builds a summary of the recorded execution times, one line per task and plugin. Entries are sorted by the
+     * total time spent on them.
+     *
+     * @return The summary lines.
+     */
+    public List<String> summary() {
+        List<String> lines = new ArrayList<>(taskTimes.size() + pluginTimes.size() + 3);
+        lines.add(String.format("running=%d, processing=%d, keys=%d, profiling=%b", wheel.size(), processing.size(),
+                keyed.size(), profiling));
+        lines.add("by plugin:");
+        summarize(pluginTimes, lines);
+        lines.add("by task:");
+        summarize(taskTimes, lines);
+        return lines;
+    }
+
+    /**
+     * Clears all recorded execution times.
+     */
+    public void reset() {
+        taskTimes.values().forEach(LatencyHistogram::reset);
+        pluginTimes.values().forEach(LatencyHistogram::reset);
+    }
+
+    /**
+     * @return {@code true} if task execution times are recorded.
+     */
+    public boolean isProfiling() {
+        return profiling;
+    }
+
+    /**
+     * Processes a running task. If it's due, it's executed and scheduled for its next execution.
+     *
+     * @param task The task.
+     */
+    private void process(Task task) {
+        boolean due = !task.entry.isScheduled();
+        long start = task.taskTime != null ? System.nanoTime() : 0;
+        try {
+            if (task.processing) {
+                task.onProcess();
+            }
+            if (due && task.getState() == TaskState.RUNNING) {
+                task.runTask();
+            }
+        } catch (Exception e) {
+            task.onException(e);
+        } finally {
+            if (due && task.getState() == TaskState.RUNNING) {
+                task.cycleStart = wheel.getTick();
+                task.entry = wheel.schedule(task, task.cycleStart + task.getDelay());
+            }
+            if (task.taskTime != null) {
+                long elapsed = System.nanoTime() - start;
+                task.taskTime.record(elapsed);
+                task.pluginTime.record(elapsed);
             }
         }
     }
+
+    /**
+     * Schedules the next execution of a running task again, after its delay has changed.
+     *
+     * @param task The task.
+     */
+    void reschedule(Task task) {
+        // Tasks that are due this tick are scheduled again with the new delay once they've run.
+        if (task.entry.isScheduled()) {
+            wheel.cancel(task.entry);
+            task.entry = wheel.schedule(task, task.cycleStart + task.getDelay());
+        }
+    }
+
+    /**
+     * Removes a task that was just cancelled.
+     *
+     * @param task The task.
+     */
+    void remove(Task task) {
+        wheel.cancel(task.entry);
+        task.getKey().ifPresent(key -> {
+            Set<Task> tasks = keyed.get(key);
+            if (tasks != null && tasks.remove(task) && tasks.isEmpty()) {
+                keyed.remove(key);
+            }
+        });
+    }
+
+    /**
+     * Indexes a running task by its attachment key.
+     *
+     * @param key The key.
+     * @param task The task.
+     */
+    void index(Object key, Task task) {
+        keyed.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(task);
+    }
+
+    /**
+     * Attaches the execution time histograms of {@code task}. Tasks are named after their class, or after the class
+     * that scheduled them if they're anonymous. The plugin is the package of the class that scheduled them.
+     *
+     * @param task The task.
+     */
+    private void attachTimes(Task task) {
+        Class<?> source = STACK_WALKER.walk(frames -> frames.map(StackFrame::getDeclaringClass).
+                filter(type -> !isInternal(type)).
+                findFirst().
+                orElse(task.getClass()));
+        Class<?> type = task.getClass();
+        String name = type.isAnonymousClass() || type.isSynthetic() ? source.getName() : type.getName();
+        task.taskTime = taskTimes.computeIfAbsent(name, k -> new LatencyHistogram());
+        task.pluginTime = pluginTimes.computeIfAbsent(source.getPackageName(), k -> new LatencyHistogram());
+    }
+
+    /**
+     * Determines if {@code type} only forwards tasks to this manager, and shouldn't be credited for scheduling them.
+     *
+     * @param type The class.
+     * @return {@code true} if the class is internal to scheduling.
+     */
+    private static boolean isInternal(Class<?> type) {
+        String name = type.getName();
+        return name.startsWith("io.luna.game.task.") || name.equals("io.luna.game.model.World") ||
+                name.startsWith("api.") || name.startsWith("kotlin.");
+    }
+
+    /**
+     * Adds a line for every histogram in {@code times} to {@code lines}, sorted by total time.
+     *
+     * @param times The histograms.
+     * @param lines The lines.
+     */
+    private static void summarize(Map<String, LatencyHistogram> times, List<String> lines) {
+        times.entrySet().stream().
+                filter(entry -> entry.getValue().getCount() > 0).
+                sorted(Comparator.comparingLong((Map.Entry<String, LatencyHistogram> entry) ->
+                        entry.getValue().getMean() * entry.getValue().getCount()).reversed()).
+                forEach(entry -> lines.add("  " + entry.getKey() + ": " + entry.getValue()));
+    }
 }
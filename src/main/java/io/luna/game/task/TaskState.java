@@ -29,8 +29,8 @@ public enum TaskState {
     RUNNING,
 
     /**
-     * The {@code CANCELLED} state. The task was cancelled and will be removed
-     * from the {@link TaskManager} on the next processing cycle.
+     * The {@code CANCELLED} state. The task was cancelled and has been removed
+     * from the {@link TaskManager}.
      */
     CANCELLED
 }
@@ -0,0 +1,156 @@
+package io.luna.net;
+
+import io.netty.buffer.PooledByteBufAllocator;
+
+/**
+ * Holds settings parsed from the "network" section in {@code ./data/luna.json} file. Sizes and counts set to
+ * {@code 0} use the defaults chosen by Netty or the operating system.
+ *
+ * @author lare96
+ */
+public final class NetworkSettings {
+
+    private final boolean nativeTransport;
+    private final int bossThreads;
+    private final int workerThreads;
+    private final boolean tcpNoDelay;
+    private final int sendBufferSize;
+    private final int receiveBufferSize;
+    private final int writeBufferLowWaterMark;
+    private final int writeBufferHighWaterMark;
+    private final boolean allocatorPreferDirect;
+    private final int allocatorArenas;
+    private final int allocatorPageSize;
+    private final int allocatorMaxOrder;
+    private final boolean compositeEncoding;
+
+    /**
+     * If the native epoll transport should be used when it's available. Luna falls back to NIO on other platforms.
+     */
+    public boolean nativeTransport() {
+        return nativeTransport;
+    }
+
+    /**
+     * The amount of threads accepting new connections.
+     */
+    public int bossThreads() {
+        return bossThreads;
+    }
+
+    /**
+     * The amount of threads handling reads and writes for accepted connections.
+     */
+    public int workerThreads() {
+        return workerThreads;
+    }
+
+    /**
+     * If Nagle's algorithm should be disabled, so small messages are sent as soon as they're flushed.
+     */
+    public boolean tcpNoDelay() {
+        return tcpNoDelay;
+    }
+
+    /**
+     * The size of the socket send buffer ({@code SO_SNDBUF}), in bytes.
+     */
+    public int sendBufferSize() {
+        return sendBufferSize;
+    }
+
+    /**
+     * The size of the socket receive buffer ({@code SO_RCVBUF}), in bytes.
+     */
+    public int receiveBufferSize() {
+        return receiveBufferSize;
+    }
+
+    /**
+     * The amount of queued outbound bytes a channel becomes writable again at.
+     */
+    public int writeBufferLowWaterMark() {
+        return writeBufferLowWaterMark;
+    }
+
+    /**
+     * The amount of queued outbound bytes a channel stops being writable at.
+     */
+    public int writeBufferHighWaterMark() {
+        return writeBufferHighWaterMark;
+    }
+
+    /**
+     * If pooled buffers should be allocated off-heap.
+     */
+    public boolean allocatorPreferDirect() {
+        return allocatorPreferDirect;
+    }
+
+    /**
+     * The amount of heap and direct arenas in the buffer pool. More arenas means less contention between threads.
+     */
+    public int allocatorArenas() {
+        return allocatorArenas;
+    }
+
+    /**
+     * The size of a page in the buffer pool, in bytes. Must be a power of two of at least 4096.
+     */
+    public int allocatorPageSize() {
+        return allocatorPageSize;
+    }
+
+    /**
+     * The order of the chunks in the buffer pool. Chunks are {@code allocatorPageSize << allocatorMaxOrder} bytes.
+     */
+    public int allocatorMaxOrder() {
+        return allocatorMaxOrder;
+    }
+
+    /**
+     * If the messages sent to a player during a tick should be encoded into a single buffer as they're queued,
+     * instead of being encoded one by one on the event loop.
+     */
+    public boolean compositeEncoding() {
+        return compositeEncoding;
+    }
+
+    /**
+     * Creates a buffer pool using these settings.
+     *
+     * @return The buffer pool.
+     */
+    public PooledByteBufAllocator createAllocator() {
+        int heapArenas = allocatorArenas > 0 ? allocatorArenas : PooledByteBufAllocator.defaultNumHeapArena();
+        int directArenas = allocatorArenas > 0 ? allocatorArenas : PooledByteBufAllocator.defaultNumDirectArena();
+        int pageSize = allocatorPageSize > 0 ? allocatorPageSize : PooledByteBufAllocator.defaultPageSize();
+        int maxOrder = allocatorMaxOrder > 0 ? allocatorMaxOrder : PooledByteBufAllocator.defaultMaxOrder();
+        return new PooledByteBufAllocator(allocatorPreferDirect, heapArenas, directArenas, pageSize, maxOrder,
+                PooledByteBufAllocator.defaultSmallCacheSize(), PooledByteBufAllocator.defaultNormalCacheSize(),
+                PooledByteBufAllocator.defaultUseCacheForAllThreads());
+    }
+
+    /**
+     * To prevent public instantiation.
+     */
+    private NetworkSettings(boolean nativeTransport, int bossThreads, int workerThreads, boolean tcpNoDelay,
+                            int sendBufferSize, int receiveBufferSize, int writeBufferLowWaterMark,
+                            int writeBufferHighWaterMark, boolean allocatorPreferDirect, int allocatorArenas,
+                            int allocatorPageSize, int allocatorMaxOrder, boolean compositeEncoding) {
+        // Will never be called.
+        this.nativeTransport = nativeTransport;
+        this.bossThreads = bossThreads;
+        this.workerThreads = workerThreads;
+        this.tcpNoDelay = tcpNoDelay;
+        this.sendBufferSize = sendBufferSize;
+        this.receiveBufferSize = receiveBufferSize;
+        this.writeBufferLowWaterMark = writeBufferLowWaterMark;
+        this.writeBufferHighWaterMark = writeBufferHighWaterMark;
+        this.allocatorPreferDirect = allocatorPreferDirect;
+        this.allocatorArenas = allocatorArenas;
+        this.allocatorPageSize = allocatorPageSize;
+        this.allocatorMaxOrder = allocatorMaxOrder;
+        this.compositeEncoding = compositeEncoding;
+    }
+}
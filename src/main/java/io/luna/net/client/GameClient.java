@@ -3,18 +3,29 @@ package io.luna.net.client;
 import io.luna.game.LogoutService;
 import io.luna.game.LogoutService.LogoutRequest;
 import io.luna.game.model.mob.Player;
+import io.luna.net.codec.ByteMessage;
+import io.luna.net.codec.IsaacCipher;
+import io.luna.net.codec.MessageType;
+import io.luna.net.codec.game.GameMessageEncoder;
 import io.luna.net.msg.GameMessage;
 import io.luna.net.msg.GameMessageReader;
 import io.luna.net.msg.GameMessageRepository;
 import io.luna.net.msg.GameMessageWriter;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.apache.logging.log4j.util.Unbox.box;
+
 /**
  * Represents an active, post-login client connection responsible for encoding, decoding,
  * and queuing game messages between the server and a logged-in player.
@@ -27,8 +38,12 @@ import java.util.concurrent.atomic.AtomicBoolean;
  *
  * <p>
  * This class provides thread-safe message queuing and controlled flushing at the end of each
- * game tick. It also integrates with the {@link LogoutService} to ensure a clean player logout
- * sequence when the client disconnects.
+ * game tick. Outgoing messages are handed to the event loop as a single batch per flush, so a
+ * tick costs one event loop task per client no matter how many messages were queued. Clients
+ * created with an encryptor go further, and encode their messages straight into one pooled
+ * buffer per tick that's written as a whole. It also
+ * integrates with the {@link LogoutService} to ensure a clean player logout sequence when the
+ * client disconnects.
  * </p>
  *
  * @author lare96
@@ -49,15 +64,56 @@ public class GameClient extends Client<GameMessage> {
      */
     private static final Logger logger = LogManager.getLogger();
 
+    /**
+     * The buffer that message payloads are written to before being encoded, one per thread. Taken while in use, so
+     * messages queued while writing another message get their own buffer.
+     */
+    private static final ThreadLocal<ByteBuf> SCRATCH_BUFFER = ThreadLocal.withInitial(Unpooled::buffer);
+
     /**
      * A queue of decoded messages awaiting processing.
      */
     protected final Queue<GameMessage> pendingReadMessages = new ConcurrentLinkedQueue<>();
 
     /**
-     * A queue of encoded messages awaiting transmission to the client. Used to prevent pooled buffer leaks.
+     * A list of encoded messages awaiting the next flush. Replaced with a new list every flush.
+     */
+    private List<GameMessage> pendingWriteMessages = new ArrayList<>();
+
+    /**
+     * The amount of bytes queued since the last flush, including message headers.
+     */
+    private int pendingWriteBytes;
+
+    /**
+     * The encryptor, if this client encodes its own messages.
+     */
+    private final IsaacCipher encryptor;
+
+    /**
+     * The buffer messages are encoded into until the next flush, if this client encodes its own messages.
      */
-    protected final Queue<GameMessage> pendingWriteMessages = new ConcurrentLinkedQueue<>();
+    private ByteBuf pendingWriteBuffer;
+
+    /**
+     * The amount of messages in {@link #pendingWriteBuffer}.
+     */
+    private int pendingWriteBufferMessages;
+
+    /**
+     * The amount of messages sent by the last flush.
+     */
+    private volatile int lastFlushMessages;
+
+    /**
+     * The amount of bytes sent by the last flush.
+     */
+    private volatile int lastFlushBytes;
+
+    /**
+     * The largest amount of bytes sent by a single flush.
+     */
+    private volatile int peakFlushBytes;
 
     /**
      * The message repository that maps opcodes to their corresponding {@link GameMessageReader}.
@@ -85,9 +141,24 @@ public class GameClient extends Client<GameMessage> {
      * @param player The player instance associated with this client.
      */
     public GameClient(Channel channel, GameMessageRepository repository, Player player) {
+        this(channel, repository, player, null);
+    }
+
+    /**
+     * Creates a new {@link GameClient} bound to the given network channel and player, that encodes its own messages.
+     * The game encoder of the channel must no longer be given {@link GameMessage}s, as the encryptor is now used by
+     * this client.
+     *
+     * @param channel The Netty channel for this connection.
+     * @param repository The message repository used to decode incoming packets.
+     * @param player The player instance associated with this client.
+     * @param encryptor The encryptor, or {@code null} to leave encoding to the game encoder.
+     */
+    public GameClient(Channel channel, GameMessageRepository repository, Player player, IsaacCipher encryptor) {
         super(channel);
         this.repository = repository;
         this.player = player;
+        this.encryptor = encryptor;
     }
 
     @Override
@@ -137,20 +208,23 @@ public class GameClient extends Client<GameMessage> {
     /**
      * Queues an outgoing message for transmission to the client.
      * <p>
-     * The message is built using the specified {@link GameMessageWriter} and written to the
-     * channel asynchronously. Messages are not flushed immediately but will be sent collectively
-     * when {@link #flush()} is called at the end of the cycle.
+     * The message is built using the specified {@link GameMessageWriter} and added to the pending
+     * batch. Nothing is handed to the channel until {@link #flush()} is called at the end of the cycle.
      * </p>
      *
      * @param writer The writer responsible for building the message to send.
      */
     public void queue(GameMessageWriter writer) {
+        if (encryptor != null) {
+            encode(writer);
+            return;
+        }
         GameMessage msg = writer.toGameMessage(player);
         if (channel.isActive()) {
-            channel.eventLoop().execute(() -> {
-                channel.write(msg, channel.voidPromise());
+            synchronized (this) {
                 pendingWriteMessages.add(msg);
-            });
+                pendingWriteBytes += getEncodedSize(msg);
+            }
         } else {
             msg.release();
         }
@@ -164,35 +238,169 @@ public class GameClient extends Client<GameMessage> {
      * </p>
      */
     public void releasePendingWrites() {
-        for (; ; ) {
-            GameMessage msg = pendingWriteMessages.poll();
-            if (msg == null) {
-                break;
-            }
-            if(msg.getPayload().refCnt() > 0) {
-                msg.release();
-            }
+        List<GameMessage> batch;
+        ByteBuf buffer;
+        synchronized (this) {
+            batch = pendingWriteMessages;
+            buffer = pendingWriteBuffer;
+            pendingWriteMessages = new ArrayList<>();
+            pendingWriteBytes = 0;
+            pendingWriteBuffer = null;
+            pendingWriteBufferMessages = 0;
+        }
+        release(batch);
+        if (buffer != null) {
+            buffer.release();
         }
     }
 
     /**
-     * Flushes all queued messages to the client immediately.
+     * Flushes all queued messages to the client.
      * <p>
-     * This method should be called sparingly, as it triggers a full I/O flush
-     * on the underlying Netty channel. Normally invoked once per game cycle.
+     * The pending messages are handed to the event loop as one task, which writes them in order and
+     * flushes the channel once. Normally invoked once per game cycle.
      * </p>
      * <p>
      * If the channel is inactive, all pending messages are released instead.
      * </p>
      */
     public void flush() {
+        if (encryptor != null) {
+            flushEncoded();
+            return;
+        }
+        List<GameMessage> batch;
+        int bytes;
+        synchronized (this) {
+            batch = pendingWriteMessages;
+            bytes = pendingWriteBytes;
+            pendingWriteMessages = new ArrayList<>(batch.size());
+            pendingWriteBytes = 0;
+        }
+        lastFlushMessages = batch.size();
+        lastFlushBytes = bytes;
+        if (bytes > peakFlushBytes) {
+            peakFlushBytes = bytes;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
         if (channel.isActive()) {
             channel.eventLoop().execute(() -> {
-                channel.flush();
-                releasePendingWrites();
+                if (channel.isActive()) {
+                    for (GameMessage msg : batch) {
+                        channel.write(msg, channel.voidPromise());
+                    }
+                    channel.flush();
+                } else {
+                    release(batch);
+                }
             });
         } else {
-            releasePendingWrites();
+            release(batch);
+        }
+    }
+
+    /**
+     * Encodes the message built by {@code writer} into {@link #pendingWriteBuffer}, along with its header. The
+     * writer is always called, as writers can have side effects, but its message is dropped if the channel is
+     * inactive.
+     *
+     * @param writer The writer responsible for building the message to send.
+     */
+    private void encode(GameMessageWriter writer) {
+        ByteBuf scratch = SCRATCH_BUFFER.get();
+        SCRATCH_BUFFER.set(null);
+        if (scratch == null) {
+            scratch = Unpooled.buffer();
+        }
+        ByteMessage msg = null;
+        try {
+            try {
+                msg = writer.write(player, scratch.clear());
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            ByteBuf payload = msg.getBuffer();
+            checkArgument(msg.getType() != MessageType.RAW, "type == MessageType.RAW");
+            if (payload.refCnt() == 0) {
+                // The writer failed and released its buffer, nothing can be sent.
+                logger.warn("Dropping message {} for {}, its buffer was released.", box(msg.getOpcode()), player);
+                return;
+            }
+            if (channel.isActive()) {
+                // The opcode is encrypted here, so headers are only written for messages that will be sent.
+                synchronized (this) {
+                    if (pendingWriteBuffer == null) {
+                        pendingWriteBuffer = ByteMessage.pooledBuffer(Math.max(lastFlushBytes, 128));
+                    }
+                    GameMessageEncoder.encode(encryptor, msg.getOpcode(), msg.getType(), payload,
+                            pendingWriteBuffer);
+                    pendingWriteBufferMessages++;
+                }
+            }
+        } finally {
+            // Writers are free to return their own buffers.
+            if (msg != null && msg.getBuffer() != scratch && msg.refCnt() > 0) {
+                msg.releaseAll();
+            }
+            SCRATCH_BUFFER.set(scratch.refCnt() > 0 ? scratch : Unpooled.buffer());
+        }
+    }
+
+    /**
+     * Writes and flushes {@link #pendingWriteBuffer} in one event loop task.
+     */
+    private void flushEncoded() {
+        ByteBuf buffer;
+        synchronized (this) {
+            buffer = pendingWriteBuffer;
+            lastFlushMessages = pendingWriteBufferMessages;
+            pendingWriteBuffer = null;
+            pendingWriteBufferMessages = 0;
+        }
+        int bytes = buffer == null ? 0 : buffer.readableBytes();
+        lastFlushBytes = bytes;
+        if (bytes > peakFlushBytes) {
+            peakFlushBytes = bytes;
+        }
+        if (buffer == null) {
+            return;
+        }
+        if (channel.isActive()) {
+            channel.writeAndFlush(buffer, channel.voidPromise());
+        } else {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Releases every message in {@code batch} that hasn't already been released.
+     *
+     * @param batch The messages.
+     */
+    private void release(List<GameMessage> batch) {
+        for (GameMessage msg : batch) {
+            if (msg.getPayload().refCnt() > 0) {
+                msg.release();
+            }
+        }
+    }
+
+    /**
+     * Computes the amount of bytes {@code msg} will take up once encoded.
+     *
+     * @param msg The message.
+     * @return The encoded size.
+     */
+    private static int getEncodedSize(GameMessage msg) {
+        switch (msg.getType()) {
+            case VAR:
+                return msg.getSize() + 2;
+            case VAR_SHORT:
+                return msg.getSize() + 3;
+            default:
+                return msg.getSize() + 1;
         }
     }
 
@@ -216,6 +424,34 @@ public class GameClient extends Client<GameMessage> {
         return pendingLogout.get();
     }
 
+    /**
+     * @return The amount of messages waiting for the next flush.
+     */
+    public synchronized int getWriteQueueDepth() {
+        return encryptor != null ? pendingWriteBufferMessages : pendingWriteMessages.size();
+    }
+
+    /**
+     * @return The amount of messages sent by the last flush.
+     */
+    public int getLastFlushMessages() {
+        return lastFlushMessages;
+    }
+
+    /**
+     * @return The amount of bytes sent by the last flush, which is the amount sent during the last tick.
+     */
+    public int getLastFlushBytes() {
+        return lastFlushBytes;
+    }
+
+    /**
+     * @return The largest amount of bytes sent by a single flush.
+     */
+    public int getPeakFlushBytes() {
+        return peakFlushBytes;
+    }
+
     /**
      * @return The game message repository.
      */
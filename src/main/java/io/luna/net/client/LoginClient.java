@@ -6,6 +6,7 @@ import io.luna.game.GameSettings.PasswordStrength;
 import io.luna.game.model.World;
 import io.luna.game.model.mob.Player;
 import io.luna.game.model.mob.PlayerCredentials;
+import io.luna.game.model.mob.PlayerRights;
 import io.luna.game.persistence.PlayerData;
 import io.luna.game.LoginService;
 import io.luna.game.LoginService.LoginRequest;
@@ -86,6 +87,24 @@ public class LoginClient extends Client<LoginRequestMessage> {
         }
     }
 
+    /**
+     * Tells the client to wait and retry logging in, then disconnects it. The client counts down {@code seconds} before
+     * retrying on its own.
+     *
+     * @param seconds The amount of seconds to wait.
+     */
+    public void sendLoginDelay(int seconds) {
+        var message = new LoginResponseMessage(LoginResponse.TRANSFER_DELAY, PlayerRights.PLAYER, false, seconds);
+        channel.writeAndFlush(message).addListener(ChannelFutureListener.CLOSE);
+    }
+
+    /**
+     * @return {@code true} if the client is still connected.
+     */
+    public boolean isConnected() {
+        return channel.isActive();
+    }
+
     /**
      * Determines what the login response should be once the player's data is loaded.
      *
@@ -121,7 +140,10 @@ public class LoginClient extends Client<LoginRequestMessage> {
             sendLoginResponse(player, LoginResponse.ACCOUNT_ONLINE);
             return false;
         } else {
-            var gameClient = new GameClient(channel, messageRepository, player);
+            // Clients encoding their own messages take over the encryptor from the game encoder.
+            var gameClient = Luna.settings().network().compositeEncoding() ?
+                    new GameClient(channel, messageRepository, player, message.getEncryptor()) :
+                    new GameClient(channel, messageRepository, player);
             channel.attr(KEY).set(gameClient);
             player.setClient(gameClient);
 
@@ -1,6 +1,7 @@
 package io.luna.net.codec;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.DefaultByteBufHolder;
 import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.Unpooled;
@@ -8,6 +9,7 @@ import io.netty.buffer.Unpooled;
 import java.nio.charset.StandardCharsets;
 
 import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
 
 /**
  * A {@code ByteMessage} is a wrapper around a Netty {@link io.netty.buffer.ByteBuf} tailored for the RuneScape protocol.
@@ -36,6 +38,11 @@ public final class ByteMessage extends DefaultByteBufHolder {
      */
     private static final int[] BIT_MASK = new int[32];
 
+    /**
+     * The buffer pool that messages are allocated from.
+     */
+    private static volatile ByteBufAllocator allocator = PooledByteBufAllocator.DEFAULT;
+
     /**
      * Creates a raw message with a specified initial size.
      *
@@ -93,7 +100,16 @@ public final class ByteMessage extends DefaultByteBufHolder {
      * @return A new pooled {@link ByteBuf}.
      */
     public static ByteBuf pooledBuffer(int size) {
-        return PooledByteBufAllocator.DEFAULT.buffer(size);
+        return allocator.buffer(size);
+    }
+
+    /**
+     * Sets the buffer pool that messages are allocated from, so they share the pool used by the network.
+     *
+     * @param newAllocator The new buffer pool.
+     */
+    public static void setAllocator(ByteBufAllocator newAllocator) {
+        allocator = requireNonNull(newAllocator);
     }
 
     /**
@@ -8,12 +8,32 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
 
 /**
- * A {@link MessageToByteEncoder} implementation that encodes game messages.
+ * A {@link MessageToByteEncoder} implementation that encodes game messages. Clients that encode their own messages
+ * pass already encoded {@link ByteBuf}s through it, see {@link #encode(IsaacCipher, int, MessageType, ByteBuf, ByteBuf)}.
  *
  * @author lare96
  */
 public final class GameMessageEncoder extends MessageToByteEncoder<GameMessage> {
 
+    /**
+     * Writes a game message to {@code out}, prefixed with its encrypted opcode and size.
+     *
+     * @param encryptor The encryptor.
+     * @param opcode The opcode.
+     * @param type The message type.
+     * @param payload The payload. Its readable bytes are written.
+     * @param out The buffer to write to.
+     */
+    public static void encode(IsaacCipher encryptor, int opcode, MessageType type, ByteBuf payload, ByteBuf out) {
+        out.writeByte(opcode + encryptor.nextInt());
+        if (type == MessageType.VAR) {
+            out.writeByte(payload.readableBytes());
+        } else if (type == MessageType.VAR_SHORT) {
+            out.writeShort(payload.readableBytes());
+        }
+        out.writeBytes(payload);
+    }
+
     /**
      * The encryptor.
      */
@@ -31,13 +51,7 @@ public final class GameMessageEncoder extends MessageToByteEncoder<GameMessage>
     @Override
     public void encode(ChannelHandlerContext ctx, GameMessage msg, ByteBuf out) throws Exception {
         try {
-            out.writeByte(msg.getOpcode() + encryptor.nextInt());
-            if (msg.getType() == MessageType.VAR) {
-                out.writeByte(msg.getSize());
-            } else if (msg.getType() == MessageType.VAR_SHORT) {
-                out.writeShort(msg.getSize());
-            }
-            out.writeBytes(msg.getPayload().getBuffer());
+            encode(encryptor, msg.getOpcode(), msg.getType(), msg.getPayload().getBuffer(), out);
         } finally {
             msg.getPayload().releaseAll();
         }
@@ -23,7 +23,8 @@ public enum LoginResponse {
     COULD_NOT_COMPLETE_LOGIN(13),
     SERVER_BEING_UPDATED(14),
     LOGIN_ATTEMPTS_EXCEEDED(16),
-    MEMBERS_ONLY_AREA(17);
+    MEMBERS_ONLY_AREA(17),
+    TRANSFER_DELAY(21);
 
     /**
      * The opcode.
@@ -25,6 +25,11 @@ public final class LoginResponseMessage {
      */
     private final boolean suspectedBot;
 
+    /**
+     * The amount of seconds the client should wait before retrying, used with {@link LoginResponse#TRANSFER_DELAY}.
+     */
+    private final int delay;
+
     /**
      * Creates a new {@link LoginResponseMessage}.
      *
@@ -33,9 +38,22 @@ public final class LoginResponseMessage {
      * @param suspectedBot If the server suspects the {@link Client} is a bot.
      */
     public LoginResponseMessage(LoginResponse response, PlayerRights rights, boolean suspectedBot) {
+        this(response, rights, suspectedBot, 0);
+    }
+
+    /**
+     * Creates a new {@link LoginResponseMessage}.
+     *
+     * @param response The login response.
+     * @param rights The authority level.
+     * @param suspectedBot If the server suspects the {@link Client} is a bot.
+     * @param delay The amount of seconds the client should wait before retrying.
+     */
+    public LoginResponseMessage(LoginResponse response, PlayerRights rights, boolean suspectedBot, int delay) {
         this.response = response;
         this.rights = rights;
         this.suspectedBot = suspectedBot;
+        this.delay = delay;
     }
 
     /**
@@ -68,4 +86,11 @@ public final class LoginResponseMessage {
     public boolean isSuspectedBot() {
         return suspectedBot;
     }
+
+    /**
+     * @return The amount of seconds the client should wait before retrying.
+     */
+    public int getDelay() {
+        return delay;
+    }
 }
@@ -11,9 +11,11 @@ import io.luna.net.msg.GameMessageWriter;
 import io.netty.buffer.ByteBuf;
 
 import java.util.Collection;
+import java.util.List;
 
 /**
- * A {@link GameMessageWriter} implementation that adds collection of stationary entities to a chunk.
+ * A {@link GameMessageWriter} implementation that adds collection of stationary entities to a chunk. Updates that are
+ * the same for every viewer can be passed already encoded, and are copied into the message as they are.
  *
  * @author lare96
  */
@@ -29,6 +31,11 @@ public final class GroupedEntityMessageWriter extends GameMessageWriter {
      */
     private final Position placementPosition;
 
+    /**
+     * The already encoded messages to write.
+     */
+    private final List<ByteBuf> encoded;
+
     /**
      * The messages to write.
      */
@@ -42,26 +49,54 @@ public final class GroupedEntityMessageWriter extends GameMessageWriter {
      * @param messages The messages to write.
      */
     public GroupedEntityMessageWriter(Position basePosition, ChunkRepository placementChunkRepository, Collection<ChunkUpdatableMessage> messages) {
+        this(basePosition, placementChunkRepository, List.of(), messages);
+    }
+
+    /**
+     * Creates a new {@link GroupedEntityMessageWriter}.
+     *
+     * @param basePosition The base position.
+     * @param placementChunkRepository The placement position.
+     * @param encoded The already encoded messages to write, from {@link #encode(ChunkUpdatableMessage, ByteBuf)}.
+     * @param messages The messages to write.
+     */
+    public GroupedEntityMessageWriter(Position basePosition, ChunkRepository placementChunkRepository,
+                                      List<ByteBuf> encoded, Collection<ChunkUpdatableMessage> messages) {
         this.basePosition = basePosition;
         this.placementPosition = placementChunkRepository.getChunk().getAbsPosition();
+        this.encoded = encoded;
         this.messages = messages;
     }
 
+    /**
+     * Encodes a message the way it's written within a grouped message, so the result can be shared between
+     * viewers. Chunk update messages are the same for every player.
+     *
+     * @param message The message.
+     * @param out The buffer to write the encoded message to.
+     */
+    public static void encode(ChunkUpdatableMessage message, ByteBuf out) {
+        GameMessageWriter subMsg = (GameMessageWriter) message;
+        ByteBuf pooledBuf = ByteMessage.pooledBuffer();
+        try {
+            ByteMessage buf = subMsg.write(null, pooledBuf);
+            out.writeByte(buf.getOpcode());
+            out.writeBytes(buf.getBuffer(), 0, buf.getBuffer().writerIndex());
+        } finally {
+            pooledBuf.release(pooledBuf.refCnt());
+        }
+    }
+
     @Override
     public ByteMessage write(Player player, ByteBuf buffer) {
         ByteMessage mainMsg = ByteMessage.message(183, MessageType.VAR_SHORT, buffer);
         mainMsg.put(placementPosition.getLocalX(basePosition));
         mainMsg.put(placementPosition.getLocalY(basePosition), ValueType.ADD);
+        for (ByteBuf encodedBuf : encoded) {
+            mainMsg.putBytes(encodedBuf);
+        }
         for (ChunkUpdatableMessage updatableMessage : messages) {
-            GameMessageWriter subMsg = (GameMessageWriter) updatableMessage;
-            ByteBuf pooledBuf = ByteMessage.pooledBuffer();
-            try {
-                ByteMessage buf = subMsg.write(player, pooledBuf);
-                mainMsg.put(buf.getOpcode());
-                mainMsg.putBytes(buf);
-            } finally {
-                pooledBuf.release(pooledBuf.refCnt());
-            }
+            encode(updatableMessage, mainMsg.getBuffer());
         }
         return mainMsg;
     }
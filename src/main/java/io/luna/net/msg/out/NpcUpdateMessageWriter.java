@@ -59,11 +59,10 @@ public final class NpcUpdateMessageWriter extends GameMessageWriter {
             }
 
             ChunkManager chunks = player.getWorld().getChunks();
-            int npcsAdded = 0;
-
-            for (Npc other : chunks.findUpdateMobs(player, Npc.class)) {
-                if (npcsAdded == 15 || player.getUpdateNpcs().size() >= 255) {
-                    break;
+            int startSize = player.getUpdateNpcs().size();
+            chunks.forEachUpdateMob(player, Npc.class, other -> {
+                if (player.getUpdateNpcs().size() - startSize == 15 || player.getUpdateNpcs().size() >= 255) {
+                    return false;
                 }
                 if (other.isViewableFrom(player) &&
                         other.getState() == EntityState.ACTIVE &&
@@ -71,9 +70,9 @@ public final class NpcUpdateMessageWriter extends GameMessageWriter {
                     player.getLocalNpcs().add(other);
                     addNpc(player, other, msg);
                     blockSet.encode(other, blockMsg, UpdateState.ADD_LOCAL);
-                    npcsAdded++;
                 }
-            }
+                return true;
+            });
             if (blockMsg.getBuffer().writerIndex() > 0) {
                 msg.putBits(14, 16383);
                 msg.endBitAccess();
@@ -66,17 +66,16 @@ public final class PlayerUpdateMessageWriter extends GameMessageWriter {
             }
 
             ChunkManager chunks = player.getWorld().getChunks();
-            int playersAdded = 0;
-            for (Player other : chunks.findUpdateMobs(player, Player.class)) {
-                if (playersAdded == 15 || player.getUpdatePlayers().size() >= 255) {
-                    break;
+            int startSize = player.getUpdatePlayers().size();
+            chunks.forEachUpdateMob(player, Player.class, other -> {
+                if (player.getUpdatePlayers().size() - startSize == 15 || player.getUpdatePlayers().size() >= 255) {
+                    return false;
                 }
                 if (player.equals(other) || other.getState() != EntityState.ACTIVE) {
-                    continue;
+                    return true;
                 }
 
                 if (other.getPosition().isViewable(player.getPosition()) && player.getUpdatePlayers().add(other)) {
-                    playersAdded++;
                     player.getLocalPlayers().add(other);
                     if (other.isBot()) {
                         Bot otherBot = other.asBot();
@@ -86,7 +85,8 @@ public final class PlayerUpdateMessageWriter extends GameMessageWriter {
                     addPlayer(msg, player, other);
                     blockSet.encode(other, blockMsg, UpdateState.ADD_LOCAL);
                 }
-            }
+                return true;
+            });
 
             if (blockMsg.getBuffer().readableBytes() > 0) {
                 msg.putBits(11, 2047);
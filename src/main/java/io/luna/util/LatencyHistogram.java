@@ -0,0 +1,173 @@
+package io.luna.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A fixed-size, log-linear histogram for recording latencies in nanoseconds. Values are bucketed by their highest
+ * set bit and then split into {@code 32} linear sub-buckets, in the same way as an HDR histogram with roughly two
+ * significant digits. This keeps the relative error of every percentile under ~3% while using a constant amount of
+ * memory and no allocations when recording.
+ * <p>
+ * Recording is thread-safe. Reading percentiles while other threads are recording will produce an approximate,
+ * but never corrupt, snapshot.
+ *
+ * @author lare96
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The amount of bits used for linear sub-buckets.
+     */
+    private static final int SUB_BUCKET_BITS = 5;
+
+    /**
+     * The amount of linear sub-buckets within every power of two.
+     */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The total amount of buckets, enough to cover every non-negative {@code long}.
+     */
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    /**
+     * The recorded counts per bucket.
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * The total amount of recorded values.
+     */
+    private final AtomicLong totalCount = new AtomicLong();
+
+    /**
+     * The sum of all recorded values.
+     */
+    private final AtomicLong totalSum = new AtomicLong();
+
+    /**
+     * The largest recorded value.
+     */
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a single value.
+     *
+     * @param nanos The value, in nanoseconds. Negative values are recorded as {@code 0}.
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(indexFor(value));
+        totalCount.incrementAndGet();
+        totalSum.addAndGet(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Computes the value at {@code percentile}. The returned value is the highest value equivalent to the bucket
+     * the percentile falls into, capped at {@link #getMax()}.
+     *
+     * @param percentile The percentile, from {@code 0} to {@code 100}.
+     * @return The value at the percentile, in nanoseconds.
+     */
+    public long getPercentile(double percentile) {
+        checkArgument(percentile >= 0.0 && percentile <= 100.0, "percentile must be within [0, 100]");
+        long count = totalCount.get();
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            seen += counts.get(index);
+            if (seen >= target) {
+                return Math.min(highestValueFor(index), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * @return The largest recorded value, in nanoseconds.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return The mean of all recorded values, in nanoseconds.
+     */
+    public long getMean() {
+        long count = totalCount.get();
+        return count == 0 ? 0 : totalSum.get() / count;
+    }
+
+    /**
+     * @return The total amount of recorded values.
+     */
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    /**
+     * Clears all recorded values.
+     */
+    public void reset() {
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            counts.set(index, 0);
+        }
+        totalCount.set(0);
+        totalSum.set(0);
+        max.reset();
+    }
+
+    /**
+     * Returns a short, human-readable summary of this histogram in milliseconds.
+     */
+    @Override
+    public String toString() {
+        return String.format("count=%d, mean=%s, p50=%s, p99=%s, max=%s", getCount(), formatMillis(getMean()),
+                formatMillis(getPercentile(50.0)), formatMillis(getPercentile(99.0)), formatMillis(getMax()));
+    }
+
+    /**
+     * Formats {@code nanos} as milliseconds with microsecond precision.
+     *
+     * @param nanos The value to format.
+     * @return The formatted value.
+     */
+    public static String formatMillis(long nanos) {
+        return String.format("%.3fms", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /**
+     * Determines which bucket {@code value} belongs in.
+     */
+    private static int indexFor(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * Determines the highest value that would be placed in bucket {@code index}.
+     */
+    private static long highestValueFor(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        long lowest = (subBucket + SUB_BUCKET_COUNT) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
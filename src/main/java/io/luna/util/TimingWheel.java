@@ -0,0 +1,268 @@
+package io.luna.util;
+
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * A hierarchical timing wheel that holds values until a deadline tick is reached. Every level has {@code 64} slots,
+ * and each slot of a level spans as many ticks as the entire level below it. Values are placed in the lowest level
+ * that can hold their deadline and moved down as time approaches it, so advancing one tick only touches the values
+ * that are due, along with an occasional cascade of a single higher slot.
+ * <p>
+ * Scheduling and cancelling are both constant time. Values scheduled further ahead than the wheel can hold are kept
+ * in the highest level and cascaded until they fit.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <T> The value type.
+ * @author lare96
+ */
+public final class TimingWheel<T> {
+
+    /**
+     * A value scheduled within a {@link TimingWheel}.
+     *
+     * @param <T> The value type.
+     */
+    public static final class Entry<T> {
+
+        /**
+         * The value.
+         */
+        private final T value;
+
+        /**
+         * The tick the value is due.
+         */
+        private final long deadline;
+
+        /**
+         * The previous entry within the same slot.
+         */
+        private Entry<T> previous;
+
+        /**
+         * The next entry within the same slot.
+         */
+        private Entry<T> next;
+
+        /**
+         * The level of the slot holding this entry, or {@code -1} if it isn't scheduled.
+         */
+        private int level = -1;
+
+        /**
+         * The slot holding this entry.
+         */
+        private int slot;
+
+        /**
+         * Creates a new {@link Entry}.
+         *
+         * @param value The value.
+         * @param deadline The tick the value is due.
+         */
+        private Entry(T value, long deadline) {
+            this.value = value;
+            this.deadline = deadline;
+        }
+
+        /**
+         * @return {@code true} if this entry is still waiting for its deadline.
+         */
+        public boolean isScheduled() {
+            return level != -1;
+        }
+
+        /**
+         * @return The value.
+         */
+        public T getValue() {
+            return value;
+        }
+
+        /**
+         * @return The tick the value is due.
+         */
+        public long getDeadline() {
+            return deadline;
+        }
+    }
+
+    /**
+     * The amount of bits used to index the slots of a level.
+     */
+    private static final int SLOT_BITS = 6;
+
+    /**
+     * The amount of slots in every level.
+     */
+    private static final int SLOT_COUNT = 1 << SLOT_BITS;
+
+    /**
+     * The mask used to index the slots of a level.
+     */
+    private static final int SLOT_MASK = SLOT_COUNT - 1;
+
+    /**
+     * The amount of levels, enough for {@code 2^24} ticks.
+     */
+    private static final int LEVEL_COUNT = 4;
+
+    /**
+     * The first entry of every slot, by level.
+     */
+    @SuppressWarnings("unchecked")
+    private final Entry<T>[][] slots = (Entry<T>[][]) new Entry<?>[LEVEL_COUNT][SLOT_COUNT];
+
+    /**
+     * The current tick.
+     */
+    private long tick;
+
+    /**
+     * The amount of scheduled entries.
+     */
+    private int size;
+
+    /**
+     * Schedules {@code value} to be due on {@code deadline}. Deadlines that have already passed are due on the next
+     * tick.
+     *
+     * @param value The value.
+     * @param deadline The tick the value is due.
+     * @return The scheduled entry, used to cancel it.
+     */
+    public Entry<T> schedule(T value, long deadline) {
+        Entry<T> entry = new Entry<>(value, Math.max(deadline, tick + 1));
+        insert(entry);
+        size++;
+        return entry;
+    }
+
+    /**
+     * Cancels {@code entry}, if it's still scheduled.
+     *
+     * @param entry The entry.
+     * @return {@code true} if the entry was cancelled.
+     */
+    public boolean cancel(Entry<T> entry) {
+        if (!entry.isScheduled()) {
+            return false;
+        }
+        unlink(entry);
+        size--;
+        return true;
+    }
+
+    /**
+     * Advances the wheel by one tick, and passes every value that became due to {@code action}. The action may
+     * schedule and cancel other entries.
+     *
+     * @param action The action.
+     */
+    public void advance(Consumer<T> action) {
+        tick++;
+        cascade(1);
+
+        Entry<T>[] firstLevel = slots[0];
+        int index = (int) (tick & SLOT_MASK);
+        for (; ; ) {
+            Entry<T> entry = firstLevel[index];
+            if (entry == null) {
+                break;
+            }
+            checkState(entry.deadline == tick, "Entry is due on tick %s, not %s.", entry.deadline, tick);
+            unlink(entry);
+            size--;
+            action.accept(entry.value);
+        }
+    }
+
+    /**
+     * @return The current tick.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * @return The amount of scheduled entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Moves every entry of the current slot in {@code level} down into lower levels, if the tick has just reached
+     * that slot.
+     *
+     * @param level The level.
+     */
+    private void cascade(int level) {
+        if (level == LEVEL_COUNT || (tick & ((1L << SLOT_BITS * level) - 1)) != 0) {
+            return;
+        }
+        // Higher levels go first, so their entries can move down into this slot before it's emptied.
+        cascade(level + 1);
+
+        int index = (int) (tick >>> SLOT_BITS * level & SLOT_MASK);
+        Entry<T> entry = slots[level][index];
+        slots[level][index] = null;
+        while (entry != null) {
+            Entry<T> next = entry.next;
+            entry.previous = null;
+            entry.next = null;
+            insert(entry);
+            entry = next;
+        }
+    }
+
+    /**
+     * Links {@code entry} into the slot of the lowest level able to hold its deadline.
+     *
+     * @param entry The entry.
+     */
+    private void insert(Entry<T> entry) {
+        long delay = entry.deadline - tick;
+        int level = 0;
+        while (level < LEVEL_COUNT - 1 && delay >= 1L << SLOT_BITS * (level + 1)) {
+            level++;
+        }
+
+        int shift = SLOT_BITS * level;
+        long slotTick = delay >>> shift >= SLOT_COUNT ?
+                // Too far ahead to fit, wait for the slot furthest away and try again.
+                (tick >>> shift) - 1 : entry.deadline >>> shift;
+        int index = (int) (slotTick & SLOT_MASK);
+
+        Entry<T> head = slots[level][index];
+        entry.next = head;
+        if (head != null) {
+            head.previous = entry;
+        }
+        slots[level][index] = entry;
+        entry.level = level;
+        entry.slot = index;
+    }
+
+    /**
+     * Unlinks {@code entry} from its slot.
+     *
+     * @param entry The entry.
+     */
+    private void unlink(Entry<T> entry) {
+        if (entry.previous != null) {
+            entry.previous.next = entry.next;
+        } else {
+            slots[entry.level][entry.slot] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.previous = entry.previous;
+        }
+        entry.previous = null;
+        entry.next = null;
+        entry.level = -1;
+    }
+}
@@ -153,3 +153,60 @@ cmd("animation", RIGHTS_DEV) {
     val id = asInt(0)
     plr.animation(Animation(id))
 }
+
+/**
+ * A command that displays tick profiler timings and writes them to a file. Use "reset" to clear all timings.
+ */
+cmd("tickprofile", RIGHTS_DEV) {
+    val profiler = world.profiler
+    if (args.isNotEmpty() && args[0] == "reset") {
+        profiler.reset()
+        plr.sendMessage("Tick profiler timings have been reset.")
+        return@cmd
+    }
+    val summary = profiler.summary()
+    summary.forEach { plr.sendMessage(it) }
+    gameService.submit {
+        val path = profiler.dump(summary)
+        gameService.sync { plr.sendMessage("Tick profile written to $path.") }
+    }
+}
+
+/**
+ * A command that displays pathfinding service metrics. Use "reset" to clear all metrics.
+ */
+cmd("pathstats", RIGHTS_DEV) {
+    val service = world.pathfindingService
+    if (args.isNotEmpty() && args[0] == "reset") {
+        service.reset()
+        plr.sendMessage("Pathfinding metrics have been reset.")
+        return@cmd
+    }
+    service.summary().forEach { plr.sendMessage(it) }
+}
+
+/**
+ * A command that displays persistence service metrics. Use "reset" to clear all metrics.
+ */
+cmd("savestats", RIGHTS_DEV) {
+    val service = world.persistenceService
+    if (args.isNotEmpty() && args[0] == "reset") {
+        service.reset()
+        plr.sendMessage("Persistence metrics have been reset.")
+        return@cmd
+    }
+    service.summary().forEach { plr.sendMessage(it) }
+}
+
+/**
+ * A command that displays login service metrics. Use "reset" to clear all metrics.
+ */
+cmd("loginstats", RIGHTS_DEV) {
+    val service = world.loginService
+    if (args.isNotEmpty() && args[0] == "reset") {
+        service.reset()
+        plr.sendMessage("Login metrics have been reset.")
+        return@cmd
+    }
+    service.summary().forEach { plr.sendMessage(it) }
+}
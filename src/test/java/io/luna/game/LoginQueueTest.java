@@ -0,0 +1,40 @@
+package io.luna.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * A test that ensures that {@link LoginQueue} takes turns between IP addresses.
+ *
+ * @author lare96
+ */
+public final class LoginQueueTest {
+
+    /**
+     * Test that a burst from one address doesn't delay other addresses.
+     */
+    @Test
+    public void fairness() {
+        LoginQueue<String> queue = new LoginQueue<>();
+        queue.add("a", "a1");
+        queue.add("a", "a2");
+        queue.add("a", "a3");
+        queue.add("b", "b1");
+        queue.add("c", "c1");
+        queue.add("c", "c2");
+        assertEquals(6, queue.size());
+
+        assertEquals("a1", queue.poll());
+        assertEquals("b1", queue.poll());
+        assertEquals("c1", queue.poll());
+        assertEquals("a2", queue.poll());
+        queue.add("b", "b2");
+        assertEquals("c2", queue.poll());
+        assertEquals("a3", queue.poll());
+        assertEquals("b2", queue.poll());
+        assertNull(queue.poll());
+        assertEquals(0, queue.size());
+    }
+}
@@ -1,7 +1,12 @@
 package io.luna.game.model;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import io.luna.util.GsonUtils;
 import org.junit.jupiter.api.Test;
 
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 
@@ -22,6 +27,12 @@ final class PositionTest {
         assertThrows(IllegalArgumentException.class, () -> new Position(1, -1, 1));
     }
 
+    @Test
+    void invalidUpperX() {
+        assertThrows(IllegalArgumentException.class, () -> new Position(Position.MAX_COORDINATE + 1, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> Position.of(Position.MAX_COORDINATE + 1, 1, 1));
+    }
+
     @Test
     void invalidUpperZ() {
         assertThrows(IllegalArgumentException.class, () -> new Position(1, 1, 4),
@@ -87,4 +98,32 @@ final class PositionTest {
         computed = startPosition.computeLongestDistance(endPosition);
         assertEquals(computed, farthestCoordinate);
     }
+
+    @Test
+    void testPacking() {
+        Position position = new Position(Position.MAX_COORDINATE, 3218, 3);
+        assertEquals(Position.MAX_COORDINATE, position.getX());
+        assertEquals(3218, position.getY());
+        assertEquals(3, position.getZ());
+        assertEquals(position, Position.of(position.getPacked()));
+        assertEquals(position.hashCode(), Position.of(Position.MAX_COORDINATE, 3218, 3).hashCode());
+        assertNotEquals(position, position.setZ(2));
+
+        // repeated requests for the same tile share an instance
+        assertSame(Position.of(3222, 3218, 0), Position.of(3222, 3218, 0));
+    }
+
+    @Test
+    void testJson() {
+        // existing saves and settings use the x, y, and z coordinates
+        assertEquals(new Position(3093, 3244, 1),
+                GsonUtils.GSON.fromJson("{\"x\": 3093, \"y\": 3244, \"z\": 1}", Position.class));
+        assertEquals(new Position(3093, 3244), GsonUtils.GSON.fromJson("{\"x\": 3093, \"y\": 3244}", Position.class));
+
+        Position position = new Position(3222, 3218, 2);
+        JsonObject json = GsonUtils.GSON.toJsonTree(position).getAsJsonObject();
+        assertEquals(Set.of("x", "y", "z"), json.keySet());
+        assertEquals(position, GsonUtils.GSON.fromJson(json, Position.class));
+        assertEquals(position, new Gson().fromJson(new Gson().toJson(position), Position.class));
+    }
 }
@@ -3,10 +3,16 @@ package io.luna.game.model.chunk;
 import io.luna.game.model.Entity;
 import io.luna.game.model.EntityType;
 import io.luna.game.model.World;
+import io.luna.game.model.collision.CollisionFlag;
+import io.luna.game.model.collision.CollisionMatrix;
+import io.luna.game.model.collision.CollisionSnapshot;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -58,4 +64,29 @@ public final class ChunkRepositoryTest {
             assertNotNull(repository.getAll(type));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Test that collision snapshots only change when published, and share planes that didn't change.
+     */
+    @Test
+    public void testCollisionSnapshot() {
+        ChunkRepository repository = new ChunkRepository(mock(World.class), new Chunk(1, 1));
+        CollisionMatrix matrix = repository.getMatrices()[1];
+        matrix.flag(2, 3, CollisionFlag.MOB_NORTH);
+        assertTrue(repository.collisionChanged(1));
+        assertFalse(repository.collisionChanged(1));
+        assertEquals(0, repository.getCollisionSnapshot().get(2, 3, 1));
+
+        repository.snapshotCollisionMap(1, false);
+        CollisionSnapshot first = repository.getCollisionSnapshot();
+        assertEquals(1, first.getEpoch());
+        assertEquals(CollisionFlag.MOB_NORTH.asShort(), first.get(2, 3, 1));
+
+        matrix.reset();
+        repository.collisionChanged(1);
+        assertEquals(CollisionFlag.MOB_NORTH.asShort(), first.get(2, 3, 1));
+        repository.snapshotCollisionMap(2, false);
+        assertEquals(0, repository.getCollisionSnapshot().get(2, 3, 1));
+        assertEquals(CollisionFlag.MOB_NORTH.asShort(), first.get(2, 3, 1));
+    }
+}
@@ -0,0 +1,45 @@
+package io.luna.game.model.collision;
+
+import io.luna.game.model.World;
+import io.luna.game.model.chunk.ChunkManager;
+import io.luna.game.model.chunk.ChunkRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * A test that ensures that {@link CollisionCommandBuffer} applies operations correctly.
+ *
+ * @author lare96
+ */
+public final class CollisionCommandBufferTest {
+
+    /**
+     * Test that operations on the same tile keep their order when operations on other chunks are interleaved.
+     */
+    @Test
+    public void testOrdering() {
+        ChunkManager chunks = new ChunkManager(mock(World.class));
+        CollisionCommandBuffer buffer = new CollisionCommandBuffer();
+        int north = CollisionFlag.MOB_NORTH.asShort();
+        int east = CollisionFlag.MOB_EAST.asShort();
+
+        buffer.add(3222, 3218, 0, false, north | east);
+        buffer.add(3300, 3300, 1, false, east);
+        buffer.add(3222, 3218, 0, true, north);
+        buffer.add(3215, 3218, 0, false, north);
+        Set<ChunkRepository> changed = new HashSet<>();
+        buffer.flush(chunks, changed);
+
+        assertTrue(buffer.isEmpty());
+        assertEquals(3, changed.size());
+        assertEquals(east, chunks.load(3222 / 8 - 6, 3218 / 8 - 6).getMatrices()[0].get(3222 % 8, 3218 % 8));
+        assertEquals(east, chunks.load(3300 / 8 - 6, 3300 / 8 - 6).getMatrices()[1].get(3300 % 8, 3300 % 8));
+        assertEquals(north, chunks.load(3215 / 8 - 6, 3218 / 8 - 6).getMatrices()[0].get(3215 % 8, 3218 % 8));
+    }
+}
@@ -0,0 +1,42 @@
+package io.luna.game.model.collision;
+
+import io.luna.game.model.Position;
+import io.luna.game.model.chunk.Chunk;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A test that ensures that functions within the {@link TileBitSet} class are working correctly.
+ *
+ * @author lare96
+ */
+public final class TileBitSetTest {
+
+    /**
+     * Test that tiles are only visited by the chunk they're in.
+     */
+    @Test
+    public void testForEach() {
+        TileBitSet set = new TileBitSet();
+        set.set(3222, 3218, 1);
+        set.set(3223, 3223, 3);
+        set.set(3224, 3218, 0);
+        assertTrue(set.get(3222, 3218, 1));
+        assertFalse(set.get(3222, 3218, 0));
+        assertEquals(1, set.getRegionCount());
+
+        List<Position> visited = new ArrayList<>();
+        set.forEach(new Position(3222, 3218).getChunk(), (x, y, z) -> visited.add(new Position(x, y, z)));
+        assertEquals(List.of(new Position(3222, 3218, 1), new Position(3223, 3223, 3)), visited);
+
+        visited.clear();
+        set.forEach(new Chunk(new Position(3224, 3218)), (x, y, z) -> visited.add(new Position(x, y, z)));
+        assertEquals(List.of(new Position(3224, 3218, 0)), visited);
+    }
+}
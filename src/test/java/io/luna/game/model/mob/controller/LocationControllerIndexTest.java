@@ -0,0 +1,118 @@
+package io.luna.game.model.mob.controller;
+
+import com.google.common.collect.ImmutableSet;
+import io.luna.game.model.Locatable;
+import io.luna.game.model.Position;
+import io.luna.game.model.Region;
+import io.luna.game.model.area.Area;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A test that ensures that {@link LocationControllerIndex} finds exactly the controllers a position is inside of.
+ *
+ * @author lare96
+ */
+public final class LocationControllerIndexTest {
+
+    /**
+     * A controller tracking a fixed set of locatables.
+     */
+    private static class TestController extends PlayerLocationController {
+
+        /**
+         * The locatables.
+         */
+        private final ImmutableSet<Locatable> locatables;
+
+        /**
+         * Creates a new {@link TestController}.
+         */
+        TestController(Locatable... locatables) {
+            this.locatables = ImmutableSet.copyOf(locatables);
+        }
+
+        @Override
+        public ImmutableSet<Locatable> computeLocations() {
+            return locatables;
+        }
+    }
+
+    /**
+     * A controller tracking a box and a region.
+     */
+    private static final class BoxController extends TestController {
+        BoxController() {
+            super(Area.of(3200, 3200, 3211, 3203), new Region(new Position(3230, 3230)));
+        }
+    }
+
+    /**
+     * A controller tracking a polygon.
+     */
+    private static final class PolygonController extends TestController {
+        PolygonController() {
+            super(Area.of(List.of(new Point(3195, 3195), new Point(3215, 3198), new Point(3205, 3215))));
+        }
+    }
+
+    /**
+     * A controller tracking plane dependent locatables.
+     */
+    private static final class PlaneController extends TestController {
+        PlaneController() {
+            super(Area.of(new Point(3210, 3210), 3), new Position(3201, 3201, 1));
+        }
+    }
+
+    /**
+     * A controller tracking a locatable that can't be indexed.
+     */
+    private static final class CustomController extends TestController {
+        CustomController() {
+            super(new Locatable() {
+                @Override
+                public boolean contains(Position position) {
+                    return position.getX() == position.getY();
+                }
+
+                @Override
+                public Position location() {
+                    return new Position(0, 0);
+                }
+            });
+        }
+    }
+
+    /**
+     * Test that the index agrees with {@link PlayerLocationController#inside(Position)} on every tile around the
+     * indexed areas.
+     */
+    @Test
+    public void testCollect() {
+        ControllerKey.of(BoxController.class, BoxController::new);
+        ControllerKey.of(PolygonController.class, PolygonController::new);
+        ControllerKey.of(PlaneController.class, PlaneController::new);
+        ControllerKey.of(CustomController.class, CustomController::new);
+
+        LocationControllerIndex index = LocationControllerIndex.get();
+        BitSet inside = new BitSet();
+        for (int x = 3190; x < 3240; x++) {
+            for (int y = 3190; y < 3240; y++) {
+                for (int z = 0; z < 2; z++) {
+                    Position position = new Position(x, y, z);
+                    index.collect(position, inside);
+                    for (int key = 0; key < ControllerKey.getLocationKeys().size(); key++) {
+                        PlayerLocationController controller = index.getKey(key).getController();
+                        assertEquals(controller.inside(position), inside.get(key), position + " " + key);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package io.luna.game.model.path;
+
+import io.luna.game.model.Direction;
+import io.luna.game.model.EntityType;
+import io.luna.game.model.Position;
+import io.luna.game.model.collision.CollisionManager;
+import io.luna.game.model.mob.WalkingQueue.Step;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A test that ensures that {@link GridAStarPathfindingAlgorithm} finds valid, shortest paths.
+ *
+ * @author lare96
+ */
+public final class GridAStarPathfindingAlgorithmTest {
+
+    /**
+     * The tiles that cannot be walked on.
+     */
+    private final Set<Position> blocked = new HashSet<>();
+
+    /**
+     * The collision manager.
+     */
+    private CollisionManager collisionManager;
+
+    /**
+     * Mocks the collision manager, so that only the tiles within {@link #blocked} are untraversable.
+     */
+    @BeforeEach
+    public void setUp() {
+        blocked.clear();
+        collisionManager = mock(CollisionManager.class);
+        when(collisionManager.traversable(anyInt(), anyInt(), anyInt(), eq(EntityType.NPC), any(Direction.class),
+                anyBoolean())).thenAnswer(invocation -> {
+            int x = invocation.getArgument(0);
+            int y = invocation.getArgument(1);
+            int z = invocation.getArgument(2);
+            Direction direction = invocation.getArgument(4);
+            Step step = direction.getTranslation();
+            return !blocked.contains(new Position(x + step.getX(), y + step.getY(), z)) &&
+                    !blocked.contains(new Position(x + step.getX(), y, z)) &&
+                    !blocked.contains(new Position(x, y + step.getY(), z));
+        });
+    }
+
+    /**
+     * Test finding a straight path with no obstacles.
+     */
+    @Test
+    public void openField() {
+        Position origin = new Position(3200, 3200);
+        Position target = new Position(3210, 3205);
+        Deque<Position> path = new GridAStarPathfindingAlgorithm(collisionManager).find(origin, target);
+
+        assertEquals(10, path.size());
+        assertEquals(target, path.getLast());
+        assertContiguous(origin, path);
+    }
+
+    /**
+     * Test finding a path around a wall.
+     */
+    @Test
+    public void aroundWall() {
+        for (int y = 3195; y <= 3205; y++) {
+            blocked.add(new Position(3205, y));
+        }
+        Position origin = new Position(3200, 3200);
+        Position target = new Position(3210, 3200);
+        Deque<Position> path = new GridAStarPathfindingAlgorithm(collisionManager).find(origin, target);
+
+        assertEquals(target, path.getLast());
+        assertContiguous(origin, path);
+        for (Position position : path) {
+            assertFalse(blocked.contains(position));
+        }
+    }
+
+    /**
+     * Test targets that are blocked, out of the grid, or on another plane.
+     */
+    @Test
+    public void unreachableTarget() {
+        Position target = new Position(3210, 3200);
+        for (Direction direction : Direction.ALL) {
+            if (direction != Direction.NONE) {
+                blocked.add(target.translate(1, direction));
+            }
+        }
+        GridAStarPathfindingAlgorithm algorithm = new GridAStarPathfindingAlgorithm(collisionManager);
+
+        assertTrue(algorithm.find(new Position(3200, 3200), target).isEmpty());
+        assertTrue(algorithm.find(new Position(3200, 3200), new Position(3300, 3200)).isEmpty());
+        assertTrue(algorithm.find(new Position(3200, 3200), new Position(3200, 3200, 1)).isEmpty());
+    }
+
+    /**
+     * Test that searches give up after the maximum amount of expansions.
+     */
+    @Test
+    public void expansionCutoff() {
+        Position origin = new Position(3200, 3200);
+        Position target = new Position(3240, 3200);
+
+        assertTrue(new GridAStarPathfindingAlgorithm(collisionManager, 10).find(origin, target).isEmpty());
+        assertEquals(40, new GridAStarPathfindingAlgorithm(collisionManager, 100).find(origin, target).size());
+    }
+
+    /**
+     * Asserts that every position in {@code path} is one step away from the last.
+     */
+    private void assertContiguous(Position origin, Deque<Position> path) {
+        Position last = origin;
+        for (Position next : path) {
+            assertEquals(1, last.computeLongestDistance(next));
+            last = next;
+        }
+    }
+}
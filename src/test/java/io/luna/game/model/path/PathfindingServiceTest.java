@@ -0,0 +1,50 @@
+package io.luna.game.model.path;
+
+import io.luna.game.model.EntityType;
+import io.luna.game.model.Position;
+import io.luna.game.model.mob.Mob;
+import io.luna.game.model.mob.WalkingQueue;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A test that ensures that functions within the {@link PathfindingService} class are working correctly.
+ *
+ * @author lare96
+ */
+public final class PathfindingServiceTest {
+
+    /**
+     * Test that searches carried over by the budget are only counted as deferred once, however long they wait.
+     */
+    @Test
+    public void testDeferred() {
+        PathfindingService service = new PathfindingService(1);
+        for (int index = 0; index < 3; index++) {
+            service.submit(newMob(new Position(3200 + index, 3200)), new Position(3210, 3210));
+        }
+        service.dispatch();
+        assertEquals(2, service.getDeferred());
+        service.dispatch();
+        assertEquals(2, service.getDeferred());
+
+        service.submit(newMob(new Position(3220, 3200)), new Position(3210, 3210));
+        service.dispatch();
+        service.dispatch();
+        assertEquals(3, service.getDeferred());
+    }
+
+    /**
+     * Creates a mob standing on {@code position}.
+     */
+    private static Mob newMob(Position position) {
+        Mob mob = mock(Mob.class);
+        when(mob.getType()).thenReturn(EntityType.NPC);
+        when(mob.getPosition()).thenReturn(position);
+        when(mob.getWalking()).thenReturn(mock(WalkingQueue.class));
+        return mob;
+    }
+}
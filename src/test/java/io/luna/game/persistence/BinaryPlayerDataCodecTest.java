@@ -0,0 +1,131 @@
+package io.luna.game.persistence;
+
+import com.google.gson.JsonArray;
+import io.luna.game.model.Position;
+import io.luna.game.model.item.IndexedItem;
+import io.luna.game.model.mob.MusicTab;
+import io.luna.game.model.mob.PlayerPrivacy;
+import io.luna.game.model.mob.PlayerRights;
+import io.luna.game.model.mob.Skill;
+import io.luna.game.model.mob.SkillSet;
+import io.luna.game.model.mob.Spellbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A test that ensures that {@link BinaryPlayerDataCodec} decodes records exactly as they were encoded.
+ *
+ * @author lare96
+ */
+public final class BinaryPlayerDataCodecTest {
+
+    /**
+     * Test that every field survives a round trip.
+     */
+    @Test
+    public void roundTrip() throws IOException {
+        PlayerData data = createData();
+        PlayerData decoded = BinaryPlayerDataCodec.decode("luna", BinaryPlayerDataCodec.encode(data));
+
+        assertEquals("luna", decoded.getUsername());
+        assertEquals(data.databaseId, decoded.databaseId);
+        assertEquals(data.password, decoded.password);
+        assertEquals(data.position, decoded.position);
+        assertEquals(data.rights, decoded.rights);
+        assertNull(decoded.lastIp);
+        assertEquals(data.logoutTime, decoded.logoutTime);
+        assertArrayEquals(data.appearance, decoded.appearance);
+        assertEquals(data.inventory, decoded.inventory);
+        assertEquals(data.bank, decoded.bank);
+        assertTrue(decoded.equipment.isEmpty());
+        assertEquals(data.friends, decoded.friends);
+        assertNull(decoded.ignores);
+        assertEquals(data.unbanInstant, decoded.unbanInstant);
+        assertEquals(data.runEnergy, decoded.runEnergy);
+        assertEquals(data.spellbook, decoded.spellbook);
+        assertEquals(data.timePlayed, decoded.timePlayed);
+        assertEquals(data.varps, decoded.varps);
+        assertEquals(data.potions, decoded.potions);
+        for (int index = 0; index < data.skills.length; index++) {
+            assertEquals(data.skills[index].getLevel(), decoded.skills[index].getLevel());
+            assertEquals(data.skills[index].getExperience(), decoded.skills[index].getExperience());
+        }
+
+        Map<String, Object> attributes = decoded.attributes;
+        assertEquals(5L, attributes.get("kills@java.lang.Integer"));
+        assertEquals(0.5, attributes.get("ratio@java.lang.Double"));
+        assertEquals("null", attributes.get("target@java.lang.String"));
+        assertEquals("[1,2]", attributes.get("ids@java.util.List").toString());
+    }
+
+    /**
+     * Test that malformed records and unsupported versions are rejected.
+     */
+    @Test
+    public void invalidRecords() {
+        assertThrows(IOException.class, () -> BinaryPlayerDataCodec.decode("luna", new byte[]{0, 0, 0, 0, 1}));
+        assertThrows(IOException.class, () -> BinaryPlayerDataCodec.decode("luna",
+                new byte[]{0x4C, 0x55, 0x4E, 0x41, 99}));
+    }
+
+    /**
+     * Creates data with a mix of present, empty, and missing fields.
+     */
+    private PlayerData createData() {
+        PlayerData data = new PlayerData("luna");
+        data.databaseId = -1;
+        data.password = "$2a$10$hash";
+        data.position = new Position(3222, 3218, 1);
+        data.rights = PlayerRights.ADMINISTRATOR;
+        data.logoutTime = Instant.ofEpochSecond(1_700_000_000L, 123);
+        data.appearance = new int[]{0, 1, -1, 300};
+        data.musicTab = new MusicTab();
+        data.inventory = List.of(new IndexedItem(0, 995, 2_000_000_000), new IndexedItem(27, 4151, 1));
+        data.bank = List.of(new IndexedItem(0, 1, 1), new IndexedItem(351, 11694, 5));
+        data.equipment = List.of();
+        data.friends = List.of(1L, Long.MAX_VALUE);
+        data.unbanInstant = Instant.ofEpochSecond(-5);
+        data.runEnergy = 73.5;
+        data.weight = -2.25;
+        data.spellbook = Spellbook.ANCIENT;
+        data.timePlayed = Duration.ofMinutes(90).plusNanos(7);
+        data.createdAt = Instant.EPOCH;
+        data.privacyOptions = new PlayerPrivacy();
+
+        SkillSet set = new SkillSet(null);
+        set.setFiringEvents(false);
+        set.setRestoring(true);
+        set.getSkill(Skill.ATTACK).setExperience(13_034_431);
+        set.getSkill(Skill.ATTACK).setLevel(118);
+        data.skills = set.toArray();
+
+        Map<String, Integer> varps = new LinkedHashMap<>();
+        varps.put("brightness", 2);
+        varps.put("negative", -40);
+        data.varps = varps;
+
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("kills@java.lang.Integer", 5);
+        attributes.put("ratio@java.lang.Double", 0.5);
+        attributes.put("target@java.lang.String", "null");
+        attributes.put("ids@java.util.List", List.of(1, 2));
+        data.attributes = attributes;
+
+        JsonArray potions = new JsonArray();
+        potions.add(3);
+        data.potions = potions;
+        return data;
+    }
+}
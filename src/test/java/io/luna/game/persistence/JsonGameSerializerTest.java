@@ -0,0 +1,75 @@
+package io.luna.game.persistence;
+
+import io.luna.game.model.Position;
+import io.luna.game.model.item.IndexedItem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A test that ensures that {@link JsonGameSerializer} never leaves a player's record half saved.
+ *
+ * @author lare96
+ */
+public final class JsonGameSerializerTest {
+
+    /**
+     * The directory of saved files.
+     */
+    @TempDir
+    public Path dir;
+
+    /**
+     * Test that a save failing after its sections were written leaves the previous record intact, and that the next
+     * save replaces it.
+     */
+    @Test
+    public void testFailedSave() throws IOException {
+        JsonGameSerializer serializer = new JsonGameSerializer();
+        PlayerData first = createData(new IndexedItem(0, 995, 100), 50.0);
+        serializer.save(dir, "luna", first);
+
+        // Block the main file from being replaced, so the save fails once every section has been written.
+        Path blocker = Files.createDirectories(dir.resolve("luna.json.tmp"));
+        Files.writeString(blocker.resolve("blocker"), "");
+        PlayerData second = createData(new IndexedItem(0, 4151, 1), 25.0);
+        assertThrows(RuntimeException.class, () -> serializer.save(dir, "luna", second));
+
+        PlayerData loaded = serializer.load(dir, "luna", false);
+        assertEquals(first.bank, loaded.bank);
+        assertEquals(first.runEnergy, loaded.runEnergy);
+        assertEquals(first.position, loaded.position);
+        assertTrue(loaded.isSectionedRecord());
+
+        Files.delete(blocker.resolve("blocker"));
+        Files.delete(blocker);
+        serializer.save(dir, "luna", second);
+        loaded = serializer.load(dir, "luna", false);
+        assertEquals(second.bank, loaded.bank);
+        assertEquals(second.runEnergy, loaded.runEnergy);
+        assertFalse(Files.exists(dir.resolve("luna.1")));
+        assertTrue(Files.isDirectory(dir.resolve("luna.2")));
+    }
+
+    /**
+     * Creates data with a single banked item.
+     */
+    private PlayerData createData(IndexedItem banked, double runEnergy) {
+        PlayerData data = new PlayerData("luna");
+        data.position = new Position(3222, 3218);
+        data.inventory = List.of();
+        data.bank = List.of(banked);
+        data.equipment = List.of();
+        data.runEnergy = runEnergy;
+        return data;
+    }
+}
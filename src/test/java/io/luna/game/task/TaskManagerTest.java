@@ -0,0 +1,94 @@
+package io.luna.game.task;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A test that ensures that functions within the {@link TaskManager} class are working correctly.
+ *
+ * @author lare96
+ */
+public final class TaskManagerTest {
+
+    /**
+     * A task that records the ticks it was executed on.
+     */
+    private static final class RecordingTask extends Task {
+
+        /**
+         * The tick counter.
+         */
+        private final int[] tick;
+
+        /**
+         * The ticks this task was executed on.
+         */
+        private final List<Integer> executions = new ArrayList<>();
+
+        /**
+         * Creates a new {@link RecordingTask}.
+         */
+        private RecordingTask(boolean instant, int delay, int[] tick) {
+            super(instant, delay);
+            this.tick = tick;
+        }
+
+        @Override
+        protected void execute() {
+            executions.add(tick[0]);
+        }
+    }
+
+    /**
+     * Test that tasks run every time their delay passes, and that delay changes apply to the current cycle.
+     */
+    @Test
+    public void testDelays() {
+        TaskManager tasks = new TaskManager();
+        int[] tick = {0};
+        RecordingTask periodic = new RecordingTask(false, 3, tick);
+        RecordingTask instant = new RecordingTask(true, 4, tick);
+        tasks.schedule(periodic);
+        tasks.schedule(instant);
+        for (tick[0] = 1; tick[0] <= 10; tick[0]++) {
+            if (tick[0] == 7) {
+                periodic.setDelay(1);
+            }
+            tasks.runTaskIteration();
+        }
+        assertEquals(List.of(3, 6, 7, 8, 9, 10), periodic.executions);
+        assertEquals(List.of(0, 4, 8), instant.executions);
+    }
+
+    /**
+     * Test that keyed tasks can be found and cancelled, and that cancelled tasks never run again.
+     */
+    @Test
+    public void testKeys() {
+        TaskManager tasks = new TaskManager();
+        int[] tick = {0};
+        RecordingTask first = new RecordingTask(false, 1, tick);
+        RecordingTask second = new RecordingTask(false, 1, tick);
+        tasks.schedule(first.setKey("key"));
+        tasks.schedule(second);
+        second.setKey("key");
+
+        List<Task> found = new ArrayList<>();
+        tasks.forEach("key", found::add);
+        assertEquals(List.of(first, second), found);
+
+        tasks.runTaskIteration();
+        tasks.forEach("key", Task::cancel);
+        tasks.runTaskIteration();
+        assertEquals(List.of(0), first.executions);
+        assertEquals(TaskState.CANCELLED, second.getState());
+
+        found.clear();
+        tasks.forEach("key", found::add);
+        assertEquals(List.of(), found);
+    }
+}
@@ -0,0 +1,189 @@
+package io.luna.net.client;
+
+import io.luna.game.model.mob.Player;
+import io.luna.net.codec.ByteMessage;
+import io.luna.net.codec.IsaacCipher;
+import io.luna.net.codec.MessageType;
+import io.luna.net.codec.game.GameMessageEncoder;
+import io.luna.net.msg.GameMessage;
+import io.luna.net.msg.GameMessageRepository;
+import io.luna.net.msg.GameMessageWriter;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * A test that ensures outgoing messages within the {@link GameClient} class are batched correctly.
+ *
+ * @author lare96
+ */
+public final class GameClientTest {
+
+    /**
+     * A message writer that writes a variable amount of bytes.
+     */
+    private static final class TestMessageWriter extends GameMessageWriter {
+
+        /**
+         * The opcode.
+         */
+        private final int opcode;
+
+        /**
+         * The amount of times this writer was called.
+         */
+        private int calls;
+
+        /**
+         * Creates a new {@link TestMessageWriter}.
+         */
+        private TestMessageWriter(int opcode) {
+            this.opcode = opcode;
+        }
+
+        @Override
+        public ByteMessage write(Player player, ByteBuf buffer) {
+            calls++;
+            ByteMessage msg = ByteMessage.message(opcode, MessageType.VAR, buffer);
+            msg.putBytes(new byte[opcode]);
+            return msg;
+        }
+    }
+
+    /**
+     * A message writer that fails like the update writers do, by releasing its buffer and returning it anyway.
+     */
+    private static final class ReleasingMessageWriter extends GameMessageWriter {
+
+        @Override
+        public ByteMessage write(Player player, ByteBuf buffer) {
+            ByteMessage msg = ByteMessage.message(90, MessageType.VAR_SHORT, buffer);
+            msg.putBytes(new byte[4]);
+            msg.release();
+            return msg;
+        }
+    }
+
+    /**
+     * Test that queued messages are only written once flushed, in the order they were queued.
+     */
+    @Test
+    public void testFlush() {
+        EmbeddedChannel channel = newChannel();
+        GameClient client = new GameClient(channel, new GameMessageRepository(), null);
+        client.queue(new TestMessageWriter(1));
+        client.queue(new TestMessageWriter(2));
+        client.queue(new TestMessageWriter(3));
+        channel.runPendingTasks();
+        assertNull(channel.readOutbound());
+        assertEquals(3, client.getWriteQueueDepth());
+
+        client.flush();
+        assertEquals(0, client.getWriteQueueDepth());
+        assertEquals(3, client.getLastFlushMessages());
+        assertEquals(12, client.getLastFlushBytes());
+        channel.runPendingTasks();
+        for (int opcode = 1; opcode <= 3; opcode++) {
+            GameMessage msg = channel.readOutbound();
+            assertEquals(opcode, msg.getOpcode());
+            msg.release();
+        }
+        assertNull(channel.readOutbound());
+
+        client.flush();
+        assertEquals(0, client.getLastFlushBytes());
+        assertEquals(12, client.getPeakFlushBytes());
+    }
+
+    /**
+     * Test that clients encoding their own messages write the same bytes as the game encoder, in one buffer.
+     */
+    @Test
+    public void testEncodedFlush() throws Exception {
+        EmbeddedChannel channel = newChannel();
+        GameClient client = new GameClient(channel, new GameMessageRepository(), null, new IsaacCipher(new int[4]));
+        client.queue(new TestMessageWriter(1));
+        client.queue(new TestMessageWriter(2));
+        client.queue(new TestMessageWriter(3));
+        assertEquals(3, client.getWriteQueueDepth());
+        client.flush();
+        assertEquals(3, client.getLastFlushMessages());
+        assertEquals(12, client.getLastFlushBytes());
+        channel.runPendingTasks();
+
+        GameMessageEncoder encoder = new GameMessageEncoder(new IsaacCipher(new int[4]));
+        ByteBuf expected = Unpooled.buffer();
+        for (int opcode = 1; opcode <= 3; opcode++) {
+            encoder.encode(null, new TestMessageWriter(opcode).toGameMessage(null), expected);
+        }
+        ByteBuf written = channel.readOutbound();
+        assertEquals(expected, written);
+        assertNull(channel.readOutbound());
+        written.release();
+    }
+
+    /**
+     * Test that writers that fail leave nothing behind, and don't break writers that come after them.
+     */
+    @Test
+    public void testEncodedFailures() throws Exception {
+        EmbeddedChannel channel = newChannel();
+        GameClient client = new GameClient(channel, new GameMessageRepository(), null, new IsaacCipher(new int[4]));
+        client.queue(new TestMessageWriter(1));
+        client.queue(new ReleasingMessageWriter());
+        assertThrows(RuntimeException.class, () -> client.queue(new GameMessageWriter() {
+            @Override
+            public ByteMessage write(Player player, ByteBuf buffer) {
+                throw new IllegalStateException();
+            }
+        }));
+        client.queue(new TestMessageWriter(2));
+        assertEquals(2, client.getWriteQueueDepth());
+        client.flush();
+        channel.runPendingTasks();
+
+        GameMessageEncoder encoder = new GameMessageEncoder(new IsaacCipher(new int[4]));
+        ByteBuf expected = Unpooled.buffer();
+        encoder.encode(null, new TestMessageWriter(1).toGameMessage(null), expected);
+        encoder.encode(null, new TestMessageWriter(2).toGameMessage(null), expected);
+        ByteBuf written = channel.readOutbound();
+        assertEquals(expected, written);
+        written.release();
+    }
+
+    /**
+     * Test that writers are still called once the channel is inactive, as they can have side effects.
+     */
+    @Test
+    public void testInactiveWriters() {
+        for (IsaacCipher encryptor : new IsaacCipher[]{null, new IsaacCipher(new int[4])}) {
+            EmbeddedChannel channel = newChannel();
+            GameClient client = new GameClient(channel, new GameMessageRepository(), null, encryptor);
+            channel.close();
+            TestMessageWriter writer = new TestMessageWriter(1);
+            client.queue(writer);
+            assertEquals(1, writer.calls);
+            assertEquals(0, client.getWriteQueueDepth());
+        }
+    }
+
+    /**
+     * Creates a channel with a remote address.
+     */
+    private static EmbeddedChannel newChannel() {
+        return new EmbeddedChannel() {
+            @Override
+            public SocketAddress remoteAddress() {
+                return new InetSocketAddress("127.0.0.1", 43594);
+            }
+        };
+    }
+}
@@ -0,0 +1,64 @@
+package io.luna.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A test that ensures that functions within the {@link LatencyHistogram} class are working correctly.
+ *
+ * @author lare96
+ */
+public final class LatencyHistogramTest {
+
+    /**
+     * Test that percentiles stay within the expected relative error.
+     */
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1000);
+        }
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000_000, histogram.getMax());
+        assertWithinError(50_000_000, histogram.getPercentile(50.0));
+        assertWithinError(99_000_000, histogram.getPercentile(99.0));
+        assertEquals(histogram.getMax(), histogram.getPercentile(100.0));
+    }
+
+    /**
+     * Test that small values are recorded exactly.
+     */
+    @Test
+    public void testExactSmallValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(3);
+        histogram.record(7);
+        histogram.record(-5);
+        assertEquals(0, histogram.getPercentile(0.0));
+        assertEquals(3, histogram.getPercentile(50.0));
+        assertEquals(7, histogram.getPercentile(100.0));
+    }
+
+    /**
+     * Test that resetting clears all recorded values.
+     */
+    @Test
+    public void testReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(99.0));
+    }
+
+    /**
+     * Asserts that {@code actual} is within 4% of {@code expected}.
+     */
+    private static void assertWithinError(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected * 0.04, "expected ~" + expected + " but was " + actual);
+    }
+}
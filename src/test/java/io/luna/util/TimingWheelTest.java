@@ -0,0 +1,65 @@
+package io.luna.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A test that ensures that functions within the {@link TimingWheel} class are working correctly.
+ *
+ * @author lare96
+ */
+public final class TimingWheelTest {
+
+    /**
+     * Test that values are due exactly on their deadline, across every level and past the end of the wheel.
+     */
+    @Test
+    public void testDeadlines() {
+        TimingWheel<Long> wheel = new TimingWheel<>();
+        long[] deadlines = {1, 63, 64, 65, 300, 4095, 4096, 4097, 262_143, 262_145, 16_777_300, 17_000_000};
+        for (int step = 0; step < 37; step++) {
+            wheel.advance(value -> {
+                throw new AssertionError();
+            });
+        }
+        for (long deadline : deadlines) {
+            wheel.schedule(wheel.getTick() + deadline, wheel.getTick() + deadline);
+        }
+        assertEquals(deadlines.length, wheel.size());
+
+        List<Long> due = new ArrayList<>();
+        while (wheel.size() > 0) {
+            wheel.advance(value -> {
+                assertEquals(wheel.getTick(), (long) value);
+                due.add(value);
+            });
+        }
+        assertEquals(deadlines.length, due.size());
+    }
+
+    /**
+     * Test that cancelled values are never due, and that passed deadlines are due on the next tick.
+     */
+    @Test
+    public void testCancel() {
+        TimingWheel<String> wheel = new TimingWheel<>();
+        TimingWheel.Entry<String> cancelled = wheel.schedule("cancelled", 100);
+        TimingWheel.Entry<String> late = wheel.schedule("late", -5);
+        assertTrue(wheel.cancel(cancelled));
+        assertFalse(wheel.cancel(cancelled));
+
+        List<String> due = new ArrayList<>();
+        for (int step = 0; step < 200; step++) {
+            wheel.advance(due::add);
+        }
+        assertEquals(List.of("late"), due);
+        assertFalse(late.isScheduled());
+        assertEquals(0, wheel.size());
+    }
+}